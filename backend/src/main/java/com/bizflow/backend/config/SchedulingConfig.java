@@ -0,0 +1,16 @@
+package com.bizflow.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs (@Scheduled), e.g. OutboxDispatcher
+ *
+ * The scheduler pool is sized by spring.task.scheduling.pool.size (Spring's default is one
+ * thread): ReservationReaper.tick and OutboxDispatcher.dispatch run every second or less and
+ * must not queue behind each other or behind a nightly job.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
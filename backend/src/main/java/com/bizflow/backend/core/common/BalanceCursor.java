@@ -0,0 +1,44 @@
+package com.bizflow.backend.core.common;
+
+import com.bizflow.backend.presentation.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * BalanceCursor: KeysetCursor of a ledger list plus the running balance at that position
+ * 
+ * balance = stock on hand just before the last row the client has seen, so the next
+ * page continues the running balance without summing the newer movements again.
+ * Opaque for clients like KeysetCursor; a tampered balance only changes what that
+ * client sees, queries are still filtered by the storeId from UserContext.
+ */
+public record BalanceCursor(LocalDateTime createdAt, Long id, long balance) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id + SEPARATOR + balance;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token Token from a previous page, or null/blank for the first page
+     * @return Decoded cursor, or null for the first page
+     * @throws BusinessException if token is malformed
+     */
+    public static BalanceCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new BalanceCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException(4002, "Invalid cursor");
+        }
+    }
+}
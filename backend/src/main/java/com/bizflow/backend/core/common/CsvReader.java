@@ -0,0 +1,87 @@
+package com.bizflow.backend.core.common;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvReader: Minimal RFC 4180 record reader on top of a (buffered) Reader
+ * 
+ * Counterpart of CsvWriter: quoted fields may contain commas, doubled quotes and
+ * line breaks; CRLF and LF both end a record. Reads one record at a time.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private int peeked = -2;
+    private long recordNumber = 0;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return Fields of the next record, or null at end of input
+     */
+    public List<String> readRow() throws IOException {
+        if (peek() == -1) {
+            return null;
+        }
+        recordNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = next();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in record " + recordNumber);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        field.append((char) next());
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    next();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Number of the record returned by the last readRow() (1 = first record)
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        peeked = -2;
+        return c;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bizflow.backend.core.common;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CsvWriter: Minimal RFC 4180 row writer on top of a (buffered) Writer
+ * 
+ * Fields containing a comma, quote or line break are quoted, quotes are doubled.
+ * null is written as an empty field. Does not buffer rows itself.
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeField(values[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,45 @@
+package com.bizflow.backend.core.common;
+
+import com.bizflow.backend.presentation.exception.BusinessException;
+
+/**
+ * ExportFormat: Output formats of streaming exports
+ * 
+ * - NDJSON: one JSON document per line, nested items kept together
+ * - CSV: one flat row per line (spreadsheet / accounting tools)
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param format Case-insensitive name, null/blank = NDJSON
+     * @throws BusinessException 4002 for unknown formats
+     */
+    public static ExportFormat parse(String format) {
+        if (format == null || format.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(4002, "Unsupported export format: " + format);
+        }
+    }
+}
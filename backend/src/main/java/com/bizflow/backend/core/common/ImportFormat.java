@@ -0,0 +1,27 @@
+package com.bizflow.backend.core.common;
+
+import com.bizflow.backend.presentation.exception.BusinessException;
+
+/**
+ * ImportFormat: Input formats of bulk imports
+ * 
+ * - CSV: header row + one line per record (spreadsheet exports)
+ * - JSON: one array of objects, read element by element
+ */
+public enum ImportFormat {
+    CSV,
+    JSON;
+
+    /**
+     * @param contentType Request Content-Type (parameters such as charset are ignored)
+     * @throws BusinessException 4002 for anything but text/csv and application/json
+     */
+    public static ImportFormat fromContentType(String contentType) {
+        String type = contentType != null ? contentType.split(";")[0].trim().toLowerCase() : "";
+        return switch (type) {
+            case "text/csv" -> CSV;
+            case "application/json" -> JSON;
+            default -> throw new BusinessException(4002, "Unsupported import content type: " + contentType);
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.bizflow.backend.core.common;
+
+import com.bizflow.backend.presentation.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * KeysetCursor: Opaque continuation token for seek pagination on (created_at, id)
+ * 
+ * Lists are ordered by created_at DESC, id DESC. The cursor is the position of the
+ * last row the client has seen; the next page is everything strictly "older":
+ *   created_at < :createdAt OR (created_at = :createdAt AND id < :id)
+ * 
+ * Cost per page stays flat at any depth (index seek, no OFFSET, no COUNT).
+ * The token is Base64 only to keep it opaque for clients - it is not a security boundary,
+ * queries are still filtered by the storeId from UserContext.
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token Token from a previous page, or null/blank for the first page
+     * @return Decoded cursor, or null for the first page
+     * @throws BusinessException if token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, split)),
+                    Long.parseLong(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException(4002, "Invalid cursor");
+        }
+    }
+}
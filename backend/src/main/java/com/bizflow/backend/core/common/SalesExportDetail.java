@@ -0,0 +1,29 @@
+package com.bizflow.backend.core.common;
+
+import com.bizflow.backend.presentation.exception.BusinessException;
+
+/**
+ * SalesExportDetail: Row grain of the sales CSV export
+ *
+ * - DAILY: one row per day (sales_daily rollup)
+ * - LINES: one row per order line, cancelled orders left out (orders + order_items)
+ */
+public enum SalesExportDetail {
+    DAILY,
+    LINES;
+
+    /**
+     * @param detail Case-insensitive name, null/blank = DAILY
+     * @throws BusinessException 4002 for unknown values
+     */
+    public static SalesExportDetail parse(String detail) {
+        if (detail == null || detail.isBlank()) {
+            return DAILY;
+        }
+        try {
+            return valueOf(detail.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(4002, "Unsupported export detail: " + detail);
+        }
+    }
+}
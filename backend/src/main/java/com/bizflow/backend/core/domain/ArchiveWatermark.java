@@ -0,0 +1,36 @@
+package com.bizflow.backend.core.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ArchiveWatermark: Hot/cold boundary of an archived table
+ * 
+ * Rows created at or after archivedBefore are always in the hot table.
+ * Older rows may be in the hot table or in its _archive table, so only
+ * queries reaching below the watermark also read the archive.
+ * 
+ * Raised by ColdArchiver before it moves rows, never lowered.
+ * 
+ * Row "sales_daily" is not an archive boundary: SalesRollupBackfill records there
+ * up to which day the sales rollups were rebuilt from the orders tables.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "archive_watermarks")
+public class ArchiveWatermark {
+    @Id
+    @Column(name = "table_name", length = 64)
+    private String tableName;
+
+    @Column(name = "archived_before", nullable = false)
+    private LocalDateTime archivedBefore;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
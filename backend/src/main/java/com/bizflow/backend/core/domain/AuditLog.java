@@ -1,5 +1,6 @@
 package com.bizflow.backend.core.domain;
 
+import com.bizflow.backend.infrastructure.sequence.PooledId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
 @Table(name = "audit_logs")
 public class AuditLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("audit_logs")
     private Long id;
 
     @Column(name = "user_id")
@@ -1,5 +1,6 @@
 package com.bizflow.backend.core.domain;
 
+import com.bizflow.backend.infrastructure.sequence.PooledId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -17,7 +18,7 @@ import java.math.BigDecimal;
 @Table(name = "debts")
 public class Debt {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("debts")
     private Long id;
 
     @Column(name = "store_id", nullable = false)
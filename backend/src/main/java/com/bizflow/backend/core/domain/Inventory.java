@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 @Builder
 @Table(name = "inventory", uniqueConstraints = {
         @UniqueConstraint(name = "uk_store_product", columnNames = {"store_id", "product_id"})
+}, indexes = {
+        @Index(name = "idx_inventory_store_low_stock", columnList = "store_id, low_stock")
 })
 public class Inventory {
     @Id
@@ -34,6 +36,16 @@ public class Inventory {
     @Column(name = "available_quantity")
     private Integer availableQuantity;
 
+    // quantity <= product.reorderLevel, maintained by LowStockTracker on every stock change
+    @Builder.Default
+    @Column(name = "low_stock", nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private Boolean lowStock = false;
+
+    // Optimistic lock for read-modify-write paths; hot paths use guarded UPDATEs instead
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @UpdateTimestamp
     @Column(name = "last_updated_at")
     private LocalDateTime lastUpdatedAt;
@@ -0,0 +1,43 @@
+package com.bizflow.backend.core.domain;
+
+import com.bizflow.backend.infrastructure.sequence.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * InventorySnapshot: Quantity on hand of one product, folded from the StockMovement ledger
+ * 
+ * quantity = SUM(stock_movements.quantity) of the product with created_at <= asOf.
+ * All rows of a store with the same asOf form one snapshot; replay starts from the
+ * latest one and only sums the movements created after it (see InventoryLedger).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "inventory_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_snapshots_store_as_of_product", columnNames = {"store_id", "as_of", "product_id"})
+})
+public class InventorySnapshot {
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,6 @@
 package com.bizflow.backend.core.domain;
 
+import com.bizflow.backend.infrastructure.sequence.PooledId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 @Table(name = "notifications")
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("notifications")
     private Long id;
 
     @Column(name = "user_id", nullable = false)
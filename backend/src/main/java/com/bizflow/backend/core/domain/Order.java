@@ -1,5 +1,6 @@
 package com.bizflow.backend.core.domain;
 
+import com.bizflow.backend.infrastructure.sequence.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -13,10 +14,15 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_store_created", columnList = "store_id, created_at"),
+        @Index(name = "idx_orders_store_status_created", columnList = "store_id, status, created_at"),
+        @Index(name = "idx_orders_store_customer_created", columnList = "store_id, customer_id, created_at"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "store_id", nullable = false)
@@ -0,0 +1,73 @@
+package com.bizflow.backend.core.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * OrderSummary: Denormalized read model of an order for list views
+ * 
+ * One row per order (same ID), written in the order's transaction by OrderService
+ * on create and on status change. List screens read this table only:
+ * no order_items / customers / products joins, every filter is a (store_id, ...) index scan.
+ * 
+ * customerName and itemPreview are snapshots taken when the order was created.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_store_created", columnList = "store_id, created_at, order_id"),
+        @Index(name = "idx_order_summary_store_status_created", columnList = "store_id, status, created_at"),
+        @Index(name = "idx_order_summary_store_customer_created", columnList = "store_id, customer_id, created_at")
+})
+public class OrderSummary {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "order_number", nullable = false, length = 50)
+    private String orderNumber;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "customer_name", length = 100)
+    private String customerName;
+
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "total_quantity", nullable = false)
+    private Integer totalQuantity;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_type", length = 20)
+    private Order.PaymentType paymentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Order.OrderStatus status;
+
+    @Column(name = "item_preview", length = 255)
+    private String itemPreview;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,74 @@
+package com.bizflow.backend.core.domain;
+
+import com.bizflow.backend.infrastructure.sequence.PooledId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * OutboxEvent: Side effect recorded in the same transaction as the business change
+ * 
+ * Written by OutboxWriter inside the caller's transaction (commits or rolls back with it),
+ * delivered later by OutboxDispatcher. Delivery is at-least-once.
+ * 
+ * Lifecycle: PENDING → PROCESSING (claimed, lease until nextAttemptAt) → SENT
+ *            PROCESSING → PENDING (retry with backoff) → ... → FAILED (max attempts)
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at, id"),
+        @Index(name = "idx_outbox_claim_token", columnList = "claim_token")
+})
+public class OutboxEvent {
+    @Id
+    @PooledId("outbox_events")
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private EventType eventType;
+
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public enum EventType {
+        TOPIC_NOTIFICATION
+    }
+
+    public enum OutboxStatus {
+        PENDING, PROCESSING, SENT, FAILED
+    }
+}
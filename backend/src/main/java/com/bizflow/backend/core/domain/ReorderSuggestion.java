@@ -0,0 +1,69 @@
+package com.bizflow.backend.core.domain;
+
+import com.bizflow.backend.infrastructure.sequence.SnowflakeId;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ReorderSuggestion: How long a product's stock lasts and how much to reorder (derived data)
+ * 
+ * Computed per store by ReorderEngine from the SALE movements of the last
+ * bizflow.reorder.window-days; every run replaces the store's rows, nothing here is
+ * edited by hand.
+ * 
+ * - dailyVelocity = units sold in the window / window days
+ * - daysOfCover = available quantity / dailyVelocity (null = no sales in the window)
+ * - suggestedQuantity = units to order now to reach the target cover, never leaving
+ *   the target below Product.reorderLevel (0 = enough stock)
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "reorder_suggestions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reorder_store_product", columnNames = {"store_id", "product_id"})
+}, indexes = {
+        @Index(name = "idx_reorder_store_cover", columnList = "store_id, days_of_cover")
+})
+public class ReorderSuggestion {
+    @Id
+    @SnowflakeId
+    @JsonSerialize(using = ToStringSerializer.class) // > 2^53, JSON string
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "available_quantity", nullable = false)
+    private Integer availableQuantity;
+
+    @Column(name = "units_sold", nullable = false)
+    private Long unitsSold;
+
+    @Column(name = "daily_velocity", nullable = false, precision = 12, scale = 3)
+    private BigDecimal dailyVelocity;
+
+    @Column(name = "days_of_cover", precision = 12, scale = 1)
+    private BigDecimal daysOfCover;
+
+    @Column(name = "reorder_level")
+    private Integer reorderLevel;
+
+    @Column(name = "suggested_quantity", nullable = false)
+    private Integer suggestedQuantity;
+
+    @Column(name = "last_sale_at")
+    private LocalDateTime lastSaleAt;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
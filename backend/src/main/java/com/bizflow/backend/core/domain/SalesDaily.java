@@ -0,0 +1,65 @@
+package com.bizflow.backend.core.domain;
+
+import com.bizflow.backend.infrastructure.sequence.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * SalesDaily: Sales of one store on one day (rollup, read by ReportService)
+ * 
+ * Maintained by SalesRollup in the order's transaction: a placed order adds its totals,
+ * a cancelled order subtracts them again and counts as cancelled. Bucketed by the
+ * order's creation day, so figures always describe the orders still standing.
+ * Rows are written by additive upserts (see SalesDailyRepositoryCustom); closed days are
+ * also rebuilt from the orders tables by SalesRollupBackfill.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sales_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sales_daily_store_date", columnNames = {"store_id", "sales_date"})
+})
+public class SalesDaily {
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "units_sold", nullable = false)
+    private Long unitsSold;
+
+    @Column(name = "gross_amount", nullable = false)
+    private BigDecimal grossAmount;
+
+    @Column(name = "discount_amount", nullable = false)
+    private BigDecimal discountAmount;
+
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue;
+
+    @Column(name = "cash_revenue", nullable = false)
+    private BigDecimal cashRevenue;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private Long cancelledCount;
+
+    @Column(name = "cancelled_amount", nullable = false)
+    private BigDecimal cancelledAmount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
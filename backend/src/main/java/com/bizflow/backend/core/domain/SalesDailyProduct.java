@@ -0,0 +1,54 @@
+package com.bizflow.backend.core.domain;
+
+import com.bizflow.backend.infrastructure.sequence.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * SalesDailyProduct: Sales of one product by one employee in a store on one day (rollup)
+ * 
+ * Same maintenance as SalesDaily (additive upserts in the order's transaction).
+ * employeeId 0 = order without employee. Revenue is the sum of line totals, before
+ * order-level discounts.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sales_daily_product", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sales_daily_product", columnNames = {"store_id", "sales_date", "product_id", "employee_id"})
+})
+public class SalesDailyProduct {
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "units_sold", nullable = false)
+    private Long unitsSold;
+
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue;
+
+    @Column(name = "order_lines", nullable = false)
+    private Long orderLines;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
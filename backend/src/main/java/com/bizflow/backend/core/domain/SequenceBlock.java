@@ -0,0 +1,30 @@
+package com.bizflow.backend.core.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * SequenceBlock: High-water mark of a named sequence (hi/lo block allocation)
+ * 
+ * Each node reserves [nextValue, nextValue + blockSize) with one compare-and-set UPDATE
+ * and hands the numbers out from memory. Written via JDBC only (SequenceBlockAllocator).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sequence_blocks")
+public class SequenceBlock {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.bizflow.backend.core.domain;
 
+import com.bizflow.backend.infrastructure.sequence.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -11,10 +12,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "stock_movements")
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_movements_history", columnList = "store_id, product_id, created_at, id, quantity"),
+        @Index(name = "idx_movements_sales", columnList = "store_id, type, product_id, created_at, quantity"),
+        @Index(name = "idx_movements_created_at", columnList = "created_at")
+})
 public class StockMovement {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "store_id", nullable = false)
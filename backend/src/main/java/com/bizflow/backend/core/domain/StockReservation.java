@@ -0,0 +1,62 @@
+package com.bizflow.backend.core.domain;
+
+import com.bizflow.backend.infrastructure.sequence.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * StockReservation: Stock held for a cart / draft order until it expires
+ * 
+ * While ACTIVE its quantity is counted in Inventory.reservedQuantity
+ * (and not in availableQuantity). Closed rows are kept for audit.
+ * 
+ * Lifecycle: ACTIVE → RELEASED (released by caller) | EXPIRED (TTL reached, see ReservationReaper)
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_reservations_status_expires", columnList = "status, expires_at"),
+        @Index(name = "idx_reservations_store_product_ref", columnList = "store_id, product_id, reference_id")
+})
+public class StockReservation {
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_by", length = 30)
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    public enum ReservationStatus {
+        ACTIVE, RELEASED, EXPIRED
+    }
+}
@@ -0,0 +1,65 @@
+package com.bizflow.backend.core.domain;
+
+import com.bizflow.backend.infrastructure.sequence.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * StocktakeSession: One physical count of a store (audit record)
+ * 
+ * Counts themselves are merged in memory by StocktakeService while the session is OPEN;
+ * on close the differences are applied as STOCK_ADJUST movements (reference = session ID)
+ * and the totals are stored here.
+ * 
+ * Lifecycle: OPEN → CLOSED (diff applied) | CANCELLED (nothing applied)
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stocktake_sessions", indexes = {
+        @Index(name = "idx_stocktakes_store_status", columnList = "store_id, status")
+})
+public class StocktakeSession {
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Column(name = "store_id", nullable = false)
+    private Long storeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SessionStatus status;
+
+    @Column(name = "opened_by", length = 30)
+    private String openedBy;
+
+    @Column(name = "opened_at", nullable = false)
+    private LocalDateTime openedAt;
+
+    @Column(name = "closed_by", length = 30)
+    private String closedBy;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "device_count")
+    private Integer deviceCount;
+
+    @Column(name = "counted_products")
+    private Integer countedProducts;
+
+    @Column(name = "adjusted_products")
+    private Integer adjustedProducts;
+
+    @Column(name = "net_delta")
+    private Integer netDelta;
+
+    public enum SessionStatus {
+        OPEN, CLOSED, CANCELLED
+    }
+}
@@ -2,6 +2,7 @@ package com.bizflow.backend.core.usecase;
 
 import com.bizflow.backend.core.domain.Customer;
 import com.bizflow.backend.presentation.dto.request.CreateCustomerRequest;
+import com.bizflow.backend.presentation.dto.response.CursorPage;
 import com.bizflow.backend.presentation.dto.response.CustomerDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -115,4 +116,14 @@ public interface CustomerService {
      * @return Page of active customers
      */
     Page<CustomerDTO> getAllActiveCustomers(Long storeId, Pageable pageable);
+
+    /**
+     * Scroll customers of current store, newest first (keyset pagination, no total count)
+     * Backed by CustomerRepository.findByStoreIdBefore on (created_at, id)
+     * 
+     * @param cursor nextCursor of the previous slice, null for the first slice
+     * @param size Slice size
+     * @return Slice of customers + next cursor
+     */
+    CursorPage<CustomerDTO> scrollCustomers(String cursor, Integer size);
 }
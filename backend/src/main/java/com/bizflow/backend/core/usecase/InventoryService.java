@@ -1,11 +1,20 @@
 package com.bizflow.backend.core.usecase;
 
+import com.bizflow.backend.core.common.ImportFormat;
 import com.bizflow.backend.core.domain.Inventory;
+import com.bizflow.backend.core.domain.ReorderSuggestion;
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepositoryCustom.MovementLine;
 import com.bizflow.backend.presentation.dto.request.ImportInventoryRequest;
+import com.bizflow.backend.presentation.dto.response.CursorPage;
+import com.bizflow.backend.presentation.dto.response.LedgerReplayReport;
 import com.bizflow.backend.presentation.dto.response.ProductDTO;
+import com.bizflow.backend.presentation.dto.response.ReorderRunReport;
+import com.bizflow.backend.presentation.dto.response.StockImportResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.InputStream;
 import java.util.Optional;
 
 /**
@@ -17,6 +26,8 @@ import java.util.Optional;
  * 3. Release reserved stock
  * 4. Record stock movements (IN/OUT)
  * 5. Track stock history
+ * 6. Reconcile inventory with the stock movement ledger (snapshots + replay)
+ * 7. Suggest reorder quantities from sales velocity
  * 
  * PATTERN:
  * - Validate input → Check business rules → Build entity → Persist → Return DTO
@@ -108,16 +119,30 @@ public interface InventoryService {
     Inventory importStock(ImportInventoryRequest request);
 
     /**
-     * Get stock movement history for product
+     * Get stock movement history for product, newest first, with the stock on hand after each movement
+     * Lightweight rows (no notes), one index range scan per page at any depth
      * 
      * @param productId Product ID
-     * @param pageable Pagination info
-     * @return Page of stock movements
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param size Page size
+     * @return Page of movement lines + next cursor (carries the running balance)
+     */
+    CursorPage<MovementLine> getStockMovementHistory(Long productId, String cursor, Integer size);
+
+    /**
+     * Scroll stock movement history for product, newest first (keyset pagination, no total count)
+     * Backed by StockMovementRepository.findByStoreIdAndProductIdBefore on (created_at, id)
+     * 
+     * @param productId Product ID
+     * @param cursor nextCursor of the previous slice, null for the first slice
+     * @param size Slice size
+     * @return Slice of stock movements + next cursor
      */
-    Page<ProductDTO> getStockMovementHistory(Long productId, Pageable pageable);
+    CursorPage<StockMovement> scrollStockMovementHistory(Long productId, String cursor, Integer size);
 
     /**
-     * Get low stock products (quantity < minimum level)
+     * Get low stock products (quantity <= product reorder level)
+     * Served from the maintained low-stock set, no per-call comparison
      * 
      * @param storeId Store ID
      * @param pageable Pagination info
@@ -125,6 +150,16 @@ public interface InventoryService {
      */
     Page<ProductDTO> getLowStockProducts(Long storeId, Pageable pageable);
 
+    /**
+     * Import a supplier delivery file (CSV or JSON) as batched stock-ins
+     * 
+     * @param input Request body, read as a stream
+     * @param format CSV (header row) or JSON (array of lines)
+     * @param supplierName Supplier for lines without their own supplier name (optional)
+     * @return Imported / failed line counts and the reason per failed line
+     */
+    StockImportResult bulkImportStock(InputStream input, ImportFormat format, String supplierName);
+
     /**
      * Adjust stock quantity (admin only)
      * 
@@ -134,4 +169,41 @@ public interface InventoryService {
      * @return Updated inventory
      */
     Inventory adjustStock(Long productId, Integer newQuantity, String reason);
+
+    /**
+     * Replay the current store's stock ledger and report rows that differ from it (read only)
+     * 
+     * @return Drifted products, rows changed while replaying are skipped
+     */
+    LedgerReplayReport verifyLedger();
+
+    /**
+     * Replay the current store's stock ledger and overwrite drifted inventory quantities
+     * 
+     * @return Drifted products and how many rows were corrected
+     */
+    LedgerReplayReport rebuildFromLedger();
+
+    /**
+     * Take a ledger snapshot of the current store now (normally taken nightly)
+     * 
+     * @return Number of product rows in the snapshot
+     */
+    int snapshotLedger();
+
+    /**
+     * Reorder suggestions of the current store from the latest run (nightly or refreshed)
+     * 
+     * @param onlyToReorder true = only products with a suggested quantity
+     * @param pageable Pagination info (default: lowest days of cover first)
+     * @return Page of suggestions
+     */
+    Page<ReorderSuggestion> getReorderSuggestions(boolean onlyToReorder, Pageable pageable);
+
+    /**
+     * Recompute the current store's reorder suggestions now (normally computed nightly)
+     * 
+     * @return Products, sales read and products to reorder
+     */
+    ReorderRunReport refreshReorderSuggestions();
 }
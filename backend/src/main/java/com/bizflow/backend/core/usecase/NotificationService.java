@@ -0,0 +1,18 @@
+package com.bizflow.backend.core.usecase;
+
+/**
+ * NotificationService: Push notifications to mobile clients
+ * 
+ * Calls are remote and may be slow or fail. Do not call it inside a business
+ * transaction; record an outbox event instead (OutboxWriter), the dispatcher
+ * delivers it after commit.
+ */
+public interface NotificationService {
+
+    /**
+     * Send a notification to all devices subscribed to a topic
+     * 
+     * @throws IllegalStateException if the push provider rejects or cannot be reached
+     */
+    void sendTopicNotification(String topic, String title, String body);
+}
@@ -1,20 +1,43 @@
 package com.bizflow.backend.core.usecase;
 
 import com.bizflow.backend.core.domain.*;
+import com.bizflow.backend.infrastructure.batch.GroupCommitExecutor;
+import com.bizflow.backend.infrastructure.idempotency.IdempotencyStore;
+import com.bizflow.backend.infrastructure.inventory.LowStockTracker;
+import com.bizflow.backend.infrastructure.outbox.OutboxWriter;
 import com.bizflow.backend.infrastructure.persistence.repository.*;
+import com.bizflow.backend.infrastructure.report.DashboardMetricsCache;
+import com.bizflow.backend.infrastructure.report.SalesRollup;
+import com.bizflow.backend.infrastructure.sequence.OrderNumberAllocator;
 import com.bizflow.backend.presentation.dto.request.CreateOrderRequest;
+import com.bizflow.backend.presentation.dto.response.CursorPage;
 import com.bizflow.backend.presentation.dto.response.OrderDTO;
+import com.bizflow.backend.presentation.dto.response.OrderSummaryDTO;
+import com.bizflow.backend.core.common.CsvWriter;
+import com.bizflow.backend.core.common.ExportFormat;
+import com.bizflow.backend.core.common.KeysetCursor;
 import com.bizflow.backend.core.common.UserContext;
 import com.bizflow.backend.presentation.exception.BusinessException;
 import com.bizflow.backend.presentation.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -53,19 +76,52 @@ import java.util.*;
 @RequiredArgsConstructor
 public class OrderService {
 
+    // order_summary.item_preview: at most 3 lines, 255 chars, room kept for " +N more"
+    private static final int ITEM_PREVIEW_LINES = 3;
+    private static final int ITEM_PREVIEW_LENGTH = 255;
+    private static final int ITEM_PREVIEW_SUFFIX_RESERVE = 12;
+
     // ========== Dependencies (Injected via constructor) ==========
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final InventoryRepository inventoryRepository;
     private final StockMovementRepository stockMovementRepository;
     private final DebtRepository debtRepository;
     private final PaymentRepository paymentRepository;
-    private final NotificationService notificationService; // Added NotificationService
+    private final OutboxWriter outboxWriter;
+    private final LowStockTracker lowStockTracker;
+    private final SalesRollup salesRollup;
+    private final DashboardMetricsCache dashboardMetricsCache;
+    private final OrderNumberAllocator orderNumberAllocator;
+    private final IdempotencyStore idempotencyStore;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitExecutor groupCommitExecutor;
+    private final ObjectMapper objectMapper;
 
     // ========== PUBLIC METHODS (Main business operations) ==========
 
+    /**
+     * Create new order, at most once per Idempotency-Key
+     * 
+     * POS clients retry on flaky networks. A retry with the same key gets the
+     * stored OrderDTO back without touching the database (no second order,
+     * stock decrement or debt). Keys are scoped per store.
+     * 
+     * The lookup runs before a transaction is opened; only a first attempt
+     * is submitted (own transaction or group commit), and its result is
+     * stored after commit.
+     * 
+     * @param idempotencyKey Idempotency-Key header (null → plain createOrder)
+     */
+    public OrderDTO createOrder(CreateOrderRequest request, String idempotencyKey) {
+        Long storeId = UserContext.getCurrentStoreId();
+        return idempotencyStore.execute("order:" + storeId, idempotencyKey, request.hashCode(), OrderDTO.class,
+                () -> submitOrder(request));
+    }
+
     /**
      * Create new order
      * 
@@ -78,7 +134,13 @@ public class OrderService {
      * 6. Create OrderItem entities
      * 7. Reduce inventory
      * 8. Create Debt record
-     * 9. Log operation
+     * 9. Record notification in the outbox (sent after commit by OutboxDispatcher)
+     * 10. Write the order_summary row (list read model) and the sales rollups
+     * 11. Log operation
+     * 
+     * SET-BASED: products and inventory are loaded with one IN query each,
+     * order items / stock movements / stock decrements are sent as JDBC batches.
+     * Round trips stay constant no matter how many lines the basket has.
      * 
      * CRITICAL: Entire operation wrapped in @Transactional
      * If any step fails → entire transaction rolls back
@@ -86,9 +148,273 @@ public class OrderService {
     @Transactional
     public OrderDTO createOrder(CreateOrderRequest request) {
         // 1. Get storeId from JWT token (CANNOT be overridden by client)
+        return placeOrder(OrderContext.current(), request);
+    }
+
+    /**
+     * List orders of current store with optional filters
+     * 
+     * Query count is constant per page:
+     * 1 filtered page query (+ count) and 1 order_id IN (...) query for all items of the page
+     */
+    public Page<OrderDTO> getAllOrders(String status, LocalDate startDate, LocalDate endDate, Long customerId, Pageable pageable) {
         Long storeId = UserContext.getCurrentStoreId();
-        String createdBy = UserContext.getCurrentUsername();
+
+        Specification<Order> filter = Specification.allOf(
+                OrderSpecifications.belongsToStore(storeId),
+                OrderSpecifications.hasStatus(parseStatus(status)),
+                OrderSpecifications.hasCustomer(customerId),
+                OrderSpecifications.createdFrom(startDate),
+                OrderSpecifications.createdUntil(endDate));
+
+        Page<Order> orders = orderRepository.findAll(filter, pageable);
+        Map<Long, List<OrderItem>> itemsByOrder = loadItemsByOrder(orders.getContent());
+        return orders.map(order -> mapToDTO(order, itemsByOrder.getOrDefault(order.getId(), List.of())));
+    }
+
+    /**
+     * Scroll orders of current store, newest first (keyset pagination)
+     * 
+     * Seeks on (created_at, id) instead of OFFSET and skips COUNT(*),
+     * so page 1 and page 10,000 cost the same.
+     * 
+     * @param cursor nextCursor of the previous slice, null for the first slice
+     * @param size Slice size (clamped to CursorPage.MAX_SIZE)
+     */
+    public CursorPage<OrderDTO> scrollOrders(String cursor, Integer size) {
+        Long storeId = UserContext.getCurrentStoreId();
+        int limit = CursorPage.normalizeSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        // Fetch one extra row to know whether another slice exists
+        PageRequest fetch = PageRequest.of(0, limit + 1);
+        List<Order> orders = position == null
+                ? orderRepository.findByStoreIdOrderByCreatedAtDescIdDesc(storeId, fetch)
+                : orderRepository.findByStoreIdBefore(storeId, position.createdAt(), position.id(), fetch);
+
+        Map<Long, List<OrderItem>> itemsByOrder = loadItemsByOrder(orders.size() > limit ? orders.subList(0, limit) : orders);
+        return CursorPage.of(orders, limit,
+                order -> new KeysetCursor(order.getCreatedAt(), order.getId()).encode(),
+                order -> mapToDTO(order, itemsByOrder.getOrDefault(order.getId(), List.of())));
+    }
+
+    /**
+     * Order detail; orders moved to the archive by ColdArchiver are read from there
+     */
+    public OrderDTO getOrderById(Long id) {
+        Long storeId = UserContext.getCurrentStoreId();
+        Order order = orderRepository.findById(id).orElse(null);
+        List<OrderItem> items;
+        if (order != null) {
+            items = orderItemRepository.findByOrderId(order.getId());
+        } else {
+            OrderRepositoryCustom.OrderWithItems archived = orderRepository.findArchivedWithItems(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + id));
+            order = archived.order();
+            items = archived.items();
+        }
         
+        if (!order.getStoreId().equals(storeId)) {
+            throw new BusinessException(4003, "Order does not belong to your store");
+        }
+
+        return mapToDTO(order, items);
+    }
+
+    /**
+     * List order summaries of current store (same filters as getAllOrders)
+     * 
+     * Reads the order_summary read model only: one index scan on
+     * (store_id, ...) per page, no item / customer / product lookups.
+     */
+    public Page<OrderSummaryDTO> getOrderSummaries(String status, LocalDate startDate, LocalDate endDate,
+                                                   Long customerId, Pageable pageable) {
+        Long storeId = UserContext.getCurrentStoreId();
+
+        Specification<OrderSummary> filter = Specification.allOf(
+                OrderSpecifications.belongsToStore(storeId),
+                OrderSpecifications.hasStatus(parseStatus(status)),
+                OrderSpecifications.hasCustomer(customerId),
+                OrderSpecifications.createdFrom(startDate),
+                OrderSpecifications.createdUntil(endDate));
+
+        return orderSummaryRepository.findAll(filter, pageable).map(this::mapToSummaryDTO);
+    }
+
+    /**
+     * Scroll order summaries of current store, newest first (keyset pagination, single table)
+     * 
+     * @param cursor nextCursor of the previous slice, null for the first slice
+     * @param size Slice size (clamped to CursorPage.MAX_SIZE)
+     */
+    public CursorPage<OrderSummaryDTO> scrollOrderSummaries(String cursor, Integer size) {
+        Long storeId = UserContext.getCurrentStoreId();
+        int limit = CursorPage.normalizeSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        PageRequest fetch = PageRequest.of(0, limit + 1);
+        List<OrderSummary> summaries = position == null
+                ? orderSummaryRepository.findByStoreIdOrderByCreatedAtDescOrderIdDesc(storeId, fetch)
+                : orderSummaryRepository.findByStoreIdBefore(storeId, position.createdAt(), position.id(), fetch);
+
+        return CursorPage.of(summaries, limit,
+                summary -> new KeysetCursor(summary.getCreatedAt(), summary.getOrderId()).encode(),
+                this::mapToSummaryDTO);
+    }
+
+    /**
+     * Change order status (e.g. CONFIRMED → PAID)
+     * 
+     * Order and its order_summary row are updated in the same transaction.
+     * CANCELLED is not accepted here: cancelling must return stock and debts,
+     * use cancelOrder().
+     */
+    @Transactional
+    public OrderDTO updateOrderStatus(Long id, String status) {
+        Long storeId = UserContext.getCurrentStoreId();
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + id));
+
+        if (!order.getStoreId().equals(storeId)) {
+            throw new BusinessException(4003, "Order does not belong to your store");
+        }
+
+        Order.OrderStatus newStatus = parseStatus(status);
+        if (newStatus == null) {
+            throw new BusinessException(4002, "Order status is required");
+        }
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            throw new BusinessException(4002, "Cancelled orders cannot change status");
+        }
+        if (newStatus == Order.OrderStatus.CANCELLED) {
+            throw new BusinessException(4002, "Orders cannot be cancelled with a status change");
+        }
+
+        // Guarded write, not save(order): a cancel committed since the read must not be overwritten
+        LocalDateTime now = LocalDateTime.now();
+        if (orderRepository.updateStatusUnlessCancelled(id, storeId, newStatus, now) != 1) {
+            throw notClaimed(id, storeId, "Order was cancelled in the meantime");
+        }
+        Order savedOrder = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + id));
+        orderSummaryRepository.updateStatus(savedOrder.getId(), newStatus, now);
+
+        log.info("Order status changed: orderId={}, status={}", savedOrder.getId(), newStatus);
+        return mapToDTO(savedOrder, orderItemRepository.findByOrderId(savedOrder.getId()));
+    }
+
+    /**
+     * Cancel an order
+     * 
+     * Flow (one transaction):
+     * 1. Claim: guarded UPDATE to CANCELLED (only if not cancelled yet), before any side effect;
+     *    of two concurrent cancels only one gets the row, the other fails with 4009
+     * 2. Validate: nothing paid on its debt (rolls the claim back)
+     * 3. Return stock (batched increments, RETURN movements referencing the order)
+     * 4. Cancel the debt record (CREDIT / TRANSFER orders)
+     * 5. order_summary status CANCELLED
+     * 6. Subtract the order from the sales rollups
+     */
+    @Transactional
+    public OrderDTO cancelOrder(Long id, String reason) {
+        Long storeId = UserContext.getCurrentStoreId();
+        String username = UserContext.getCurrentUsername();
+        LocalDateTime now = LocalDateTime.now();
+
+        // 1. Claim
+        if (orderRepository.updateStatusUnlessCancelled(id, storeId, Order.OrderStatus.CANCELLED, now) != 1) {
+            throw notClaimed(id, storeId, "Order is already cancelled");
+        }
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + id));
+
+        // 2. Validate
+        Optional<Debt> debt = debtRepository.findByOrderId(order.getId());
+        if (debt.isPresent() && debt.get().getPaidAmount() != null
+                && debt.get().getPaidAmount().compareTo(BigDecimal.ZERO) > 0) {
+            throw new BusinessException(4002, "Order has payments, refund them before cancelling");
+        }
+        List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
+
+        // 3. Return stock
+        returnInventory(storeId, items, order.getId(), username, reason, now);
+
+        // 4. Debt
+        debt.ifPresent(d -> {
+            d.setStatus(Debt.DebtStatus.CANCELLED);
+            d.setUnpaidAmount(BigDecimal.ZERO);
+            d.setUpdatedAt(now);
+            debtRepository.save(d);
+            dashboardMetricsCache.onDebtChanged(storeId);
+        });
+
+        // 5. Summary
+        orderSummaryRepository.updateStatus(order.getId(), Order.OrderStatus.CANCELLED, now);
+
+        // 6. Sales rollups
+        salesRollup.onOrderCancelled(order, items);
+
+        log.info("Order cancelled: orderId={}, orderNumber={}, by={}", order.getId(), order.getOrderNumber(), username);
+        return mapToDTO(order, items);
+    }
+
+    /**
+     * Export orders of current store, oldest first
+     * 
+     * - NDJSON: one OrderDTO (with items) per line
+     * - CSV: one row per order item, order columns repeated
+     * 
+     * Orders and items come from one forward-only cursor and are written straight
+     * to the response, so memory stays constant for 10k or 10M orders.
+     * storeId is resolved here on the request thread; the returned body runs later
+     * on an async thread without a SecurityContext.
+     * 
+     * @param startDate Inclusive (null = from the first order)
+     * @param endDate Inclusive (null = up to now)
+     */
+    public StreamingResponseBody exportOrders(ExportFormat format, LocalDate startDate, LocalDate endDate) {
+        Long storeId = UserContext.getCurrentStoreId();
+        LocalDateTime from = startDate != null ? startDate.atStartOfDay() : null;
+        LocalDateTime until = endDate != null ? endDate.plusDays(1).atStartOfDay() : null;
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            CsvWriter csv = new CsvWriter(writer);
+            if (format == ExportFormat.CSV) {
+                csv.writeRow("order_number", "created_at", "status", "payment_type", "customer_id", "employee_id",
+                        "subtotal", "discount_amount", "order_total", "product_id", "quantity", "unit_price",
+                        "item_total", "notes");
+            }
+
+            try {
+                orderRepository.streamWithItems(storeId, from, until, (order, items) -> {
+                    try {
+                        if (format == ExportFormat.CSV) {
+                            writeCsvRows(csv, order, items);
+                        } else {
+                            writer.write(objectMapper.writeValueAsString(mapToDTO(order, items)));
+                            writer.write('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // client went away: stop reading the cursor
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    // ========== PRIVATE METHODS (Single responsibility principle) ==========
+
+    /**
+     * Create one order for an explicit caller context (runs inside the caller's transaction)
+     */
+    private OrderDTO placeOrder(OrderContext context, CreateOrderRequest request) {
+        Long storeId = context.storeId();
+        String createdBy = context.username();
+
         log.info("Creating order for storeId={}, user={}", storeId, createdBy);
 
         // 2. Validate input
@@ -104,64 +430,232 @@ public class OrderService {
         BigDecimal totalAmount = calculateTotal(subtotal, discountAmount);
         
         // 5. Create Order entity
-        Order order = buildOrder(storeId, customer.getId(), totalAmount, request, createdBy);
-        Order savedOrder = orderRepository.save(order);
+        Order order = buildOrder(context, customer.getId(), totalAmount, request);
+        Order savedOrder = orderRepository.saveAndFlush(order); // order row must exist before JDBC batches below
         
         // 6. Create OrderItem entities
         List<OrderItem> orderItems = persistOrderItems(savedOrder.getId(), itemDataList);
         
         // 7. Reduce inventory and record movements
-        reduceInventory(storeId, itemDataList, savedOrder.getId());
+        reduceInventory(storeId, itemDataList, savedOrder.getId(), createdBy);
         
         // 8. Create Debt record (if not CASH payment)
         if (!Order.PaymentType.CASH.toString().equals(request.getPaymentType())) {
             createDebtRecord(storeId, savedOrder, customer);
         }
         
-        // 9. Send Notification (Async)
-        try {
-            String topic = "store_" + storeId + "_orders";
-            String title = "Đơn hàng mới: " + savedOrder.getOrderNumber();
-            String body = "Khách hàng: " + customer.getName() + " - Tổng tiền: " + totalAmount;
-            notificationService.sendTopicNotification(topic, title, body);
-        } catch (Exception e) {
-            log.warn("Failed to send notification for order {}", savedOrder.getOrderNumber(), e);
-            // Don't rollback transaction if notification fails
-        }
+        // 9. Notification via outbox: same transaction, no remote call while stock rows are locked
+        notifyOrderCreated(storeId, savedOrder, customer, totalAmount);
+
+        // 10. List read model + sales rollups
+        orderSummaryRepository.batchInsert(List.of(buildOrderSummary(savedOrder, customer, itemDataList)));
+        salesRollup.onOrdersPlaced(List.of(savedOrder), List.of(orderItems));
         
-        // 10. Audit log
+        // 11. Audit log
         log.info("Order created successfully: orderId={}, orderNumber={}, total={}", 
                 savedOrder.getId(), savedOrder.getOrderNumber(), totalAmount);
 
-        // 11. Convert to DTO and return
+        // 12. Convert to DTO and return
         return mapToDTO(savedOrder, orderItems);
     }
 
-    public Page<OrderDTO> getAllOrders(String status, LocalDate startDate, LocalDate endDate, Long customerId, Pageable pageable) {
-        Long storeId = UserContext.getCurrentStoreId();
-        // TODO: Implement filtering logic with Specification or QueryDSL
-        // For now, just return all orders for the store
-        Page<Order> orders = orderRepository.findByStoreId(storeId, pageable);
-        return orders.map(order -> {
-            List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-            return mapToDTO(order, items);
-        });
+    /**
+     * Run one order: own transaction, or group commit with concurrent orders of the same store
+     * (bizflow.group-commit.enabled)
+     */
+    private OrderDTO submitOrder(CreateOrderRequest request) {
+        if (!groupCommitExecutor.isEnabled()) {
+            return transactionTemplate.execute(status -> createOrder(request));
+        }
+        OrderContext context = OrderContext.current();
+        return GroupCommitExecutor.await(groupCommitExecutor.submit(
+                "order:" + context.storeId(), new PendingOrder(context, request), this::createOrderBatch));
     }
 
-    public OrderDTO getOrderById(Long id) {
-        Long storeId = UserContext.getCurrentStoreId();
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + id));
-        
-        if (!order.getStoreId().equals(storeId)) {
-            throw new BusinessException(4003, "Order does not belong to your store");
+    /**
+     * Group commit: create a batch of orders of one store in a single transaction
+     *
+     * Flow:
+     * 1. Load customers, products and inventory of the whole batch (one IN query each)
+     * 2. Validate orders in arrival order against a running stock count;
+     *    an invalid order fails on its own, the others continue
+     * 3. Insert orders, items, movements, debts and outbox events of all accepted orders,
+     *    with one combined guarded decrement per product
+     * 4. After commit, complete each caller's future (rejected orders included)
+     *
+     * If the combined commit fails (e.g. stock sold outside the batch in the meantime),
+     * every order is retried in a transaction of its own, so it fails or succeeds on its own.
+     * That includes orders the batch rejected: the running stock count they were rejected
+     * against held orders that were rolled back with the batch.
+     */
+    private void createOrderBatch(List<GroupCommitExecutor.Entry<PendingOrder, OrderDTO>> batch) {
+        BatchOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> placeOrders(batch));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} orders failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (GroupCommitExecutor.Entry<PendingOrder, OrderDTO> entry : batch) {
+                PendingOrder pending = entry.item();
+                try {
+                    entry.future().complete(transactionTemplate.execute(
+                            status -> placeOrder(pending.context(), pending.request())));
+                } catch (RuntimeException orderFailure) {
+                    entry.future().completeExceptionally(orderFailure);
+                }
+            }
+            return;
         }
 
-        List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-        return mapToDTO(order, items);
+        outcome.created().forEach((entry, order) -> entry.future().complete(order));
+        outcome.rejected().forEach((entry, failure) -> entry.future().completeExceptionally(failure));
+        log.info("Group commit: {} of {} orders created in one transaction", outcome.created().size(), batch.size());
     }
 
-    // ========== PRIVATE METHODS (Single responsibility principle) ==========
+    /**
+     * Persistence step of a group commit (runs inside the batch transaction)
+     *
+     * @return DTO per accepted entry and the failure of each rejected one; no future is
+     *         completed here, the batch may still roll back
+     */
+    private BatchOutcome placeOrders(
+            List<GroupCommitExecutor.Entry<PendingOrder, OrderDTO>> batch) {
+        Long storeId = batch.get(0).item().context().storeId();
+
+        // 1. Load customers, products and inventory of all orders at once
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (GroupCommitExecutor.Entry<PendingOrder, OrderDTO> entry : batch) {
+            CreateOrderRequest request = entry.item().request();
+            if (request.getCustomerId() != null) {
+                customerIds.add(request.getCustomerId());
+            }
+            if (request.getItems() != null) {
+                request.getItems().forEach(item -> productIds.add(item.getProductId()));
+            }
+        }
+        Map<Long, Customer> customers = new HashMap<>();
+        for (Customer customer : customerRepository.findAllById(customerIds)) {
+            customers.put(customer.getId(), customer);
+        }
+        StockSnapshot stock = loadStock(storeId, productIds);
+
+        // 2. Validate in arrival order; accepted orders reserve stock from the snapshot
+        List<AcceptedOrder> accepted = new ArrayList<>();
+        Map<GroupCommitExecutor.Entry<PendingOrder, OrderDTO>, RuntimeException> rejected = new LinkedHashMap<>();
+        for (GroupCommitExecutor.Entry<PendingOrder, OrderDTO> entry : batch) {
+            CreateOrderRequest request = entry.item().request();
+            try {
+                Customer customer = customers.get(request.getCustomerId());
+                if (customer == null) {
+                    throw new ResourceNotFoundException("Customer not found: " + request.getCustomerId());
+                }
+                checkCustomerStore(customer, storeId);
+                List<CreateOrderRequest.OrderItemRequest> itemRequests = validateOrderItems(request.getItems());
+                Map<Long, Integer> requiredByProduct = sumRequiredByProduct(itemRequests);
+                List<OrderItemData> itemDataList = validateAndBuildItems(itemRequests, requiredByProduct, storeId, stock);
+                BigDecimal discountAmount = request.getDiscountAmount() != null ? request.getDiscountAmount() : BigDecimal.ZERO;
+                BigDecimal totalAmount = calculateTotal(calculateSubtotal(itemDataList), discountAmount);
+
+                requiredByProduct.forEach((productId, quantity) -> stock.available().merge(productId, -quantity, Integer::sum));
+                accepted.add(new AcceptedOrder(entry, customer, itemDataList, totalAmount));
+            } catch (BusinessException | ResourceNotFoundException e) {
+                rejected.put(entry, e);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return new BatchOutcome(Map.of(), rejected);
+        }
+
+        // 3. Orders: one batched insert (IDs are assigned in memory)
+        List<Order> orders = new ArrayList<>();
+        for (AcceptedOrder order : accepted) {
+            orders.add(buildOrder(order.entry().item().context(), order.customer().getId(),
+                    order.totalAmount(), order.entry().item().request()));
+        }
+        orderRepository.saveAllAndFlush(orders); // order rows must exist before JDBC batches below
+
+        // 4. Items and movements of all orders in one JDBC batch each, one combined decrement per product
+        LocalDateTime now = LocalDateTime.now();
+        List<List<OrderItem>> itemsPerOrder = new ArrayList<>();
+        List<OrderItem> allItems = new ArrayList<>();
+        List<StockMovement> movements = new ArrayList<>();
+        Map<Long, Integer> quantityByProduct = new LinkedHashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            AcceptedOrder order = accepted.get(i);
+            Long orderId = orders.get(i).getId();
+            List<OrderItem> items = buildOrderItems(orderId, order.itemDataList(), now);
+            itemsPerOrder.add(items);
+            allItems.addAll(items);
+            movements.addAll(buildSaleMovements(storeId, order.itemDataList(), orderId,
+                    order.entry().item().context().username(), now));
+            order.itemDataList().forEach(item -> quantityByProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+        }
+        orderItemRepository.batchInsert(allItems);
+        decrementStock(storeId, quantityByProduct);
+        stockMovementRepository.batchInsert(movements);
+        lowStockTracker.onStockChanged(storeId, quantityByProduct.keySet());
+
+        // 5. Debts, notifications, list read model and sales rollups
+        Map<GroupCommitExecutor.Entry<PendingOrder, OrderDTO>, OrderDTO> created = new LinkedHashMap<>();
+        List<OrderSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            AcceptedOrder order = accepted.get(i);
+            Order savedOrder = orders.get(i);
+            if (!Order.PaymentType.CASH.toString().equals(order.entry().item().request().getPaymentType())) {
+                createDebtRecord(storeId, savedOrder, order.customer());
+            }
+            notifyOrderCreated(storeId, savedOrder, order.customer(), order.totalAmount());
+            summaries.add(buildOrderSummary(savedOrder, order.customer(), order.itemDataList()));
+            created.put(order.entry(), mapToDTO(savedOrder, itemsPerOrder.get(i)));
+        }
+        orderSummaryRepository.batchInsert(summaries);
+        salesRollup.onOrdersPlaced(orders, itemsPerOrder);
+        return new BatchOutcome(created, rejected);
+    }
+
+    /**
+     * Validation step: Parse optional status filter
+     */
+    private Order.OrderStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return Order.OrderStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(4002, "Invalid order status: " + status);
+        }
+    }
+
+    /**
+     * Why a guarded status UPDATE changed no row: missing order, other store, or already
+     * CANCELLED (4009, possibly by a concurrent request)
+     */
+    private RuntimeException notClaimed(Long id, Long storeId, String cancelledMessage) {
+        Order order = orderRepository.findById(id).orElse(null);
+        if (order == null) {
+            return new ResourceNotFoundException("Order not found: " + id);
+        }
+        if (!order.getStoreId().equals(storeId)) {
+            return new BusinessException(4003, "Order does not belong to your store");
+        }
+        return new BusinessException(4009, cancelledMessage);
+    }
+
+    /**
+     * Load items of many orders with one IN query, grouped by orderId
+     */
+    private Map<Long, List<OrderItem>> loadItemsByOrder(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        Map<Long, List<OrderItem>> itemsByOrder = new HashMap<>();
+        for (OrderItem item : orderItemRepository.findByOrderIdIn(orderIds)) {
+            itemsByOrder.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>()).add(item);
+        }
+        return itemsByOrder;
+    }
 
     /**
      * Validation step: Check customer exists in user's store
@@ -170,14 +664,19 @@ public class OrderService {
     private Customer validateCustomerExists(Long customerId, Long storeId) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found: " + customerId));
-        
+        checkCustomerStore(customer, storeId);
+        return customer;
+    }
+
+    /**
+     * Validation step: Customer must belong to current store
+     */
+    private void checkCustomerStore(Customer customer, Long storeId) {
         // CRITICAL: Verify customer belongs to current store
         // Prevents accessing other store's customer data
         if (!customer.getStoreId().equals(storeId)) {
             throw new BusinessException(4003, "Customer does not belong to your store");
         }
-        
-        return customer;
     }
 
     /**
@@ -194,42 +693,91 @@ public class OrderService {
     /**
      * Validation + Construction step: Check stock availability for all items
      * Returns OrderItemData with product info and inventory details
+     * 
+     * Loads all products and inventory rows of the basket with one IN query each
      */
     private List<OrderItemData> checkAndBuildOrderItems(
             List<CreateOrderRequest.OrderItemRequest> itemRequests, Long storeId) {
-        
-        List<OrderItemData> itemDataList = new ArrayList<>();
 
+        // 1. Sum required quantity per product (same product may appear on several lines)
+        Map<Long, Integer> requiredByProduct = sumRequiredByProduct(itemRequests);
+
+        // 2. Batch-load products and inventory rows
+        StockSnapshot stock = loadStock(storeId, requiredByProduct.keySet());
+
+        // 3-4. Validate and build lines
+        return validateAndBuildItems(itemRequests, requiredByProduct, storeId, stock);
+    }
+
+    private Map<Long, Integer> sumRequiredByProduct(List<CreateOrderRequest.OrderItemRequest> itemRequests) {
+        Map<Long, Integer> requiredByProduct = new LinkedHashMap<>();
         for (CreateOrderRequest.OrderItemRequest itemRequest : itemRequests) {
-            // 1. Find product
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + itemRequest.getProductId()));
-            
-            // 2. Verify product belongs to user's store
+            requiredByProduct.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        return requiredByProduct;
+    }
+
+    /**
+     * Load products and inventory rows with one IN query each
+     */
+    private StockSnapshot loadStock(Long storeId, Collection<Long> productIds) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+        Map<Long, Inventory> inventories = new HashMap<>();
+        Map<Long, Integer> available = new HashMap<>();
+        for (Inventory inventory : inventoryRepository.findByStoreIdAndProductIdIn(storeId, productIds)) {
+            inventories.put(inventory.getProductId(), inventory);
+            available.put(inventory.getProductId(), inventory.getAvailableQuantity());
+        }
+        return new StockSnapshot(products, inventories, available);
+    }
+
+    /**
+     * Validation + Construction step: Check every product against the loaded rows,
+     * then build one OrderItemData per requested line
+     */
+    private List<OrderItemData> validateAndBuildItems(List<CreateOrderRequest.OrderItemRequest> itemRequests,
+                                                      Map<Long, Integer> requiredByProduct,
+                                                      Long storeId,
+                                                      StockSnapshot stock) {
+        // 3. Validate every product against the loaded rows
+        for (Map.Entry<Long, Integer> required : requiredByProduct.entrySet()) {
+            Product product = stock.products().get(required.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found: " + required.getKey());
+            }
+
+            // Verify product belongs to user's store
             if (!product.getStoreId().equals(storeId)) {
                 throw new BusinessException(4003, "Product does not belong to your store");
             }
-            
-            // 3. Check inventory
-            Inventory inventory = inventoryRepository.findByStoreIdAndProductId(storeId, product.getId())
-                    .orElseThrow(() -> new BusinessException(4005, "Product has no inventory: " + product.getSku()));
-            
-            // 4. Check sufficient stock
-            if (inventory.getAvailableQuantity() < itemRequest.getQuantity()) {
+
+            Inventory inventory = stock.inventories().get(product.getId());
+            if (inventory == null) {
+                throw new BusinessException(4005, "Product has no inventory: " + product.getSku());
+            }
+
+            // Check sufficient stock (final guard is the conditional UPDATE in reduceInventory)
+            int available = stock.available().get(product.getId());
+            if (available < required.getValue()) {
                 throw new BusinessException(4006, 
                         String.format("Insufficient stock for %s. Available: %d, Required: %d",
-                                product.getName(), inventory.getAvailableQuantity(), itemRequest.getQuantity()));
+                                product.getName(), available, required.getValue()));
             }
-            
-            // 5. Build OrderItemData (holds product + quantity + price)
-            OrderItemData itemData = OrderItemData.builder()
+        }
+
+        // 4. Build OrderItemData (holds product + quantity + price), one per requested line
+        List<OrderItemData> itemDataList = new ArrayList<>();
+        for (CreateOrderRequest.OrderItemRequest itemRequest : itemRequests) {
+            Product product = stock.products().get(itemRequest.getProductId());
+            itemDataList.add(OrderItemData.builder()
                     .product(product)
                     .quantity(itemRequest.getQuantity())
                     .unitPrice(product.getPrice())
                     .totalAmount(product.getPrice().multiply(new BigDecimal(itemRequest.getQuantity())))
-                    .build();
-            
-            itemDataList.add(itemData);
+                    .build());
         }
 
         return itemDataList;
@@ -258,15 +806,15 @@ public class OrderService {
     /**
      * Construction step: Build Order entity from request and validated data
      */
-    private Order buildOrder(Long storeId, Long customerId, BigDecimal totalAmount,
-                            CreateOrderRequest request, String createdBy) {
-        String orderNumber = generateOrderNumber(storeId);
+    private Order buildOrder(OrderContext context, Long customerId, BigDecimal totalAmount,
+                            CreateOrderRequest request) {
+        String orderNumber = generateOrderNumber(context.storeId());
         
         return Order.builder()
-                .storeId(storeId)
+                .storeId(context.storeId())
                 .orderNumber(orderNumber)
                 .customerId(customerId)
-                .employeeId(UserContext.getCurrentUserId())
+                .employeeId(context.userId())
                 .subtotal(request.getDiscountAmount() != null ? 
                         totalAmount.add(request.getDiscountAmount()) : totalAmount)
                 .discountAmount(request.getDiscountAmount() != null ? 
@@ -276,52 +824,122 @@ public class OrderService {
                         request.getPaymentType() : "CASH"))
                 .status(Order.OrderStatus.CONFIRMED)
                 .notes(request.getNotes())
-                .createdBy(createdBy)
+                .createdBy(context.username())
                 .createdAt(LocalDateTime.now())
                 .build();
     }
 
     /**
-     * Persistence step: Save all OrderItem entities
+     * Persistence step: Save all OrderItem entities (single JDBC batch)
      */
     private List<OrderItem> persistOrderItems(Long orderId, List<OrderItemData> itemDataList) {
+        return orderItemRepository.batchInsert(buildOrderItems(orderId, itemDataList, LocalDateTime.now()));
+    }
+
+    /**
+     * Construction step: One OrderItem per line
+     */
+    private List<OrderItem> buildOrderItems(Long orderId, List<OrderItemData> itemDataList, LocalDateTime now) {
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (OrderItemData itemData : itemDataList) {
-            OrderItem orderItem = OrderItem.builder()
+            orderItems.add(OrderItem.builder()
                     .orderId(orderId)
                     .productId(itemData.getProduct().getId())
                     .quantity(itemData.getQuantity())
                     .unitPrice(itemData.getUnitPrice())
                     .totalAmount(itemData.getTotalAmount())
-                    .createdAt(LocalDateTime.now())
-                    .build();
-
-            OrderItem saved = orderItemRepository.save(orderItem);
-            orderItems.add(saved);
+                    .createdAt(now)
+                    .build());
         }
-
         return orderItems;
     }
 
     /**
      * Side effect step: Reduce inventory and create stock movement records
      * This ensures audit trail of all stock changes
+     * 
+     * Decrements are guarded UPDATEs (available_quantity >= qty) sent as one batch.
+     * If another cashier sold the stock in the meantime, the row is not updated
+     * and the whole order rolls back.
+     */
+    private void reduceInventory(Long storeId, List<OrderItemData> itemDataList, Long orderId, String createdBy) {
+        // 1. Update inventory
+        Map<Long, Integer> quantityByProduct = new LinkedHashMap<>();
+        for (OrderItemData itemData : itemDataList) {
+            quantityByProduct.merge(itemData.getProduct().getId(), itemData.getQuantity(), Integer::sum);
+        }
+        decrementStock(storeId, quantityByProduct);
+
+        // 2. Create stock movement records (audit trail)
+        stockMovementRepository.batchInsert(
+                buildSaleMovements(storeId, itemDataList, orderId, createdBy, LocalDateTime.now()));
+
+        // 3. Keep the low-stock set in step (STOCK_LOW push on the crossing edge)
+        lowStockTracker.onStockChanged(storeId, quantityByProduct.keySet());
+    }
+
+    /**
+     * Persistence step: Give the items of a cancelled order back to stock
+     * Batched increments (first rows created for products without one), RETURN movements
      */
-    private void reduceInventory(Long storeId, List<OrderItemData> itemDataList, Long orderId) {
+    private void returnInventory(Long storeId, List<OrderItem> items, Long orderId, String createdBy,
+                                 String reason, LocalDateTime now) {
+        Map<Long, Integer> quantityByProduct = new TreeMap<>();
+        for (OrderItem item : items) {
+            quantityByProduct.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        if (quantityByProduct.isEmpty()) {
+            return;
+        }
+
+        List<Long> missing = inventoryRepository.incrementStockBatch(storeId, quantityByProduct);
+        if (!missing.isEmpty()) {
+            Map<Long, Integer> firstStock = new TreeMap<>();
+            missing.forEach(productId -> firstStock.put(productId, quantityByProduct.get(productId)));
+            inventoryRepository.insertStockBatch(storeId, firstStock);
+        }
+
+        List<StockMovement> movements = new ArrayList<>();
+        for (OrderItem item : items) {
+            movements.add(StockMovement.builder()
+                    .storeId(storeId)
+                    .productId(item.getProductId())
+                    .type(StockMovement.MovementType.RETURN)
+                    .quantity(item.getQuantity()) // Positive = back in stock
+                    .referenceId(orderId)
+                    .referenceType("ORDER_CANCEL")
+                    .unitPrice(item.getUnitPrice())
+                    .notes(reason)
+                    .createdBy(createdBy)
+                    .createdAt(now)
+                    .build());
+        }
+        stockMovementRepository.batchInsert(movements);
+        lowStockTracker.onStockChanged(storeId, quantityByProduct.keySet());
+    }
+
+    /**
+     * Persistence step: Guarded decrements for all products in one batch
+     * Throws 4006 if any row no longer has enough available stock
+     */
+    private void decrementStock(Long storeId, Map<Long, Integer> quantityByProduct) {
+        List<Long> rejected = inventoryRepository.decrementStockBatch(storeId, quantityByProduct);
+        if (!rejected.isEmpty()) {
+            throw new BusinessException(4006, "Insufficient stock for products: " + rejected);
+        }
+    }
+
+    /**
+     * Construction step: SALE movements (negative quantity) of one order
+     */
+    private List<StockMovement> buildSaleMovements(Long storeId, List<OrderItemData> itemDataList,
+                                                   Long orderId, String createdBy, LocalDateTime now) {
+        List<StockMovement> movements = new ArrayList<>();
+
         for (OrderItemData itemData : itemDataList) {
             Product product = itemData.getProduct();
-            
-            // 1. Update inventory
-            Inventory inventory = inventoryRepository.findByStoreIdAndProductId(storeId, product.getId())
-                    .orElseThrow();
-            
-            inventory.setQuantity(inventory.getQuantity() - itemData.getQuantity());
-            inventory.setAvailableQuantity(inventory.getAvailableQuantity() - itemData.getQuantity());
-            inventoryRepository.save(inventory);
-            
-            // 2. Create stock movement record (audit trail)
-            StockMovement movement = StockMovement.builder()
+            movements.add(StockMovement.builder()
                     .storeId(storeId)
                     .productId(product.getId())
                     .type(StockMovement.MovementType.SALE)
@@ -329,12 +947,11 @@ public class OrderService {
                     .referenceId(orderId)
                     .referenceType("ORDER")
                     .unitPrice(product.getPrice())
-                    .createdBy(UserContext.getCurrentUsername())
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            
-            stockMovementRepository.save(movement);
+                    .createdBy(createdBy)
+                    .createdAt(now)
+                    .build());
         }
+        return movements;
     }
 
     /**
@@ -355,17 +972,96 @@ public class OrderService {
                 .build();
         
         debtRepository.save(debt);
+        dashboardMetricsCache.onDebtChanged(storeId);
+    }
+
+    /**
+     * Side effect step: Queue "new order" push for the store's devices
+     * Written to the outbox in this transaction, delivered after commit (rollback → nothing sent)
+     */
+    private void notifyOrderCreated(Long storeId, Order order, Customer customer, BigDecimal totalAmount) {
+        String topic = "store_" + storeId + "_orders";
+        String title = "Đơn hàng mới: " + order.getOrderNumber();
+        String body = "Khách hàng: " + customer.getName() + " - Tổng tiền: " + totalAmount;
+        outboxWriter.enqueueTopicNotification(storeId, order.getId(), topic, title, body);
+    }
+
+    /**
+     * Construction step: order_summary row of a new order
+     * Customer name and item preview are copied so list views need no joins
+     */
+    private OrderSummary buildOrderSummary(Order order, Customer customer, List<OrderItemData> itemDataList) {
+        int totalQuantity = 0;
+        for (OrderItemData itemData : itemDataList) {
+            totalQuantity += itemData.getQuantity();
+        }
+
+        return OrderSummary.builder()
+                .orderId(order.getId())
+                .storeId(order.getStoreId())
+                .orderNumber(order.getOrderNumber())
+                .customerId(customer.getId())
+                .customerName(customer.getName())
+                .employeeId(order.getEmployeeId())
+                .itemCount(itemDataList.size())
+                .totalQuantity(totalQuantity)
+                .totalAmount(order.getTotalAmount())
+                .paymentType(order.getPaymentType())
+                .status(order.getStatus())
+                .itemPreview(buildItemPreview(itemDataList))
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Construction step: "Coca x2, Bread x1 +3 more", cut to fit item_preview (255 chars)
+     */
+    private String buildItemPreview(List<OrderItemData> itemDataList) {
+        StringBuilder preview = new StringBuilder();
+        int shown = 0;
+        for (OrderItemData itemData : itemDataList) {
+            String line = itemData.getProduct().getName() + " x" + itemData.getQuantity();
+            int separator = shown == 0 ? 0 : 2;
+            if (shown == ITEM_PREVIEW_LINES
+                    || preview.length() + separator + line.length() > ITEM_PREVIEW_LENGTH - ITEM_PREVIEW_SUFFIX_RESERVE) {
+                break;
+            }
+            if (separator > 0) {
+                preview.append(", ");
+            }
+            preview.append(line);
+            shown++;
+        }
+        if (shown < itemDataList.size()) {
+            preview.append(" +").append(itemDataList.size() - shown).append(" more");
+        }
+        return preview.length() > ITEM_PREVIEW_LENGTH ? preview.substring(0, ITEM_PREVIEW_LENGTH) : preview.toString();
     }
 
     /**
      * Generate unique order number per store
-     * Format: ORD-STOREID-YYYYMMDD-XXX
+     * Format: ORD-STOREID-YYYYMMDD-XXXX (per-store daily sequence, see OrderNumberAllocator)
      */
     private String generateOrderNumber(Long storeId) {
-        return String.format("ORD-%d-%s-%04d",
-                storeId,
-                java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd")),
-                System.nanoTime() % 10000);
+        return orderNumberAllocator.next(storeId);
+    }
+
+    /**
+     * Export step: One CSV row per item (an order without items still gets one row)
+     */
+    private void writeCsvRows(CsvWriter csv, Order order, List<OrderItem> items) throws IOException {
+        if (items.isEmpty()) {
+            csv.writeRow(order.getOrderNumber(), order.getCreatedAt(), order.getStatus(), order.getPaymentType(),
+                    order.getCustomerId(), order.getEmployeeId(), order.getSubtotal(), order.getDiscountAmount(),
+                    order.getTotalAmount(), null, null, null, null, order.getNotes());
+            return;
+        }
+        for (OrderItem item : items) {
+            csv.writeRow(order.getOrderNumber(), order.getCreatedAt(), order.getStatus(), order.getPaymentType(),
+                    order.getCustomerId(), order.getEmployeeId(), order.getSubtotal(), order.getDiscountAmount(),
+                    order.getTotalAmount(), item.getProductId(), item.getQuantity(), item.getUnitPrice(),
+                    item.getTotalAmount(), order.getNotes());
+        }
     }
 
     /**
@@ -398,7 +1094,69 @@ public class OrderService {
                 .build();
     }
 
+    /**
+     * Map order_summary row to list DTO
+     */
+    private OrderSummaryDTO mapToSummaryDTO(OrderSummary summary) {
+        return OrderSummaryDTO.builder()
+                .id(summary.getOrderId())
+                .orderNumber(summary.getOrderNumber())
+                .customerId(summary.getCustomerId())
+                .customerName(summary.getCustomerName())
+                .employeeId(summary.getEmployeeId())
+                .itemCount(summary.getItemCount())
+                .totalQuantity(summary.getTotalQuantity())
+                .totalAmount(summary.getTotalAmount())
+                .paymentType(summary.getPaymentType() != null ? summary.getPaymentType().toString() : null)
+                .status(summary.getStatus().toString())
+                .itemPreview(summary.getItemPreview())
+                .createdAt(summary.getCreatedAt())
+                .build();
+    }
+
     // ========== INNER DATA CLASS (Temporary holder) ==========
+
+    /**
+     * OrderContext: Caller identity captured from the JWT on the request thread
+     * (group commit batches run on worker threads without a SecurityContext)
+     */
+    private record OrderContext(Long storeId, Long userId, String username) {
+        static OrderContext current() {
+            return new OrderContext(UserContext.getCurrentStoreId(), UserContext.getCurrentUserId(),
+                    UserContext.getCurrentUsername());
+        }
+    }
+
+    /**
+     * PendingOrder: One queued createOrder call of a group commit
+     */
+    private record PendingOrder(OrderContext context, CreateOrderRequest request) {
+    }
+
+    /**
+     * AcceptedOrder: Validated order of a group commit, waiting for persistence
+     */
+    private record AcceptedOrder(GroupCommitExecutor.Entry<PendingOrder, OrderDTO> entry,
+                                 Customer customer,
+                                 List<OrderItemData> itemDataList,
+                                 BigDecimal totalAmount) {
+    }
+
+    /**
+     * BatchOutcome: Result of a group commit transaction, applied to the futures after commit
+     */
+    private record BatchOutcome(Map<GroupCommitExecutor.Entry<PendingOrder, OrderDTO>, OrderDTO> created,
+                                Map<GroupCommitExecutor.Entry<PendingOrder, OrderDTO>, RuntimeException> rejected) {
+    }
+
+    /**
+     * StockSnapshot: Products and inventory rows loaded for validation
+     * available = stock left after the orders accepted so far (group commit)
+     */
+    private record StockSnapshot(Map<Long, Product> products,
+                                 Map<Long, Inventory> inventories,
+                                 Map<Long, Integer> available) {
+    }
     
     /**
      * OrderItemData: Hold item details during processing
@@ -1,5 +1,11 @@
 package com.bizflow.backend.core.usecase;
 
+import com.bizflow.backend.core.common.SalesExportDetail;
+import com.bizflow.backend.presentation.dto.response.SalesCubeStats;
+import com.bizflow.backend.presentation.dto.response.SalesExportJob;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -79,6 +85,17 @@ public interface ReportService {
      */
     Map<String, Object> getTopProducts(Long storeId, Integer limit, LocalDateTime startDate, LocalDateTime endDate);
 
+    /**
+     * Get best sellers of the current hour / day / week, approximate
+     * Served from an in-memory summary; getTopProducts stays the exact answer for any range
+     * 
+     * @param storeId Store ID
+     * @param period HOUR, TODAY (default) or WEEK
+     * @param limit Number of products to return
+     * @return Top products with units sold and their error bounds
+     */
+    Map<String, Object> getLiveTopProducts(Long storeId, String period, Integer limit);
+
     /**
      * Get inventory valuation report
      * Total value = quantity * current_price for all products
@@ -122,14 +139,58 @@ public interface ReportService {
     Map<String, Object> getMonthlySalesTrend(Long storeId);
 
     /**
-     * Export sales report to CSV format
+     * Get memory use of the in-memory sales cube
+     * 
+     * @param storeId Store ID
+     * @return Totals of all stores + state of the store's cube
+     */
+    SalesCubeStats getSalesCubeStats(Long storeId);
+
+    /**
+     * Export sales report to CSV format, streamed
+     * The range is validated here; rows are read over a database cursor and written
+     * while the body runs, so memory stays constant for any range
      * 
      * @param storeId Store ID
      * @param startDate Start date
      * @param endDate End date
-     * @return CSV content as string
+     * @param detail One row per day or one row per order line
+     * @param gzip Compress the output with gzip
+     * @return Body writing the CSV to the response (or a file)
+     */
+    StreamingResponseBody exportSalesReportToCsv(Long storeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                 SalesExportDetail detail, boolean gzip);
+
+    /**
+     * Start a CSV export in the background, written to the local export store
+     * 
+     * @param storeId Store ID
+     * @param startDate Start date
+     * @param endDate End date
+     * @param detail One row per day or one row per order line
+     * @param gzip Compress the file with gzip
+     * @return Queued job
+     */
+    SalesExportJob startSalesExportJob(Long storeId, LocalDateTime startDate, LocalDateTime endDate,
+                                       SalesExportDetail detail, boolean gzip);
+
+    /**
+     * Get state of an export job of the store
+     * 
+     * @param storeId Store ID
+     * @param jobId Job ID
+     * @return Job state (file size once DONE)
+     */
+    SalesExportJob getSalesExportJob(Long storeId, String jobId);
+
+    /**
+     * Get the file of a finished export job
+     * 
+     * @param storeId Store ID
+     * @param jobId Job ID
+     * @return CSV (or gzip) file
      */
-    String exportSalesReportToCsv(Long storeId, LocalDateTime startDate, LocalDateTime endDate);
+    Resource getSalesExportFile(Long storeId, String jobId);
 
     /**
      * Get business health score (0-100)
@@ -0,0 +1,422 @@
+package com.bizflow.backend.core.usecase;
+
+import com.bizflow.backend.core.common.UserContext;
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.core.domain.StocktakeSession;
+import com.bizflow.backend.infrastructure.inventory.LowStockTracker;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepositoryCustom.StockCorrection;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepositoryCustom.StockRow;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository.CatalogEntry;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StocktakeSessionRepository;
+import com.bizflow.backend.presentation.dto.request.StocktakeCountRequest;
+import com.bizflow.backend.presentation.dto.response.StockImportResult.LineError;
+import com.bizflow.backend.presentation.dto.response.StocktakeSessionDTO;
+import com.bizflow.backend.presentation.dto.response.StocktakeSessionDTO.Diff;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import com.bizflow.backend.presentation.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * StocktakeService: Physical stock counts of a store, counted from several devices at once
+ *
+ * Flow:
+ * 1. openSession() - one OPEN session per store, catalog SKU map loaded once
+ * 2. addCounts() - devices send batches of scans; counts are merged in memory per product
+ *    (concurrent devices only share a read lock, a resent batch is ignored)
+ * 3. previewDiff() - counted vs current inventory, nothing written
+ * 4. closeSession() - one transaction: lock the inventory rows, set every counted quantity,
+ *    one STOCK_ADJUST movement per changed product (reference = session ID), all as batches
+ *
+ * Rules:
+ * - Only counted products are adjusted, unless zeroUncounted (full count: anything not
+ *   scanned is set to 0)
+ * - A counted quantity below the product's reserved stock fails the close (4002)
+ * - Counts live in the memory of the instance that opened the session; an OPEN session
+ *   without counts here (server restarted) is cancelled when the store opens a new one
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StocktakeService {
+
+    private static final String REFERENCE_TYPE = "STOCKTAKE";
+
+    private final StocktakeSessionRepository sessionRepository;
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final LowStockTracker lowStockTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    // sessionId → merged counts of OPEN sessions held by this instance
+    private final Map<Long, OpenSession> openSessions = new ConcurrentHashMap<>();
+
+    // ========== PUBLIC METHODS ==========
+
+    /**
+     * Synchronized: the in-memory check is what keeps a store to one open session
+     */
+    public synchronized StocktakeSessionDTO openSession() {
+        Long storeId = UserContext.getCurrentStoreId();
+        String username = UserContext.getCurrentUsername();
+        for (OpenSession open : openSessions.values()) {
+            if (open.storeId.equals(storeId)) {
+                throw new BusinessException(4002, "A stocktake session is already open: " + open.sessionId);
+            }
+        }
+
+        StocktakeSession session = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (StocktakeSession stale : sessionRepository.findByStoreIdAndStatus(storeId, StocktakeSession.SessionStatus.OPEN)) {
+                // Counts were held by a previous run of the server and are gone
+                stale.setStatus(StocktakeSession.SessionStatus.CANCELLED);
+                stale.setClosedBy(username);
+                stale.setClosedAt(now);
+                sessionRepository.save(stale);
+                log.warn("Stocktake session {} of store {} had no counts in memory, cancelled", stale.getId(), storeId);
+            }
+            return sessionRepository.save(StocktakeSession.builder()
+                    .storeId(storeId)
+                    .status(StocktakeSession.SessionStatus.OPEN)
+                    .openedBy(username)
+                    .openedAt(now)
+                    .build());
+        });
+
+        OpenSession open = new OpenSession(session.getId(), storeId, catalogOf(storeId));
+        openSessions.put(session.getId(), open);
+        log.info("Stocktake session {} opened for store {} by {}", session.getId(), storeId, username);
+        return mapToDTO(session, open, null);
+    }
+
+    /**
+     * Merge one device batch into the session
+     */
+    public StocktakeSessionDTO addCounts(Long sessionId, StocktakeCountRequest request) {
+        StocktakeSession session = findSession(sessionId);
+        OpenSession open = requireOpen(session);
+
+        List<LineError> rejected = new ArrayList<>();
+        boolean duplicate;
+        open.lock.readLock().lock();
+        try {
+            requireNotClosed(open);
+            duplicate = !open.batches.add(request.getDeviceId() + "#" + request.getBatchSeq());
+            if (!duplicate) {
+                open.devices.add(request.getDeviceId());
+                List<StocktakeCountRequest.CountLine> lines = request.getLines();
+                for (int i = 0; i < lines.size(); i++) {
+                    mergeLine(open, i + 1, lines.get(i), rejected);
+                }
+            }
+        } finally {
+            open.lock.readLock().unlock();
+        }
+
+        StocktakeSessionDTO dto = mapToDTO(session, open, null);
+        dto.setDuplicateBatch(duplicate);
+        dto.setRejectedLines(rejected);
+        return dto;
+    }
+
+    public StocktakeSessionDTO getSession(Long sessionId) {
+        StocktakeSession session = findSession(sessionId);
+        return mapToDTO(session, openSessions.get(sessionId), null);
+    }
+
+    /**
+     * Differences the close would apply right now (reads inventory, locks nothing)
+     */
+    public StocktakeSessionDTO previewDiff(Long sessionId, boolean zeroUncounted) {
+        StocktakeSession session = findSession(sessionId);
+        OpenSession open = requireOpen(session);
+
+        Map<Long, Long> counts;
+        open.lock.readLock().lock();
+        try {
+            counts = new TreeMap<>(open.counts);
+        } finally {
+            open.lock.readLock().unlock();
+        }
+        Map<Long, StockRow> rows = inventoryRepository.findStockRows(session.getStoreId(),
+                zeroUncounted ? null : counts.keySet(), false);
+        return mapToDTO(session, open, calculateDiffs(counts, rows, zeroUncounted));
+    }
+
+    /**
+     * Apply the counts: all adjustments and movements in one batched transaction
+     *
+     * @param zeroUncounted true = full count, products not scanned are set to 0
+     */
+    public StocktakeSessionDTO closeSession(Long sessionId, boolean zeroUncounted) {
+        StocktakeSession session = findSession(sessionId);
+        OpenSession open = requireOpen(session);
+        String username = UserContext.getCurrentUsername();
+
+        // Write lock: no device batch is merged while the diff is computed and applied
+        open.lock.writeLock().lock();
+        try {
+            requireNotClosed(open);
+            Map<Long, Long> counts = new TreeMap<>(open.counts);
+            List<Diff> diffs = transactionTemplate.execute(status ->
+                    applyCounts(session, open, counts, zeroUncounted, username));
+            open.closed = true;
+            openSessions.remove(sessionId);
+
+            log.info("Stocktake session {} of store {} closed by {}: {} counted, {} adjusted, net {}",
+                    sessionId, session.getStoreId(), username, counts.size(), diffs.size(), session.getNetDelta());
+            return mapToDTO(session, null, diffs);
+        } finally {
+            open.lock.writeLock().unlock();
+        }
+    }
+
+    public StocktakeSessionDTO cancelSession(Long sessionId) {
+        StocktakeSession session = findSession(sessionId);
+        if (session.getStatus() != StocktakeSession.SessionStatus.OPEN) {
+            throw new BusinessException(4002, "Stocktake session is not open: " + sessionId);
+        }
+
+        OpenSession open = openSessions.get(sessionId);
+        if (open != null) {
+            open.lock.writeLock().lock();
+        }
+        try {
+            session.setStatus(StocktakeSession.SessionStatus.CANCELLED);
+            session.setClosedBy(UserContext.getCurrentUsername());
+            session.setClosedAt(LocalDateTime.now());
+            StocktakeSession saved = sessionRepository.save(session);
+            if (open != null) {
+                open.closed = true;
+                openSessions.remove(sessionId);
+            }
+            log.info("Stocktake session {} of store {} cancelled", sessionId, session.getStoreId());
+            return mapToDTO(saved, null, null);
+        } finally {
+            if (open != null) {
+                open.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // ========== PRIVATE METHODS ==========
+
+    /**
+     * Validation step: Session exists and belongs to current store
+     */
+    private StocktakeSession findSession(Long sessionId) {
+        Long storeId = UserContext.getCurrentStoreId();
+        return sessionRepository.findById(sessionId)
+                .filter(session -> session.getStoreId().equals(storeId))
+                .orElseThrow(() -> new ResourceNotFoundException("Stocktake session not found: " + sessionId));
+    }
+
+    private OpenSession requireOpen(StocktakeSession session) {
+        OpenSession open = openSessions.get(session.getId());
+        if (session.getStatus() != StocktakeSession.SessionStatus.OPEN || open == null) {
+            throw new BusinessException(4002, "Stocktake session is not open: " + session.getId());
+        }
+        return open;
+    }
+
+    private void requireNotClosed(OpenSession open) {
+        if (open.closed) {
+            throw new BusinessException(4002, "Stocktake session is not open: " + open.sessionId);
+        }
+    }
+
+    /**
+     * Validation step + merge of one scanned line (caller holds the read lock)
+     */
+    private void mergeLine(OpenSession open, long lineNumber, StocktakeCountRequest.CountLine line,
+                           List<LineError> rejected) {
+        Long productId = line.getProductId();
+        String sku = line.getSku() != null ? line.getSku().trim() : null;
+        if (productId == null && sku != null) {
+            productId = open.productIdBySku.get(sku);
+        }
+        if (productId == null || !open.productIds.contains(productId)) {
+            rejected.add(new LineError(lineNumber, sku, "Unknown product for this store"));
+            return;
+        }
+        int quantity = line.getQuantity();
+        if (quantity == 0) {
+            rejected.add(new LineError(lineNumber, sku, "Quantity must not be 0"));
+            return;
+        }
+
+        long total = open.counts.merge(productId, (long) quantity, Long::sum);
+        if (total < 0) {
+            open.counts.merge(productId, (long) -quantity, Long::sum);
+            rejected.add(new LineError(lineNumber, sku, "Count of product " + productId + " would become negative"));
+        }
+    }
+
+    /**
+     * Calculation step: One diff per product whose counted quantity differs from inventory
+     */
+    private List<Diff> calculateDiffs(Map<Long, Long> counts, Map<Long, StockRow> rows, boolean zeroUncounted) {
+        Set<Long> productIds = new TreeSet<>(counts.keySet());
+        if (zeroUncounted) {
+            productIds.addAll(rows.keySet());
+        }
+        List<Diff> diffs = new ArrayList<>();
+        for (Long productId : productIds) {
+            long counted = counts.getOrDefault(productId, 0L);
+            StockRow row = rows.get(productId);
+            int system = row != null ? row.quantity() : 0;
+            if (counted != system) {
+                diffs.add(new Diff(productId, system, counted, counted - system));
+            }
+        }
+        return diffs;
+    }
+
+    /**
+     * Persistence step: Lock rows, set counted quantities, write movements, close the session
+     * (runs inside the close transaction)
+     */
+    private List<Diff> applyCounts(StocktakeSession session, OpenSession open, Map<Long, Long> counts,
+                                   boolean zeroUncounted, String username) {
+        Long storeId = session.getStoreId();
+        Map<Long, StockRow> rows = inventoryRepository.findStockRows(storeId, zeroUncounted ? null : counts.keySet(), true);
+        List<Diff> diffs = calculateDiffs(counts, rows, zeroUncounted);
+
+        List<Long> belowReserved = new ArrayList<>();
+        List<StockCorrection> corrections = new ArrayList<>();
+        Map<Long, Integer> firstStock = new TreeMap<>();
+        for (Diff diff : diffs) {
+            StockRow row = rows.get(diff.productId());
+            int counted = Math.toIntExact(diff.countedQuantity());
+            if (row == null) {
+                firstStock.put(diff.productId(), counted);
+            } else if (counted < row.reservedQuantity()) {
+                belowReserved.add(diff.productId());
+            } else {
+                corrections.add(new StockCorrection(diff.productId(), counted, row.version()));
+            }
+        }
+        if (!belowReserved.isEmpty()) {
+            throw new BusinessException(4002, "Counted quantity is below reserved stock for products " + belowReserved
+                    + ", release the reservations first");
+        }
+
+        // Rows are locked, so every guarded update must apply
+        List<Long> rejected = inventoryRepository.applyCorrections(storeId, corrections);
+        if (!rejected.isEmpty()) {
+            throw new IllegalStateException("Locked inventory rows changed during stocktake close: " + rejected);
+        }
+        inventoryRepository.insertStockBatch(storeId, firstStock);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StockMovement> movements = new ArrayList<>(diffs.size());
+        int netDelta = 0;
+        for (Diff diff : diffs) {
+            movements.add(StockMovement.builder()
+                    .storeId(storeId)
+                    .productId(diff.productId())
+                    .type(StockMovement.MovementType.STOCK_ADJUST)
+                    .quantity(Math.toIntExact(diff.delta()))
+                    .referenceId(session.getId())
+                    .referenceType(REFERENCE_TYPE)
+                    .createdBy(username)
+                    .createdAt(now)
+                    .build());
+            netDelta += Math.toIntExact(diff.delta());
+        }
+        stockMovementRepository.batchInsert(movements);
+        if (!diffs.isEmpty()) {
+            lowStockTracker.onStockChanged(storeId, diffs.stream().map(Diff::productId).toList());
+        }
+
+        session.setStatus(StocktakeSession.SessionStatus.CLOSED);
+        session.setClosedBy(username);
+        session.setClosedAt(now);
+        session.setDeviceCount(open.devices.size());
+        session.setCountedProducts(counts.size());
+        session.setAdjustedProducts(diffs.size());
+        session.setNetDelta(netDelta);
+        sessionRepository.save(session);
+        return diffs;
+    }
+
+    private CatalogView catalogOf(Long storeId) {
+        Map<String, Long> productIdBySku = new HashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        for (CatalogEntry entry : productRepository.findCatalogByStoreId(storeId)) {
+            productIdBySku.put(entry.getSku().trim(), entry.getId());
+            productIds.add(entry.getId());
+        }
+        return new CatalogView(productIdBySku, productIds);
+    }
+
+    private StocktakeSessionDTO mapToDTO(StocktakeSession session, OpenSession open, List<Diff> diffs) {
+        StocktakeSessionDTO.StocktakeSessionDTOBuilder dto = StocktakeSessionDTO.builder()
+                .id(session.getId())
+                .status(session.getStatus().toString())
+                .openedBy(session.getOpenedBy())
+                .openedAt(session.getOpenedAt())
+                .closedBy(session.getClosedBy())
+                .closedAt(session.getClosedAt())
+                .deviceCount(session.getDeviceCount())
+                .countedProducts(session.getCountedProducts())
+                .adjustedProducts(session.getAdjustedProducts())
+                .netDelta(session.getNetDelta())
+                .diffs(diffs);
+        if (open != null) {
+            long units = 0;
+            for (Long count : open.counts.values()) {
+                units += count;
+            }
+            dto.deviceCount(open.devices.size())
+                    .countedProducts(open.counts.size())
+                    .countedUnits(units);
+        }
+        return dto.build();
+    }
+
+    private record CatalogView(Map<String, Long> productIdBySku, Set<Long> productIds) {
+    }
+
+    /**
+     * OpenSession: In-memory counts of one OPEN session
+     * Device batches share the read lock (counts map is concurrent), close/cancel take the write lock
+     */
+    private static final class OpenSession {
+        private final Long sessionId;
+        private final Long storeId;
+        private final Map<String, Long> productIdBySku;
+        private final Set<Long> productIds;
+        private final Map<Long, Long> counts = new ConcurrentHashMap<>();
+        private final Set<String> batches = ConcurrentHashMap.newKeySet();
+        private final Set<String> devices = ConcurrentHashMap.newKeySet();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean closed = false;
+
+        private OpenSession(Long sessionId, Long storeId, CatalogView catalog) {
+            this.sessionId = sessionId;
+            this.storeId = storeId;
+            this.productIdBySku = catalog.productIdBySku();
+            this.productIds = catalog.productIds();
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package com.bizflow.backend.core.usecase.impl;
+
+import com.bizflow.backend.core.common.BalanceCursor;
+import com.bizflow.backend.core.common.ImportFormat;
+import com.bizflow.backend.core.common.KeysetCursor;
+import com.bizflow.backend.core.common.UserContext;
+import com.bizflow.backend.core.domain.Inventory;
+import com.bizflow.backend.core.domain.Product;
+import com.bizflow.backend.core.domain.ReorderSuggestion;
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.core.domain.StockReservation;
+import com.bizflow.backend.core.usecase.InventoryService;
+import com.bizflow.backend.infrastructure.inventory.BulkStockImporter;
+import com.bizflow.backend.infrastructure.inventory.InventoryLedger;
+import com.bizflow.backend.infrastructure.inventory.LowStockTracker;
+import com.bizflow.backend.infrastructure.inventory.ReorderEngine;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepositoryCustom.StockKey;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ReorderSuggestionRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepositoryCustom.MovementLine;
+import com.bizflow.backend.infrastructure.persistence.repository.StockReservationRepository;
+import com.bizflow.backend.infrastructure.reservation.ReservationReaper;
+import com.bizflow.backend.presentation.dto.request.ImportInventoryRequest;
+import com.bizflow.backend.presentation.dto.response.CursorPage;
+import com.bizflow.backend.presentation.dto.response.LedgerReplayReport;
+import com.bizflow.backend.presentation.dto.response.ProductDTO;
+import com.bizflow.backend.presentation.dto.response.ReorderRunReport;
+import com.bizflow.backend.presentation.dto.response.StockImportResult;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import com.bizflow.backend.presentation.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * InventoryServiceImpl: Stock levels, reservations and stock movements of the current store
+ *
+ * - Stock changes are guarded UPDATEs (no read-modify-write), every change writes a StockMovement
+ * - Reservations move quantity from available to reserved and are stored as StockReservation
+ *   rows with an expiry (bizflow.reservation.ttl); ReservationReaper releases them when it passes
+ * - Every quantity change updates the low-stock set through LowStockTracker
+ * - Inventory can be checked against / rebuilt from the movement ledger (InventoryLedger)
+ * - Reorder suggestions are computed from sales velocity by ReorderEngine
+ * - storeId always comes from UserContext
+ */
+@Slf4j
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private final InventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ReservationReaper reservationReaper;
+    private final LowStockTracker lowStockTracker;
+    private final InventoryLedger inventoryLedger;
+    private final BulkStockImporter bulkStockImporter;
+    private final ReorderEngine reorderEngine;
+    private final ReorderSuggestionRepository reorderSuggestionRepository;
+    private final Duration reservationTtl;
+
+    public InventoryServiceImpl(InventoryRepository inventoryRepository,
+                                ProductRepository productRepository,
+                                StockMovementRepository stockMovementRepository,
+                                StockReservationRepository reservationRepository,
+                                ReservationReaper reservationReaper,
+                                LowStockTracker lowStockTracker,
+                                InventoryLedger inventoryLedger,
+                                BulkStockImporter bulkStockImporter,
+                                ReorderEngine reorderEngine,
+                                ReorderSuggestionRepository reorderSuggestionRepository,
+                                @Value("${bizflow.reservation.ttl:PT15M}") Duration reservationTtl) {
+        this.inventoryRepository = inventoryRepository;
+        this.productRepository = productRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.reservationRepository = reservationRepository;
+        this.reservationReaper = reservationReaper;
+        this.lowStockTracker = lowStockTracker;
+        this.inventoryLedger = inventoryLedger;
+        this.bulkStockImporter = bulkStockImporter;
+        this.reorderEngine = reorderEngine;
+        this.reorderSuggestionRepository = reorderSuggestionRepository;
+        this.reservationTtl = reservationTtl;
+    }
+
+    // ========== Stock levels ==========
+
+    @Override
+    public boolean hasStock(Long productId, Integer quantity) {
+        return getAvailableQuantity(productId) >= quantity;
+    }
+
+    @Override
+    public Optional<Inventory> getStock(Long productId) {
+        return inventoryRepository.findByStoreIdAndProductId(UserContext.getCurrentStoreId(), productId);
+    }
+
+    @Override
+    public Integer getAvailableQuantity(Long productId) {
+        return getStock(productId).map(Inventory::getAvailableQuantity).orElse(0);
+    }
+
+    // ========== Reservations ==========
+
+    /**
+     * Hold stock for a cart / draft order until released or expired (TTL)
+     *
+     * No StockMovement is written: quantity on hand does not change,
+     * the StockReservation row is the record of the hold.
+     */
+    @Override
+    @Transactional
+    public Inventory reserveStock(Long productId, Integer quantity, Long orderId) {
+        Long storeId = UserContext.getCurrentStoreId();
+        validateQuantity(quantity);
+
+        if (inventoryRepository.reserveStock(storeId, productId, quantity) == 0) {
+            Inventory inventory = findInventory(storeId, productId);
+            throw new BusinessException(4006, String.format("Insufficient stock for product %d. Available: %d, Required: %d",
+                    productId, inventory.getAvailableQuantity(), quantity));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = reservationRepository.save(StockReservation.builder()
+                .storeId(storeId)
+                .productId(productId)
+                .quantity(quantity)
+                .referenceId(orderId)
+                .status(StockReservation.ReservationStatus.ACTIVE)
+                .expiresAt(now.plus(reservationTtl))
+                .createdBy(UserContext.getCurrentUsername())
+                .createdAt(now)
+                .build());
+        reservationReaper.schedule(reservation);
+
+        log.info("Stock reserved: productId={}, quantity={}, orderId={}, expiresAt={}",
+                productId, quantity, orderId, reservation.getExpiresAt());
+        return findInventory(storeId, productId);
+    }
+
+    /**
+     * Release held stock of (product, order), oldest reservation first
+     * A reservation is closed when fully released, otherwise its quantity is lowered
+     */
+    @Override
+    @Transactional
+    public Inventory releaseStock(Long productId, Integer quantity, Long orderId) {
+        Long storeId = UserContext.getCurrentStoreId();
+        validateQuantity(quantity);
+
+        List<StockReservation> active = reservationRepository.findByStoreIdAndProductIdAndReferenceIdAndStatusOrderByIdAsc(
+                storeId, productId, orderId, StockReservation.ReservationStatus.ACTIVE);
+        if (active.isEmpty()) {
+            throw new ResourceNotFoundException("No active reservation for product " + productId + " and order " + orderId);
+        }
+
+        int remaining = quantity;
+        int released = 0;
+        List<StockReservation> toClose = new ArrayList<>();
+        for (StockReservation reservation : active) {
+            if (remaining == 0) {
+                break;
+            }
+            if (reservation.getQuantity() <= remaining) {
+                toClose.add(reservation);
+                remaining -= reservation.getQuantity();
+            } else if (reservationRepository.shrink(reservation.getId(), reservation.getQuantity(),
+                    reservation.getQuantity() - remaining) == 1) {
+                released += remaining;
+                remaining = 0;
+            }
+        }
+        for (StockReservation reservation : reservationRepository.closeBatch(toClose,
+                StockReservation.ReservationStatus.RELEASED, LocalDateTime.now())) {
+            released += reservation.getQuantity();
+        }
+
+        if (released > 0) {
+            List<StockKey> rejected = inventoryRepository.releaseReservedBatch(
+                    Map.of(new StockKey(storeId, productId), released));
+            if (!rejected.isEmpty()) {
+                log.warn("Reserved quantity lower than released reservations for {}", rejected);
+            }
+        }
+
+        log.info("Stock released: productId={}, requested={}, released={}, orderId={}",
+                productId, quantity, released, orderId);
+        return findInventory(storeId, productId);
+    }
+
+    // ========== Stock movements ==========
+
+    @Override
+    @Transactional
+    public Inventory addStock(Long productId, Integer quantity, String reason, Long referenceId) {
+        Long storeId = UserContext.getCurrentStoreId();
+        validateQuantity(quantity);
+        Product product = findStoreProduct(storeId, productId);
+
+        StockMovement.MovementType type = switch (normalizeReason(reason)) {
+            case "RETURN" -> StockMovement.MovementType.RETURN;
+            case "ADJUSTMENT" -> StockMovement.MovementType.STOCK_ADJUST;
+            default -> StockMovement.MovementType.STOCK_IN;
+        };
+        return stockIn(storeId, product, quantity, buildMovement(storeId, productId, type, quantity,
+                referenceId, normalizeReason(reason), product.getCostPrice(), null, null));
+    }
+
+    @Override
+    @Transactional
+    public Inventory reduceStock(Long productId, Integer quantity, String reason, Long referenceId) {
+        Long storeId = UserContext.getCurrentStoreId();
+        validateQuantity(quantity);
+
+        if (inventoryRepository.decrementStock(storeId, productId, quantity) == 0) {
+            Inventory inventory = findInventory(storeId, productId);
+            throw new BusinessException(4006, String.format("Insufficient stock for product %d. Available: %d, Required: %d",
+                    productId, inventory.getAvailableQuantity(), quantity));
+        }
+
+        StockMovement.MovementType type = "SALE".equals(normalizeReason(reason))
+                ? StockMovement.MovementType.SALE : StockMovement.MovementType.STOCK_ADJUST;
+        stockMovementRepository.batchInsert(List.of(buildMovement(storeId, productId, type, -quantity,
+                referenceId, normalizeReason(reason), null, null, null)));
+        lowStockTracker.onStockChanged(storeId, List.of(productId));
+        return findInventory(storeId, productId);
+    }
+
+    @Override
+    @Transactional
+    public Inventory importStock(ImportInventoryRequest request) {
+        Long storeId = UserContext.getCurrentStoreId();
+        validateQuantity(request.getQuantity());
+        Product product = findStoreProduct(storeId, request.getProductId());
+
+        BigDecimal unitPrice = request.getUnitPrice() != null ? request.getUnitPrice() : product.getCostPrice();
+        return stockIn(storeId, product, request.getQuantity(), buildMovement(storeId, product.getId(),
+                StockMovement.MovementType.STOCK_IN, request.getQuantity(), null, "STOCK_IN", unitPrice,
+                request.getSupplierName(), request.getNotes()));
+    }
+
+    /**
+     * Not @Transactional: the importer commits one transaction per chunk,
+     * so a bad chunk does not undo the lines before it
+     */
+    @Override
+    public StockImportResult bulkImportStock(InputStream input, ImportFormat format, String supplierName) {
+        return bulkStockImporter.importStock(UserContext.getCurrentStoreId(), input, format, supplierName,
+                UserContext.getCurrentUsername());
+    }
+
+    /**
+     * Set quantity on hand after a count (read-modify-write, protected by Inventory.version)
+     * Reserved stock stays reserved, so the new quantity cannot be lower than it
+     */
+    @Override
+    @Transactional
+    public Inventory adjustStock(Long productId, Integer newQuantity, String reason) {
+        Long storeId = UserContext.getCurrentStoreId();
+        Inventory inventory = findInventory(storeId, productId);
+        int reserved = inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
+        if (newQuantity == null || newQuantity < reserved) {
+            throw new BusinessException(4002, "New quantity must be at least the reserved quantity (" + reserved + ")");
+        }
+
+        int delta = newQuantity - inventory.getQuantity();
+        inventory.setQuantity(newQuantity);
+        inventory.setAvailableQuantity(newQuantity - reserved);
+        Inventory saved = inventoryRepository.saveAndFlush(inventory);
+
+        if (delta != 0) {
+            stockMovementRepository.batchInsert(List.of(buildMovement(storeId, productId,
+                    StockMovement.MovementType.STOCK_ADJUST, delta, null, "ADJUSTMENT", null, null, reason)));
+            lowStockTracker.onStockChanged(storeId, List.of(productId));
+        }
+        return saved;
+    }
+
+    // ========== History / reports ==========
+
+    /**
+     * First page starts from the current quantity on hand; later pages carry the
+     * balance in the cursor. Read-only transaction: quantity and page come from
+     * the same snapshot, so a concurrent sale cannot shift the balance.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<MovementLine> getStockMovementHistory(Long productId, String cursor, Integer size) {
+        Long storeId = UserContext.getCurrentStoreId();
+        int limit = CursorPage.normalizeSize(size);
+        BalanceCursor position = BalanceCursor.decode(cursor);
+
+        List<MovementLine> lines = position == null
+                ? stockMovementRepository.findHistory(storeId, productId, null, null,
+                        getStock(productId).map(Inventory::getQuantity).orElse(0), limit + 1)
+                : stockMovementRepository.findHistory(storeId, productId, position.createdAt(), position.id(),
+                        position.balance(), limit + 1);
+
+        return CursorPage.of(lines, limit,
+                line -> new BalanceCursor(line.createdAt(), line.id(), line.balanceBefore()).encode(),
+                line -> line);
+    }
+
+    @Override
+    public CursorPage<StockMovement> scrollStockMovementHistory(Long productId, String cursor, Integer size) {
+        Long storeId = UserContext.getCurrentStoreId();
+        int limit = CursorPage.normalizeSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        PageRequest fetch = PageRequest.of(0, limit + 1);
+        List<StockMovement> movements = position == null
+                ? stockMovementRepository.findByStoreIdAndProductIdOrderByCreatedAtDescIdDesc(storeId, productId, fetch)
+                : stockMovementRepository.findByStoreIdAndProductIdBefore(storeId, productId,
+                        position.createdAt(), position.id(), fetch);
+
+        return CursorPage.of(movements, limit,
+                movement -> new KeysetCursor(movement.getCreatedAt(), movement.getId()).encode(),
+                movement -> movement);
+    }
+
+    /**
+     * Reads the maintained low-stock set (inventory.low_stock, see LowStockTracker),
+     * an index range scan instead of comparing every row with its product's reorder level
+     */
+    @Override
+    public Page<ProductDTO> getLowStockProducts(Long storeId, Pageable pageable) {
+        Page<Inventory> rows = inventoryRepository.findByStoreIdAndLowStockTrue(storeId, pageable);
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(rows.map(Inventory::getProductId).getContent())) {
+            products.put(product.getId(), product);
+        }
+        return rows.map(row -> mapToProductDTO(products.get(row.getProductId()), row));
+    }
+
+    // ========== Ledger reconciliation ==========
+
+    @Override
+    public LedgerReplayReport verifyLedger() {
+        return inventoryLedger.verify(UserContext.getCurrentStoreId());
+    }
+
+    @Override
+    public LedgerReplayReport rebuildFromLedger() {
+        Long storeId = UserContext.getCurrentStoreId();
+        log.warn("Inventory rebuild from ledger requested by {} for store {}", UserContext.getCurrentUsername(), storeId);
+        return inventoryLedger.rebuild(storeId);
+    }
+
+    @Override
+    public int snapshotLedger() {
+        return inventoryLedger.takeSnapshot(UserContext.getCurrentStoreId());
+    }
+
+    // ========== Reorder suggestions ==========
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ReorderSuggestion> getReorderSuggestions(boolean onlyToReorder, Pageable pageable) {
+        Long storeId = UserContext.getCurrentStoreId();
+        return onlyToReorder
+                ? reorderSuggestionRepository.findByStoreIdAndSuggestedQuantityGreaterThan(storeId, 0, pageable)
+                : reorderSuggestionRepository.findByStoreId(storeId, pageable);
+    }
+
+    @Override
+    public ReorderRunReport refreshReorderSuggestions() {
+        return reorderEngine.run(UserContext.getCurrentStoreId());
+    }
+
+    // ========== PRIVATE METHODS ==========
+
+    /**
+     * Validation step: Quantities must be positive
+     */
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity < 1) {
+            throw new BusinessException(4002, "Quantity must be at least 1");
+        }
+    }
+
+    private String normalizeReason(String reason) {
+        return reason != null ? reason.trim().toUpperCase() : "";
+    }
+
+    /**
+     * Validation step: Product exists and belongs to current store
+     */
+    private Product findStoreProduct(Long storeId, Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
+        if (!product.getStoreId().equals(storeId)) {
+            throw new BusinessException(4003, "Product does not belong to your store");
+        }
+        return product;
+    }
+
+    private Inventory findInventory(Long storeId, Long productId) {
+        return inventoryRepository.findByStoreIdAndProductId(storeId, productId)
+                .orElseThrow(() -> new BusinessException(4005, "Product has no inventory: " + productId));
+    }
+
+    /**
+     * Persistence step: Atomic increment (first stock in creates the inventory row) + movement
+     */
+    private Inventory stockIn(Long storeId, Product product, Integer quantity, StockMovement movement) {
+        if (inventoryRepository.incrementStock(storeId, product.getId(), quantity) == 0) {
+            inventoryRepository.saveAndFlush(Inventory.builder()
+                    .storeId(storeId)
+                    .productId(product.getId())
+                    .quantity(quantity)
+                    .reservedQuantity(0)
+                    .availableQuantity(quantity)
+                    .build());
+        }
+        stockMovementRepository.batchInsert(List.of(movement));
+        lowStockTracker.onStockChanged(storeId, List.of(product.getId()));
+        return findInventory(storeId, product.getId());
+    }
+
+    /**
+     * Construction step: One StockMovement (signed quantity)
+     */
+    private StockMovement buildMovement(Long storeId, Long productId, StockMovement.MovementType type,
+                                        int quantity, Long referenceId, String referenceType,
+                                        BigDecimal unitPrice, String supplierName, String notes) {
+        return StockMovement.builder()
+                .storeId(storeId)
+                .productId(productId)
+                .type(type)
+                .quantity(quantity)
+                .referenceId(referenceId)
+                .referenceType(referenceType.isEmpty() ? null : referenceType)
+                .unitPrice(unitPrice)
+                .supplierName(supplierName)
+                .notes(notes)
+                .createdBy(UserContext.getCurrentUsername())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private ProductDTO mapToProductDTO(Product product, Inventory inventory) {
+        return ProductDTO.builder()
+                .id(inventory.getProductId())
+                .name(product != null ? product.getName() : null)
+                .sku(product != null ? product.getSku() : null)
+                .price(product != null ? product.getPrice() : null)
+                .costPrice(product != null ? product.getCostPrice() : null)
+                .stock(inventory.getQuantity())
+                .categoryId(product != null ? product.getCategoryId() : null)
+                .unitId(product != null ? product.getUnitId() : null)
+                .unitName(product != null ? product.getUnitName() : null)
+                .status(product != null && product.getStatus() != null ? product.getStatus().toString() : null)
+                .storeId(inventory.getStoreId())
+                .build();
+    }
+}
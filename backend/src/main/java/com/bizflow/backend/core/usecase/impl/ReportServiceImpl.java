@@ -0,0 +1,654 @@
+package com.bizflow.backend.core.usecase.impl;
+
+import com.bizflow.backend.core.common.CsvWriter;
+import com.bizflow.backend.core.common.SalesExportDetail;
+import com.bizflow.backend.core.domain.Customer;
+import com.bizflow.backend.core.domain.Order;
+import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.core.domain.Product;
+import com.bizflow.backend.core.domain.SalesDaily;
+import com.bizflow.backend.core.usecase.ReportService;
+import com.bizflow.backend.infrastructure.persistence.repository.CustomerRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.DebtRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.DebtRepository.DueDebts;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository.StockValue;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderSummaryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderSummaryRepository.CustomerActivity;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyProductRepository.GroupedSales;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyRepository;
+import com.bizflow.backend.infrastructure.report.DashboardMetricsCache;
+import com.bizflow.backend.infrastructure.report.SalesCube;
+import com.bizflow.backend.infrastructure.report.SalesExportJobs;
+import com.bizflow.backend.infrastructure.report.TopSellers;
+import com.bizflow.backend.presentation.dto.response.DashboardMetrics;
+import com.bizflow.backend.presentation.dto.response.SalesCubeStats;
+import com.bizflow.backend.presentation.dto.response.SalesExportJob;
+import com.bizflow.backend.presentation.dto.response.SalesTotals;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ReportServiceImpl: Reports of a store, read from the daily sales rollups
+ *
+ * - Sales figures come from sales_daily (store/day) and sales_daily_product
+ *   (store/day/product/employee), kept up to date by SalesRollup when orders are placed
+ *   or cancelled: a year of dashboard data is at most 366 rows, not every order of the year
+ * - Date ranges are whole days (rollup grain): startDate / endDate are inclusive dates,
+ *   the time of day is ignored; null = the last 30 days
+ * - Revenue by category / segment, top products and the daily trend scan the in-memory
+ *   SalesCube (recent order lines per store, column arrays); when the store's cube is still
+ *   loading or the range starts before it, the same figures come from SQL as below
+ * - Customer segment has no rollup: it is summed from order_summary (narrow read model)
+ * - Stock value, receivables and customer counts are grouped in the database, small result sets
+ * - Callers pass the storeId from UserContext (see ReportController)
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReportServiceImpl implements ReportService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 3660;
+    private static final int MAX_TOP_PRODUCTS = 100;
+    private static final String UNCATEGORIZED = "UNCATEGORIZED";
+    private static final int EXPORT_BUFFER_BYTES = 64 * 1024;
+
+    private final SalesDailyRepository salesDailyRepository;
+    private final SalesDailyProductRepository salesDailyProductRepository;
+    private final OrderRepository orderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final DebtRepository debtRepository;
+    private final DashboardMetricsCache dashboardMetricsCache;
+    private final SalesCube salesCube;
+    private final SalesExportJobs salesExportJobs;
+    private final TopSellers topSellers;
+
+    // ========== Dashboard ==========
+
+    /**
+     * Served by DashboardMetricsCache (local + Redis, updated by order / stock / debt events)
+     */
+    @Override
+    public Map<String, Object> getDashboardMetrics(Long storeId) {
+        DashboardMetrics dashboard = dashboardMetricsCache.get(storeId);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("today", dashboard.getToday());
+        metrics.put("thisMonth", dashboard.getThisMonth());
+        metrics.put("thisYear", dashboard.getThisYear());
+        metrics.put("customers", dashboard.getCustomers());
+        metrics.put("inventoryValue", dashboard.getInventoryValue());
+        metrics.put("outstandingDebt", dashboard.getOutstandingDebt());
+        metrics.put("computedAt", dashboard.getComputedAt());
+        return metrics;
+    }
+
+    // ========== Sales ==========
+
+    @Override
+    public Map<String, Object> getSalesReport(Long storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        DateRange range = resolveRange(startDate, endDate);
+        List<SalesDaily> days = salesDailyRepository.findByStoreIdAndSalesDateBetweenOrderBySalesDate(
+                storeId, range.from(), range.to());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", range.from());
+        report.put("to", range.to());
+        report.put("totals", totals(days, range.from(), range.to()));
+        report.put("byCategory", getRevenueByCategory(storeId, startDate, endDate));
+        report.put("bySegment", getRevenueBySegment(storeId, startDate, endDate));
+        report.put("byEmployee", groupedRows("employeeId",
+                salesDailyProductRepository.sumByEmployee(storeId, range.from(), range.to())));
+        report.put("days", dayRows(days));
+        return report;
+    }
+
+    @Override
+    public Map<String, Double> getRevenueByCategory(Long storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        DateRange range = resolveRange(startDate, endDate);
+        Map<String, Double> revenue = new LinkedHashMap<>();
+        Optional<List<SalesCube.Group>> cube = salesCube.sumByCategory(storeId, range.from(), range.to());
+        if (cube.isPresent()) {
+            List<SalesCube.Group> groups = new ArrayList<>(cube.get());
+            groups.sort(Comparator.comparingLong(SalesCube.Group::amount).reversed());
+            for (SalesCube.Group group : groups) {
+                String category = group.key() != 0 ? Long.toString(group.key()) : UNCATEGORIZED;
+                revenue.put(category, group.revenue().doubleValue());
+            }
+            return revenue;
+        }
+        for (GroupedSales row : salesDailyProductRepository.sumByCategory(storeId, range.from(), range.to())) {
+            String category = row.getGroupId() != null ? row.getGroupId().toString() : UNCATEGORIZED;
+            revenue.put(category, toDouble(row.getRevenue()));
+        }
+        return revenue;
+    }
+
+    @Override
+    public Map<String, Double> getRevenueBySegment(Long storeId, LocalDateTime startDate, LocalDateTime endDate) {
+        DateRange range = resolveRange(startDate, endDate);
+        Map<String, Double> revenue = new LinkedHashMap<>();
+        Optional<List<SalesCube.Group>> cube = salesCube.sumBySegment(storeId, range.from(), range.to());
+        if (cube.isPresent()) {
+            Customer.CustomerType[] types = Customer.CustomerType.values();
+            for (SalesCube.Group group : cube.get()) {
+                String segment = group.key() >= 0 ? types[(int) group.key()].toString() : "UNKNOWN";
+                revenue.put(segment, group.revenue().doubleValue());
+            }
+            return revenue;
+        }
+        for (OrderSummaryRepository.SegmentSales row : orderSummaryRepository.sumBySegment(storeId,
+                range.from().atStartOfDay(), range.to().plusDays(1).atStartOfDay())) {
+            String segment = row.getSegment() != null ? row.getSegment().toString() : "UNKNOWN";
+            revenue.merge(segment, toDouble(row.getRevenue()), Double::sum);
+        }
+        return revenue;
+    }
+
+    @Override
+    public Map<String, Object> getTopProducts(Long storeId, Integer limit, LocalDateTime startDate, LocalDateTime endDate) {
+        DateRange range = resolveRange(startDate, endDate);
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
+        List<GroupedSales> rows = salesCube.sumByProduct(storeId, range.from(), range.to())
+                .map(groups -> groups.stream()
+                        .filter(group -> group.units() > 0)
+                        .sorted(Comparator.comparingLong(SalesCube.Group::units).reversed()
+                                .thenComparingLong(SalesCube.Group::key))
+                        .limit(size)
+                        .<GroupedSales>map(CubeGroup::new)
+                        .toList())
+                .orElseGet(() -> salesDailyProductRepository.findTopProducts(storeId, range.from(), range.to(),
+                        PageRequest.of(0, size)));
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(rows.stream().map(GroupedSales::getGroupId).toList())) {
+            products.put(product.getId(), product);
+        }
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (GroupedSales row : rows) {
+            Product product = products.get(row.getGroupId());
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("productId", row.getGroupId());
+            item.put("name", product != null ? product.getName() : null);
+            item.put("sku", product != null ? product.getSku() : null);
+            item.put("unitsSold", row.getUnitsSold());
+            item.put("revenue", row.getRevenue());
+            items.add(item);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", range.from());
+        report.put("to", range.to());
+        report.put("products", items);
+        return report;
+    }
+
+    /**
+     * unitsSold is an upper bound, minUnitsSold a lower one (equal unless the summary had to
+     * evict products); guaranteed = certainly ranked above every product after it
+     */
+    @Override
+    public Map<String, Object> getLiveTopProducts(Long storeId, String period, Integer limit) {
+        TopSellers.Period parsed = TopSellers.Period.parse(period);
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
+        TopSellers.Snapshot top = topSellers.top(storeId, parsed, size);
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(
+                top.items().stream().map(TopSellers.Estimate::productId).toList())) {
+            products.put(product.getId(), product);
+        }
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (TopSellers.Estimate estimate : top.items()) {
+            Product product = products.get(estimate.productId());
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("productId", estimate.productId());
+            item.put("name", product != null ? product.getName() : null);
+            item.put("sku", product != null ? product.getSku() : null);
+            item.put("unitsSold", estimate.unitsSold());
+            item.put("minUnitsSold", estimate.minUnitsSold());
+            item.put("maxError", estimate.maxError());
+            item.put("guaranteed", estimate.guaranteed());
+            items.add(item);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("period", top.period().name());
+        report.put("from", top.from());
+        report.put("syncedAt", top.syncedAt());
+        report.put("exact", top.exact());
+        report.put("capacity", top.capacity());
+        report.put("totalUnits", top.totalUnits());
+        report.put("untrackedMaxUnits", top.untrackedMaxUnits());
+        report.put("products", items);
+        return report;
+    }
+
+    // ========== Stock, receivables, customers ==========
+
+    @Override
+    public Map<String, Object> getInventoryValuation(Long storeId) {
+        List<StockValue> rows = inventoryRepository.sumStockValueByCategory(storeId);
+        List<Map<String, Object>> byCategory = new ArrayList<>();
+        for (StockValue row : rows) {
+            Map<String, Object> category = new LinkedHashMap<>();
+            category.put("categoryId", row.getCategoryId());
+            category.put("products", row.getProducts());
+            category.put("units", row.getUnits());
+            category.put("retailValue", row.getRetailValue());
+            category.put("costValue", row.getCostValue());
+            byCategory.add(category);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>(stockTotals(rows));
+        report.put("byCategory", byCategory);
+        return report;
+    }
+
+    @Override
+    public Map<String, Object> getAccountsReceivable(Long storeId) {
+        return receivableTotals(debtRepository.sumUnpaidByDueDate(storeId));
+    }
+
+    @Override
+    public Map<String, Object> getCustomerAnalysis(Long storeId) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(89);
+
+        Map<String, Long> byType = new LinkedHashMap<>();
+        long customers = 0;
+        for (CustomerRepository.TypeCount row : customerRepository.countByType(storeId)) {
+            byType.put(row.getType() != null ? row.getType().toString() : "UNKNOWN", row.getCustomers());
+            customers += row.getCustomers();
+        }
+        CustomerActivity activity = orderSummaryRepository.countCustomerActivity(storeId, from.atStartOfDay());
+        long active = activity != null && activity.getCustomers() != null ? activity.getCustomers() : 0;
+        long repeat = activity != null && activity.getRepeatCustomers() != null ? activity.getRepeatCustomers() : 0;
+        SalesTotals last90Days = totals(
+                salesDailyRepository.findByStoreIdAndSalesDateBetweenOrderBySalesDate(storeId, from, today), from, today);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("customers", customers);
+        report.put("customersByType", byType);
+        report.put("activeCustomers90d", active);
+        report.put("repeatCustomers90d", repeat);
+        report.put("repeatRate", active > 0 ? ratio(repeat, active) : BigDecimal.ZERO);
+        report.put("averageOrderValue90d", last90Days.getAverageOrderValue());
+        return report;
+    }
+
+    // ========== Trends ==========
+
+    @Override
+    public Map<String, Object> getDailySalesTrend(Long storeId) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(DEFAULT_RANGE_DAYS - 1);
+        List<Map<String, Object>> points = new ArrayList<>();
+        Optional<SalesCube.DailySeries> series = salesCube.daily(storeId, from, today);
+        if (series.isPresent()) {
+            SalesCube.DailySeries days = series.get();
+            for (int i = 0; i < days.orders().length; i++) {
+                points.add(point(from.plusDays(i).toString(), days.orders()[i], days.units()[i],
+                        BigDecimal.valueOf(days.amounts()[i], 2)));
+            }
+        } else {
+            Map<LocalDate, SalesDaily> byDay = new HashMap<>();
+            for (SalesDaily day : salesDailyRepository.findByStoreIdAndSalesDateBetweenOrderBySalesDate(storeId, from, today)) {
+                byDay.put(day.getSalesDate(), day);
+            }
+            for (LocalDate date = from; !date.isAfter(today); date = date.plusDays(1)) {
+                SalesDaily day = byDay.get(date);
+                points.add(point(date.toString(), day != null ? day.getOrderCount() : 0L,
+                        day != null ? day.getUnitsSold() : 0L, day != null ? day.getRevenue() : BigDecimal.ZERO));
+            }
+        }
+        Map<String, Object> trend = new LinkedHashMap<>();
+        trend.put("from", from);
+        trend.put("to", today);
+        trend.put("days", points);
+        return trend;
+    }
+
+    @Override
+    public Map<String, Object> getMonthlySalesTrend(Long storeId) {
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(11);
+        Map<YearMonth, long[]> counts = new LinkedHashMap<>();
+        Map<YearMonth, BigDecimal> revenue = new HashMap<>();
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            counts.put(month, new long[2]);
+            revenue.put(month, BigDecimal.ZERO);
+        }
+        for (SalesDaily day : salesDailyRepository.findByStoreIdAndSalesDateBetweenOrderBySalesDate(
+                storeId, first.atDay(1), current.atEndOfMonth())) {
+            YearMonth month = YearMonth.from(day.getSalesDate());
+            long[] c = counts.get(month);
+            c[0] += day.getOrderCount();
+            c[1] += day.getUnitsSold();
+            revenue.merge(month, day.getRevenue(), BigDecimal::add);
+        }
+
+        List<Map<String, Object>> points = new ArrayList<>();
+        counts.forEach((month, c) -> points.add(point(month.toString(), c[0], c[1], revenue.get(month))));
+        Map<String, Object> trend = new LinkedHashMap<>();
+        trend.put("from", first.toString());
+        trend.put("to", current.toString());
+        trend.put("months", points);
+        return trend;
+    }
+
+    @Override
+    public SalesCubeStats getSalesCubeStats(Long storeId) {
+        return salesCube.stats(storeId);
+    }
+
+    // ========== Export / score ==========
+
+    /**
+     * - DAILY: sales_daily rows of the range
+     * - LINES: order lines of the range (archive included), cancelled orders left out
+     * Both come from a forward-only cursor and go straight to the output; the body runs
+     * later (async request thread or export job), so nothing here depends on UserContext.
+     */
+    @Override
+    public StreamingResponseBody exportSalesReportToCsv(Long storeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                        SalesExportDetail detail, boolean gzip) {
+        DateRange range = resolveRange(startDate, endDate);
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_BYTES) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), EXPORT_BUFFER_BYTES);
+            CsvWriter csv = new CsvWriter(writer);
+            try {
+                if (detail == SalesExportDetail.LINES) {
+                    writeOrderLines(csv, storeId, range);
+                } else {
+                    writeDays(csv, storeId, range);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // client went away / disk full: cursor already closed
+            }
+            writer.flush();
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish(); // trailer, without closing the response stream
+            }
+        };
+    }
+
+    /**
+     * Same CSV as exportSalesReportToCsv, written to a file by SalesExportJobs
+     */
+    @Override
+    public SalesExportJob startSalesExportJob(Long storeId, LocalDateTime startDate, LocalDateTime endDate,
+                                              SalesExportDetail detail, boolean gzip) {
+        DateRange range = resolveRange(startDate, endDate);
+        StreamingResponseBody body = exportSalesReportToCsv(storeId, startDate, endDate, detail, gzip);
+        return salesExportJobs.submit(storeId, detail, gzip, range.from(), range.to(), body);
+    }
+
+    @Override
+    public SalesExportJob getSalesExportJob(Long storeId, String jobId) {
+        return salesExportJobs.get(storeId, jobId);
+    }
+
+    @Override
+    public Resource getSalesExportFile(Long storeId, String jobId) {
+        return new FileSystemResource(salesExportJobs.file(storeId, jobId));
+    }
+
+    /**
+     * 40% revenue growth (last 30 days vs the 30 before), 30% debt (open debt vs 90-day revenue),
+     * 30% stock turnover (days of stock at the last 30 days' unit sales)
+     */
+    @Override
+    public Integer getBusinessHealthScore(Long storeId) {
+        LocalDate today = LocalDate.now();
+        List<SalesDaily> days = salesDailyRepository.findByStoreIdAndSalesDateBetweenOrderBySalesDate(
+                storeId, today.minusDays(89), today);
+        SalesTotals last30Days = totals(days, today.minusDays(29), today);
+        BigDecimal current = last30Days.getRevenue();
+        BigDecimal previous = totals(days, today.minusDays(59), today.minusDays(30)).getRevenue();
+        BigDecimal quarter = totals(days, today.minusDays(89), today).getRevenue();
+        long unitsSold = last30Days.getUnitsSold();
+
+        double growthScore;
+        if (previous.signum() > 0) {
+            double growth = current.subtract(previous).doubleValue() / previous.doubleValue();
+            growthScore = clamp(50 + 50 * growth);
+        } else {
+            growthScore = current.signum() > 0 ? 100 : 50;
+        }
+
+        BigDecimal debt = (BigDecimal) receivableTotals(debtRepository.sumUnpaidByDueDate(storeId)).get("totalUnpaid");
+        double debtScore;
+        if (quarter.signum() > 0) {
+            debtScore = clamp(100 - 100 * debt.doubleValue() / quarter.doubleValue());
+        } else {
+            debtScore = debt.signum() > 0 ? 0 : 100;
+        }
+
+        long unitsOnHand = (Long) stockTotals(inventoryRepository.sumStockValueByCategory(storeId)).get("totalUnits");
+        double turnoverScore;
+        if (unitsSold > 0) {
+            double daysOfStock = unitsOnHand * 30.0 / unitsSold;
+            turnoverScore = clamp(100 - (daysOfStock - 30) * 100 / 150); // 30 days or less = 100, 180+ = 0
+        } else {
+            turnoverScore = unitsOnHand > 0 ? 0 : 50;
+        }
+
+        return (int) Math.round(0.4 * growthScore + 0.3 * debtScore + 0.3 * turnoverScore);
+    }
+
+    // ========== PRIVATE METHODS ==========
+
+    /**
+     * Validation step: Inclusive day range, defaults to the last 30 days
+     */
+    private DateRange resolveRange(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate to = endDate != null ? endDate.toLocalDate() : LocalDate.now();
+        LocalDate from = startDate != null ? startDate.toLocalDate() : to.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (from.isAfter(to)) {
+            throw new BusinessException(4002, "Start date must not be after end date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BusinessException(4002, "Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return new DateRange(from, to);
+    }
+
+    /**
+     * Calculation step: Sum of the rollup days within [from, to]
+     */
+    private SalesTotals totals(List<SalesDaily> days, LocalDate from, LocalDate to) {
+        SalesTotals totals = SalesTotals.zero();
+        for (SalesDaily day : days) {
+            if (!day.getSalesDate().isBefore(from) && !day.getSalesDate().isAfter(to)) {
+                totals = totals.plus(SalesTotals.of(day));
+            }
+        }
+        return totals;
+    }
+
+    private void writeDays(CsvWriter csv, Long storeId, DateRange range) throws IOException {
+        csv.writeRow("date", "orders", "units_sold", "gross_amount", "discount_amount", "revenue",
+                "cash_revenue", "cancelled_orders", "cancelled_amount");
+        salesDailyRepository.streamDays(storeId, range.from(), range.to(), day -> {
+            try {
+                csv.writeRow(day.getSalesDate(), day.getOrderCount(), day.getUnitsSold(), day.getGrossAmount(),
+                        day.getDiscountAmount(), day.getRevenue(), day.getCashRevenue(), day.getCancelledCount(),
+                        day.getCancelledAmount());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeOrderLines(CsvWriter csv, Long storeId, DateRange range) throws IOException {
+        csv.writeRow("date", "order_number", "created_at", "payment_type", "customer_id", "employee_id",
+                "product_id", "quantity", "unit_price", "line_amount", "order_discount", "order_total");
+        orderRepository.streamWithItems(storeId, range.from().atStartOfDay(), range.to().plusDays(1).atStartOfDay(),
+                (order, items) -> {
+                    if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+                        return;
+                    }
+                    try {
+                        for (OrderItem item : items) {
+                            csv.writeRow(order.getCreatedAt().toLocalDate(), order.getOrderNumber(),
+                                    order.getCreatedAt(), order.getPaymentType(), order.getCustomerId(),
+                                    order.getEmployeeId(), item.getProductId(), item.getQuantity(),
+                                    item.getUnitPrice(), item.getTotalAmount(), order.getDiscountAmount(),
+                                    order.getTotalAmount());
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private List<Map<String, Object>> dayRows(List<SalesDaily> days) {
+        List<Map<String, Object>> rows = new ArrayList<>(days.size());
+        for (SalesDaily day : days) {
+            Map<String, Object> row = point(day.getSalesDate().toString(), day.getOrderCount(), day.getUnitsSold(),
+                    day.getRevenue());
+            row.put("cancelledOrders", day.getCancelledCount());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<Map<String, Object>> groupedRows(String key, List<GroupedSales> groups) {
+        List<Map<String, Object>> rows = new ArrayList<>(groups.size());
+        for (GroupedSales group : groups) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put(key, group.getGroupId());
+            row.put("unitsSold", group.getUnitsSold());
+            row.put("revenue", group.getRevenue());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private Map<String, Object> point(String period, long orders, long units, BigDecimal revenue) {
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("period", period);
+        point.put("orders", orders);
+        point.put("unitsSold", units);
+        point.put("revenue", revenue);
+        return point;
+    }
+
+    private Map<String, Object> stockTotals(List<StockValue> rows) {
+        long units = 0;
+        long products = 0;
+        BigDecimal retail = BigDecimal.ZERO;
+        BigDecimal cost = BigDecimal.ZERO;
+        for (StockValue row : rows) {
+            products += row.getProducts();
+            units += row.getUnits() != null ? row.getUnits() : 0;
+            retail = retail.add(row.getRetailValue() != null ? row.getRetailValue() : BigDecimal.ZERO);
+            cost = cost.add(row.getCostValue() != null ? row.getCostValue() : BigDecimal.ZERO);
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("productsInStock", products);
+        totals.put("totalUnits", units);
+        totals.put("totalRetailValue", retail);
+        totals.put("totalCostValue", cost);
+        return totals;
+    }
+
+    /**
+     * Calculation step: Open debt total and aging buckets by days past due
+     */
+    private Map<String, Object> receivableTotals(List<DueDebts> rows) {
+        LocalDate today = LocalDate.now();
+        String[] buckets = {"notDue", "overdue1To30", "overdue31To60", "overdue61To90", "overdue90Plus"};
+        Map<String, BigDecimal> aging = new LinkedHashMap<>();
+        for (String bucket : buckets) {
+            aging.put(bucket, BigDecimal.ZERO);
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        long count = 0;
+        for (DueDebts row : rows) {
+            long overdue = row.getDueDate() != null ? ChronoUnit.DAYS.between(row.getDueDate(), today) : 0;
+            String bucket = overdue <= 0 ? buckets[0] : overdue <= 30 ? buckets[1] : overdue <= 60 ? buckets[2]
+                    : overdue <= 90 ? buckets[3] : buckets[4];
+            aging.merge(bucket, row.getUnpaidAmount(), BigDecimal::add);
+            total = total.add(row.getUnpaidAmount());
+            count += row.getDebts();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalUnpaid", total);
+        report.put("debtCount", count);
+        report.put("aging", aging);
+        return report;
+    }
+
+    private BigDecimal ratio(long part, long whole) {
+        return BigDecimal.valueOf(part).divide(BigDecimal.valueOf(whole), 4, RoundingMode.HALF_UP);
+    }
+
+    private double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0d;
+    }
+
+    private double clamp(double score) {
+        return Math.max(0, Math.min(100, score));
+    }
+
+    private record DateRange(LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * CubeGroup: SalesCube product group in the shape of the rollup query rows
+     */
+    private record CubeGroup(SalesCube.Group group) implements GroupedSales {
+        @Override
+        public Long getGroupId() {
+            return group.key();
+        }
+
+        @Override
+        public Long getUnitsSold() {
+            return group.units();
+        }
+
+        @Override
+        public BigDecimal getRevenue() {
+            return group.revenue();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.bizflow.backend.infrastructure.archive;
+
+import com.bizflow.backend.core.domain.ArchiveWatermark;
+import com.bizflow.backend.infrastructure.persistence.repository.ArchiveWatermarkRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SqlDialect;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ColdArchiver: Moves closed months of orders, order_items and stock_movements to archive tables
+ * 
+ * Why archive tables and not native RANGE partitions: MySQL/TiDB require the partition
+ * column in every unique key, but orders / stock_movements are keyed by a shard-prefixed
+ * Snowflake id alone (and orders.order_number is unique). Moving old rows out keeps the
+ * hot tables and their indexes sized to the last few months.
+ * 
+ * Each run:
+ * 1. hotFrom = first day of the month, bizflow.archive.hot-months back
+ * 2. Raise the table's ArchiveWatermark to hotFrom (before any row moves,
+ *    so readers never skip the archive for a range that may be in it)
+ * 3. Move rows created before hotFrom in chunks, one short transaction per chunk
+ *    (INSERT INTO x_archive SELECT ... + DELETE)
+ * 
+ * Rules:
+ * - Orders keep their items: both move in the same chunk transaction
+ * - Orders with an open debt (UNPAID, PAID_PARTIAL, OVERDUE) stay hot until settled,
+ *   a later run picks them up
+ * - order_summary rows are kept, list views still show archived orders
+ * - Archive tables are created on startup if missing (MySQL: LIKE + ROW_FORMAT=COMPRESSED)
+ * - Off by default (bizflow.archive.enabled)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bizflow.archive.enabled", havingValue = "true")
+public class ColdArchiver {
+
+    public static final String ORDERS = "orders";
+    public static final String ORDER_ITEMS = "order_items";
+    public static final String STOCK_MOVEMENTS = "stock_movements";
+    public static final String ARCHIVE_SUFFIX = "_archive";
+
+    private static final String DUE_ORDERS_SQL =
+            "SELECT o.id FROM orders o WHERE o.created_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM debts d WHERE d.order_id = o.id " +
+            "AND d.status IN ('UNPAID', 'PAID_PARTIAL', 'OVERDUE')) " +
+            "ORDER BY o.created_at LIMIT ?";
+
+    private static final String DUE_MOVEMENTS_SQL =
+            "SELECT id FROM stock_movements WHERE created_at < ? ORDER BY created_at LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveWatermarkRepository watermarkRepository;
+    private final int hotMonths;
+    private final int batchSize;
+
+    // Column list per hot table, taken from its archive table (INSERT ... SELECT never depends on column order)
+    private final Map<String, String> archiveColumns = new HashMap<>();
+
+    public ColdArchiver(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        ArchiveWatermarkRepository watermarkRepository,
+                        @Value("${bizflow.archive.hot-months:12}") int hotMonths,
+                        @Value("${bizflow.archive.batch-size:1000}") int batchSize) {
+        if (hotMonths < 1) {
+            throw new IllegalArgumentException("bizflow.archive.hot-months must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.watermarkRepository = watermarkRepository;
+        this.hotMonths = hotMonths;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void createArchiveTables() {
+        boolean mysql = SqlDialect.isMySql(jdbcTemplate);
+        for (String table : List.of(ORDERS, ORDER_ITEMS, STOCK_MOVEMENTS)) {
+            createArchiveTable(table, mysql);
+            archiveColumns.put(table, String.join(", ", columnsOf(table + ARCHIVE_SUFFIX)));
+        }
+    }
+
+    @Scheduled(cron = "${bizflow.archive.cron:0 15 4 * * *}")
+    public void archiveClosedMonths() {
+        LocalDateTime hotFrom = hotFrom();
+        try {
+            int orders = archiveOrders(hotFrom);
+            int movements = archiveMovements(hotFrom);
+            log.info("Cold archive before {}: {} orders, {} stock movements moved", hotFrom, orders, movements);
+        } catch (RuntimeException e) {
+            log.error("Cold archive run failed, next run continues where this one stopped", e);
+        }
+    }
+
+    /**
+     * First instant that always stays hot
+     */
+    public LocalDateTime hotFrom() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(hotMonths).atStartOfDay();
+    }
+
+    /**
+     * @return Number of orders moved (their items move with them)
+     */
+    int archiveOrders(LocalDateTime hotFrom) {
+        raiseWatermark(ORDERS, hotFrom);
+        raiseWatermark(ORDER_ITEMS, hotFrom);
+
+        int moved = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(DUE_ORDERS_SQL, Long.class, Timestamp.valueOf(hotFrom), batchSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                moveRows(ORDER_ITEMS, "order_id", ids);
+                moveRows(ORDERS, "id", ids);
+                return ids.size();
+            });
+            moved += chunk;
+        } while (chunk == batchSize);
+        return moved;
+    }
+
+    /**
+     * @return Number of stock movements moved
+     */
+    int archiveMovements(LocalDateTime hotFrom) {
+        raiseWatermark(STOCK_MOVEMENTS, hotFrom);
+
+        int moved = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(DUE_MOVEMENTS_SQL, Long.class, Timestamp.valueOf(hotFrom), batchSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                moveRows(STOCK_MOVEMENTS, "id", ids);
+                return ids.size();
+            });
+            moved += chunk;
+        } while (chunk == batchSize);
+        return moved;
+    }
+
+    // ========== Helpers ==========
+
+    private void moveRows(String table, String keyColumn, List<Long> keys) {
+        String columns = archiveColumns.get(table);
+        String in = String.join(", ", Collections.nCopies(keys.size(), "?"));
+        Object[] args = keys.toArray();
+        jdbcTemplate.update("INSERT INTO " + table + ARCHIVE_SUFFIX + " (" + columns + ") SELECT " + columns +
+                " FROM " + table + " WHERE " + keyColumn + " IN (" + in + ")", args);
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE " + keyColumn + " IN (" + in + ")", args);
+    }
+
+    private void raiseWatermark(String table, LocalDateTime hotFrom) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ArchiveWatermark watermark = watermarkRepository.findById(table)
+                    .orElseGet(() -> ArchiveWatermark.builder().tableName(table).archivedBefore(hotFrom).build());
+            if (watermark.getArchivedBefore().isBefore(hotFrom)) {
+                watermark.setArchivedBefore(hotFrom);
+            }
+            watermark.setUpdatedAt(LocalDateTime.now());
+            watermarkRepository.save(watermark);
+        });
+    }
+
+    private void createArchiveTable(String table, boolean mysql) {
+        String archive = table + ARCHIVE_SUFFIX;
+        try {
+            jdbcTemplate.queryForList("SELECT 1 FROM " + archive + " WHERE 1 = 0");
+            return;
+        } catch (DataAccessException e) {
+            log.info("Creating archive table {}", archive);
+        }
+
+        if (!mysql) {
+            jdbcTemplate.execute("CREATE TABLE " + archive + " AS SELECT * FROM " + table + " WHERE 1 = 0");
+            return;
+        }
+        // Same columns and indexes, no foreign keys; compressed pages (TiDB ignores ROW_FORMAT)
+        jdbcTemplate.execute("CREATE TABLE " + archive + " LIKE " + table);
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + archive + " ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8");
+        } catch (DataAccessException e) {
+            log.warn("Archive table {} stays uncompressed: {}", archive, e.getMessage());
+        }
+    }
+
+    private List<String> columnsOf(String table) {
+        return jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            List<String> columns = new ArrayList<>();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                columns.add(meta.getColumnName(i));
+            }
+            return columns;
+        });
+    }
+}
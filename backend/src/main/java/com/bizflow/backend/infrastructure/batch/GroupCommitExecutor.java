@@ -0,0 +1,178 @@
+package com.bizflow.backend.infrastructure.batch;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * GroupCommitExecutor: Collects concurrent requests per lane and hands them over as one batch
+ * 
+ * Per lane (e.g. one store):
+ * - The first request opens a window (window-ms); the batch is flushed when the window
+ *   closes or max-batch requests are waiting, whichever comes first
+ * - At most one batch runs per lane; requests arriving meanwhile form the next batch
+ *   (under load batches grow by themselves, without extra waiting)
+ * - The handler completes each entry's future; entries it leaves open are failed
+ *   with the handler's exception
+ * 
+ * Disabled by default (bizflow.group-commit.enabled): callers then run requests directly.
+ */
+@Slf4j
+@Component
+public class GroupCommitExecutor {
+
+    private final boolean enabled;
+    private final long windowMicros;
+    private final int maxBatch;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    private final Map<String, Lane<?, ?>> lanes = new ConcurrentHashMap<>();
+
+    public GroupCommitExecutor(@Value("${bizflow.group-commit.enabled:false}") boolean enabled,
+                               @Value("${bizflow.group-commit.window-ms:3}") double windowMs,
+                               @Value("${bizflow.group-commit.max-batch:32}") int maxBatch,
+                               @Value("${bizflow.group-commit.workers:4}") int workers) {
+        this.enabled = enabled;
+        this.windowMicros = (long) (windowMs * 1000);
+        this.maxBatch = maxBatch;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "group-commit-timer"));
+        this.workers = Executors.newFixedThreadPool(workers, r -> daemon(r, "group-commit-worker"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdown();
+        workers.shutdown();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue one request on a lane
+     * 
+     * @param lane Lane key, requests of one lane are batched together
+     * @param item The request
+     * @param handler Processes a whole batch and completes each entry's future
+     *                (must be the same for every call on this lane)
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> CompletableFuture<R> submit(String lane, T item, Consumer<List<Entry<T, R>>> handler) {
+        Entry<T, R> entry = new Entry<>(item, new CompletableFuture<>());
+        ((Lane<T, R>) lanes.computeIfAbsent(lane, key -> new Lane<>(key, handler))).add(entry);
+        return entry.future();
+    }
+
+    /**
+     * Wait for a submitted request, rethrowing the handler's exception as is
+     */
+    public static <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * One queued request and the future its caller waits on
+     */
+    public record Entry<T, R>(T item, CompletableFuture<R> future) {
+    }
+
+    private final class Lane<T, R> {
+        private final String key;
+        private final Consumer<List<Entry<T, R>>> handler;
+        private final List<Entry<T, R>> pending = new ArrayList<>();
+        private ScheduledFuture<?> windowTimer;
+        private boolean running;
+
+        Lane(String key, Consumer<List<Entry<T, R>>> handler) {
+            this.key = key;
+            this.handler = handler;
+        }
+
+        synchronized void add(Entry<T, R> entry) {
+            pending.add(entry);
+            if (running) {
+                return; // picked up when the running batch finishes
+            }
+            if (pending.size() >= maxBatch) {
+                cancelWindow();
+                startBatch();
+            } else if (windowTimer == null) {
+                windowTimer = timer.schedule(this::windowClosed, windowMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+
+        private synchronized void windowClosed() {
+            windowTimer = null;
+            if (!running && !pending.isEmpty()) {
+                startBatch();
+            }
+        }
+
+        private void cancelWindow() {
+            if (windowTimer != null) {
+                windowTimer.cancel(false);
+                windowTimer = null;
+            }
+        }
+
+        // Called with the lane lock held
+        private void startBatch() {
+            int size = Math.min(pending.size(), maxBatch);
+            List<Entry<T, R>> batch = new ArrayList<>(pending.subList(0, size));
+            pending.subList(0, size).clear();
+            running = true;
+            workers.execute(() -> run(batch));
+        }
+
+        private void run(List<Entry<T, R>> batch) {
+            try {
+                handler.accept(batch);
+            } catch (RuntimeException e) {
+                log.warn("Group commit batch on {} failed ({} requests): {}", key, batch.size(), e.getMessage());
+                batch.forEach(entry -> entry.future().completeExceptionally(e));
+            } finally {
+                // Safety net: never leave a caller waiting forever
+                batch.forEach(entry -> entry.future().completeExceptionally(
+                        new IllegalStateException("Group commit handler did not complete the request")));
+                finished();
+            }
+        }
+
+        private synchronized void finished() {
+            running = false;
+            if (!pending.isEmpty()) {
+                // These already waited for a whole batch, flush without another window
+                cancelWindow();
+                startBatch();
+            }
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
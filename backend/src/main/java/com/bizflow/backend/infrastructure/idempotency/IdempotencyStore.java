@@ -0,0 +1,231 @@
+package com.bizflow.backend.infrastructure.idempotency;
+
+import com.bizflow.backend.presentation.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyStore: Replay-safe execution of write requests (Idempotency-Key header)
+ *
+ * Flow for execute(scope, key, fingerprint, ...):
+ * 1. Look up the key (local map first, then Redis) → stored result is returned as is, no DB access
+ * 2. Claim the key (local in-flight set + Redis SET NX) → a concurrent retry gets 4010
+ * 3. Run the action, store its result for the TTL, release the claim
+ *
+ * Rules:
+ * - Only successful results are stored; a failed attempt can be retried with the same key
+ * - Reusing a key with a different request body is rejected (4011)
+ * - Local map is bounded (oldest entries evicted first) and always kept as near cache
+ * - Redis is optional: on any Redis error the store runs on the local map only
+ *   and stops calling Redis for a short back-off period
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final String PREFIX = "idem:";
+    private static final String LOCK_PREFIX = "idem-lock:";
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+    private static final long REDIS_BACKOFF_MILLIS = 30_000;
+
+    private final ObjectProvider<StringRedisTemplate> redisProvider;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int maxLocalEntries;
+    private final boolean redisEnabled;
+
+    private final Map<String, LocalEntry> localEntries = new LinkedHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile long redisDownUntil = 0;
+
+    public IdempotencyStore(ObjectProvider<StringRedisTemplate> redisProvider,
+                            ObjectMapper objectMapper,
+                            @Value("${bizflow.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${bizflow.idempotency.local-max-entries:10000}") int maxLocalEntries,
+                            @Value("${bizflow.idempotency.redis-enabled:true}") boolean redisEnabled) {
+        this.redisProvider = redisProvider;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.maxLocalEntries = maxLocalEntries;
+        this.redisEnabled = redisEnabled;
+    }
+
+    /**
+     * Run action at most once per (scope, key) within the TTL
+     *
+     * @param scope Key namespace, e.g. "order:{storeId}" so stores cannot read each other's results
+     * @param key Client-supplied Idempotency-Key (null/blank → action runs without protection)
+     * @param fingerprint Hash of the request body, detects key reuse for another request
+     * @param type Result type (for deserialization of stored results)
+     * @param action The write operation (must commit before returning)
+     */
+    public <T> T execute(String scope, String key, int fingerprint, Class<T> type, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(4002, "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = PREFIX + scope + ":" + key;
+        String requestHash = Integer.toHexString(fingerprint);
+
+        T replay = replay(cacheKey, requestHash, type);
+        if (replay != null) {
+            return replay;
+        }
+
+        if (!claim(cacheKey)) {
+            throw new BusinessException(4010, "A request with this Idempotency-Key is still being processed");
+        }
+        try {
+            // The first attempt may have finished between lookup and claim
+            replay = replay(cacheKey, requestHash, type);
+            if (replay != null) {
+                return replay;
+            }
+
+            T result = action.get();
+            store(cacheKey, requestHash, result);
+            return result;
+        } finally {
+            release(cacheKey);
+        }
+    }
+
+    // ========== Lookup / store ==========
+
+    private <T> T replay(String cacheKey, String requestHash, Class<T> type) {
+        String stored = getLocal(cacheKey);
+        if (stored == null) {
+            stored = redisGet(cacheKey);
+            if (stored != null) {
+                putLocal(cacheKey, stored);
+            }
+        }
+        if (stored == null) {
+            return null;
+        }
+
+        int separator = stored.indexOf('|');
+        if (!stored.substring(0, separator).equals(requestHash)) {
+            throw new BusinessException(4011, "Idempotency-Key was already used for a different request");
+        }
+        log.info("Idempotent replay for {}", cacheKey);
+        try {
+            return objectMapper.readValue(stored.substring(separator + 1), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent result is not readable: " + cacheKey, e);
+        }
+    }
+
+    private void store(String cacheKey, String requestHash, Object result) {
+        String payload;
+        try {
+            payload = requestHash + "|" + objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            // The write already committed, only replay protection is lost
+            log.error("Cannot serialize idempotent result for {}", cacheKey, e);
+            return;
+        }
+        putLocal(cacheKey, payload);
+        redisCall(redis -> {
+            redis.opsForValue().set(cacheKey, payload, ttl);
+            return null;
+        });
+    }
+
+    // ========== Claim (one attempt in flight per key) ==========
+
+    private boolean claim(String cacheKey) {
+        if (!inFlight.add(cacheKey)) {
+            return false;
+        }
+        Boolean acquired = redisCall(redis -> redis.opsForValue().setIfAbsent(LOCK_PREFIX + cacheKey, "1", LOCK_TTL));
+        if (Boolean.FALSE.equals(acquired)) {
+            inFlight.remove(cacheKey);
+            return false;
+        }
+        return true;
+    }
+
+    private void release(String cacheKey) {
+        inFlight.remove(cacheKey);
+        redisCall(redis -> redis.delete(LOCK_PREFIX + cacheKey));
+    }
+
+    // ========== Local bounded TTL map ==========
+
+    private synchronized String getLocal(String cacheKey) {
+        LocalEntry entry = localEntries.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            localEntries.remove(cacheKey);
+            return null;
+        }
+        return entry.payload();
+    }
+
+    private synchronized void putLocal(String cacheKey, String payload) {
+        long now = System.currentTimeMillis();
+        localEntries.remove(cacheKey);
+        localEntries.put(cacheKey, new LocalEntry(payload, now + ttl.toMillis()));
+
+        // Same TTL for every entry → insertion order is expiry order
+        Iterator<LocalEntry> oldest = localEntries.values().iterator();
+        while (oldest.hasNext()) {
+            LocalEntry entry = oldest.next();
+            if (localEntries.size() <= maxLocalEntries && entry.expiresAt() >= now) {
+                break;
+            }
+            oldest.remove();
+        }
+    }
+
+    private record LocalEntry(String payload, long expiresAt) {
+    }
+
+    // ========== Redis (optional) ==========
+
+    private String redisGet(String cacheKey) {
+        return redisCall(redis -> redis.opsForValue().get(cacheKey));
+    }
+
+    /**
+     * Run a Redis call, or return null when Redis is disabled / unavailable
+     */
+    private <R> R redisCall(Function<StringRedisTemplate, R> call) {
+        if (!redisEnabled || System.currentTimeMillis() < redisDownUntil) {
+            return null;
+        }
+        StringRedisTemplate redis = redisProvider.getIfAvailable();
+        if (redis == null) {
+            return null;
+        }
+        try {
+            return call.apply(redis);
+        } catch (RuntimeException e) {
+            redisDownUntil = System.currentTimeMillis() + REDIS_BACKOFF_MILLIS;
+            log.warn("Redis unavailable for idempotency keys, using local store for {} ms: {}",
+                    REDIS_BACKOFF_MILLIS, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.bizflow.backend.infrastructure.inventory;
+
+import com.bizflow.backend.core.common.CsvReader;
+import com.bizflow.backend.core.common.ImportFormat;
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository.CatalogEntry;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepository;
+import com.bizflow.backend.presentation.dto.response.StockImportResult;
+import com.bizflow.backend.presentation.dto.response.StockImportResult.LineError;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * BulkStockImporter: Supplier deliveries (CSV / JSON) applied as batched stock-ins
+ *
+ * Flow:
+ * 1. Load the store's catalog once as a SKU → product map (ID + cost price only)
+ * 2. Read the input line by line, validate each line against the map
+ * 3. Every bizflow.stock-import.batch-size valid lines: one transaction with
+ *    - inventory: one batched increment, one batched insert for products without a row
+ *    - stock_movements: one batched insert (STOCK_IN, supplier name per line)
+ *    - low-stock set update
+ *
+ * Rules:
+ * - An invalid line is reported (line number, SKU, reason) and skipped, the rest is imported
+ * - A chunk that cannot be saved is retried once (another first stock-in may have created
+ *   the same inventory row), then all its lines are reported as failed
+ * - Unreadable input (broken CSV quoting / JSON syntax) stops the import at that point;
+ *   chunks already saved stay saved and are counted in the result
+ *
+ * CSV: header row required, columns sku, quantity, unit_price, supplier_name, notes
+ * (case-insensitive, underscores optional, unknown columns ignored).
+ * JSON: array of objects with the same fields in camelCase or snake_case.
+ */
+@Slf4j
+@Component
+public class BulkStockImporter {
+
+    private static final String REFERENCE_TYPE = "STOCK_IN";
+    private static final int MAX_SUPPLIER_LENGTH = 100;
+    private static final int MAX_NOTES_LENGTH = 500;
+
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final LowStockTracker lowStockTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public BulkStockImporter(ProductRepository productRepository,
+                             InventoryRepository inventoryRepository,
+                             StockMovementRepository stockMovementRepository,
+                             LowStockTracker lowStockTracker,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${bizflow.stock-import.batch-size:500}") int batchSize,
+                             @Value("${bizflow.stock-import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.lowStockTracker = lowStockTracker;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * @param defaultSupplier Supplier name for lines that do not have one (may be null)
+     * @param createdBy Username written to the stock movements
+     */
+    public StockImportResult importStock(Long storeId, InputStream input, ImportFormat format,
+                                         String defaultSupplier, String createdBy) {
+        long started = System.currentTimeMillis();
+        Run run = new Run(storeId, catalogOf(storeId), blankToNull(defaultSupplier), createdBy);
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            if (format == ImportFormat.CSV) {
+                readCsv(reader, run);
+            } else {
+                readJson(reader, run);
+            }
+        } catch (IOException e) {
+            log.warn("Stock import of store {} stopped at line {}: {}", storeId, run.lastLine + 1, e.getMessage());
+            run.totalLines++;
+            run.fail(run.lastLine + 1, null, "Input could not be read from here on: " + e.getMessage());
+        } finally {
+            flush(run); // lines read before a parse error are still imported
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Stock import of store {}: {} lines, {} imported, {} failed, {} products in {} ms",
+                storeId, run.totalLines, run.imported, run.failed, run.products.size(), elapsed);
+        return StockImportResult.builder()
+                .totalLines(run.totalLines)
+                .importedLines(run.imported)
+                .failedLines(run.failed)
+                .importedQuantity(run.importedQuantity)
+                .productsUpdated(run.products.size())
+                .errors(run.errors)
+                .elapsedMillis(elapsed)
+                .build();
+    }
+
+    // ========== Input ==========
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRow();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", ""); // Excel writes a BOM in front of UTF-8 files
+            columns.putIfAbsent(normalizeColumn(name), i);
+        }
+        if (!columns.containsKey("sku") || !columns.containsKey("quantity")) {
+            throw new BusinessException(4002, "CSV header must contain the columns sku and quantity");
+        }
+
+        List<String> row;
+        while ((row = csv.readRow()) != null) {
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue; // empty line
+            }
+            accept(run, csv.getRecordNumber(), new RawLine(
+                    field(row, columns.get("sku")),
+                    field(row, columns.get("quantity")),
+                    field(row, columns.get("unitprice")),
+                    field(row, columns.get("suppliername")),
+                    field(row, columns.get("notes"))));
+        }
+    }
+
+    private void readJson(BufferedReader reader, Run run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(reader)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BusinessException(4002, "JSON import must be an array of lines");
+            }
+            long line = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("unexpected end of JSON input");
+                }
+                line++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    run.totalLines++;
+                    run.lastLine = line;
+                    run.fail(line, null, "Line must be a JSON object");
+                    continue;
+                }
+                // One element at a time as a tree: a bad value fails its line, not the parser
+                JsonNode node = parser.readValueAsTree();
+                accept(run, line, new RawLine(
+                        text(node, "sku"),
+                        text(node, "quantity"),
+                        text(node, "unitPrice", "unit_price"),
+                        text(node, "supplierName", "supplier_name"),
+                        text(node, "notes")));
+            }
+        }
+    }
+
+    // ========== Validation ==========
+
+    private void accept(Run run, long lineNumber, RawLine raw) {
+        run.totalLines++;
+        run.lastLine = lineNumber;
+
+        String sku = blankToNull(raw.sku());
+        if (sku == null) {
+            run.fail(lineNumber, null, "SKU is required");
+            return;
+        }
+        CatalogEntry product = run.catalog.get(sku);
+        if (product == null) {
+            run.fail(lineNumber, sku, "Unknown SKU for this store");
+            return;
+        }
+
+        Integer quantity = parseQuantity(raw.quantity());
+        if (quantity == null || quantity < 1) {
+            run.fail(lineNumber, sku, "Quantity must be a whole number of at least 1");
+            return;
+        }
+
+        BigDecimal unitPrice = product.getCostPrice();
+        if (blankToNull(raw.unitPrice()) != null) {
+            try {
+                unitPrice = new BigDecimal(raw.unitPrice().trim());
+            } catch (NumberFormatException e) {
+                run.fail(lineNumber, sku, "Unit price is not a number: " + raw.unitPrice());
+                return;
+            }
+            if (unitPrice.signum() < 0) {
+                run.fail(lineNumber, sku, "Unit price must not be negative");
+                return;
+            }
+        }
+
+        String supplier = blankToNull(raw.supplierName()) != null ? raw.supplierName().trim() : run.defaultSupplier;
+        if (supplier != null && supplier.length() > MAX_SUPPLIER_LENGTH) {
+            run.fail(lineNumber, sku, "Supplier name must be at most " + MAX_SUPPLIER_LENGTH + " characters");
+            return;
+        }
+        String notes = blankToNull(raw.notes());
+        if (notes != null && notes.length() > MAX_NOTES_LENGTH) {
+            run.fail(lineNumber, sku, "Notes must be at most " + MAX_NOTES_LENGTH + " characters");
+            return;
+        }
+
+        run.pending.add(new ValidLine(lineNumber, sku, product.getId(), quantity, unitPrice, supplier, notes));
+        if (run.pending.size() >= batchSize) {
+            flush(run);
+        }
+    }
+
+    private Integer parseQuantity(String value) {
+        if (blankToNull(value) == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim()).intValueExact(); // "12.0" from spreadsheets is fine, 12.5 is not
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    // ========== Persistence ==========
+
+    /**
+     * Apply the pending lines as one chunk (retried once), or report them all as failed
+     */
+    private void flush(Run run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<ValidLine> chunk = List.copyOf(run.pending);
+        run.pending.clear();
+
+        Map<Long, Integer> quantityByProduct = new TreeMap<>();
+        for (ValidLine line : chunk) {
+            quantityByProduct.merge(line.productId(), line.quantity(), Integer::sum);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                applyChunk(run, chunk, quantityByProduct);
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == 1) {
+                    log.info("Stock import chunk of store {} collided with a concurrent stock-in, retrying", run.storeId);
+                    continue;
+                }
+                failChunk(run, chunk, e);
+                return;
+            } catch (DataAccessException e) {
+                failChunk(run, chunk, e);
+                return;
+            }
+        }
+
+        run.imported += chunk.size();
+        run.products.addAll(quantityByProduct.keySet());
+        for (ValidLine line : chunk) {
+            run.importedQuantity += line.quantity();
+        }
+    }
+
+    private void applyChunk(Run run, List<ValidLine> chunk, Map<Long, Integer> quantityByProduct) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> missing = inventoryRepository.incrementStockBatch(run.storeId, quantityByProduct);
+            if (!missing.isEmpty()) {
+                Map<Long, Integer> firstStock = new TreeMap<>();
+                for (Long productId : missing) {
+                    firstStock.put(productId, quantityByProduct.get(productId));
+                }
+                inventoryRepository.insertStockBatch(run.storeId, firstStock);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<StockMovement> movements = new ArrayList<>(chunk.size());
+            for (ValidLine line : chunk) {
+                movements.add(StockMovement.builder()
+                        .storeId(run.storeId)
+                        .productId(line.productId())
+                        .type(StockMovement.MovementType.STOCK_IN)
+                        .quantity(line.quantity())
+                        .referenceType(REFERENCE_TYPE)
+                        .unitPrice(line.unitPrice())
+                        .supplierName(line.supplierName())
+                        .notes(line.notes())
+                        .createdBy(run.createdBy)
+                        .createdAt(now)
+                        .build());
+            }
+            stockMovementRepository.batchInsert(movements);
+            lowStockTracker.onStockChanged(run.storeId, quantityByProduct.keySet());
+        });
+    }
+
+    private void failChunk(Run run, List<ValidLine> chunk, DataAccessException e) {
+        log.error("Stock import chunk of store {} could not be saved ({} lines)", run.storeId, chunk.size(), e);
+        for (ValidLine line : chunk) {
+            run.fail(line.lineNumber(), line.sku(), "Could not be saved, please import this line again");
+        }
+    }
+
+    // ========== Helpers ==========
+
+    private Map<String, CatalogEntry> catalogOf(Long storeId) {
+        Map<String, CatalogEntry> catalog = new HashMap<>();
+        for (CatalogEntry entry : productRepository.findCatalogByStoreId(storeId)) {
+            catalog.put(entry.getSku().trim(), entry);
+        }
+        return catalog;
+    }
+
+    private static String normalizeColumn(String name) {
+        return name.trim().toLowerCase().replace("_", "").replace(" ", "");
+    }
+
+    private static String field(List<String> row, Integer column) {
+        return column != null && column < row.size() ? row.get(column) : null;
+    }
+
+    private static String text(JsonNode node, String... names) {
+        for (String name : names) {
+            JsonNode value = node.get(name);
+            if (value != null && !value.isNull()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record RawLine(String sku, String quantity, String unitPrice, String supplierName, String notes) {
+    }
+
+    private record ValidLine(long lineNumber, String sku, Long productId, int quantity, BigDecimal unitPrice,
+                             String supplierName, String notes) {
+    }
+
+    /**
+     * Run: State of one import (not shared between requests)
+     */
+    private final class Run {
+        private final Long storeId;
+        private final Map<String, CatalogEntry> catalog;
+        private final String defaultSupplier;
+        private final String createdBy;
+        private final List<ValidLine> pending = new ArrayList<>();
+        private final List<LineError> errors = new ArrayList<>();
+        private long lastLine = 0;
+        private int totalLines = 0;
+        private int imported = 0;
+        private int failed = 0;
+        private final Set<Long> products = new HashSet<>();
+        private long importedQuantity = 0;
+
+        private Run(Long storeId, Map<String, CatalogEntry> catalog, String defaultSupplier, String createdBy) {
+            this.storeId = storeId;
+            this.catalog = catalog;
+            this.defaultSupplier = defaultSupplier;
+            this.createdBy = createdBy;
+        }
+
+        private void fail(long line, String sku, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new LineError(line, sku, message));
+            }
+        }
+    }
+}
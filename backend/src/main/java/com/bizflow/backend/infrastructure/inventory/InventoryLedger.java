@@ -0,0 +1,324 @@
+package com.bizflow.backend.infrastructure.inventory;
+
+import com.bizflow.backend.core.domain.InventorySnapshot;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepositoryCustom.StockCorrection;
+import com.bizflow.backend.infrastructure.persistence.repository.InventorySnapshotRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepositoryCustom.LedgerSum;
+import com.bizflow.backend.presentation.dto.response.LedgerReplayReport;
+import com.bizflow.backend.presentation.dto.response.LedgerReplayReport.Drift;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * InventoryLedger: Inventory as a projection of the StockMovement ledger
+ *
+ * The ledger is the source of truth: quantity on hand of a product is the sum of its
+ * movements. Every stock write already changes the inventory row and appends its movement
+ * in one transaction; this component folds the ledger to check or restore that invariant.
+ *
+ * Snapshots (nightly, per store, run on a replay thread):
+ * - asOf = now - bizflow.ledger.snapshot-lag (movements still committing are not cut in half)
+ * - new snapshot = previous snapshot + movements in (previous.asOf, asOf]
+ * - Kept for bizflow.ledger.snapshot-retention-days, the latest one always stays
+ *
+ * Replay (verify / rebuild):
+ * 1. Read the store's inventory rows (quantity + version)
+ * 2. Latest snapshot + movements after it, summed in the database by product ID range,
+ *    ranges in parallel (bizflow.ledger.replay-threads), each in a read-only transaction
+ * 3. Rows whose quantity differs from the ledger are drifts, unless their version moved
+ *    since step 1 (live traffic wrote them; rerun to compare them)
+ * 4. Rebuild only: drifts are overwritten with a version-guarded batch, no movement is written
+ *
+ * Only plain reads touch the live tables; rebuild locks just the drifted rows.
+ */
+@Slf4j
+@Component
+public class InventoryLedger {
+
+    private static final String STOCK_STATES_SQL =
+            "SELECT product_id, quantity, COALESCE(version, 0) FROM inventory WHERE store_id = ?";
+
+    private static final String STORES_SQL = "SELECT DISTINCT store_id FROM inventory";
+
+    private final InventoryRepository inventoryRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final LowStockTracker lowStockTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTemplate;
+    private final ExecutorService replayers;
+    private final int partitions;
+    private final Duration snapshotLag;
+    private final int retentionDays;
+    private final AtomicBoolean snapshotsRunning = new AtomicBoolean();
+
+    public InventoryLedger(InventoryRepository inventoryRepository,
+                           InventorySnapshotRepository snapshotRepository,
+                           StockMovementRepository stockMovementRepository,
+                           LowStockTracker lowStockTracker,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bizflow.ledger.replay-threads:4}") int replayThreads,
+                           @Value("${bizflow.ledger.snapshot-lag:PT5M}") Duration snapshotLag,
+                           @Value("${bizflow.ledger.snapshot-retention-days:7}") int retentionDays) {
+        if (retentionDays < 1) {
+            throw new IllegalArgumentException("bizflow.ledger.snapshot-retention-days must be at least 1");
+        }
+        if (replayThreads < 2) {
+            // The nightly snapshot loop holds one replay thread while its ranges run on the others
+            throw new IllegalArgumentException("bizflow.ledger.replay-threads must be at least 2");
+        }
+        this.inventoryRepository = inventoryRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.lowStockTracker = lowStockTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.readTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.replayers = Executors.newFixedThreadPool(replayThreads);
+        this.partitions = replayThreads;
+        this.snapshotLag = snapshotLag;
+        this.retentionDays = retentionDays;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        replayers.shutdown();
+    }
+
+    // ========== Snapshots ==========
+
+    /**
+     * Nightly snapshot of every store, one after another on a replay thread: the scheduler
+     * thread returns at once, the other replay threads fold the ranges
+     */
+    @Scheduled(cron = "${bizflow.ledger.snapshot-cron:0 0 3 * * *}")
+    public void snapshotAllStores() {
+        if (!snapshotsRunning.compareAndSet(false, true)) {
+            log.warn("Inventory snapshots of all stores still running, this trigger is skipped");
+            return;
+        }
+        try {
+            replayers.execute(() -> {
+                try {
+                    for (Long storeId : jdbcTemplate.queryForList(STORES_SQL, Long.class)) {
+                        try {
+                            takeSnapshot(storeId);
+                        } catch (RuntimeException e) {
+                            log.error("Inventory snapshot failed for store {}, next run retries", storeId, e);
+                        }
+                    }
+                } finally {
+                    snapshotsRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            snapshotsRunning.set(false); // shutting down
+        }
+    }
+
+    /**
+     * @return Number of rows in the new snapshot (0 = the latest snapshot is already this recent)
+     */
+    public int takeSnapshot(Long storeId) {
+        LocalDateTime asOf = LocalDateTime.now().minus(snapshotLag).truncatedTo(ChronoUnit.SECONDS);
+        Replay replay = replay(storeId, asOf, readStockStates(storeId).keySet());
+        if (asOf.equals(replay.snapshotAsOf())) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<InventorySnapshot> rows = new ArrayList<>(replay.quantities().size());
+        replay.quantities().forEach((productId, quantity) -> rows.add(InventorySnapshot.builder()
+                .storeId(storeId)
+                .productId(productId)
+                .quantity(Math.toIntExact(quantity))
+                .asOf(asOf)
+                .createdAt(now)
+                .build()));
+
+        int purged = transactionTemplate.execute(status -> {
+            snapshotRepository.batchInsert(rows);
+            return snapshotRepository.deleteByStoreIdAndAsOfBefore(storeId, now.minusDays(retentionDays));
+        });
+        log.info("Inventory snapshot of store {} as of {}: {} products from {} movements, {} old rows purged",
+                storeId, asOf, rows.size(), replay.movements(), purged);
+        return rows.size();
+    }
+
+    // ========== Verify / rebuild ==========
+
+    public LedgerReplayReport verify(Long storeId) {
+        return compare(storeId, false);
+    }
+
+    public LedgerReplayReport rebuild(Long storeId) {
+        return compare(storeId, true);
+    }
+
+    private LedgerReplayReport compare(Long storeId, boolean correct) {
+        long started = System.currentTimeMillis();
+
+        // 1. Inventory first: a write committed after this read moves the row's version
+        Map<Long, StockState> states = readStockStates(storeId);
+
+        // 2. Ledger up to now
+        Replay replay = replay(storeId, LocalDateTime.now(), states.keySet());
+
+        // 3. Drift candidates, minus rows written by live traffic since step 1
+        List<Drift> candidates = new ArrayList<>();
+        TreeSet<Long> productIds = new TreeSet<>(states.keySet());
+        productIds.addAll(replay.quantities().keySet());
+        for (Long productId : productIds) {
+            long ledgerQuantity = replay.quantities().getOrDefault(productId, 0L);
+            StockState state = states.get(productId);
+            if (state == null ? ledgerQuantity != 0 : state.quantity() != ledgerQuantity) {
+                candidates.add(new Drift(productId, state != null ? state.quantity() : null, ledgerQuantity));
+            }
+        }
+
+        Map<Long, StockState> recheck = candidates.isEmpty() ? Map.of() : readStockStates(storeId);
+        List<Drift> drifts = new ArrayList<>();
+        for (Drift drift : candidates) {
+            StockState before = states.get(drift.productId());
+            StockState after = recheck.get(drift.productId());
+            boolean unchanged = before == null ? after == null : after != null && after.version() == before.version();
+            if (unchanged) {
+                drifts.add(drift);
+            }
+        }
+
+        // 4. Rebuild: overwrite drifted rows, guarded by the version read in step 1
+        int corrected = 0;
+        if (correct) {
+            List<StockCorrection> corrections = new ArrayList<>();
+            for (Drift drift : drifts) {
+                if (drift.inventoryQuantity() != null) { // a missing row is reported, not recreated
+                    corrections.add(new StockCorrection(drift.productId(), Math.toIntExact(drift.ledgerQuantity()),
+                            states.get(drift.productId()).version()));
+                }
+            }
+            corrected = transactionTemplate.execute(status -> {
+                List<Long> rejected = inventoryRepository.applyCorrections(storeId, corrections);
+                List<Long> applied = new ArrayList<>();
+                for (StockCorrection c : corrections) {
+                    if (!rejected.contains(c.productId())) {
+                        applied.add(c.productId());
+                    }
+                }
+                if (!applied.isEmpty()) {
+                    lowStockTracker.onStockChanged(storeId, applied);
+                }
+                return applied.size();
+            });
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Inventory ledger {} of store {}: {} products, {} movements, {} drifts, {} corrected in {} ms",
+                correct ? "rebuild" : "verify", storeId, productIds.size(), replay.movements(),
+                drifts.size(), corrected, elapsed);
+
+        return LedgerReplayReport.builder()
+                .storeId(storeId)
+                .snapshotAsOf(replay.snapshotAsOf())
+                .productsReplayed(productIds.size())
+                .movementsReplayed(replay.movements())
+                .drifts(drifts)
+                .changedDuringReplay(candidates.size() - drifts.size())
+                .corrected(corrected)
+                .elapsedMillis(elapsed)
+                .build();
+    }
+
+    // ========== Replay ==========
+
+    /**
+     * Fold the ledger of a store up to (and including) until
+     *
+     * @param knownProductIds Products expected in the result, only used to split the work evenly
+     */
+    Replay replay(Long storeId, LocalDateTime until, Collection<Long> knownProductIds) {
+        LocalDateTime snapshotAsOf = snapshotRepository.findLatestAsOf(storeId, until).orElse(null);
+        Map<Long, Long> quantities = new HashMap<>();
+        if (snapshotAsOf != null) {
+            for (InventorySnapshot row : snapshotRepository.findByStoreIdAndAsOf(storeId, snapshotAsOf)) {
+                quantities.put(row.getProductId(), row.getQuantity().longValue());
+            }
+        }
+
+        TreeSet<Long> productIds = new TreeSet<>(knownProductIds);
+        productIds.addAll(quantities.keySet());
+        List<CompletableFuture<List<LedgerSum>>> parts = new ArrayList<>();
+        for (long[] range : productRanges(productIds)) {
+            parts.add(CompletableFuture.supplyAsync(() -> readTemplate.execute(status ->
+                    stockMovementRepository.sumByProduct(storeId, range[0], range[1], snapshotAsOf, until)), replayers));
+        }
+
+        long movements = 0;
+        for (CompletableFuture<List<LedgerSum>> part : parts) {
+            for (LedgerSum sum : part.join()) {
+                quantities.merge(sum.productId(), sum.quantity(), Long::sum);
+                movements += sum.movements();
+            }
+        }
+        return new Replay(snapshotAsOf, quantities, movements);
+    }
+
+    /**
+     * Split the product ID space into contiguous ranges with about the same number of
+     * known products each; the first and last range are open-ended, so products only
+     * present in the ledger are still covered
+     */
+    private List<long[]> productRanges(TreeSet<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        int count = Math.max(1, Math.min(partitions, ids.size()));
+        List<long[]> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long from = i == 0 ? Long.MIN_VALUE : ids.get(i * ids.size() / count);
+            long to = i == count - 1 ? Long.MAX_VALUE : ids.get((i + 1) * ids.size() / count) - 1;
+            ranges.add(new long[]{from, to});
+        }
+        return ranges;
+    }
+
+    private Map<Long, StockState> readStockStates(Long storeId) {
+        Map<Long, StockState> states = new HashMap<>();
+        jdbcTemplate.query(STOCK_STATES_SQL, rs -> {
+            states.put(rs.getLong(1), new StockState(rs.getInt(2), rs.getLong(3)));
+        }, storeId);
+        return states;
+    }
+
+    private record StockState(int quantity, long version) {
+    }
+
+    record Replay(LocalDateTime snapshotAsOf, Map<Long, Long> quantities, long movements) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.bizflow.backend.infrastructure.inventory;
+
+import com.bizflow.backend.infrastructure.outbox.OutboxWriter;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepositoryCustom.StockLevel;
+import com.bizflow.backend.infrastructure.report.DashboardMetricsCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LowStockTracker: Keeps inventory.low_stock (the per-store low-stock set) up to date
+ * 
+ * Called in the same transaction that changes quantities and writes StockMovements,
+ * with the products it touched:
+ * 1. Read quantity + reorder level of those products only (one query)
+ * 2. Flip the flag where the threshold was crossed (compare-and-set batch)
+ * 3. Crossing downwards → STOCK_LOW push through the outbox, once per crossing;
+ *    crossing back up clears the flag silently
+ * 
+ * Every stock write passes here, so it also marks the store's cached inventory value stale
+ * (DashboardMetricsCache).
+ * 
+ * A nightly reconcile fixes flags that drift without a stock change
+ * (e.g. a product's reorder level edited), without notifications.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LowStockTracker {
+
+    private final InventoryRepository inventoryRepository;
+    private final OutboxWriter outboxWriter;
+    private final DashboardMetricsCache dashboardMetricsCache;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onStockChanged(Long storeId, Collection<Long> productIds) {
+        dashboardMetricsCache.onStockChanged(storeId);
+        List<StockLevel> levels = inventoryRepository.findStockLevels(storeId, productIds);
+
+        Map<Long, Boolean> crossed = new HashMap<>();
+        Map<Long, StockLevel> levelByProduct = new HashMap<>();
+        for (StockLevel level : levels) {
+            if (level.isBelowReorderLevel() != level.lowStock()) {
+                crossed.put(level.productId(), level.isBelowReorderLevel());
+                levelByProduct.put(level.productId(), level);
+            }
+        }
+        if (crossed.isEmpty()) {
+            return;
+        }
+
+        for (Long productId : inventoryRepository.switchLowStock(storeId, crossed)) {
+            if (crossed.get(productId)) {
+                notifyStockLow(storeId, levelByProduct.get(productId));
+            }
+        }
+    }
+
+    @Scheduled(cron = "${bizflow.low-stock.reconcile-cron:0 45 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        int flagged = inventoryRepository.flagMissingLowStock();
+        int cleared = inventoryRepository.clearStaleLowStock();
+        log.info("Low-stock reconcile: {} rows flagged, {} rows cleared", flagged, cleared);
+    }
+
+    /**
+     * Side effect step: STOCK_LOW push for the store's devices (delivered after commit)
+     */
+    private void notifyStockLow(Long storeId, StockLevel level) {
+        String topic = "store_" + storeId + "_stock_low";
+        String title = "Sắp hết hàng: " + level.productName();
+        String body = "Tồn kho: " + level.quantity() + " - Mức đặt hàng lại: " + level.reorderLevel();
+        outboxWriter.enqueueTopicNotification(storeId, level.productId(), topic, title, body);
+        log.info("STOCK_LOW: storeId={}, productId={}, quantity={}, reorderLevel={}",
+                storeId, level.productId(), level.quantity(), level.reorderLevel());
+    }
+}
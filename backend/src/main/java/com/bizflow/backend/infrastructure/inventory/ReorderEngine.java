@@ -0,0 +1,305 @@
+package com.bizflow.backend.infrastructure.inventory;
+
+import com.bizflow.backend.core.domain.ReorderSuggestion;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository.StockLevel;
+import com.bizflow.backend.infrastructure.persistence.repository.ReorderSuggestionRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepository;
+import com.bizflow.backend.presentation.dto.response.ReorderRunReport;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ReorderEngine: Reorder suggestions from the sales velocity in the StockMovement ledger
+ *
+ * Per product of a store (active products only):
+ * - dailyVelocity = units sold (SALE movements, minus the RETURN movements of cancelled orders)
+ *   in the last bizflow.reorder.window-days / window days
+ * - daysOfCover = available quantity / dailyVelocity
+ * - reorder point = max(velocity x lead-time-days, Product.reorderLevel)
+ * - order-up-to level = max(velocity x (lead-time-days + cover-days), Product.reorderLevel)
+ * - suggestedQuantity = order-up-to - available when available <= reorder point, else 0
+ *
+ * Run (nightly for every store on the fork-join pool, or on demand):
+ * 1. Active products + stock levels of the store, one query, sorted by product ID
+ * 2. Products are split in halves on a fork-join pool (bizflow.reorder.threads) until a
+ *    partition holds at most bizflow.reorder.partition-size products
+ * 3. Each partition streams its SALE and cancellation movements (idx_movements_sales,
+ *    forward-only cursor) into primitive per-product counters, computes its suggestions and replaces its product ID
+ *    range of reorder_suggestions in its own transaction
+ *
+ * A cancellation inside the window of a sale made before it lowers the count by that sale
+ * (never below 0); the error is bounded by one window and gone once the cancellation ages out.
+ *
+ * Partitions cover the whole product ID space, so rows of products that were removed or
+ * deactivated since the last run are deleted with their range. A store runs at most once
+ * at a time on this instance.
+ */
+@Slf4j
+@Component
+public class ReorderEngine {
+
+    private static final String STORES_SQL = "SELECT DISTINCT store_id FROM products";
+
+    private static final BigDecimal MAX_DAYS_OF_COVER = new BigDecimal("99999.9");
+
+    private final ProductRepository productRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ReorderSuggestionRepository suggestionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final int windowDays;
+    private final int leadTimeDays;
+    private final int coverDays;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean allStoresRunning = new AtomicBoolean();
+
+    public ReorderEngine(ProductRepository productRepository,
+                         StockMovementRepository stockMovementRepository,
+                         ReorderSuggestionRepository suggestionRepository,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${bizflow.reorder.threads:4}") int threads,
+                         @Value("${bizflow.reorder.partition-size:2000}") int partitionSize,
+                         @Value("${bizflow.reorder.window-days:28}") int windowDays,
+                         @Value("${bizflow.reorder.lead-time-days:7}") int leadTimeDays,
+                         @Value("${bizflow.reorder.cover-days:14}") int coverDays) {
+        if (windowDays < 1 || partitionSize < 1) {
+            throw new IllegalArgumentException("bizflow.reorder.window-days and partition-size must be at least 1");
+        }
+        this.productRepository = productRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.suggestionRepository = suggestionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(threads);
+        this.partitionSize = partitionSize;
+        this.windowDays = windowDays;
+        this.leadTimeDays = leadTimeDays;
+        this.coverDays = coverDays;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Nightly run of every store, one after another on the engine's own pool: the scheduler
+     * thread returns at once (a 50k-product store takes up to a minute)
+     */
+    @Scheduled(cron = "${bizflow.reorder.cron:0 30 4 * * *}")
+    public void runAllStores() {
+        if (!allStoresRunning.compareAndSet(false, true)) {
+            log.warn("Reorder suggestions of all stores still running, this trigger is skipped");
+            return;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    for (Long storeId : jdbcTemplate.queryForList(STORES_SQL, Long.class)) {
+                        try {
+                            run(storeId);
+                        } catch (RuntimeException e) {
+                            log.error("Reorder suggestions failed for store {}, next run retries", storeId, e);
+                        }
+                    }
+                } finally {
+                    allStoresRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            allStoresRunning.set(false); // shutting down
+        }
+    }
+
+    public ReorderRunReport run(Long storeId) {
+        if (!running.add(storeId)) {
+            throw new BusinessException(4002, "Reorder suggestions are already being computed for this store");
+        }
+        try {
+            return compute(storeId);
+        } finally {
+            running.remove(storeId);
+        }
+    }
+
+    private ReorderRunReport compute(Long storeId) {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        // 1. Products sorted by ID (the query orders them), flattened into parallel arrays
+        List<StockLevel> levels = productRepository.findActiveStockLevels(storeId);
+        int n = levels.size();
+        long[] productIds = new long[n];
+        int[] available = new int[n];
+        int[] reorderLevels = new int[n];
+        boolean[] hasReorderLevel = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            StockLevel level = levels.get(i);
+            productIds[i] = level.getId();
+            int quantity = level.getQuantity() != null ? level.getQuantity() : 0;
+            int reserved = level.getReservedQuantity() != null ? level.getReservedQuantity() : 0;
+            available[i] = Math.max(0, quantity - reserved);
+            hasReorderLevel[i] = level.getReorderLevel() != null;
+            reorderLevels[i] = hasReorderLevel[i] ? level.getReorderLevel() : 0;
+        }
+
+        // 2 + 3. Partitions in parallel, each reads, computes and writes its range
+        Run run = new Run(storeId, now, now.minusDays(windowDays), productIds, available, reorderLevels, hasReorderLevel);
+        Totals totals = pool.invoke(new PartitionTask(run, 0, n));
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Reorder suggestions of store {}: {} products, {} sales read, {} to reorder, {} partitions in {} ms",
+                storeId, n, totals.sales(), totals.toReorder(), totals.partitions(), elapsed);
+
+        return ReorderRunReport.builder()
+                .storeId(storeId)
+                .computedAt(now)
+                .windowDays(windowDays)
+                .products(n)
+                .salesRead(totals.sales())
+                .toReorder(totals.toReorder())
+                .partitions(totals.partitions())
+                .elapsedMillis(elapsed)
+                .build();
+    }
+
+    /**
+     * Suggestions of products [from, to) of the run; streams the range's sales, then writes
+     */
+    private Totals computePartition(Run run, int from, int to) {
+        // Range bounds: the first / last partition is open-ended, the others end right
+        // before the next partition's first product
+        long lower = from == 0 ? Long.MIN_VALUE : run.productIds()[from];
+        long upper = to == run.productIds().length ? Long.MAX_VALUE : run.productIds()[to] - 1;
+
+        int size = to - from;
+        long[] sold = new long[size];
+        LocalDateTime[] lastSale = new LocalDateTime[size];
+        long[] sales = new long[1];
+        stockMovementRepository.streamSales(run.storeId(), lower, upper, run.windowStart(), run.now(),
+                (productId, createdAt, quantity) -> {
+                    int index = Arrays.binarySearch(run.productIds(), from, to, productId);
+                    if (index < 0) {
+                        return; // inactive product
+                    }
+                    sold[index - from] -= quantity; // SALE < 0 adds, cancellation RETURN > 0 subtracts
+                    if (quantity > 0) {
+                        return;
+                    }
+                    if (lastSale[index - from] == null || createdAt.isAfter(lastSale[index - from])) {
+                        lastSale[index - from] = createdAt;
+                    }
+                    sales[0]++;
+                });
+
+        List<ReorderSuggestion> suggestions = new ArrayList<>(size);
+        int toReorder = 0;
+        for (int k = 0; k < size; k++) {
+            int i = from + k;
+            ReorderSuggestion suggestion = suggest(run, i, Math.max(0, sold[k]), lastSale[k]);
+            if (suggestion.getSuggestedQuantity() > 0) {
+                toReorder++;
+            }
+            suggestions.add(suggestion);
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                suggestionRepository.replaceRange(run.storeId(), lower, upper, suggestions));
+        return new Totals(sales[0], toReorder, 1);
+    }
+
+    /**
+     * Calculation step: Velocity, cover and suggested quantity of one product
+     */
+    private ReorderSuggestion suggest(Run run, int i, long unitsSold, LocalDateTime lastSaleAt) {
+        double velocity = (double) unitsSold / windowDays;
+        int available = run.available()[i];
+        int floor = run.reorderLevels()[i];
+
+        long reorderPoint = Math.max((long) Math.ceil(velocity * leadTimeDays), floor);
+        long orderUpTo = Math.max((long) Math.ceil(velocity * (leadTimeDays + coverDays)), floor);
+        long suggested = available <= reorderPoint ? Math.max(0, orderUpTo - available) : 0;
+
+        BigDecimal daysOfCover = null;
+        if (velocity > 0) {
+            daysOfCover = BigDecimal.valueOf(available / velocity).setScale(1, RoundingMode.HALF_UP).min(MAX_DAYS_OF_COVER);
+        }
+
+        return ReorderSuggestion.builder()
+                .storeId(run.storeId())
+                .productId(run.productIds()[i])
+                .availableQuantity(available)
+                .unitsSold(unitsSold)
+                .dailyVelocity(BigDecimal.valueOf(velocity).setScale(3, RoundingMode.HALF_UP))
+                .daysOfCover(daysOfCover)
+                .reorderLevel(run.hasReorderLevel()[i] ? floor : null)
+                .suggestedQuantity((int) Math.min(suggested, Integer.MAX_VALUE))
+                .lastSaleAt(lastSaleAt)
+                .computedAt(run.now())
+                .build();
+    }
+
+    /**
+     * PartitionTask: Halves [from, to) until it fits bizflow.reorder.partition-size
+     * (an empty store still runs one partition, which clears its old rows)
+     */
+    private final class PartitionTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final Run run;
+        private final int from;
+        private final int to;
+
+        private PartitionTask(Run run, int from, int to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= partitionSize) {
+                return computePartition(run, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(run, from, middle);
+            left.fork();
+            Totals right = new PartitionTask(run, middle, to).compute();
+            return left.join().plus(right);
+        }
+    }
+
+    private record Run(Long storeId, LocalDateTime now, LocalDateTime windowStart, long[] productIds,
+                       int[] available, int[] reorderLevels, boolean[] hasReorderLevel) {
+    }
+
+    private record Totals(long sales, int toReorder, int partitions) {
+        Totals plus(Totals other) {
+            return new Totals(sales + other.sales, toReorder + other.toReorder, partitions + other.partitions);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.bizflow.backend.infrastructure.notification;
+
+import com.bizflow.backend.core.usecase.NotificationService;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * FirebaseNotificationService: Topic push via Firebase Cloud Messaging
+ * 
+ * Sends synchronously; callers (OutboxDispatcher) run it off the request thread.
+ */
+@Slf4j
+@Service
+public class FirebaseNotificationService implements NotificationService {
+
+    @Override
+    public void sendTopicNotification(String topic, String title, String body) {
+        if (FirebaseApp.getApps().isEmpty()) {
+            throw new IllegalStateException("Firebase is not initialized");
+        }
+
+        Message message = Message.builder()
+                .setTopic(topic)
+                .setNotification(Notification.builder().setTitle(title).setBody(body).build())
+                .build();
+        try {
+            String messageId = FirebaseMessaging.getInstance().send(message);
+            log.debug("Push sent to topic {}: {}", topic, messageId);
+        } catch (FirebaseMessagingException e) {
+            throw new IllegalStateException("Push to topic " + topic + " failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.bizflow.backend.infrastructure.outbox;
+
+import com.bizflow.backend.core.domain.OutboxEvent;
+import com.bizflow.backend.core.usecase.NotificationService;
+import com.bizflow.backend.infrastructure.persistence.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * OutboxDispatcher: Delivers outbox events after commit
+ * 
+ * Each run:
+ * 1. Claim a batch of due events (one short transaction, lease = claim timeout)
+ * 2. Fan out deliveries on a small worker pool, no transaction held
+ * 3. Mark delivered rows SENT in one UPDATE, reschedule failures with exponential backoff
+ * 
+ * Several nodes can run it: claiming is a compare-and-set on status/nextAttemptAt,
+ * and rows of a crashed dispatcher become due again when the lease expires.
+ * Delivery is at-least-once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bizflow.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService senders;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+    private final int retentionDays;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            NotificationService notificationService,
+                            ObjectMapper objectMapper,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${bizflow.outbox.batch-size:100}") int batchSize,
+                            @Value("${bizflow.outbox.workers:4}") int workers,
+                            @Value("${bizflow.outbox.max-attempts:8}") int maxAttempts,
+                            @Value("${bizflow.outbox.lease-seconds:60}") long leaseSeconds,
+                            @Value("${bizflow.outbox.retention-days:7}") int retentionDays) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.senders = Executors.newFixedThreadPool(workers);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.retentionDays = retentionDays;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${bizflow.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        try {
+            // Drain the backlog before waiting for the next poll
+            while (dispatchBatch() == batchSize) {
+                log.debug("Outbox batch full, dispatching next batch");
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox dispatch failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${bizflow.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays)));
+        log.info("Outbox purge: {} delivered events removed", deleted);
+    }
+
+    /**
+     * @return Number of events claimed in this batch
+     */
+    int dispatchBatch() {
+        String token = UUID.randomUUID().toString();
+        List<OutboxEvent> claimed = claimBatch(token);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // Fan out: deliveries run in parallel, result = error message or null on success
+        Map<OutboxEvent, CompletableFuture<String>> results = new LinkedHashMap<>();
+        for (OutboxEvent event : claimed) {
+            results.put(event, CompletableFuture.supplyAsync(() -> deliver(event), senders));
+        }
+
+        List<Long> sent = new ArrayList<>();
+        Map<OutboxEvent, String> failed = new LinkedHashMap<>();
+        results.forEach((event, result) -> {
+            String error = result.join();
+            if (error == null) {
+                sent.add(event.getId());
+            } else {
+                failed.put(event, error);
+            }
+        });
+
+        complete(token, sent, failed);
+        log.debug("Outbox batch: {} sent, {} failed", sent.size(), failed.size());
+        return claimed.size();
+    }
+
+    private List<OutboxEvent> claimBatch(String token) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> dueIds = outboxEventRepository.findDueIds(now, PageRequest.of(0, batchSize));
+            if (dueIds.isEmpty()) {
+                return List.of();
+            }
+            outboxEventRepository.claim(dueIds, token, now, now.plusSeconds(leaseSeconds));
+            return outboxEventRepository.findByClaimToken(token);
+        });
+    }
+
+    private String deliver(OutboxEvent event) {
+        try {
+            switch (event.getEventType()) {
+                case TOPIC_NOTIFICATION -> {
+                    OutboxWriter.TopicNotificationPayload payload =
+                            objectMapper.readValue(event.getPayload(), OutboxWriter.TopicNotificationPayload.class);
+                    notificationService.sendTopicNotification(payload.topic(), payload.title(), payload.body());
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return error.length() > 500 ? error.substring(0, 500) : error;
+        }
+    }
+
+    private void complete(String token, List<Long> sent, Map<OutboxEvent, String> failed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!sent.isEmpty()) {
+                outboxEventRepository.markSent(sent, token, now);
+            }
+            failed.forEach((event, error) -> {
+                int attempts = event.getAttempts() + 1;
+                OutboxEvent.OutboxStatus next = attempts >= maxAttempts
+                        ? OutboxEvent.OutboxStatus.FAILED
+                        : OutboxEvent.OutboxStatus.PENDING;
+                long backoff = Math.min(1L << Math.min(attempts, 20), MAX_BACKOFF_SECONDS);
+                outboxEventRepository.markFailed(event.getId(), token, next, now.plusSeconds(backoff), error);
+                if (next == OutboxEvent.OutboxStatus.FAILED) {
+                    log.error("Outbox event {} ({}) gave up after {} attempts: {}",
+                            event.getId(), event.getEventType(), attempts, error);
+                }
+            });
+        });
+    }
+}
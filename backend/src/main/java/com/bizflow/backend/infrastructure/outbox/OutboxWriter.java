@@ -0,0 +1,62 @@
+package com.bizflow.backend.infrastructure.outbox;
+
+import com.bizflow.backend.core.domain.OutboxEvent;
+import com.bizflow.backend.infrastructure.persistence.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * OutboxWriter: Record side effects in the caller's transaction
+ * 
+ * MANDATORY propagation: an event is only visible to the dispatcher if the
+ * business change committed, and disappears with it on rollback
+ * (no phantom notifications, no remote call while row locks are held).
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTopicNotification(Long storeId, Long referenceId, String topic, String title, String body) {
+        enqueue(storeId, OutboxEvent.EventType.TOPIC_NOTIFICATION, referenceId,
+                new TopicNotificationPayload(topic, title, body));
+    }
+
+    private void enqueue(Long storeId, OutboxEvent.EventType type, Long referenceId, Object payload) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = OutboxEvent.builder()
+                .storeId(storeId)
+                .eventType(type)
+                .referenceId(referenceId)
+                .payload(toJson(payload))
+                .status(OutboxEvent.OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        outboxEventRepository.save(event);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+
+    /**
+     * Payload of EventType.TOPIC_NOTIFICATION
+     */
+    public record TopicNotificationPayload(String topic, String title, String body) {
+    }
+}
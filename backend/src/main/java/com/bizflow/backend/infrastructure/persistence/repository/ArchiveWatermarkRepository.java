@@ -0,0 +1,9 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.ArchiveWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchiveWatermarkRepository extends JpaRepository<ArchiveWatermark, String> {
+}
@@ -0,0 +1,29 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ArchiveWatermarks: Hot/cold boundary of an archived table for the JDBC readers
+ * (rows created before it may be in the table's _archive twin, see ColdArchiver)
+ */
+final class ArchiveWatermarks {
+
+    private static final String WATERMARK_SQL =
+            "SELECT archived_before FROM archive_watermarks WHERE table_name = ?";
+
+    private ArchiveWatermarks() {
+    }
+
+    /**
+     * @return archived_before of the table, null when nothing was archived yet
+     *         (the archive table may not even exist then)
+     */
+    static LocalDateTime archivedBefore(JdbcTemplate jdbcTemplate, String table) {
+        List<Timestamp> watermark = jdbcTemplate.queryForList(WATERMARK_SQL, Timestamp.class, table);
+        return watermark.isEmpty() ? null : watermark.get(0).toLocalDateTime();
+    }
+}
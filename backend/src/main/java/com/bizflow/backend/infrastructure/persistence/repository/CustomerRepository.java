@@ -4,11 +4,50 @@ import com.bizflow.backend.core.domain.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Page<Customer> findByStoreId(Long storeId, Pageable pageable);
     Customer findByStoreIdAndPhone(Long storeId, String phone);
     long countByStoreId(Long storeId);
+
+    @Query("SELECT c.type AS type, COUNT(c) AS customers FROM Customer c WHERE c.storeId = :storeId GROUP BY c.type")
+    List<TypeCount> countByType(@Param("storeId") Long storeId);
+
+    /**
+     * Type (segment) of every customer of the store (SalesCube dictionary)
+     */
+    @Query("SELECT c.id AS id, c.type AS type FROM Customer c WHERE c.storeId = :storeId")
+    List<CustomerSegment> findSegments(@Param("storeId") Long storeId);
+
+    @Query("SELECT c.id AS id, c.type AS type FROM Customer c WHERE c.id IN :ids")
+    List<CustomerSegment> findSegmentsByIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination on (created_at, id) DESC - pass PageRequest.of(0, limit), no COUNT query
+    List<Customer> findByStoreIdOrderByCreatedAtDescIdDesc(Long storeId, Pageable pageable);
+
+    @Query("SELECT c FROM Customer c WHERE c.storeId = :storeId " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Customer> findByStoreIdBefore(@Param("storeId") Long storeId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    interface TypeCount {
+        Customer.CustomerType getType();
+        Long getCustomers();
+    }
+
+    interface CustomerSegment {
+        Long getId();
+        Customer.CustomerType getType();
+    }
 }
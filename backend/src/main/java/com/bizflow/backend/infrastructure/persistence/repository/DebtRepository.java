@@ -4,11 +4,33 @@ import com.bizflow.backend.core.domain.Debt;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface DebtRepository extends JpaRepository<Debt, Long> {
     Page<Debt> findByStoreId(Long storeId, Pageable pageable);
     Page<Debt> findByCustomerId(Long customerId, Pageable pageable);
     Page<Debt> findByStatus(Debt.DebtStatus status, Pageable pageable);
+    Optional<Debt> findByOrderId(Long orderId);
+
+    /**
+     * Open debts of a store grouped by due date (one row per distinct due date)
+     */
+    @Query("SELECT d.dueDate AS dueDate, COUNT(d) AS debts, SUM(d.unpaidAmount) AS unpaidAmount FROM Debt d " +
+           "WHERE d.storeId = :storeId AND d.unpaidAmount > 0 " +
+           "AND d.status <> com.bizflow.backend.core.domain.Debt.DebtStatus.CANCELLED GROUP BY d.dueDate")
+    List<DueDebts> sumUnpaidByDueDate(@Param("storeId") Long storeId);
+
+    interface DueDebts {
+        LocalDate getDueDate();
+        Long getDebts();
+        BigDecimal getUnpaidAmount();
+    }
 }
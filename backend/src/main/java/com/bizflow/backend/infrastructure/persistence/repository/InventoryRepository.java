@@ -1,12 +1,98 @@
 package com.bizflow.backend.infrastructure.persistence.repository;
 
 import com.bizflow.backend.core.domain.Inventory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
     Optional<Inventory> findByStoreIdAndProductId(Long storeId, Long productId);
+    List<Inventory> findByStoreIdAndProductIdIn(Long storeId, Collection<Long> productIds);
+
+    /**
+     * Stock on hand valued at sale price and cost price, per product category
+     */
+    @Query("SELECT p.categoryId AS categoryId, COUNT(i) AS products, SUM(i.quantity) AS units, " +
+           "SUM(i.quantity * p.price) AS retailValue, SUM(i.quantity * COALESCE(p.costPrice, 0)) AS costValue " +
+           "FROM Inventory i JOIN Product p ON p.id = i.productId " +
+           "WHERE i.storeId = :storeId AND i.quantity > 0 GROUP BY p.categoryId")
+    List<StockValue> sumStockValueByCategory(@Param("storeId") Long storeId);
+
+    /**
+     * Atomic conditional decrement: returns 0 when stock is insufficient (nothing is changed)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, " +
+           "i.availableQuantity = i.availableQuantity - :quantity, " +
+           "i.version = COALESCE(i.version, 0) + 1, i.lastUpdatedAt = CURRENT_TIMESTAMP " +
+           "WHERE i.storeId = :storeId AND i.productId = :productId AND i.availableQuantity >= :quantity")
+    int decrementStock(@Param("storeId") Long storeId,
+                       @Param("productId") Long productId,
+                       @Param("quantity") Integer quantity);
+
+    /**
+     * Atomic increment (stock in); 0 when the product has no inventory row yet
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :quantity, " +
+           "i.availableQuantity = i.availableQuantity + :quantity, " +
+           "i.version = COALESCE(i.version, 0) + 1, i.lastUpdatedAt = CURRENT_TIMESTAMP " +
+           "WHERE i.storeId = :storeId AND i.productId = :productId")
+    int incrementStock(@Param("storeId") Long storeId,
+                       @Param("productId") Long productId,
+                       @Param("quantity") Integer quantity);
+
+    /**
+     * Atomic conditional hold: moves quantity from available to reserved, 0 when stock is insufficient
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reservedQuantity = COALESCE(i.reservedQuantity, 0) + :quantity, " +
+           "i.availableQuantity = i.availableQuantity - :quantity, " +
+           "i.version = COALESCE(i.version, 0) + 1, i.lastUpdatedAt = CURRENT_TIMESTAMP " +
+           "WHERE i.storeId = :storeId AND i.productId = :productId AND i.availableQuantity >= :quantity")
+    int reserveStock(@Param("storeId") Long storeId,
+                     @Param("productId") Long productId,
+                     @Param("quantity") Integer quantity);
+
+    /**
+     * Low-stock set of a store (idx_inventory_store_low_stock, flag kept by LowStockTracker)
+     */
+    Page<Inventory> findByStoreIdAndLowStockTrue(Long storeId, Pageable pageable);
+
+    /**
+     * Reconcile: flag rows that are low but not flagged (e.g. reorder level raised)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE inventory SET low_stock = TRUE WHERE low_stock = FALSE " +
+                   "AND quantity <= (SELECT p.reorder_level FROM products p WHERE p.id = inventory.product_id)",
+           nativeQuery = true)
+    int flagMissingLowStock();
+
+    /**
+     * Reconcile: clear rows that are flagged but no longer low
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE inventory SET low_stock = FALSE WHERE low_stock = TRUE " +
+                   "AND NOT EXISTS (SELECT 1 FROM products p WHERE p.id = inventory.product_id " +
+                   "AND inventory.quantity <= p.reorder_level)",
+           nativeQuery = true)
+    int clearStaleLowStock();
+
+    interface StockValue {
+        Long getCategoryId();
+        Long getProducts();
+        Long getUnits();
+        BigDecimal getRetailValue();
+        BigDecimal getCostValue();
+    }
 }
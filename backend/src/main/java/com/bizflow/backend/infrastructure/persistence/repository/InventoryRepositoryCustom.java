@@ -0,0 +1,116 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InventoryRepositoryCustom: Set-based stock writes that Spring Data cannot derive
+ *
+ * Implemented with JdbcTemplate so a whole basket is sent as one JDBC batch
+ * instead of one UPDATE per line.
+ */
+public interface InventoryRepositoryCustom {
+
+    /**
+     * Decrement stock for many products of one store in a single batch.
+     * Each row is guarded by {@code available_quantity >= ?}, so a row that
+     * does not have enough stock is simply not updated.
+     *
+     * @param storeId Store ID
+     * @param quantitiesByProduct productId → quantity to remove
+     * @return productIds whose row was NOT updated (insufficient stock or no inventory row)
+     */
+    List<Long> decrementStockBatch(Long storeId, Map<Long, Integer> quantitiesByProduct);
+
+    /**
+     * Add stock for many products of one store in a single batch (bulk stock in).
+     *
+     * @param quantitiesByProduct productId → quantity to add
+     * @return productIds that have no inventory row yet (nothing updated for them)
+     */
+    List<Long> incrementStockBatch(Long storeId, Map<Long, Integer> quantitiesByProduct);
+
+    /**
+     * Create the first inventory row of many products in a single batch
+     * (multi-row INSERT with rewriteBatchedStatements). Fails on a duplicate (store, product).
+     *
+     * @param quantitiesByProduct productId → initial quantity
+     */
+    void insertStockBatch(Long storeId, Map<Long, Integer> quantitiesByProduct);
+
+    /**
+     * Return reserved stock to available for many (store, product) rows in a single batch.
+     * Each row is guarded by {@code reserved_quantity >= ?}.
+     *
+     * @param quantitiesByStock (storeId, productId) → quantity to release
+     * @return Keys whose row was NOT updated (no inventory row or reserved count lower than released)
+     */
+    List<StockKey> releaseReservedBatch(Map<StockKey, Integer> quantitiesByStock);
+
+    /**
+     * Quantity and reorder level of some products of one store (one join on the unique key)
+     */
+    List<StockLevel> findStockLevels(Long storeId, Collection<Long> productIds);
+
+    /**
+     * Compare-and-set the low-stock flag, one JDBC batch.
+     * A row is only updated if its flag still has the opposite value, so of two
+     * concurrent transactions crossing the same threshold only one sees the edge.
+     *
+     * @param lowStockByProduct productId → new flag
+     * @return productIds whose flag this call actually changed
+     */
+    List<Long> switchLowStock(Long storeId, Map<Long, Boolean> lowStockByProduct);
+
+    /**
+     * Quantity, reserved quantity and version of inventory rows of one store (IN lists in chunks).
+     * With forUpdate the rows are locked (SELECT ... FOR UPDATE in productId order) until the
+     * surrounding transaction ends.
+     *
+     * @param productIds Rows to read, or null for every row of the store
+     * @return productId → row state (products without a row are absent)
+     */
+    Map<Long, StockRow> findStockRows(Long storeId, Collection<Long> productIds, boolean forUpdate);
+
+    /**
+     * Overwrite quantity on hand (replay of the stock ledger), one JDBC batch.
+     * A row is only updated if its version is still the one the caller read
+     * and the new quantity still covers the reserved stock.
+     *
+     * @return productIds whose row was NOT updated (changed in the meantime)
+     */
+    List<Long> applyCorrections(Long storeId, List<StockCorrection> corrections);
+
+    /**
+     * StockLevel: Inventory row joined with its product's reorder level
+     */
+    record StockLevel(Long productId, String productName, int quantity, Integer reorderLevel, boolean lowStock) {
+        public boolean isBelowReorderLevel() {
+            return reorderLevel != null && quantity <= reorderLevel;
+        }
+    }
+
+    /**
+     * StockRow: Quantities and version of one inventory row
+     */
+    record StockRow(Long productId, int quantity, int reservedQuantity, long version) {
+    }
+
+    /**
+     * StockCorrection: New quantity of a product, valid only for the version it was computed against
+     */
+    record StockCorrection(Long productId, int quantity, long expectedVersion) {
+    }
+
+    /**
+     * StockKey: One inventory row (ordered by store, then product = lock order)
+     */
+    record StockKey(Long storeId, Long productId) implements Comparable<StockKey> {
+        @Override
+        public int compareTo(StockKey other) {
+            int byStore = storeId.compareTo(other.storeId);
+            return byStore != 0 ? byStore : productId.compareTo(other.productId);
+        }
+    }
+}
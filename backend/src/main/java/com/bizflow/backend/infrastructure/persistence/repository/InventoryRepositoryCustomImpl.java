@@ -0,0 +1,254 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@RequiredArgsConstructor
+public class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE inventory SET quantity = quantity - ?, available_quantity = available_quantity - ?, " +
+            "version = COALESCE(version, 0) + 1, last_updated_at = ? WHERE store_id = ? AND product_id = ? AND available_quantity >= ?";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE inventory SET quantity = quantity + ?, available_quantity = available_quantity + ?, " +
+            "version = COALESCE(version, 0) + 1, last_updated_at = ? WHERE store_id = ? AND product_id = ?";
+
+    private static final String INSERT_STOCK_SQL =
+            "INSERT INTO inventory (store_id, product_id, quantity, reserved_quantity, available_quantity, " +
+            "low_stock, version, last_updated_at) VALUES (?, ?, ?, 0, ?, FALSE, 0, ?)";
+
+    private static final String RELEASE_RESERVED_SQL =
+            "UPDATE inventory SET reserved_quantity = reserved_quantity - ?, available_quantity = available_quantity + ?, " +
+            "version = COALESCE(version, 0) + 1, last_updated_at = ? WHERE store_id = ? AND product_id = ? AND reserved_quantity >= ?";
+
+    private static final String STOCK_LEVELS_SQL =
+            "SELECT i.product_id, p.name, i.quantity, p.reorder_level, i.low_stock FROM inventory i " +
+            "JOIN products p ON p.id = i.product_id WHERE i.store_id = ? AND i.product_id IN (%s)";
+
+    private static final String STOCK_ROWS_SQL =
+            "SELECT product_id, quantity, COALESCE(reserved_quantity, 0), COALESCE(version, 0) FROM inventory " +
+            "WHERE store_id = ?%s ORDER BY product_id";
+
+    private static final String FOR_UPDATE = " FOR UPDATE";
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private static final String SWITCH_LOW_STOCK_SQL =
+            "UPDATE inventory SET low_stock = ? WHERE store_id = ? AND product_id = ? AND low_stock = ?";
+
+    private static final String CORRECT_QUANTITY_SQL =
+            "UPDATE inventory SET quantity = ?, available_quantity = ? - COALESCE(reserved_quantity, 0), " +
+            "version = COALESCE(version, 0) + 1, last_updated_at = ? WHERE store_id = ? AND product_id = ? " +
+            "AND COALESCE(version, 0) = ? AND COALESCE(reserved_quantity, 0) <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> decrementStockBatch(Long storeId, Map<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return List.of();
+        }
+
+        // Always lock rows in productId order so two concurrent baskets cannot deadlock
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(new TreeMap<>(quantitiesByProduct).entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getValue());
+            ps.setInt(2, row.getValue());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, storeId);
+            ps.setLong(5, row.getKey());
+            ps.setInt(6, row.getValue());
+        })[0];
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(rows.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public List<StockLevel> findStockLevels(Long storeId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object> args = new ArrayList<>();
+        args.add(storeId);
+        args.addAll(productIds);
+        String sql = String.format(STOCK_LEVELS_SQL, String.join(", ", Collections.nCopies(productIds.size(), "?")));
+        return jdbcTemplate.query(sql, (rs, row) -> {
+            int reorderLevel = rs.getInt("reorder_level");
+            boolean noReorderLevel = rs.wasNull();
+            return new StockLevel(rs.getLong("product_id"), rs.getString("name"), rs.getInt("quantity"),
+                    noReorderLevel ? null : reorderLevel, rs.getBoolean("low_stock"));
+        }, args.toArray());
+    }
+
+    @Override
+    public List<Long> switchLowStock(Long storeId, Map<Long, Boolean> lowStockByProduct) {
+        if (lowStockByProduct.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map.Entry<Long, Boolean>> rows = new ArrayList<>(new TreeMap<>(lowStockByProduct).entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(SWITCH_LOW_STOCK_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setBoolean(1, row.getValue());
+            ps.setLong(2, storeId);
+            ps.setLong(3, row.getKey());
+            ps.setBoolean(4, !row.getValue());
+        })[0];
+
+        List<Long> switched = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                switched.add(rows.get(i).getKey());
+            }
+        }
+        return switched;
+    }
+
+    @Override
+    public List<Long> incrementStockBatch(Long storeId, Map<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(new TreeMap<>(quantitiesByProduct).entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getValue());
+            ps.setInt(2, row.getValue());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, storeId);
+            ps.setLong(5, row.getKey());
+        })[0];
+
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(rows.get(i).getKey());
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public void insertStockBatch(Long storeId, Map<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(new TreeMap<>(quantitiesByProduct).entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_STOCK_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, storeId);
+            ps.setLong(2, row.getKey());
+            ps.setInt(3, row.getValue());
+            ps.setInt(4, row.getValue());
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    @Override
+    public List<StockKey> releaseReservedBatch(Map<StockKey, Integer> quantitiesByStock) {
+        if (quantitiesByStock.isEmpty()) {
+            return List.of();
+        }
+
+        // Same lock order as decrementStockBatch (store, then product)
+        List<Map.Entry<StockKey, Integer>> rows = new ArrayList<>(new TreeMap<>(quantitiesByStock).entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] updated = jdbcTemplate.batchUpdate(RELEASE_RESERVED_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getValue());
+            ps.setInt(2, row.getValue());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, row.getKey().storeId());
+            ps.setLong(5, row.getKey().productId());
+            ps.setInt(6, row.getValue());
+        })[0];
+
+        List<StockKey> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(rows.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public Map<Long, StockRow> findStockRows(Long storeId, Collection<Long> productIds, boolean forUpdate) {
+        Map<Long, StockRow> rows = new TreeMap<>();
+        RowCallbackHandler collect = rs -> rows.put(rs.getLong(1),
+                new StockRow(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getLong(4)));
+        String lock = forUpdate ? FOR_UPDATE : "";
+        if (productIds == null) {
+            jdbcTemplate.query(String.format(STOCK_ROWS_SQL, "") + lock, collect, storeId);
+            return rows;
+        }
+
+        // Ascending chunks keep the lock order of decrementStockBatch
+        List<Long> ids = new ArrayList<>(new TreeSet<>(productIds));
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            String sql = String.format(STOCK_ROWS_SQL,
+                    " AND product_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")") + lock;
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = storeId;
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 1] = chunk.get(i);
+            }
+            jdbcTemplate.query(sql, collect, args);
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Long> applyCorrections(Long storeId, List<StockCorrection> corrections) {
+        if (corrections.isEmpty()) {
+            return List.of();
+        }
+
+        List<StockCorrection> rows = new ArrayList<>(corrections);
+        rows.sort(Comparator.comparing(StockCorrection::productId)); // same lock order as decrementStockBatch
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] updated = jdbcTemplate.batchUpdate(CORRECT_QUANTITY_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.quantity());
+            ps.setInt(2, row.quantity());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, storeId);
+            ps.setLong(5, row.productId());
+            ps.setLong(6, row.expectedVersion());
+            ps.setInt(7, row.quantity());
+        })[0];
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(rows.get(i).productId());
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,28 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long>, InventorySnapshotRepositoryCustom {
+
+    /**
+     * Cutoff of the latest snapshot of a store taken at or before the given time
+     */
+    @Query("SELECT MAX(s.asOf) FROM InventorySnapshot s WHERE s.storeId = :storeId AND s.asOf <= :asOf")
+    Optional<LocalDateTime> findLatestAsOf(@Param("storeId") Long storeId, @Param("asOf") LocalDateTime asOf);
+
+    List<InventorySnapshot> findByStoreIdAndAsOf(Long storeId, LocalDateTime asOf);
+
+    @Modifying
+    @Query("DELETE FROM InventorySnapshot s WHERE s.storeId = :storeId AND s.asOf < :before")
+    int deleteByStoreIdAndAsOfBefore(@Param("storeId") Long storeId, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,16 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.InventorySnapshot;
+
+import java.util.List;
+
+/**
+ * InventorySnapshotRepositoryCustom: JDBC batch writes for ledger snapshots
+ */
+public interface InventorySnapshotRepositoryCustom {
+
+    /**
+     * Insert the rows of one snapshot as one JDBC batch (IDs are assigned here)
+     */
+    void batchInsert(List<InventorySnapshot> snapshots);
+}
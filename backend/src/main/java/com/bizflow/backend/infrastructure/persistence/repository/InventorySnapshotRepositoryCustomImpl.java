@@ -0,0 +1,40 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.InventorySnapshot;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class InventorySnapshotRepositoryCustomImpl implements InventorySnapshotRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_snapshots (id, store_id, product_id, quantity, as_of, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+
+    @Override
+    public void batchInsert(List<InventorySnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        for (InventorySnapshot s : snapshots) {
+            s.setId(idGenerator.nextId());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, snapshots, snapshots.size(), (ps, s) -> {
+            ps.setLong(1, s.getId());
+            ps.setLong(2, s.getStoreId());
+            ps.setLong(3, s.getProductId());
+            ps.setInt(4, s.getQuantity());
+            ps.setTimestamp(5, Timestamp.valueOf(s.getAsOf()));
+            ps.setTimestamp(6, Timestamp.valueOf(s.getCreatedAt()));
+        });
+    }
+}
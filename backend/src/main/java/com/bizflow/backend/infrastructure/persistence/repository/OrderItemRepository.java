@@ -1,6 +1,7 @@
 package com.bizflow.backend.infrastructure.persistence.repository;
 
 import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyProductRepository.GroupedSales;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,19 +9,27 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, OrderItemRepositoryCustom {
     List<OrderItem> findByOrderId(Long orderId);
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
 
-    @Query("SELECT oi.productId, SUM(oi.quantity) as totalQty, SUM(oi.totalAmount) as totalRevenue " +
+    /**
+     * Exact units / revenue per product over [startDate, endDate), cancelled orders excluded.
+     * Groups every order line of the range: used for short ranges (TopSellers seeds the current
+     * hour with it), whole days come from sales_daily_product
+     */
+    @Query("SELECT oi.productId AS groupId, SUM(oi.quantity) AS unitsSold, SUM(oi.totalAmount) AS revenue " +
            "FROM OrderItem oi JOIN Order o ON oi.orderId = o.id " +
-           "WHERE o.storeId = :storeId AND o.createdAt BETWEEN :startDate AND :endDate AND o.status != 'CANCELLED' " +
+           "WHERE o.storeId = :storeId AND o.createdAt >= :startDate AND o.createdAt < :endDate " +
+           "AND o.status <> com.bizflow.backend.core.domain.Order.OrderStatus.CANCELLED " +
            "GROUP BY oi.productId " +
-           "ORDER BY totalQty DESC")
-    List<Object[]> findTopSellingProducts(@Param("storeId") Long storeId, 
-                                          @Param("startDate") LocalDateTime startDate, 
-                                          @Param("endDate") LocalDateTime endDate,
-                                          Pageable pageable);
+           "ORDER BY SUM(oi.quantity) DESC")
+    List<GroupedSales> findTopSellingProducts(@Param("storeId") Long storeId,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate,
+                                              Pageable pageable);
 }
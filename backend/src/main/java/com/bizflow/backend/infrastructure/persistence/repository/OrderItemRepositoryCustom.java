@@ -0,0 +1,20 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.OrderItem;
+
+import java.util.List;
+
+/**
+ * OrderItemRepositoryCustom: JDBC batch writes for order lines
+ */
+public interface OrderItemRepositoryCustom {
+
+    /**
+     * Insert all lines of an order as one JDBC batch.
+     * IDs are assigned from the Snowflake generator before the insert.
+     *
+     * @param items Order items (id must be null)
+     * @return The same list, with IDs populated
+     */
+    List<OrderItem> batchInsert(List<OrderItem> items);
+}
@@ -0,0 +1,47 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OrderItemRepositoryCustomImpl implements OrderItemRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, total_amount, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+
+    @Override
+    public List<OrderItem> batchInsert(List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+
+        // IDs come from the same generator as Hibernate (@SnowflakeId), no generated keys to read back
+        for (OrderItem item : items) {
+            item.setId(idGenerator.nextId());
+            if (item.getCreatedAt() == null) {
+                item.setCreatedAt(LocalDateTime.now());
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setLong(2, item.getOrderId());
+            ps.setLong(3, item.getProductId());
+            ps.setInt(4, item.getQuantity());
+            ps.setBigDecimal(5, item.getUnitPrice());
+            ps.setBigDecimal(6, item.getTotalAmount());
+            ps.setTimestamp(7, Timestamp.valueOf(item.getCreatedAt()));
+        });
+        return items;
+    }
+}
@@ -4,19 +4,47 @@ import com.bizflow.backend.core.domain.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderRepositoryCustom {
     Order findByOrderNumber(String orderNumber);
     Page<Order> findByStoreId(Long storeId, Pageable pageable);
     Page<Order> findByCustomerId(Long customerId, Pageable pageable);
 
+    // Keyset pagination on (created_at, id) DESC - pass PageRequest.of(0, limit), no COUNT query
+    List<Order> findByStoreIdOrderByCreatedAtDescIdDesc(Long storeId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.storeId = :storeId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByStoreIdBefore(@Param("storeId") Long storeId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * Guarded status change: 1 = this caller moved the order, 0 = missing, other store or
+     * already CANCELLED. The row lock is held until commit, so of two concurrent cancels
+     * (or a cancel and a status change) exactly one sees 1.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.storeId = :storeId " +
+           "AND (o.status IS NULL OR o.status <> com.bizflow.backend.core.domain.Order.OrderStatus.CANCELLED)")
+    int updateStatusUnlessCancelled(@Param("id") Long id,
+                                    @Param("storeId") Long storeId,
+                                    @Param("status") Order.OrderStatus status,
+                                    @Param("now") LocalDateTime now);
+
     @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.storeId = :storeId AND o.createdAt BETWEEN :startDate AND :endDate AND o.status != 'CANCELLED'")
     BigDecimal sumTotalRevenue(@Param("storeId") Long storeId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
@@ -0,0 +1,37 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.Order;
+import com.bizflow.backend.core.domain.OrderItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * OrderRepositoryCustom: Forward-only JDBC reads for exports, reads of archived orders
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Stream orders of a store with their items, oldest first, one order at a time.
+     * Rows are read with a forward-only cursor (MySQL/TiDB: server-side streaming),
+     * so memory stays constant no matter how many orders match.
+     * Ranges reaching below the archive watermark also stream the archive tables
+     * (archived orders first, then hot ones).
+     *
+     * @param from Inclusive lower bound on created_at (null = no bound)
+     * @param until Exclusive upper bound on created_at (null = no bound)
+     * @param consumer Called once per order, on the calling thread, while the cursor is open
+     */
+    void streamWithItems(Long storeId, LocalDateTime from, LocalDateTime until,
+                         BiConsumer<Order, List<OrderItem>> consumer);
+
+    /**
+     * Order moved to orders_archive by ColdArchiver, with its items
+     */
+    Optional<OrderWithItems> findArchivedWithItems(Long orderId);
+
+    record OrderWithItems(Order order, List<OrderItem> items) {
+    }
+}
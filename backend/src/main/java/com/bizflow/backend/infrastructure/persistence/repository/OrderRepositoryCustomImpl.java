@@ -0,0 +1,162 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.Order;
+import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.infrastructure.archive.ColdArchiver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    // %1$s = orders table, %2$s = order_items table (hot or archive)
+    private static final String SELECT_WITH_ITEMS =
+            "SELECT o.id, o.store_id, o.order_number, o.customer_id, o.employee_id, o.subtotal, o.discount_amount, " +
+            "o.total_amount, o.payment_type, o.status, o.notes, o.created_at, o.created_by, " +
+            "i.id AS item_id, i.product_id, i.quantity, i.unit_price, i.total_amount AS item_total " +
+            "FROM %1$s o LEFT JOIN %2$s i ON i.order_id = o.id ";
+
+    private static final String STREAM_WHERE =
+            "WHERE o.store_id = ? AND o.created_at >= ? AND o.created_at < ? " +
+            "ORDER BY o.created_at, o.id, i.id";
+
+    private static final String STREAM_SQL =
+            String.format(SELECT_WITH_ITEMS, ColdArchiver.ORDERS, ColdArchiver.ORDER_ITEMS) + STREAM_WHERE;
+
+    private static final String ARCHIVE_STREAM_SQL =
+            String.format(SELECT_WITH_ITEMS, ColdArchiver.ORDERS + ColdArchiver.ARCHIVE_SUFFIX,
+                    ColdArchiver.ORDER_ITEMS + ColdArchiver.ARCHIVE_SUFFIX) + STREAM_WHERE;
+
+    private static final String ARCHIVE_BY_ID_SQL =
+            String.format(SELECT_WITH_ITEMS, ColdArchiver.ORDERS + ColdArchiver.ARCHIVE_SUFFIX,
+                    ColdArchiver.ORDER_ITEMS + ColdArchiver.ARCHIVE_SUFFIX) + "WHERE o.id = ? ORDER BY i.id";
+
+    // Bounds used when the caller passes null (keeps one prepared statement shape)
+    private static final Timestamp MIN_TIME = Timestamp.valueOf("1970-01-01 00:00:00");
+    private static final Timestamp MAX_TIME = Timestamp.valueOf("9999-12-31 00:00:00");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void streamWithItems(Long storeId, LocalDateTime from, LocalDateTime until,
+                                BiConsumer<Order, List<OrderItem>> consumer) {
+        // Archive is read only when the range reaches below the hot/cold watermark
+        LocalDateTime archivedBefore = archivedBefore();
+        if (archivedBefore != null && (from == null || from.isBefore(archivedBefore))) {
+            LocalDateTime archiveUntil = until == null || until.isAfter(archivedBefore) ? archivedBefore : until;
+            stream(ARCHIVE_STREAM_SQL, storeId, from, archiveUntil, consumer);
+        }
+        stream(STREAM_SQL, storeId, from, until, consumer);
+    }
+
+    @Override
+    public Optional<OrderWithItems> findArchivedWithItems(Long orderId) {
+        if (archivedBefore() == null) {
+            return Optional.empty(); // nothing archived yet, archive tables may not exist
+        }
+        List<OrderWithItems> found = new ArrayList<>(1);
+        OrderAssembler assembler = new OrderAssembler((order, items) -> found.add(new OrderWithItems(order, items)));
+        jdbcTemplate.query(ARCHIVE_BY_ID_SQL, assembler, orderId);
+        assembler.flush();
+        return found.stream().findFirst();
+    }
+
+    private LocalDateTime archivedBefore() {
+        return ArchiveWatermarks.archivedBefore(jdbcTemplate, ColdArchiver.ORDERS);
+    }
+
+    private void stream(String sql, Long storeId, LocalDateTime from, LocalDateTime until,
+                        BiConsumer<Order, List<OrderItem>> consumer) {
+        int fetchSize = SqlDialect.streamingFetchSize(jdbcTemplate);
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, storeId);
+            ps.setTimestamp(2, from != null ? Timestamp.valueOf(from) : MIN_TIME);
+            ps.setTimestamp(3, until != null ? Timestamp.valueOf(until) : MAX_TIME);
+            return ps;
+        };
+
+        OrderAssembler assembler = new OrderAssembler(consumer);
+        jdbcTemplate.query(statement, assembler);
+        assembler.flush();
+    }
+
+    /**
+     * Groups consecutive join rows of the same order, holds at most one order in memory
+     */
+    private static final class OrderAssembler implements RowCallbackHandler {
+        private final BiConsumer<Order, List<OrderItem>> consumer;
+        private Order current;
+        private List<OrderItem> items = new ArrayList<>();
+
+        OrderAssembler(BiConsumer<Order, List<OrderItem>> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            if (current == null || current.getId() != orderId) {
+                flush();
+                current = mapOrder(rs);
+            }
+
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                items.add(OrderItem.builder()
+                        .id(itemId)
+                        .orderId(orderId)
+                        .productId(rs.getLong("product_id"))
+                        .quantity(rs.getInt("quantity"))
+                        .unitPrice(rs.getBigDecimal("unit_price"))
+                        .totalAmount(rs.getBigDecimal("item_total"))
+                        .build());
+            }
+        }
+
+        void flush() {
+            if (current != null) {
+                consumer.accept(current, items);
+                current = null;
+                items = new ArrayList<>();
+            }
+        }
+
+        private static Order mapOrder(ResultSet rs) throws SQLException {
+            String paymentType = rs.getString("payment_type");
+            String status = rs.getString("status");
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            long employeeId = rs.getLong("employee_id");
+            boolean noEmployee = rs.wasNull();
+            return Order.builder()
+                    .id(rs.getLong("id"))
+                    .storeId(rs.getLong("store_id"))
+                    .orderNumber(rs.getString("order_number"))
+                    .customerId(rs.getLong("customer_id"))
+                    .employeeId(noEmployee ? null : employeeId)
+                    .subtotal(rs.getBigDecimal("subtotal"))
+                    .discountAmount(rs.getBigDecimal("discount_amount"))
+                    .totalAmount(rs.getBigDecimal("total_amount"))
+                    .paymentType(paymentType != null ? Order.PaymentType.valueOf(paymentType) : null)
+                    .status(status != null ? Order.OrderStatus.valueOf(status) : null)
+                    .notes(rs.getString("notes"))
+                    .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                    .createdBy(rs.getString("created_by"))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.Order;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * OrderSpecifications: Composable filters for order list queries
+ *
+ * Generic over the entity: works for Order and the OrderSummary read model
+ * (same attribute names: storeId, status, customerId, createdAt).
+ * Every filter is optional (null → no predicate). Combine with
+ * {@code Specification.allOf(belongsToStore(id), ...)}; the store filter is
+ * always present so the (store_id, ...) composite indexes are usable.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static <T> Specification<T> belongsToStore(Long storeId) {
+        return (root, query, cb) -> cb.equal(root.get("storeId"), storeId);
+    }
+
+    public static <T> Specification<T> hasStatus(Order.OrderStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static <T> Specification<T> hasCustomer(Long customerId) {
+        return (root, query, cb) -> customerId == null ? null : cb.equal(root.get("customerId"), customerId);
+    }
+
+    /**
+     * created_at >= startDate 00:00
+     */
+    public static <T> Specification<T> createdFrom(LocalDate startDate) {
+        return (root, query, cb) -> startDate == null ? null
+                : cb.greaterThanOrEqualTo(root.get("createdAt"), startDate.atStartOfDay());
+    }
+
+    /**
+     * created_at < (endDate + 1 day) 00:00, i.e. endDate is inclusive
+     */
+    public static <T> Specification<T> createdUntil(LocalDate endDate) {
+        return (root, query, cb) -> endDate == null ? null
+                : cb.lessThan(root.get("createdAt"), endDate.plusDays(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,71 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.Order;
+import com.bizflow.backend.core.domain.OrderSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long>,
+        JpaSpecificationExecutor<OrderSummary>, OrderSummaryRepositoryCustom {
+
+    // Keyset pagination on (created_at, order_id) DESC - pass PageRequest.of(0, limit), no COUNT query
+    List<OrderSummary> findByStoreIdOrderByCreatedAtDescOrderIdDesc(Long storeId, Pageable pageable);
+
+    @Query("SELECT s FROM OrderSummary s WHERE s.storeId = :storeId " +
+           "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.orderId < :orderId)) " +
+           "ORDER BY s.createdAt DESC, s.orderId DESC")
+    List<OrderSummary> findByStoreIdBefore(@Param("storeId") Long storeId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("orderId") Long orderId,
+                                           Pageable pageable);
+
+    /**
+     * Revenue per customer type over [from, to), cancelled orders excluded
+     * (customer segment is not a rollup dimension, so this reads the narrow summary rows)
+     */
+    @Query("SELECT c.type AS segment, COUNT(s) AS orders, SUM(s.totalAmount) AS revenue " +
+           "FROM OrderSummary s JOIN Customer c ON c.id = s.customerId " +
+           "WHERE s.storeId = :storeId AND s.createdAt >= :from AND s.createdAt < :to " +
+           "AND s.status <> com.bizflow.backend.core.domain.Order.OrderStatus.CANCELLED " +
+           "GROUP BY c.type")
+    List<SegmentSales> sumBySegment(@Param("storeId") Long storeId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+
+    /**
+     * Customers with at least one / more than one order since the given time
+     */
+    @Query(value = "SELECT COUNT(*) AS customers, COALESCE(SUM(CASE WHEN t.orders > 1 THEN 1 ELSE 0 END), 0) AS repeatCustomers " +
+                   "FROM (SELECT customer_id, COUNT(*) AS orders FROM order_summary " +
+                   "WHERE store_id = :storeId AND created_at >= :from AND status <> 'CANCELLED' " +
+                   "GROUP BY customer_id) t",
+           nativeQuery = true)
+    CustomerActivity countCustomerActivity(@Param("storeId") Long storeId, @Param("from") LocalDateTime from);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.updatedAt = :updatedAt WHERE s.orderId = :orderId")
+    int updateStatus(@Param("orderId") Long orderId,
+                     @Param("status") Order.OrderStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    interface SegmentSales {
+        com.bizflow.backend.core.domain.Customer.CustomerType getSegment();
+        Long getOrders();
+        BigDecimal getRevenue();
+    }
+
+    interface CustomerActivity {
+        Long getCustomers();
+        Long getRepeatCustomers();
+    }
+}
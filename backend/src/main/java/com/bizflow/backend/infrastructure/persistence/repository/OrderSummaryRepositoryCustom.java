@@ -0,0 +1,17 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.OrderSummary;
+
+import java.util.List;
+
+/**
+ * OrderSummaryRepositoryCustom: JDBC batch writes for the order list read model
+ */
+public interface OrderSummaryRepositoryCustom {
+
+    /**
+     * Insert summaries of newly created orders as one JDBC batch
+     * (IDs are the order IDs, so no merge / SELECT-before-INSERT as with save())
+     */
+    void batchInsert(List<OrderSummary> summaries);
+}
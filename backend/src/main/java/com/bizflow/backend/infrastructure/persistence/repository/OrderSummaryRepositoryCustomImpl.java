@@ -0,0 +1,48 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.OrderSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OrderSummaryRepositoryCustomImpl implements OrderSummaryRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_summary (order_id, store_id, order_number, customer_id, customer_name, employee_id, " +
+            "item_count, total_quantity, total_amount, payment_type, status, item_preview, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<OrderSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, summaries, summaries.size(), (ps, s) -> {
+            ps.setLong(1, s.getOrderId());
+            ps.setLong(2, s.getStoreId());
+            ps.setString(3, s.getOrderNumber());
+            ps.setLong(4, s.getCustomerId());
+            ps.setString(5, s.getCustomerName());
+            if (s.getEmployeeId() != null) {
+                ps.setLong(6, s.getEmployeeId());
+            } else {
+                ps.setNull(6, Types.BIGINT);
+            }
+            ps.setInt(7, s.getItemCount());
+            ps.setInt(8, s.getTotalQuantity());
+            ps.setBigDecimal(9, s.getTotalAmount());
+            ps.setString(10, s.getPaymentType() != null ? s.getPaymentType().name() : null);
+            ps.setString(11, s.getStatus().name());
+            ps.setString(12, s.getItemPreview());
+            ps.setTimestamp(13, Timestamp.valueOf(s.getCreatedAt()));
+            ps.setTimestamp(14, s.getUpdatedAt() != null ? Timestamp.valueOf(s.getUpdatedAt()) : null);
+        });
+    }
+}
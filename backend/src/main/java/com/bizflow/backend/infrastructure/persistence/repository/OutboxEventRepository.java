@@ -0,0 +1,71 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Due events: PENDING whose backoff elapsed, or PROCESSING whose lease expired (dispatcher died)
+     */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.status IN (" +
+           "com.bizflow.backend.core.domain.OutboxEvent.OutboxStatus.PENDING, " +
+           "com.bizflow.backend.core.domain.OutboxEvent.OutboxStatus.PROCESSING) " +
+           "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim due events for one dispatcher run (compare-and-set, safe across nodes)
+     * 
+     * @return Number of rows this run owns (others were claimed concurrently)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = com.bizflow.backend.core.domain.OutboxEvent.OutboxStatus.PROCESSING, " +
+           "e.claimToken = :token, e.nextAttemptAt = :leaseUntil " +
+           "WHERE e.id IN :ids AND e.status IN (" +
+           "com.bizflow.backend.core.domain.OutboxEvent.OutboxStatus.PENDING, " +
+           "com.bizflow.backend.core.domain.OutboxEvent.OutboxStatus.PROCESSING) " +
+           "AND e.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<OutboxEvent> findByClaimToken(String claimToken);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = com.bizflow.backend.core.domain.OutboxEvent.OutboxStatus.SENT, " +
+           "e.processedAt = :now, e.claimToken = NULL, e.lastError = NULL " +
+           "WHERE e.id IN :ids AND e.claimToken = :token")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("token") String token,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = e.attempts + 1, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error, e.claimToken = NULL " +
+           "WHERE e.id = :id AND e.claimToken = :token")
+    int markFailed(@Param("id") Long id,
+                   @Param("token") String token,
+                   @Param("status") OutboxEvent.OutboxStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    /**
+     * Housekeeping: delivered events are only kept for a while
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = com.bizflow.backend.core.domain.OutboxEvent.OutboxStatus.SENT " +
+           "AND e.processedAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -4,8 +4,12 @@ import com.bizflow.backend.core.domain.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +17,49 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Product findByStoreIdAndSku(Long storeId, String sku);
     Page<Product> findByStoreId(Long storeId, Pageable pageable);
     List<Product> findByCategoryId(Long categoryId);
+
+    /**
+     * SKU lookup table of a store's catalog (three columns, no entities)
+     */
+    @Query("SELECT p.id AS id, p.sku AS sku, p.costPrice AS costPrice FROM Product p " +
+           "WHERE p.storeId = :storeId AND p.sku IS NOT NULL")
+    List<CatalogEntry> findCatalogByStoreId(@Param("storeId") Long storeId);
+
+    interface CatalogEntry {
+        Long getId();
+        String getSku();
+        BigDecimal getCostPrice();
+    }
+
+    /**
+     * Active products of a store with their stock (null = no inventory row), ordered by ID
+     */
+    @Query("SELECT p.id AS id, p.reorderLevel AS reorderLevel, i.quantity AS quantity, " +
+           "i.reservedQuantity AS reservedQuantity FROM Product p " +
+           "LEFT JOIN Inventory i ON i.storeId = p.storeId AND i.productId = p.id " +
+           "WHERE p.storeId = :storeId " +
+           "AND (p.status IS NULL OR p.status = com.bizflow.backend.core.domain.Product.ProductStatus.ACTIVE) " +
+           "ORDER BY p.id")
+    List<StockLevel> findActiveStockLevels(@Param("storeId") Long storeId);
+
+    /**
+     * Category of every product of the store (SalesCube dictionary)
+     */
+    @Query("SELECT p.id AS id, p.categoryId AS categoryId FROM Product p WHERE p.storeId = :storeId")
+    List<ProductCategory> findCategories(@Param("storeId") Long storeId);
+
+    @Query("SELECT p.id AS id, p.categoryId AS categoryId FROM Product p WHERE p.id IN :ids")
+    List<ProductCategory> findCategoriesByIds(@Param("ids") Collection<Long> ids);
+
+    interface StockLevel {
+        Long getId();
+        Integer getReorderLevel();
+        Integer getQuantity();
+        Integer getReservedQuantity();
+    }
+
+    interface ProductCategory {
+        Long getId();
+        Long getCategoryId();
+    }
 }
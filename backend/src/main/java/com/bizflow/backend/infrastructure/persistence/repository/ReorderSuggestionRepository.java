@@ -0,0 +1,15 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.ReorderSuggestion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReorderSuggestionRepository extends JpaRepository<ReorderSuggestion, Long>, ReorderSuggestionRepositoryCustom {
+
+    Page<ReorderSuggestion> findByStoreId(Long storeId, Pageable pageable);
+
+    Page<ReorderSuggestion> findByStoreIdAndSuggestedQuantityGreaterThan(Long storeId, Integer quantity, Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.ReorderSuggestion;
+
+import java.util.List;
+
+/**
+ * ReorderSuggestionRepositoryCustom: JDBC batch writes for reorder suggestions
+ */
+public interface ReorderSuggestionRepositoryCustom {
+
+    /**
+     * Replace the suggestions of a store's product ID range: delete the range, insert the
+     * new rows as one JDBC batch (IDs are assigned here). Call inside a transaction so
+     * readers never see the range half written.
+     *
+     * @param fromProductId First product ID of the range (inclusive)
+     * @param toProductId Last product ID of the range (inclusive)
+     * @param suggestions New rows, all with product IDs inside the range
+     * @return Number of rows deleted
+     */
+    int replaceRange(Long storeId, long fromProductId, long toProductId, List<ReorderSuggestion> suggestions);
+}
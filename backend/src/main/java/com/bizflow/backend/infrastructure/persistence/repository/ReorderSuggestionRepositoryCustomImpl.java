@@ -0,0 +1,52 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.ReorderSuggestion;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ReorderSuggestionRepositoryCustomImpl implements ReorderSuggestionRepositoryCustom {
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM reorder_suggestions WHERE store_id = ? AND product_id BETWEEN ? AND ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO reorder_suggestions (id, store_id, product_id, available_quantity, units_sold, daily_velocity, " +
+            "days_of_cover, reorder_level, suggested_quantity, last_sale_at, computed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+
+    @Override
+    public int replaceRange(Long storeId, long fromProductId, long toProductId, List<ReorderSuggestion> suggestions) {
+        int deleted = jdbcTemplate.update(DELETE_RANGE_SQL, storeId, fromProductId, toProductId);
+        if (suggestions.isEmpty()) {
+            return deleted;
+        }
+
+        for (ReorderSuggestion s : suggestions) {
+            s.setId(idGenerator.nextId());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, suggestions, suggestions.size(), (ps, s) -> {
+            ps.setLong(1, s.getId());
+            ps.setLong(2, s.getStoreId());
+            ps.setLong(3, s.getProductId());
+            ps.setInt(4, s.getAvailableQuantity());
+            ps.setLong(5, s.getUnitsSold());
+            ps.setBigDecimal(6, s.getDailyVelocity());
+            ps.setBigDecimal(7, s.getDaysOfCover());
+            ps.setObject(8, s.getReorderLevel(), Types.INTEGER);
+            ps.setInt(9, s.getSuggestedQuantity());
+            ps.setTimestamp(10, s.getLastSaleAt() != null ? Timestamp.valueOf(s.getLastSaleAt()) : null);
+            ps.setTimestamp(11, Timestamp.valueOf(s.getComputedAt()));
+        });
+        return deleted;
+    }
+}
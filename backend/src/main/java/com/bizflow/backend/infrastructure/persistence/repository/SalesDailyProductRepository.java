@@ -0,0 +1,71 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.SalesDailyProduct;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyProductRepository extends JpaRepository<SalesDailyProduct, Long>, SalesDailyProductRepositoryCustom {
+
+    /**
+     * Best sellers by units over [from, to] (inclusive), range scan on uk_sales_daily_product
+     */
+    @Query("SELECT d.productId AS groupId, SUM(d.unitsSold) AS unitsSold, SUM(d.revenue) AS revenue " +
+           "FROM SalesDailyProduct d WHERE d.storeId = :storeId AND d.salesDate BETWEEN :from AND :to " +
+           "GROUP BY d.productId HAVING SUM(d.unitsSold) > 0 ORDER BY SUM(d.unitsSold) DESC, d.productId")
+    List<GroupedSales> findTopProducts(@Param("storeId") Long storeId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to,
+                                       Pageable pageable);
+
+    @Query("SELECT d.employeeId AS groupId, SUM(d.unitsSold) AS unitsSold, SUM(d.revenue) AS revenue " +
+           "FROM SalesDailyProduct d WHERE d.storeId = :storeId AND d.salesDate BETWEEN :from AND :to " +
+           "GROUP BY d.employeeId ORDER BY SUM(d.revenue) DESC")
+    List<GroupedSales> sumByEmployee(@Param("storeId") Long storeId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    /**
+     * Sales per product category (groupId null = products without category)
+     */
+    @Query("SELECT p.categoryId AS groupId, SUM(d.unitsSold) AS unitsSold, SUM(d.revenue) AS revenue " +
+           "FROM SalesDailyProduct d JOIN Product p ON p.id = d.productId " +
+           "WHERE d.storeId = :storeId AND d.salesDate BETWEEN :from AND :to " +
+           "GROUP BY p.categoryId ORDER BY SUM(d.revenue) DESC")
+    List<GroupedSales> sumByCategory(@Param("storeId") Long storeId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    /**
+     * Order lines per day over [from, to] (inclusive), sizes the SalesCube before it loads
+     */
+    @Query("SELECT d.salesDate AS salesDate, SUM(d.orderLines) AS orderLines " +
+           "FROM SalesDailyProduct d WHERE d.storeId = :storeId AND d.salesDate BETWEEN :from AND :to " +
+           "GROUP BY d.salesDate")
+    List<DayLines> sumOrderLinesByDate(@Param("storeId") Long storeId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM SalesDailyProduct d WHERE d.storeId = :storeId AND d.salesDate = :day")
+    int deleteDay(@Param("storeId") Long storeId, @Param("day") LocalDate day);
+
+    interface GroupedSales {
+        Long getGroupId();
+        Long getUnitsSold();
+        BigDecimal getRevenue();
+    }
+
+    interface DayLines {
+        LocalDate getSalesDate();
+        Long getOrderLines();
+    }
+}
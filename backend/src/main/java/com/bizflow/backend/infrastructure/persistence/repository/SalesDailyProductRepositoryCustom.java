@@ -0,0 +1,19 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.SalesDailyProduct;
+
+import java.util.List;
+
+/**
+ * SalesDailyProductRepositoryCustom: Additive upserts for the store/day/product/employee sales rollup
+ */
+public interface SalesDailyProductRepositoryCustom {
+
+    /**
+     * Add each delta to the row of its (store, day, product, employee), creating missing rows.
+     * Same statements and lock order rules as SalesDailyRepositoryCustom.upsertBatch.
+     *
+     * @param deltas One delta per key, counters may be negative (cancellations)
+     */
+    void upsertBatch(List<SalesDailyProduct> deltas);
+}
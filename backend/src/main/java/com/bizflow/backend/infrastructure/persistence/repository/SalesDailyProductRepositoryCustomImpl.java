@@ -0,0 +1,91 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.SalesDailyProduct;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class SalesDailyProductRepositoryCustomImpl implements SalesDailyProductRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sales_daily_product (id, store_id, sales_date, product_id, employee_id, units_sold, revenue, " +
+            "order_lines, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_SQL = INSERT_SQL +
+            " ON DUPLICATE KEY UPDATE units_sold = units_sold + VALUES(units_sold), revenue = revenue + VALUES(revenue), " +
+            "order_lines = order_lines + VALUES(order_lines), updated_at = VALUES(updated_at)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE sales_daily_product SET units_sold = units_sold + ?, revenue = revenue + ?, " +
+            "order_lines = order_lines + ?, updated_at = ? " +
+            "WHERE store_id = ? AND sales_date = ? AND product_id = ? AND employee_id = ?";
+
+    private static final Comparator<SalesDailyProduct> KEY_ORDER = Comparator
+            .comparing(SalesDailyProduct::getStoreId)
+            .thenComparing(SalesDailyProduct::getSalesDate)
+            .thenComparing(SalesDailyProduct::getProductId)
+            .thenComparing(SalesDailyProduct::getEmployeeId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+
+    @Override
+    public void upsertBatch(List<SalesDailyProduct> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<SalesDailyProduct> sorted = new ArrayList<>(deltas);
+        sorted.sort(KEY_ORDER);
+
+        if (SqlDialect.isMySql(jdbcTemplate)) {
+            insert(UPSERT_SQL, sorted);
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, sorted, sorted.size(), (ps, d) -> {
+            ps.setLong(1, d.getUnitsSold());
+            ps.setBigDecimal(2, d.getRevenue());
+            ps.setLong(3, d.getOrderLines());
+            ps.setTimestamp(4, Timestamp.valueOf(d.getUpdatedAt()));
+            ps.setLong(5, d.getStoreId());
+            ps.setDate(6, Date.valueOf(d.getSalesDate()));
+            ps.setLong(7, d.getProductId());
+            ps.setLong(8, d.getEmployeeId());
+        });
+        List<SalesDailyProduct> missing = new ArrayList<>();
+        int i = 0;
+        for (int[] chunk : updated) {
+            for (int count : chunk) {
+                if (count == 0) {
+                    missing.add(sorted.get(i));
+                }
+                i++;
+            }
+        }
+        insert(INSERT_SQL, missing);
+    }
+
+    private void insert(String sql, List<SalesDailyProduct> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, d) -> {
+            ps.setLong(1, idGenerator.nextId());
+            ps.setLong(2, d.getStoreId());
+            ps.setDate(3, Date.valueOf(d.getSalesDate()));
+            ps.setLong(4, d.getProductId());
+            ps.setLong(5, d.getEmployeeId());
+            ps.setLong(6, d.getUnitsSold());
+            ps.setBigDecimal(7, d.getRevenue());
+            ps.setLong(8, d.getOrderLines());
+            ps.setTimestamp(9, Timestamp.valueOf(d.getUpdatedAt()));
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.SalesDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRepository extends JpaRepository<SalesDaily, Long>, SalesDailyRepositoryCustom {
+
+    /**
+     * Days of a store with sales in [from, to] (inclusive), oldest first; days without orders have no row
+     */
+    List<SalesDaily> findByStoreIdAndSalesDateBetweenOrderBySalesDate(Long storeId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM SalesDaily d WHERE d.storeId = :storeId AND d.salesDate = :day")
+    int deleteDay(@Param("storeId") Long storeId, @Param("day") LocalDate day);
+}
@@ -0,0 +1,29 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.SalesDaily;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * SalesDailyRepositoryCustom: Additive upserts for the store/day sales rollup
+ */
+public interface SalesDailyRepositoryCustom {
+
+    /**
+     * Add each delta to the row of its (store, day), creating the row when it is missing.
+     * MySQL/TiDB: one INSERT ... ON DUPLICATE KEY UPDATE batch. Other databases (H2 in
+     * tests): UPDATE batch, then INSERT for the days that had no row.
+     * Rows are written in (store, day) order so concurrent orders lock them in the same order.
+     *
+     * @param deltas One delta per (store, day), counters may be negative (cancellations)
+     */
+    void upsertBatch(List<SalesDaily> deltas);
+
+    /**
+     * Rows of a store over [from, to] (inclusive), oldest first, over a forward-only cursor:
+     * each row is handed to the consumer as it is read, none are kept
+     */
+    void streamDays(Long storeId, LocalDate from, LocalDate to, Consumer<SalesDaily> consumer);
+}
@@ -0,0 +1,137 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.SalesDaily;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class SalesDailyRepositoryCustomImpl implements SalesDailyRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sales_daily (id, store_id, sales_date, order_count, units_sold, gross_amount, discount_amount, " +
+            "revenue, cash_revenue, cancelled_count, cancelled_amount, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_SQL = INSERT_SQL +
+            " ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "units_sold = units_sold + VALUES(units_sold), gross_amount = gross_amount + VALUES(gross_amount), " +
+            "discount_amount = discount_amount + VALUES(discount_amount), revenue = revenue + VALUES(revenue), " +
+            "cash_revenue = cash_revenue + VALUES(cash_revenue), cancelled_count = cancelled_count + VALUES(cancelled_count), " +
+            "cancelled_amount = cancelled_amount + VALUES(cancelled_amount), updated_at = VALUES(updated_at)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE sales_daily SET order_count = order_count + ?, units_sold = units_sold + ?, " +
+            "gross_amount = gross_amount + ?, discount_amount = discount_amount + ?, revenue = revenue + ?, " +
+            "cash_revenue = cash_revenue + ?, cancelled_count = cancelled_count + ?, " +
+            "cancelled_amount = cancelled_amount + ?, updated_at = ? WHERE store_id = ? AND sales_date = ?";
+
+    // Range scan on uk_sales_daily_store_date
+    private static final String STREAM_SQL =
+            "SELECT store_id, sales_date, order_count, units_sold, gross_amount, discount_amount, revenue, " +
+            "cash_revenue, cancelled_count, cancelled_amount, updated_at FROM sales_daily " +
+            "WHERE store_id = ? AND sales_date BETWEEN ? AND ? ORDER BY sales_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+
+    @Override
+    public void upsertBatch(List<SalesDaily> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<SalesDaily> sorted = new ArrayList<>(deltas);
+        sorted.sort(Comparator.comparing(SalesDaily::getStoreId).thenComparing(SalesDaily::getSalesDate));
+
+        if (SqlDialect.isMySql(jdbcTemplate)) {
+            insert(UPSERT_SQL, sorted);
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, sorted, sorted.size(), (ps, d) -> {
+            ps.setLong(1, d.getOrderCount());
+            ps.setLong(2, d.getUnitsSold());
+            ps.setBigDecimal(3, d.getGrossAmount());
+            ps.setBigDecimal(4, d.getDiscountAmount());
+            ps.setBigDecimal(5, d.getRevenue());
+            ps.setBigDecimal(6, d.getCashRevenue());
+            ps.setLong(7, d.getCancelledCount());
+            ps.setBigDecimal(8, d.getCancelledAmount());
+            ps.setTimestamp(9, Timestamp.valueOf(d.getUpdatedAt()));
+            ps.setLong(10, d.getStoreId());
+            ps.setDate(11, Date.valueOf(d.getSalesDate()));
+        });
+        List<SalesDaily> missing = new ArrayList<>();
+        int i = 0;
+        for (int[] chunk : updated) {
+            for (int count : chunk) {
+                if (count == 0) {
+                    missing.add(sorted.get(i));
+                }
+                i++;
+            }
+        }
+        insert(INSERT_SQL, missing);
+    }
+
+    private void insert(String sql, List<SalesDaily> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, d) -> {
+            ps.setLong(1, idGenerator.nextId());
+            ps.setLong(2, d.getStoreId());
+            ps.setDate(3, Date.valueOf(d.getSalesDate()));
+            ps.setLong(4, d.getOrderCount());
+            ps.setLong(5, d.getUnitsSold());
+            ps.setBigDecimal(6, d.getGrossAmount());
+            ps.setBigDecimal(7, d.getDiscountAmount());
+            ps.setBigDecimal(8, d.getRevenue());
+            ps.setBigDecimal(9, d.getCashRevenue());
+            ps.setLong(10, d.getCancelledCount());
+            ps.setBigDecimal(11, d.getCancelledAmount());
+            ps.setTimestamp(12, Timestamp.valueOf(d.getUpdatedAt()));
+        });
+    }
+
+    @Override
+    public void streamDays(Long storeId, LocalDate from, LocalDate to, Consumer<SalesDaily> consumer) {
+        int fetchSize = SqlDialect.streamingFetchSize(jdbcTemplate);
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(STREAM_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, storeId);
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            return ps;
+        };
+        jdbcTemplate.query(statement, rs -> {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            consumer.accept(SalesDaily.builder()
+                    .storeId(rs.getLong("store_id"))
+                    .salesDate(rs.getDate("sales_date").toLocalDate())
+                    .orderCount(rs.getLong("order_count"))
+                    .unitsSold(rs.getLong("units_sold"))
+                    .grossAmount(rs.getBigDecimal("gross_amount"))
+                    .discountAmount(rs.getBigDecimal("discount_amount"))
+                    .revenue(rs.getBigDecimal("revenue"))
+                    .cashRevenue(rs.getBigDecimal("cash_revenue"))
+                    .cancelledCount(rs.getLong("cancelled_count"))
+                    .cancelledAmount(rs.getBigDecimal("cancelled_amount"))
+                    .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                    .build());
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * SqlDialect: Which SQL extensions the connected database understands
+ * (MySQL / TiDB in production, H2 in tests)
+ */
+public final class SqlDialect {
+
+    /** Rows per round trip for forward-only cursors on drivers that honour a positive fetch size */
+    public static final int FETCH_SIZE = 500;
+
+    private static volatile Boolean mySql;
+
+    private SqlDialect() {
+    }
+
+    /**
+     * true when the driver is MySQL Connector/J (INSERT ... ON DUPLICATE KEY UPDATE available);
+     * resolved once, the application talks to a single database
+     */
+    public static boolean isMySql(JdbcTemplate jdbcTemplate) {
+        Boolean cached = mySql;
+        if (cached == null) {
+            cached = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDriverName().toLowerCase().contains("mysql")));
+            mySql = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Fetch size of a forward-only, read-only cursor that must not buffer the whole result:
+     * MySQL Connector/J only streams row by row with Integer.MIN_VALUE, other drivers take FETCH_SIZE.
+     * Resolve it before preparing the statement (isMySql may need a connection of its own).
+     */
+    public static int streamingFetchSize(JdbcTemplate jdbcTemplate) {
+        return isMySql(jdbcTemplate) ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+}
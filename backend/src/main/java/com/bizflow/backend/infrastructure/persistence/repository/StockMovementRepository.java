@@ -1,12 +1,26 @@
 package com.bizflow.backend.infrastructure.persistence.repository;
 
 import com.bizflow.backend.core.domain.StockMovement;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
-public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
-    Page<StockMovement> findByStoreIdAndProductId(Long storeId, Long productId, Pageable pageable);
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, StockMovementRepositoryCustom {
+    // Keyset pagination on (created_at, id) DESC - pass PageRequest.of(0, limit), no COUNT query
+    List<StockMovement> findByStoreIdAndProductIdOrderByCreatedAtDescIdDesc(Long storeId, Long productId, Pageable pageable);
+
+    @Query("SELECT m FROM StockMovement m WHERE m.storeId = :storeId AND m.productId = :productId " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<StockMovement> findByStoreIdAndProductIdBefore(@Param("storeId") Long storeId,
+                                                        @Param("productId") Long productId,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Pageable pageable);
 }
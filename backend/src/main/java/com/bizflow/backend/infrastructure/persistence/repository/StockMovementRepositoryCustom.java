@@ -0,0 +1,94 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.StockMovement;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * StockMovementRepositoryCustom: JDBC batch writes and aggregate reads for the stock ledger
+ */
+public interface StockMovementRepositoryCustom {
+
+    /**
+     * Insert stock movements as one JDBC batch (audit trail rows are never read back here).
+     *
+     * @param movements Movements to append
+     */
+    void batchInsert(List<StockMovement> movements);
+
+    /**
+     * Net quantity per product of one store over (after, until], summed in the database.
+     * Reads stock_movements_archive too when the range reaches below its watermark.
+     *
+     * @param fromProductId First product ID of the range (inclusive)
+     * @param toProductId Last product ID of the range (inclusive)
+     * @param after Exclusive lower bound of created_at (null = from the first movement)
+     * @param until Inclusive upper bound of created_at
+     */
+    List<LedgerSum> sumByProduct(Long storeId, long fromProductId, long toProductId,
+                                 LocalDateTime after, LocalDateTime until);
+
+    /**
+     * Stream the SALE movements of a store's product ID range over [from, until), plus the
+     * RETURN movements of order cancellations in the same range (so cancelled sales net out),
+     * one row at a time on a forward-only cursor (MySQL/TiDB: server-side streaming) over
+     * idx_movements_sales. Reads stock_movements_archive first when from is below its watermark.
+     *
+     * @param fromProductId First product ID of the range (inclusive)
+     * @param toProductId Last product ID of the range (inclusive)
+     * @param handler Called once per movement, on the calling thread, while the cursor is open
+     */
+    void streamSales(Long storeId, long fromProductId, long toProductId, LocalDateTime from, LocalDateTime until,
+                     SaleHandler handler);
+
+    /**
+     * One page of a product's movement history, newest first, with the running balance.
+     * The page is cut by one range scan on idx_movements_history (LIMIT inside, row lookups for
+     * the page's rows only), the balance is a window sum over that page only. Continues in
+     * stock_movements_archive when the hot table runs out before the page is full and an
+     * archive watermark exists.
+     *
+     * @param beforeCreatedAt Keyset position, only rows strictly older are returned (null = newest)
+     * @param beforeId Keyset position tie-breaker
+     * @param balance Stock on hand after the first returned row (current quantity for the first page)
+     * @param limit Maximum number of rows
+     */
+    List<MovementLine> findHistory(Long storeId, Long productId, LocalDateTime beforeCreatedAt, Long beforeId,
+                                   long balance, int limit);
+
+    /**
+     * MovementLine: Movement history row without notes, balanceAfter = stock on hand right after it
+     * (id and referenceId are Snowflake IDs, sent as JSON strings)
+     */
+    record MovementLine(@JsonSerialize(using = ToStringSerializer.class) Long id, StockMovement.MovementType type,
+                        int quantity, long balanceAfter, BigDecimal unitPrice, String supplierName,
+                        @JsonSerialize(using = ToStringSerializer.class) Long referenceId, String referenceType,
+                        String createdBy, LocalDateTime createdAt) {
+
+        /**
+         * Stock on hand right before this movement (= balance of the next older row)
+         */
+        public long balanceBefore() {
+            return balanceAfter - quantity;
+        }
+    }
+
+    /**
+     * SaleHandler: Receives streamed SALE movements (quantity is negative, stock going out)
+     * and cancellation RETURN movements (quantity is positive, the sale given back)
+     */
+    @FunctionalInterface
+    interface SaleHandler {
+        void onSale(long productId, LocalDateTime createdAt, int quantity);
+    }
+
+    /**
+     * LedgerSum: Net quantity of a product and the number of movements it was folded from
+     */
+    record LedgerSum(Long productId, long quantity, long movements) {
+    }
+}
@@ -0,0 +1,200 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.infrastructure.archive.ColdArchiver;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class StockMovementRepositoryCustomImpl implements StockMovementRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_movements (id, store_id, product_id, type, quantity, reference_id, reference_type, " +
+            "unit_price, supplier_name, notes, created_by, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Range scan on idx_movements_history, covered (quantity is part of the index)
+    private static final String SUM_SQL =
+            "SELECT product_id, SUM(quantity), COUNT(*) FROM %s WHERE store_id = ? AND product_id BETWEEN ? AND ? " +
+            "AND created_at > ? AND created_at <= ? GROUP BY product_id";
+
+    private static final String HOT_SUM_SQL = String.format(SUM_SQL, ColdArchiver.STOCK_MOVEMENTS);
+    private static final String ARCHIVE_SUM_SQL =
+            String.format(SUM_SQL, ColdArchiver.STOCK_MOVEMENTS + ColdArchiver.ARCHIVE_SUFFIX);
+
+    // Two range scans on idx_movements_sales: SALE rows covered; RETURN rows need a row lookup
+    // for reference_type, cheap because only cancellations and manual returns are RETURN rows
+    private static final String SALES_SQL =
+            "SELECT product_id, created_at, quantity FROM %1$s WHERE store_id = ? AND type = 'SALE' " +
+            "AND product_id BETWEEN ? AND ? AND created_at >= ? AND created_at < ? " +
+            "UNION ALL " +
+            "SELECT product_id, created_at, quantity FROM %1$s WHERE store_id = ? AND type = 'RETURN' " +
+            "AND reference_type = 'ORDER_CANCEL' AND product_id BETWEEN ? AND ? AND created_at >= ? AND created_at < ?";
+
+    private static final String HOT_SALES_SQL = String.format(SALES_SQL, ColdArchiver.STOCK_MOVEMENTS);
+    private static final String ARCHIVE_SALES_SQL =
+            String.format(SALES_SQL, ColdArchiver.STOCK_MOVEMENTS + ColdArchiver.ARCHIVE_SUFFIX);
+
+    // Page first (LIMIT in the derived table), then the running balance over that page only.
+    // idx_movements_history orders and cuts the page (no sort, stops after LIMIT rows), but it is
+    // not covering here: type, unit_price, supplier_name, reference_*, created_by cost one row
+    // lookup per returned row, i.e. at most one page of lookups whatever the depth
+    private static final String HISTORY_SQL =
+            "SELECT h.id, h.type, h.quantity, ? - COALESCE(SUM(h.quantity) OVER (ORDER BY h.created_at DESC, h.id DESC " +
+            "ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING), 0), h.unit_price, h.supplier_name, h.reference_id, " +
+            "h.reference_type, h.created_by, h.created_at FROM (" +
+            "SELECT id, type, quantity, unit_price, supplier_name, reference_id, reference_type, created_by, created_at " +
+            "FROM %s WHERE store_id = ? AND product_id = ? AND (created_at < ? OR (created_at = ? AND id < ?)) " +
+            "ORDER BY created_at DESC, id DESC LIMIT ?) h ORDER BY h.created_at DESC, h.id DESC";
+
+    private static final String HOT_HISTORY_SQL = String.format(HISTORY_SQL, ColdArchiver.STOCK_MOVEMENTS);
+    private static final String ARCHIVE_HISTORY_SQL =
+            String.format(HISTORY_SQL, ColdArchiver.STOCK_MOVEMENTS + ColdArchiver.ARCHIVE_SUFFIX);
+
+    private static final Timestamp MIN_TIME = Timestamp.valueOf("1970-01-01 00:00:00");
+    private static final Timestamp MAX_TIME = Timestamp.valueOf("9999-12-31 00:00:00");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+
+    @Override
+    public void batchInsert(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+
+        for (StockMovement m : movements) {
+            m.setId(idGenerator.nextId());
+            if (m.getCreatedAt() == null) {
+                m.setCreatedAt(LocalDateTime.now());
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, movements.size(), (ps, m) -> {
+            ps.setLong(1, m.getId());
+            ps.setLong(2, m.getStoreId());
+            ps.setLong(3, m.getProductId());
+            ps.setString(4, m.getType() != null ? m.getType().name() : null);
+            ps.setInt(5, m.getQuantity());
+            ps.setObject(6, m.getReferenceId(), Types.BIGINT);
+            ps.setString(7, m.getReferenceType());
+            ps.setBigDecimal(8, m.getUnitPrice());
+            ps.setString(9, m.getSupplierName());
+            ps.setString(10, m.getNotes());
+            ps.setString(11, m.getCreatedBy());
+            ps.setTimestamp(12, Timestamp.valueOf(m.getCreatedAt()));
+        });
+    }
+
+    @Override
+    public List<LedgerSum> sumByProduct(Long storeId, long fromProductId, long toProductId,
+                                        LocalDateTime after, LocalDateTime until) {
+        Timestamp lower = after != null ? Timestamp.valueOf(after) : MIN_TIME;
+        Timestamp upper = Timestamp.valueOf(until);
+
+        Map<Long, LedgerSum> sums = new LinkedHashMap<>();
+        LocalDateTime archivedBefore = archivedBefore();
+        if (archivedBefore != null && lower.before(Timestamp.valueOf(archivedBefore))) {
+            sumInto(sums, ARCHIVE_SUM_SQL, storeId, fromProductId, toProductId, lower, upper);
+        }
+        sumInto(sums, HOT_SUM_SQL, storeId, fromProductId, toProductId, lower, upper);
+        return List.copyOf(sums.values());
+    }
+
+    @Override
+    public void streamSales(Long storeId, long fromProductId, long toProductId, LocalDateTime from,
+                            LocalDateTime until, SaleHandler handler) {
+        Timestamp lower = Timestamp.valueOf(from);
+        Timestamp upper = Timestamp.valueOf(until);
+        LocalDateTime archivedBefore = archivedBefore();
+        if (archivedBefore != null && lower.before(Timestamp.valueOf(archivedBefore))) {
+            streamSales(ARCHIVE_SALES_SQL, storeId, fromProductId, toProductId, lower, upper, handler);
+        }
+        streamSales(HOT_SALES_SQL, storeId, fromProductId, toProductId, lower, upper, handler);
+    }
+
+    @Override
+    public List<MovementLine> findHistory(Long storeId, Long productId, LocalDateTime beforeCreatedAt, Long beforeId,
+                                          long balance, int limit) {
+        Timestamp createdAt = beforeCreatedAt != null ? Timestamp.valueOf(beforeCreatedAt) : MAX_TIME;
+        long id = beforeId != null ? beforeId : Long.MAX_VALUE;
+        List<MovementLine> lines = new ArrayList<>(history(HOT_HISTORY_SQL, storeId, productId, createdAt, id, balance, limit));
+        if (lines.size() == limit) {
+            return lines;
+        }
+
+        // Hot table exhausted: older rows can only be in the archive (moved oldest first)
+        if (archivedBefore() == null) {
+            return lines;
+        }
+        if (!lines.isEmpty()) {
+            MovementLine last = lines.get(lines.size() - 1);
+            createdAt = Timestamp.valueOf(last.createdAt());
+            id = last.id();
+            balance = last.balanceBefore();
+        }
+        lines.addAll(history(ARCHIVE_HISTORY_SQL, storeId, productId, createdAt, id, balance, limit - lines.size()));
+        return lines;
+    }
+
+    private LocalDateTime archivedBefore() {
+        return ArchiveWatermarks.archivedBefore(jdbcTemplate, ColdArchiver.STOCK_MOVEMENTS);
+    }
+
+    private void streamSales(String sql, Long storeId, long fromProductId, long toProductId, Timestamp lower,
+                             Timestamp upper, SaleHandler handler) {
+        int fetchSize = SqlDialect.streamingFetchSize(jdbcTemplate);
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int offset = 0; offset <= 5; offset += 5) { // same bounds for both halves of the UNION
+                ps.setLong(offset + 1, storeId);
+                ps.setLong(offset + 2, fromProductId);
+                ps.setLong(offset + 3, toProductId);
+                ps.setTimestamp(offset + 4, lower);
+                ps.setTimestamp(offset + 5, upper);
+            }
+            return ps;
+        };
+        jdbcTemplate.query(statement, (RowCallbackHandler) rs ->
+                handler.onSale(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getInt(3)));
+    }
+
+    private List<MovementLine> history(String sql, Long storeId, Long productId, Timestamp createdAt, long id,
+                                       long balance, int limit) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new MovementLine(
+                rs.getLong(1),
+                rs.getString(2) != null ? StockMovement.MovementType.valueOf(rs.getString(2)) : null,
+                rs.getInt(3),
+                rs.getLong(4),
+                rs.getBigDecimal(5),
+                rs.getString(6),
+                rs.getObject(7, Long.class),
+                rs.getString(8),
+                rs.getString(9),
+                rs.getTimestamp(10).toLocalDateTime()
+        ), balance, storeId, productId, createdAt, createdAt, id, limit);
+    }
+
+    private void sumInto(Map<Long, LedgerSum> sums, String sql, Long storeId, long fromProductId, long toProductId,
+                         Timestamp lower, Timestamp upper) {
+        jdbcTemplate.query(sql, rs -> {
+            LedgerSum sum = new LedgerSum(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+            sums.merge(sum.productId(), sum, (a, b) ->
+                    new LedgerSum(a.productId(), a.quantity() + b.quantity(), a.movements() + b.movements()));
+        }, storeId, fromProductId, toProductId, lower, upper);
+    }
+}
@@ -0,0 +1,48 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long>, StockReservationRepositoryCustom {
+
+    List<StockReservation> findByStoreIdAndProductIdAndReferenceIdAndStatusOrderByIdAsc(
+            Long storeId, Long productId, Long referenceId, StockReservation.ReservationStatus status);
+
+    List<StockReservation> findByIdInAndStatus(Collection<Long> ids, StockReservation.ReservationStatus status);
+
+    /**
+     * Deadlines of all open reservations (reloaded into the timing wheel on startup)
+     */
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM StockReservation r WHERE r.status = " +
+           "com.bizflow.backend.core.domain.StockReservation.ReservationStatus.ACTIVE")
+    List<Deadline> findActiveDeadlines();
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = " +
+           "com.bizflow.backend.core.domain.StockReservation.ReservationStatus.ACTIVE " +
+           "AND r.expiresAt < :before ORDER BY r.expiresAt")
+    List<Long> findExpiredIds(@Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * Partial release: lower the held quantity (guarded, 0 = reservation changed concurrently)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.quantity = :newQuantity WHERE r.id = :id AND r.quantity = :quantity " +
+           "AND r.status = com.bizflow.backend.core.domain.StockReservation.ReservationStatus.ACTIVE")
+    int shrink(@Param("id") Long id, @Param("quantity") Integer quantity, @Param("newQuantity") Integer newQuantity);
+
+    interface Deadline {
+        Long getId();
+
+        LocalDateTime getExpiresAt();
+    }
+}
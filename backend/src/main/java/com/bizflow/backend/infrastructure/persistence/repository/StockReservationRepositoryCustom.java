@@ -0,0 +1,24 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.StockReservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * StockReservationRepositoryCustom: Batched state changes of reservations
+ */
+public interface StockReservationRepositoryCustom {
+
+    /**
+     * Close ACTIVE reservations in one JDBC batch.
+     * Each row is guarded by {@code status = 'ACTIVE' AND quantity = ?}, so a reservation
+     * released or changed concurrently is left alone and its stock is not released twice.
+     *
+     * @param status RELEASED or EXPIRED
+     * @return The reservations this call actually closed
+     */
+    List<StockReservation> closeBatch(List<StockReservation> reservations,
+                                      StockReservation.ReservationStatus status,
+                                      LocalDateTime closedAt);
+}
@@ -0,0 +1,47 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.StockReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockReservationRepositoryCustomImpl implements StockReservationRepositoryCustom {
+
+    private static final String CLOSE_SQL =
+            "UPDATE stock_reservations SET status = ?, closed_at = ? WHERE id = ? AND status = 'ACTIVE' AND quantity = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<StockReservation> closeBatch(List<StockReservation> reservations,
+                                             StockReservation.ReservationStatus status,
+                                             LocalDateTime closedAt) {
+        if (reservations.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(closedAt);
+        int[] updated = jdbcTemplate.batchUpdate(CLOSE_SQL, reservations, reservations.size(), (ps, r) -> {
+            ps.setString(1, status.name());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, r.getId());
+            ps.setInt(4, r.getQuantity());
+        })[0];
+
+        List<StockReservation> closed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                StockReservation reservation = reservations.get(i);
+                reservation.setStatus(status);
+                reservation.setClosedAt(closedAt);
+                closed.add(reservation);
+            }
+        }
+        return closed;
+    }
+}
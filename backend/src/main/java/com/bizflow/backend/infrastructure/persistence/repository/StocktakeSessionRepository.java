@@ -0,0 +1,12 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.core.domain.StocktakeSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StocktakeSessionRepository extends JpaRepository<StocktakeSession, Long> {
+    List<StocktakeSession> findByStoreIdAndStatus(Long storeId, StocktakeSession.SessionStatus status);
+}
@@ -0,0 +1,401 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.core.domain.SalesDaily;
+import com.bizflow.backend.infrastructure.persistence.repository.CustomerRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.DebtRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyRepository;
+import com.bizflow.backend.presentation.dto.response.DashboardMetrics;
+import com.bizflow.backend.presentation.dto.response.SalesTotals;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * DashboardMetricsCache: Per-store dashboard figures, local map + Redis, kept current by events
+ *
+ * Read path get(storeId):
+ * 1. Local entry, fresh (bizflow.dashboard.local-ttl), same day and no stale part → returned as is
+ * 2. Otherwise one caller per store loads (single flight), concurrent callers wait for its result:
+ *    stale parts only (one query each) when the local entry is still usable, else the Redis copy
+ *    (bizflow.dashboard.redis-ttl), else a full load (rollup rows of the year + 3 aggregates).
+ *    The loader first looks at the entry again: another loader may have stored it meanwhile
+ *
+ * Events, applied after the writing transaction commits (callers run in it, see below):
+ * - onSalesRecorded (SalesRollup): the rollup deltas are added to the local entry, no query
+ * - onStockChanged (LowStockTracker) / onDebtChanged (orders, payments): only that part is
+ *   marked stale and reloaded on the next read
+ * Every event also drops the Redis copy; other instances see the change when their local
+ * entry expires (local-ttl bounds the staleness across instances).
+ *
+ * A load that overlaps a commit may or may not contain that commit: a generation counter per
+ * store is bumped before and after each commit, a load that saw a bump is not kept but retried
+ * (at most LOAD_ATTEMPTS loads, the last result is returned uncached when commits keep
+ * overlapping), and an entry loaded between the two bumps is evicted instead of patched
+ * (never counted twice).
+ *
+ * Customer count has no event (no write flow in this service): refreshed by the TTL.
+ */
+@Slf4j
+@Component
+public class DashboardMetricsCache {
+
+    private static final String PREFIX = "dashboard:";
+    private static final long REDIS_BACKOFF_MILLIS = 30_000;
+    private static final int LOAD_ATTEMPTS = 3;
+
+    private final SalesDailyRepository salesDailyRepository;
+    private final CustomerRepository customerRepository;
+    private final InventoryRepository inventoryRepository;
+    private final DebtRepository debtRepository;
+    private final ObjectProvider<StringRedisTemplate> redisProvider;
+    private final ObjectMapper objectMapper;
+    private final Duration localTtl;
+    private final Duration redisTtl;
+    private final boolean redisEnabled;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<DashboardMetrics>> loading = new ConcurrentHashMap<>();
+    private volatile long redisDownUntil = 0;
+
+    public DashboardMetricsCache(SalesDailyRepository salesDailyRepository,
+                                 CustomerRepository customerRepository,
+                                 InventoryRepository inventoryRepository,
+                                 DebtRepository debtRepository,
+                                 ObjectProvider<StringRedisTemplate> redisProvider,
+                                 ObjectMapper objectMapper,
+                                 @Value("${bizflow.dashboard.local-ttl:PT1M}") Duration localTtl,
+                                 @Value("${bizflow.dashboard.redis-ttl:PT5M}") Duration redisTtl,
+                                 @Value("${bizflow.dashboard.redis-enabled:true}") boolean redisEnabled) {
+        this.salesDailyRepository = salesDailyRepository;
+        this.customerRepository = customerRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.debtRepository = debtRepository;
+        this.redisProvider = redisProvider;
+        this.objectMapper = objectMapper;
+        this.localTtl = localTtl;
+        this.redisTtl = redisTtl;
+        this.redisEnabled = redisEnabled;
+    }
+
+    public DashboardMetrics get(Long storeId) {
+        Entry entry = entries.get(storeId);
+        if (isFresh(entry)) {
+            return entry.metrics();
+        }
+
+        CompletableFuture<DashboardMetrics> mine = new CompletableFuture<>();
+        CompletableFuture<DashboardMetrics> running = loading.putIfAbsent(storeId, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // The previous loader may have stored its entry and left after our first look
+            Entry current = entries.get(storeId);
+            DashboardMetrics metrics = isFresh(current) ? current.metrics() : load(storeId);
+            mine.complete(metrics);
+            return metrics;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(storeId, mine);
+        }
+    }
+
+    // ========== Events ==========
+
+    /**
+     * Rollup deltas of an order write (placed: positive, cancelled: negative), in its transaction
+     */
+    public void onSalesRecorded(Collection<SalesDaily> deltas) {
+        for (Map.Entry<Long, List<SalesDaily>> store : deltas.stream()
+                .collect(Collectors.groupingBy(SalesDaily::getStoreId)).entrySet()) {
+            List<SalesDaily> days = store.getValue();
+            afterCommit(store.getKey(), entry -> {
+                DashboardMetrics metrics = entry.metrics();
+                SalesTotals today = metrics.getToday();
+                SalesTotals month = metrics.getThisMonth();
+                SalesTotals year = metrics.getThisYear();
+                LocalDate asOf = metrics.getAsOf();
+                for (SalesDaily day : days) {
+                    LocalDate date = day.getSalesDate();
+                    if (date.isAfter(asOf) || date.getYear() != asOf.getYear()) {
+                        continue;
+                    }
+                    SalesTotals delta = SalesTotals.of(day);
+                    year = year.plus(delta);
+                    if (YearMonth.from(date).equals(YearMonth.from(asOf))) {
+                        month = month.plus(delta);
+                    }
+                    if (date.equals(asOf)) {
+                        today = today.plus(delta);
+                    }
+                }
+                return entry.with(metrics.toBuilder().today(today).thisMonth(month).thisYear(year).build());
+            });
+        }
+    }
+
+    /**
+     * Quantities of the store changed, in the changing transaction
+     */
+    public void onStockChanged(Long storeId) {
+        afterCommit(storeId, entry -> new Entry(entry.metrics(), entry.generation(), entry.loadedAt(), true,
+                entry.debtStale()));
+    }
+
+    /**
+     * Debts of the store created, paid or cancelled, in the changing transaction
+     */
+    public void onDebtChanged(Long storeId) {
+        afterCommit(storeId, entry -> new Entry(entry.metrics(), entry.generation(), entry.loadedAt(),
+                entry.stockStale(), true));
+    }
+
+    /**
+     * Bump the generation before commit, apply the change to the local entry after commit
+     * (or right away without a transaction)
+     */
+    private void afterCommit(Long storeId, UnaryOperator<Entry> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(storeId, bumpGeneration(storeId), change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long generation;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                generation = bumpGeneration(storeId);
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(storeId, generation, change);
+            }
+        });
+    }
+
+    private void apply(Long storeId, long committedGeneration, UnaryOperator<Entry> change) {
+        redisCall(redis -> redis.delete(PREFIX + storeId));
+        // Second bump: a load still running from before the commit is not kept either
+        bumpGeneration(storeId);
+        // An entry loaded at or after the first bump may already contain the change: drop it
+        entries.computeIfPresent(storeId, (id, entry) ->
+                entry.generation() < committedGeneration && isUsable(entry) ? change.apply(entry) : null);
+    }
+
+    private long bumpGeneration(Long storeId) {
+        return generations.merge(storeId, 1L, Long::sum);
+    }
+
+    // ========== Load ==========
+
+    /**
+     * Load until a result can be kept (no commit overlapped it), at most LOAD_ATTEMPTS times
+     */
+    private DashboardMetrics load(Long storeId) {
+        DashboardMetrics metrics = null;
+        for (int attempt = 1; attempt <= LOAD_ATTEMPTS; attempt++) {
+            long generation = generations.getOrDefault(storeId, 0L);
+            Entry entry = entries.get(storeId);
+
+            Entry loaded;
+            boolean computed = false;
+            if (entry != null && isUsable(entry)) {
+                // Only the stale parts; the sales part stays as patched by events, the TTL runs on
+                DashboardMetrics.DashboardMetricsBuilder builder = entry.metrics().toBuilder();
+                if (entry.stockStale()) {
+                    builder.inventoryValue(loadInventoryValue(storeId));
+                }
+                if (entry.debtStale()) {
+                    builder.outstandingDebt(loadOutstandingDebt(storeId));
+                }
+                loaded = new Entry(builder.build(), generation, entry.loadedAt(), false, false);
+            } else {
+                DashboardMetrics shared = redisGet(storeId);
+                boolean fromRedis = shared != null && LocalDate.now().equals(shared.getAsOf());
+                computed = !fromRedis;
+                loaded = new Entry(fromRedis ? shared : loadAll(storeId), generation, System.currentTimeMillis(),
+                        false, false);
+            }
+
+            metrics = loaded.metrics();
+            if (keep(storeId, loaded)) {
+                if (computed) {
+                    redisSet(storeId, metrics);
+                }
+                return metrics;
+            }
+        }
+        log.debug("Dashboard metrics of store {} not cached: commits overlapped {} loads", storeId, LOAD_ATTEMPTS);
+        return metrics;
+    }
+
+    /**
+     * Store a loaded entry unless a commit overlapped its load
+     */
+    private boolean keep(Long storeId, Entry loaded) {
+        boolean[] kept = new boolean[1];
+        entries.compute(storeId, (id, current) -> {
+            if (generations.getOrDefault(storeId, 0L) != loaded.generation()) {
+                return current;
+            }
+            kept[0] = true;
+            return loaded;
+        });
+        return kept[0];
+    }
+
+    private boolean isFresh(Entry entry) {
+        return entry != null && isUsable(entry) && !entry.stockStale() && !entry.debtStale();
+    }
+
+    private boolean isUsable(Entry entry) {
+        return System.currentTimeMillis() - entry.loadedAt() < localTtl.toMillis()
+                && LocalDate.now().equals(entry.metrics().getAsOf());
+    }
+
+    private DashboardMetrics loadAll(Long storeId) {
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        SalesTotals todayTotals = SalesTotals.zero();
+        SalesTotals month = SalesTotals.zero();
+        SalesTotals year = SalesTotals.zero();
+        for (SalesDaily day : salesDailyRepository.findByStoreIdAndSalesDateBetweenOrderBySalesDate(
+                storeId, today.withDayOfYear(1), today)) {
+            SalesTotals totals = SalesTotals.of(day);
+            year = year.plus(totals);
+            if (!day.getSalesDate().isBefore(monthStart)) {
+                month = month.plus(totals);
+            }
+            if (day.getSalesDate().equals(today)) {
+                todayTotals = todayTotals.plus(totals);
+            }
+        }
+
+        return DashboardMetrics.builder()
+                .storeId(storeId)
+                .asOf(today)
+                .today(todayTotals)
+                .thisMonth(month)
+                .thisYear(year)
+                .customers(customerRepository.countByStoreId(storeId))
+                .inventoryValue(loadInventoryValue(storeId))
+                .outstandingDebt(loadOutstandingDebt(storeId))
+                .computedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private BigDecimal loadInventoryValue(Long storeId) {
+        BigDecimal value = BigDecimal.ZERO;
+        for (InventoryRepository.StockValue row : inventoryRepository.sumStockValueByCategory(storeId)) {
+            if (row.getRetailValue() != null) {
+                value = value.add(row.getRetailValue());
+            }
+        }
+        return value;
+    }
+
+    private BigDecimal loadOutstandingDebt(Long storeId) {
+        BigDecimal unpaid = BigDecimal.ZERO;
+        for (DebtRepository.DueDebts row : debtRepository.sumUnpaidByDueDate(storeId)) {
+            unpaid = unpaid.add(row.getUnpaidAmount());
+        }
+        return unpaid;
+    }
+
+    private DashboardMetrics await(CompletableFuture<DashboardMetrics> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Entry: Local copy; generation = store generation when its load started
+     */
+    private record Entry(DashboardMetrics metrics, long generation, long loadedAt, boolean stockStale,
+                         boolean debtStale) {
+        Entry with(DashboardMetrics patched) {
+            return new Entry(patched, generation, loadedAt, stockStale, debtStale);
+        }
+    }
+
+    // ========== Redis (optional) ==========
+
+    private DashboardMetrics redisGet(Long storeId) {
+        String json = redisCall(redis -> redis.opsForValue().get(PREFIX + storeId));
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, DashboardMetrics.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable dashboard metrics in Redis for store {}, reloading: {}", storeId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void redisSet(Long storeId, DashboardMetrics metrics) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(metrics);
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize dashboard metrics of store {}", storeId, e);
+            return;
+        }
+        redisCall(redis -> {
+            redis.opsForValue().set(PREFIX + storeId, json, redisTtl);
+            return null;
+        });
+    }
+
+    /**
+     * Run a Redis call, or return null when Redis is disabled / unavailable
+     */
+    private <R> R redisCall(Function<StringRedisTemplate, R> call) {
+        if (!redisEnabled || System.currentTimeMillis() < redisDownUntil) {
+            return null;
+        }
+        StringRedisTemplate redis = redisProvider.getIfAvailable();
+        if (redis == null) {
+            return null;
+        }
+        try {
+            return call.apply(redis);
+        } catch (RuntimeException e) {
+            redisDownUntil = System.currentTimeMillis() + REDIS_BACKOFF_MILLIS;
+            log.warn("Redis unavailable for dashboard metrics, using local cache for {} ms: {}",
+                    REDIS_BACKOFF_MILLIS, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,864 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.core.domain.Customer;
+import com.bizflow.backend.core.domain.Order;
+import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.infrastructure.persistence.repository.CustomerRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.CustomerRepository.CustomerSegment;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository.ProductCategory;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyProductRepository.DayLines;
+import com.bizflow.backend.presentation.dto.response.SalesCubeStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * SalesCube: In-process columns of the recent order lines of each store, for analytics scans
+ *
+ * One row per order line of the last bizflow.sales-cube.window-days, column by column in
+ * primitive arrays: day (epoch day), product, category, quantity (int, dictionary codes for the
+ * IDs), amount, discount and order ID (long) and customer segment (byte).
+ * Amounts are in 1/100 units: amount = line total (as in sales_daily_product), discount = the
+ * line's share of the order discount, so amount - discount of a day adds up to the order totals
+ * (as in sales_daily). Category and segment are taken when the line is added.
+ *
+ * Reports group with one pass over the arrays (code → slot in a long[] accumulator, no boxing,
+ * no branch when the range covers the whole cube), so a 90-day page is a few ms of CPU, no SQL.
+ *
+ * Life cycle of a store's cube:
+ * 1. First query → loaded in the background from orders / order_items (archive included),
+ *    queries get Optional.empty() (caller falls back to SQL) until it is READY
+ * 2. Orders placed / cancelled (SalesRollup) are appended after commit, a cancellation as
+ *    negative lines; changes committed while loading are reconciled by order ID at the end
+ * 3. Every day the oldest day is compacted away
+ *
+ * Memory: bizflow.sales-cube.max-memory-mb for all stores (columns + dictionary estimate).
+ * A load first evicts least recently used cubes; a store that still does not fit keeps only its
+ * newest days (later windowStart, older ranges fall back to SQL). Appends that outgrow the arrays
+ * go through the same budget: grow after evicting other cubes, else move windowStart past the
+ * oldest days; a cube that cannot even hold today is dropped. stats() reports the usage.
+ */
+@Slf4j
+@Component
+public class SalesCube {
+
+    /** day, product, category, quantity + amount, discount, order + segment */
+    static final int BYTES_PER_LINE = 4 * Integer.BYTES + 3 * Long.BYTES + 1;
+    /** Estimate of one dictionary entry (hash map node, boxed key, code slot) */
+    static final int BYTES_PER_KEY = 64;
+    private static final long REJECT_RETRY_MILLIS = 10 * 60_000;
+    private static final Customer.CustomerType[] SEGMENTS = Customer.CustomerType.values();
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final SalesDailyProductRepository salesDailyProductRepository;
+    private final ExecutorService loader;
+    private final boolean enabled;
+    private final int windowDays;
+    private final long maxBytes;
+
+    private final Map<Long, StoreCube> cubes = new ConcurrentHashMap<>();
+
+    public SalesCube(OrderRepository orderRepository,
+                     ProductRepository productRepository,
+                     CustomerRepository customerRepository,
+                     SalesDailyProductRepository salesDailyProductRepository,
+                     @Value("${bizflow.sales-cube.enabled:true}") boolean enabled,
+                     @Value("${bizflow.sales-cube.window-days:90}") int windowDays,
+                     @Value("${bizflow.sales-cube.max-memory-mb:256}") long maxMemoryMb) {
+        if (windowDays < 1) {
+            throw new IllegalArgumentException("bizflow.sales-cube.window-days must be at least 1");
+        }
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.customerRepository = customerRepository;
+        this.salesDailyProductRepository = salesDailyProductRepository;
+        this.enabled = enabled;
+        this.windowDays = windowDays;
+        this.maxBytes = maxMemoryMb * 1024 * 1024;
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-cube-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.shutdownNow();
+    }
+
+    // ========== Queries (empty = not loaded / range not held, use SQL) ==========
+
+    /**
+     * Units and line amount per category ID (0 = no category), zero groups left out
+     */
+    public Optional<List<Group>> sumByCategory(Long storeId, LocalDate from, LocalDate to) {
+        return read(storeId, from, cube -> group(cube, cube.categories, cube.categoryDict, from, to));
+    }
+
+    /**
+     * Units and line amount per product ID, zero groups left out
+     */
+    public Optional<List<Group>> sumByProduct(Long storeId, LocalDate from, LocalDate to) {
+        return read(storeId, from, cube -> group(cube, cube.products, cube.productDict, from, to));
+    }
+
+    /**
+     * Units and net amount (after discount) per customer segment (key = CustomerType ordinal,
+     * -1 = unknown)
+     */
+    public Optional<List<Group>> sumBySegment(Long storeId, LocalDate from, LocalDate to) {
+        return read(storeId, from, cube -> {
+            long[] units = new long[SEGMENTS.length + 1];
+            long[] amounts = new long[SEGMENTS.length + 1];
+            int[] days = cube.days;
+            int[] quantities = cube.quantities;
+            long[] lineAmounts = cube.amounts;
+            long[] discounts = cube.discounts;
+            byte[] segments = cube.segments;
+            int size = cube.size;
+            int lo = (int) from.toEpochDay();
+            int hi = (int) to.toEpochDay();
+            for (int i = 0; i < size; i++) {
+                int day = days[i];
+                if (day >= lo && day <= hi) {
+                    units[segments[i]] += quantities[i];
+                    amounts[segments[i]] += lineAmounts[i] - discounts[i];
+                }
+            }
+            List<Group> groups = new ArrayList<>();
+            for (int code = 0; code < units.length; code++) {
+                if (units[code] != 0 || amounts[code] != 0) {
+                    groups.add(new Group(code - 1, units[code], amounts[code]));
+                }
+            }
+            return groups;
+        });
+    }
+
+    /**
+     * Orders, units and net amount per day of [from, to]; an order counts on its own day,
+     * a cancellation takes it back off that day
+     */
+    public Optional<DailySeries> daily(Long storeId, LocalDate from, LocalDate to) {
+        return read(storeId, from, cube -> {
+            int lo = (int) from.toEpochDay();
+            int hi = (int) to.toEpochDay();
+            long[] orders = new long[hi - lo + 1];
+            long[] units = new long[hi - lo + 1];
+            long[] amounts = new long[hi - lo + 1];
+            int[] days = cube.days;
+            int[] quantities = cube.quantities;
+            long[] lineAmounts = cube.amounts;
+            long[] discounts = cube.discounts;
+            long[] orderIds = cube.orders;
+            int size = cube.size;
+            for (int i = 0; i < size; i++) {
+                int day = days[i];
+                if (day < lo || day > hi) {
+                    continue;
+                }
+                int slot = day - lo;
+                // Lines of an order (or of its cancellation) are contiguous: count the first one
+                boolean first = i == 0 || orderIds[i] != orderIds[i - 1]
+                        || (quantities[i] < 0) != (quantities[i - 1] < 0);
+                if (first) {
+                    orders[slot] += quantities[i] < 0 ? -1 : 1;
+                }
+                units[slot] += quantities[i];
+                amounts[slot] += lineAmounts[i] - discounts[i];
+            }
+            return new DailySeries(from, orders, units, amounts);
+        });
+    }
+
+    private <T> Optional<T> read(Long storeId, LocalDate from, Function<StoreCube, T> scan) {
+        StoreCube cube = ready(storeId, from);
+        if (cube == null) {
+            return Optional.empty();
+        }
+        cube.lock.readLock().lock();
+        try {
+            if (from.toEpochDay() < cube.windowStart) {
+                return Optional.empty(); // compacted in between
+            }
+            return Optional.of(scan.apply(cube));
+        } finally {
+            cube.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scan step: sum units / amount into one slot per dictionary code
+     */
+    private List<Group> group(StoreCube cube, int[] keys, Dict dict, LocalDate from, LocalDate to) {
+        int codes = dict.size();
+        long[] units = new long[codes];
+        long[] amounts = new long[codes];
+        int[] days = cube.days;
+        int[] quantities = cube.quantities;
+        long[] lineAmounts = cube.amounts;
+        int size = cube.size;
+        int lo = (int) from.toEpochDay();
+        int hi = (int) to.toEpochDay();
+
+        if (lo <= cube.windowStart && hi >= LocalDate.now().toEpochDay()) {
+            // Whole cube in range: no day test
+            for (int i = 0; i < size; i++) {
+                units[keys[i]] += quantities[i];
+                amounts[keys[i]] += lineAmounts[i];
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                int day = days[i];
+                if (day >= lo && day <= hi) {
+                    units[keys[i]] += quantities[i];
+                    amounts[keys[i]] += lineAmounts[i];
+                }
+            }
+        }
+
+        List<Group> groups = new ArrayList<>();
+        for (int code = 0; code < codes; code++) {
+            if (units[code] != 0 || amounts[code] != 0) {
+                groups.add(new Group(dict.id(code), units[code], amounts[code]));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * READY cube holding from, or null (and a load started when there is none yet)
+     */
+    private StoreCube ready(Long storeId, LocalDate from) {
+        if (!enabled) {
+            return null;
+        }
+        StoreCube cube = cubes.get(storeId);
+        if (cube == null || (cube.state == State.REJECTED && System.currentTimeMillis() >= cube.retryAt)) {
+            if (cube != null) {
+                cubes.remove(storeId, cube);
+            }
+            startLoad(storeId);
+            return null;
+        }
+        if (cube.state != State.READY) {
+            return null;
+        }
+        cube.lastAccess = System.currentTimeMillis();
+        slide(cube);
+        return from.toEpochDay() >= cube.windowStart ? cube : null;
+    }
+
+    /**
+     * Drop the days that left the window (first query of a new day)
+     */
+    private void slide(StoreCube cube) {
+        int first = (int) LocalDate.now().minusDays(windowDays - 1).toEpochDay();
+        if (cube.windowStart >= first) {
+            return;
+        }
+        cube.lock.writeLock().lock();
+        try {
+            if (cube.windowStart < first) {
+                cube.compact(first);
+            }
+        } finally {
+            cube.lock.writeLock().unlock();
+        }
+    }
+
+    // ========== Appends (SalesRollup, in the order's transaction) ==========
+
+    public void onOrdersPlaced(List<Order> orders, List<List<OrderItem>> itemsPerOrder) {
+        List<Change> changes = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            changes.add(new Change(orders.get(i), itemsPerOrder.get(i), 1));
+        }
+        afterCommit(changes);
+    }
+
+    public void onOrderCancelled(Order order, List<OrderItem> items) {
+        afterCommit(List.of(new Change(order, items, -1)));
+    }
+
+    private void afterCommit(List<Change> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(changes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(changes);
+            }
+        });
+    }
+
+    private void apply(List<Change> changes) {
+        Map<Long, List<Change>> byStore = new HashMap<>();
+        for (Change change : changes) {
+            byStore.computeIfAbsent(change.order().getStoreId(), id -> new ArrayList<>()).add(change);
+        }
+        byStore.forEach((storeId, storeChanges) -> {
+            StoreCube cube = cubes.get(storeId);
+            if (cube == null || cube.state == State.REJECTED) {
+                return; // the next load reads them from the database
+            }
+            try {
+                resolve(cube, storeChanges);
+                cube.lock.writeLock().lock();
+                try {
+                    if (cube.state == State.LOADING) {
+                        cube.pending.addAll(storeChanges);
+                    } else {
+                        for (Change change : storeChanges) {
+                            if (!append(cube, change.order(), change.items(), change.sign())) {
+                                cubes.remove(storeId, cube);
+                                log.warn("Sales cube of store {} dropped, today's lines exceed the memory budget",
+                                        storeId);
+                                return;
+                            }
+                        }
+                    }
+                } finally {
+                    cube.lock.writeLock().unlock();
+                }
+            } catch (RuntimeException e) {
+                // The order is committed, only the cube is behind: rebuild it on the next query
+                cubes.remove(storeId, cube);
+                log.warn("Sales cube of store {} dropped, append failed: {}", storeId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Category / segment of products and customers the cube has not seen yet (one query each)
+     */
+    private void resolve(StoreCube cube, List<Change> changes) {
+        Set<Long> products = new HashSet<>();
+        Set<Long> customers = new HashSet<>();
+        for (Change change : changes) {
+            if (!cube.segmentOfCustomer.containsKey(change.order().getCustomerId())) {
+                customers.add(change.order().getCustomerId());
+            }
+            for (OrderItem item : change.items()) {
+                if (!cube.categoryOfProduct.containsKey(item.getProductId())) {
+                    products.add(item.getProductId());
+                }
+            }
+        }
+        if (!products.isEmpty()) {
+            for (ProductCategory product : productRepository.findCategoriesByIds(products)) {
+                cube.categoryOfProduct.put(product.getId(), product.getCategoryId() != null ? product.getCategoryId() : 0L);
+            }
+            products.forEach(id -> cube.categoryOfProduct.putIfAbsent(id, 0L));
+        }
+        if (!customers.isEmpty()) {
+            for (CustomerSegment customer : customerRepository.findSegmentsByIds(customers)) {
+                cube.segmentOfCustomer.put(customer.getId(), segmentCode(customer.getType()));
+            }
+            customers.forEach(id -> cube.segmentOfCustomer.putIfAbsent(id, (byte) 0));
+        }
+    }
+
+    // ========== Load ==========
+
+    private void startLoad(Long storeId) {
+        cubes.computeIfAbsent(storeId, id -> {
+            StoreCube cube = new StoreCube(id);
+            try {
+                loader.execute(() -> load(cube));
+            } catch (RejectedExecutionException e) {
+                cube.state = State.REJECTED; // shutting down
+            }
+            return cube;
+        });
+    }
+
+    private void load(StoreCube cube) {
+        long started = System.currentTimeMillis();
+        Long storeId = cube.storeId;
+        try {
+            // 1. Dictionaries of the store: category per product, segment per customer
+            for (ProductCategory product : productRepository.findCategories(storeId)) {
+                cube.categoryOfProduct.put(product.getId(), product.getCategoryId() != null ? product.getCategoryId() : 0L);
+            }
+            for (CustomerSegment customer : customerRepository.findSegments(storeId)) {
+                cube.segmentOfCustomer.put(customer.getId(), segmentCode(customer.getType()));
+            }
+
+            // 2. Size from the rollups: newest days first, as many as the memory budget allows
+            LocalDate today = LocalDate.now();
+            LocalDate first = today.minusDays(windowDays - 1);
+            Map<LocalDate, Long> linesPerDay = new HashMap<>();
+            long wanted = 0;
+            for (DayLines day : salesDailyProductRepository.sumOrderLinesByDate(storeId, first, today)) {
+                long lines = day.getOrderLines() != null ? Math.max(0, day.getOrderLines()) : 0;
+                linesPerDay.put(day.getSalesDate(), lines);
+                wanted += lines;
+            }
+            long maxLines = reserve(cube, wanted);
+            long planned = 0;
+            LocalDate windowStart = today.plusDays(1);
+            for (LocalDate day = today; !day.isBefore(first); day = day.minusDays(1)) {
+                long lines = linesPerDay.getOrDefault(day, 0L);
+                if (planned + lines > maxLines) {
+                    break;
+                }
+                planned += lines;
+                windowStart = day;
+            }
+            if (windowStart.isAfter(today)) {
+                reject(cube);
+                return;
+            }
+
+            // 3. Lines of the window, oldest first (more lines than the rollups said still go
+            //    through the budget, see append)
+            cube.windowStart = (int) windowStart.toEpochDay();
+            cube.allocate((int) Math.min(Integer.MAX_VALUE - 8, planned + planned / 4 + 64));
+            boolean[] full = {false};
+            orderRepository.streamWithItems(storeId, windowStart.atStartOfDay(), null, (order, items) -> {
+                if (!full[0] && order.getStatus() != Order.OrderStatus.CANCELLED) {
+                    full[0] = !append(cube, order, items, 1);
+                }
+            });
+
+            // 4. Changes committed meanwhile, then open for queries
+            cube.lock.writeLock().lock();
+            try {
+                for (Change change : cube.reconcilePending()) {
+                    full[0] = full[0] || !append(cube, change.order(), change.items(), change.sign());
+                }
+                if (full[0]) {
+                    reject(cube);
+                    return;
+                }
+                cube.loadedAt = LocalDateTime.now();
+                cube.loadMillis = System.currentTimeMillis() - started;
+                cube.state = State.READY;
+            } finally {
+                cube.lock.writeLock().unlock();
+            }
+            log.info("Sales cube of store {}: {} lines from {} ({} of {} days), {} KB in {} ms",
+                    storeId, cube.size, LocalDate.ofEpochDay(cube.windowStart),
+                    today.toEpochDay() - cube.windowStart + 1, windowDays,
+                    cube.bytes() / 1024, cube.loadMillis);
+        } catch (RuntimeException e) {
+            cubes.remove(storeId, cube);
+            log.error("Sales cube load failed for store {}, next query retries", storeId, e);
+        }
+    }
+
+    private void reject(StoreCube cube) {
+        cube.size = 0;
+        cube.allocate(0); // a rejected cube holds no columns until its retry
+        cube.retryAt = System.currentTimeMillis() + REJECT_RETRY_MILLIS;
+        cube.state = State.REJECTED;
+        log.warn("Sales cube of store {} not loaded: today's lines exceed the free memory budget", cube.storeId);
+    }
+
+    /**
+     * Memory step: evict least recently used cubes until wanted lines fit (or nothing is left
+     * to evict), return how many lines the store may hold
+     */
+    private synchronized long reserve(StoreCube cube, long wantedLines) {
+        long need = wantedLines + wantedLines / 4;
+        while (true) {
+            long free = maxBytes - usedBytesExcept(cube) - cube.bytes();
+            if (need * BYTES_PER_LINE <= free) {
+                return wantedLines;
+            }
+            if (!evictLeastRecentlyUsed(cube)) {
+                return Math.max(0, free / BYTES_PER_LINE * 4 / 5);
+            }
+        }
+    }
+
+    /**
+     * Add one order's lines (write lock held, or the loader before READY); false when the
+     * cube cannot make room for them, see makeRoom
+     */
+    boolean append(StoreCube cube, Order order, List<OrderItem> items, int sign) {
+        if (!makeRoom(cube, cube.linesFor(order, items))) {
+            return false;
+        }
+        cube.add(order, items, sign);
+        return true;
+    }
+
+    /**
+     * Memory step on growth: grow the arrays within the budget (evicting least recently used
+     * cubes), else compact the oldest days away; false when even today's lines do not fit
+     */
+    private boolean makeRoom(StoreCube cube, int lines) {
+        if (cube.size + lines <= cube.capacity()) {
+            return true;
+        }
+        int wanted = Math.max(cube.size + lines, cube.capacity() + cube.capacity() / 2 + 16);
+        if (grow(cube, wanted) || grow(cube, cube.size + lines)) {
+            return true;
+        }
+
+        int today = (int) LocalDate.now().toEpochDay();
+        int[] linesPerDay = new int[Math.max(0, today - cube.windowStart) + 1];
+        for (int i = 0; i < cube.size; i++) {
+            int slot = cube.days[i] - cube.windowStart;
+            if (slot >= 0 && slot < linesPerDay.length) {
+                linesPerDay[slot]++;
+            }
+        }
+        int newStart = cube.windowStart;
+        int kept = cube.size;
+        while (kept + lines > cube.capacity() && newStart < today) {
+            kept -= linesPerDay[newStart - cube.windowStart];
+            newStart++;
+        }
+        if (kept + lines > cube.capacity()) {
+            return false;
+        }
+        log.info("Sales cube of store {} at its memory budget, window moved from {} to {}",
+                cube.storeId, LocalDate.ofEpochDay(cube.windowStart), LocalDate.ofEpochDay(newStart));
+        cube.compact(newStart);
+        return true;
+    }
+
+    private synchronized boolean grow(StoreCube cube, int capacity) {
+        long more = (long) (capacity - cube.capacity()) * BYTES_PER_LINE;
+        while (usedBytesExcept(cube) + cube.bytes() + more > maxBytes) {
+            if (!evictLeastRecentlyUsed(cube)) {
+                return false;
+            }
+        }
+        cube.allocate(capacity);
+        return true;
+    }
+
+    /**
+     * Drop the least recently used cube other than (and in favour of) the given one,
+     * false when there is none left to drop
+     */
+    private boolean evictLeastRecentlyUsed(StoreCube cube) {
+        StoreCube oldest = null;
+        for (StoreCube other : cubes.values()) {
+            if (other != cube && other.state != State.LOADING
+                    && (oldest == null || other.lastAccess < oldest.lastAccess)) {
+                oldest = other;
+            }
+        }
+        if (oldest == null) {
+            return false;
+        }
+        cubes.remove(oldest.storeId, oldest);
+        log.info("Sales cube of store {} evicted ({} KB) to make room for store {}",
+                oldest.storeId, oldest.bytes() / 1024, cube.storeId);
+        return true;
+    }
+
+    private long usedBytesExcept(StoreCube cube) {
+        long used = 0;
+        for (StoreCube other : cubes.values()) {
+            if (other != cube) {
+                used += other.bytes();
+            }
+        }
+        return used;
+    }
+
+    // ========== Stats ==========
+
+    public SalesCubeStats stats(Long storeId) {
+        long used = 0;
+        long lines = 0;
+        for (StoreCube cube : cubes.values()) {
+            used += cube.bytes();
+            lines += cube.size;
+        }
+        StoreCube cube = cubes.get(storeId);
+        SalesCubeStats.StoreCubeStats store = null;
+        if (cube != null) {
+            store = SalesCubeStats.StoreCubeStats.builder()
+                    .state(cube.state.name())
+                    .windowStart(cube.state == State.READY ? LocalDate.ofEpochDay(cube.windowStart) : null)
+                    .lines((long) cube.size)
+                    .capacity((long) cube.capacity())
+                    .bytes(cube.bytes())
+                    .loadedAt(cube.loadedAt)
+                    .loadMillis(cube.loadMillis)
+                    .build();
+        }
+        return SalesCubeStats.builder()
+                .enabled(enabled)
+                .windowDays(windowDays)
+                .maxBytes(maxBytes)
+                .usedBytes(used)
+                .stores(cubes.size())
+                .lines(lines)
+                .store(store)
+                .build();
+    }
+
+    private static byte segmentCode(Customer.CustomerType type) {
+        return (byte) (type != null ? type.ordinal() + 1 : 0);
+    }
+
+    /**
+     * Calculation step: share of the order discount per line, in 1/100 units, by line amount
+     * (the last line takes the rounding remainder, so lines less discounts add up to the order total)
+     */
+    static long[] discountShares(Order order, long[] amounts) {
+        long[] shares = new long[amounts.length];
+        long gross = 0;
+        for (long amount : amounts) {
+            gross += amount;
+        }
+        long discount = order.getTotalAmount() != null ? gross - cents(order.getTotalAmount()) : 0;
+        if (discount == 0 || gross == 0) {
+            return shares;
+        }
+        long allocated = 0;
+        for (int i = 0; i < shares.length - 1; i++) {
+            shares[i] = Math.round((double) discount * amounts[i] / gross);
+            allocated += shares[i];
+        }
+        shares[shares.length - 1] = discount - allocated;
+        return shares;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0;
+    }
+
+    /**
+     * Group: One key of a grouping scan; amount in 1/100 units
+     */
+    public record Group(long key, long units, long amount) {
+        public BigDecimal revenue() {
+            return BigDecimal.valueOf(amount, 2);
+        }
+    }
+
+    /**
+     * DailySeries: Index i = from + i days; amounts in 1/100 units
+     */
+    public record DailySeries(LocalDate from, long[] orders, long[] units, long[] amounts) {
+    }
+
+    record Change(Order order, List<OrderItem> items, int sign) {
+    }
+
+    enum State { LOADING, READY, REJECTED }
+
+    /**
+     * Dict: Store-local dense codes for IDs (code = slot in scan accumulators)
+     */
+    private static final class Dict {
+        private final Map<Long, Integer> codes = new HashMap<>();
+        private long[] ids = new long[16];
+
+        int code(long id) {
+            Integer code = codes.get(id);
+            if (code != null) {
+                return code;
+            }
+            int next = codes.size();
+            if (next == ids.length) {
+                ids = Arrays.copyOf(ids, next * 2);
+            }
+            ids[next] = id;
+            codes.put(id, next);
+            return next;
+        }
+
+        long id(int code) {
+            return ids[code];
+        }
+
+        int size() {
+            return codes.size();
+        }
+    }
+
+    /**
+     * StoreCube: Columns of one store; written under the write lock (or by the loader before
+     * READY), scanned under the read lock
+     */
+    static final class StoreCube {
+        final Long storeId;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, Long> categoryOfProduct = new ConcurrentHashMap<>();   // 0 = no category
+        final Map<Long, Byte> segmentOfCustomer = new ConcurrentHashMap<>();   // ordinal + 1, 0 = unknown
+        final Dict productDict = new Dict();
+        final Dict categoryDict = new Dict();
+        final List<Change> pending = new ArrayList<>();
+
+        volatile State state = State.LOADING;
+        volatile long lastAccess = System.currentTimeMillis();
+        volatile long retryAt;
+        LocalDateTime loadedAt;
+        Long loadMillis;
+
+        int windowStart;
+        int size;
+        int[] days = new int[0];
+        int[] products = new int[0];
+        int[] categories = new int[0];
+        int[] quantities = new int[0];
+        long[] amounts = new long[0];
+        long[] discounts = new long[0];
+        long[] orders = new long[0];
+        byte[] segments = new byte[0];
+
+        StoreCube(Long storeId) {
+            this.storeId = storeId;
+        }
+
+        int capacity() {
+            return days.length;
+        }
+
+        long bytes() {
+            long keys = (long) productDict.size() + categoryDict.size()
+                    + categoryOfProduct.size() + segmentOfCustomer.size();
+            return (long) capacity() * BYTES_PER_LINE + keys * BYTES_PER_KEY;
+        }
+
+        void allocate(int capacity) {
+            days = Arrays.copyOf(days, capacity);
+            products = Arrays.copyOf(products, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            discounts = Arrays.copyOf(discounts, capacity);
+            orders = Arrays.copyOf(orders, capacity);
+            segments = Arrays.copyOf(segments, capacity);
+        }
+
+        /**
+         * Lines add() will write for the order (none when its day already left the window)
+         */
+        int linesFor(Order order, List<OrderItem> items) {
+            return order.getCreatedAt().toLocalDate().toEpochDay() < windowStart ? 0 : items.size();
+        }
+
+        /**
+         * Append the order's lines; the caller made room for them (SalesCube.makeRoom)
+         */
+        void add(Order order, List<OrderItem> items, int sign) {
+            int day = (int) order.getCreatedAt().toLocalDate().toEpochDay();
+            if (day < windowStart || items.isEmpty()) {
+                return;
+            }
+            long[] lineAmounts = new long[items.size()];
+            for (int k = 0; k < lineAmounts.length; k++) {
+                lineAmounts[k] = cents(items.get(k).getTotalAmount());
+            }
+            long[] shares = discountShares(order, lineAmounts);
+            byte segment = segmentOfCustomer.getOrDefault(order.getCustomerId(), (byte) 0);
+            for (int k = 0; k < items.size(); k++) {
+                OrderItem item = items.get(k);
+                int i = size++;
+                days[i] = day;
+                products[i] = productDict.code(item.getProductId());
+                categories[i] = categoryDict.code(categoryOfProduct.getOrDefault(item.getProductId(), 0L));
+                quantities[i] = sign * item.getQuantity();
+                amounts[i] = sign * lineAmounts[k];
+                discounts[i] = sign * shares[k];
+                orders[i] = order.getId();
+                segments[i] = segment;
+            }
+        }
+
+        /**
+         * Keep the lines of newStart and later (order kept, so order lines stay contiguous)
+         */
+        void compact(int newStart) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (days[i] < newStart) {
+                    continue;
+                }
+                days[kept] = days[i];
+                products[kept] = products[i];
+                categories[kept] = categories[i];
+                quantities[kept] = quantities[i];
+                amounts[kept] = amounts[i];
+                discounts[kept] = discounts[i];
+                orders[kept] = orders[i];
+                segments[kept] = segments[i];
+                kept++;
+            }
+            size = kept;
+            windowStart = newStart;
+        }
+
+        /**
+         * Changes whose commit raced the load: those the load did not already see, in commit
+         * order, for the caller to append (placed: order not in the cube yet; cancelled: order
+         * in the cube, not yet reversed). Clears pending
+         */
+        List<Change> reconcilePending() {
+            if (pending.isEmpty()) {
+                return List.of();
+            }
+            Set<Long> ids = new HashSet<>();
+            int minDay = Integer.MAX_VALUE;
+            for (Change change : pending) {
+                ids.add(change.order().getId());
+                minDay = Math.min(minDay, (int) change.order().getCreatedAt().toLocalDate().toEpochDay());
+            }
+            // Loaded oldest first: only the tail can hold these orders
+            Map<Long, Integer> held = new HashMap<>();
+            for (int i = size - 1; i >= 0 && days[i] >= minDay; i--) {
+                if (ids.contains(orders[i])) {
+                    held.merge(orders[i], quantities[i] < 0 ? -1 : 1, Integer::sum);
+                }
+            }
+            List<Change> unseen = new ArrayList<>();
+            for (Change change : pending) {
+                Long id = change.order().getId();
+                boolean inCube = held.getOrDefault(id, 0) > 0;
+                if (change.sign() > 0 && !inCube) {
+                    unseen.add(change);
+                    held.put(id, 1);
+                } else if (change.sign() < 0 && inCube) {
+                    unseen.add(change);
+                    held.put(id, 0);
+                }
+            }
+            pending.clear();
+            return unseen;
+        }
+    }
+}
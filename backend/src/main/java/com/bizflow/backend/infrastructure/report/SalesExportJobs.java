@@ -0,0 +1,250 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.core.common.SalesExportDetail;
+import com.bizflow.backend.presentation.dto.response.SalesExportJob;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import com.bizflow.backend.presentation.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * SalesExportJobs: Large sales CSV exports run in the background into a local file store
+ *
+ * Flow:
+ * 1. submit(): range already validated by the caller, job QUEUED (at most
+ *    bizflow.export.max-active-per-store queued / running per store)
+ * 2. A worker (bizflow.export.threads) writes the CSV body to <id>.part, then renames it
+ *    to the final file: a file that exists is always complete → DONE (or FAILED + error)
+ * 3. file(): the finished file, served by the controller as a Resource (HTTP Range capable)
+ * 4. purge(): jobs and files older than bizflow.export.retention are deleted, including
+ *    files left behind by a restart (the job list itself is in memory)
+ *
+ * The store is the node's own directory (bizflow.export.dir): a job and its file are only
+ * known to the instance that ran it.
+ */
+@Slf4j
+@Component
+public class SalesExportJobs {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final Path directory;
+    private final Duration retention;
+    private final int maxActivePerStore;
+    private final ExecutorService workers;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public SalesExportJobs(@Value("${bizflow.export.dir:${java.io.tmpdir}/bizflow-exports}") String directory,
+                           @Value("${bizflow.export.retention:PT24H}") Duration retention,
+                           @Value("${bizflow.export.threads:2}") int threads,
+                           @Value("${bizflow.export.max-active-per-store:3}") int maxActivePerStore) {
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.retention = retention;
+        this.maxActivePerStore = maxActivePerStore;
+        this.workers = Executors.newFixedThreadPool(threads);
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export directory not writable: " + this.directory, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * @param body CSV writer of the export (ReportService.exportSalesReportToCsv)
+     * @throws BusinessException 4013 when the store already has too many unfinished jobs
+     */
+    public SalesExportJob submit(Long storeId, SalesExportDetail detail, boolean gzip,
+                                 LocalDate from, LocalDate to, StreamingResponseBody body) {
+        Job job = new Job(UUID.randomUUID().toString(), storeId, detail, gzip, from, to);
+        synchronized (this) {
+            long active = jobs.values().stream()
+                    .filter(other -> other.storeId.equals(storeId) && !other.isFinished())
+                    .count();
+            if (active >= maxActivePerStore) {
+                throw new BusinessException(4013, "Too many export jobs in progress (max " + maxActivePerStore + ")");
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            workers.execute(() -> run(job, body));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new IllegalStateException("Export workers are shutting down", e);
+        }
+        log.info("Export job {} queued: store={}, detail={}, {} to {}", job.id, storeId, detail, from, to);
+        return job.toResponse(retention);
+    }
+
+    /**
+     * @throws ResourceNotFoundException unknown, expired or another store's job
+     */
+    public SalesExportJob get(Long storeId, String jobId) {
+        return find(storeId, jobId).toResponse(retention);
+    }
+
+    /**
+     * @throws BusinessException 4012 when the job has not finished successfully
+     */
+    public Path file(Long storeId, String jobId) {
+        Job job = find(storeId, jobId);
+        if (job.status != Status.DONE) {
+            throw new BusinessException(4012, "Export job is not finished: " + job.status);
+        }
+        return job.file(directory);
+    }
+
+    /**
+     * Delete expired jobs and their files, and files no job knows about (restart)
+     */
+    @Scheduled(fixedDelayString = "${bizflow.export.purge-interval-ms:600000}")
+    public void purge() {
+        LocalDateTime expired = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.finishedAt.isAfter(expired)) {
+                return false;
+            }
+            delete(job.file(directory));
+            return true;
+        });
+
+        Instant cutoff = Instant.now().minus(retention);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String id = file.getFileName().toString().split("\\.")[0];
+                if (!jobs.containsKey(id) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    delete(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Export directory purge failed: {}", e.getMessage());
+        }
+    }
+
+    private Job find(Long storeId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.storeId.equals(storeId)) {
+            throw new ResourceNotFoundException("Export job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(Job job, StreamingResponseBody body) {
+        job.startedAt = LocalDateTime.now();
+        job.status = Status.RUNNING;
+        Path part = directory.resolve(job.id + PART_SUFFIX);
+        Path file = job.file(directory);
+        try {
+            try (OutputStream out = Files.newOutputStream(part)) {
+                body.writeTo(out);
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.bytes = Files.size(file);
+            job.finishedAt = LocalDateTime.now();
+            job.status = Status.DONE;
+            log.info("Export job {} done: {} bytes in {} ms", job.id, job.bytes,
+                    Duration.between(job.startedAt, LocalDateTime.now()).toMillis());
+        } catch (IOException | RuntimeException e) {
+            delete(part);
+            job.error = e.getMessage();
+            job.finishedAt = LocalDateTime.now();
+            job.status = Status.FAILED;
+            log.warn("Export job {} failed: {}", job.id, e.getMessage());
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    /**
+     * Job: Worker writes, request threads read (volatile fields, status set last)
+     */
+    private static final class Job {
+        final String id;
+        final Long storeId;
+        final SalesExportDetail detail;
+        final boolean gzip;
+        final LocalDate from;
+        final LocalDate to;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile Status status = Status.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile Long bytes;
+        volatile String error;
+
+        Job(String id, Long storeId, SalesExportDetail detail, boolean gzip, LocalDate from, LocalDate to) {
+            this.id = id;
+            this.storeId = storeId;
+            this.detail = detail;
+            this.gzip = gzip;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean isFinished() {
+            return status == Status.DONE || status == Status.FAILED;
+        }
+
+        String fileName() {
+            return "sales-" + detail.name().toLowerCase() + "-" + from + "-" + to + (gzip ? ".csv.gz" : ".csv");
+        }
+
+        Path file(Path directory) {
+            return directory.resolve(id + (gzip ? ".csv.gz" : ".csv"));
+        }
+
+        SalesExportJob toResponse(Duration retention) {
+            LocalDateTime finished = finishedAt;
+            return SalesExportJob.builder()
+                    .id(id)
+                    .status(status.name())
+                    .detail(detail.name())
+                    .gzip(gzip)
+                    .from(from)
+                    .to(to)
+                    .fileName(fileName())
+                    .bytes(bytes)
+                    .error(error)
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finished)
+                    .expiresAt(finished != null ? finished.plus(retention) : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.core.domain.Order;
+import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.core.domain.SalesDaily;
+import com.bizflow.backend.core.domain.SalesDailyProduct;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SalesRollup: Keeps sales_daily and sales_daily_product in step with orders
+ *
+ * Called by OrderService in the order's own transaction (MANDATORY), so a rolled-back
+ * order never reaches the rollups:
+ * - placed: + order count, units, amounts; + units / revenue per product and employee
+ * - cancelled: the same amounts subtracted on the order's creation day, + cancelled count
+ *
+ * Orders of one call are folded into one delta per rollup row first, so a group commit
+ * of 50 orders writes one sales_daily row, not 50. The same deltas update the cached
+ * dashboard figures after commit (DashboardMetricsCache); the order lines are appended to
+ * the in-memory SalesCube and the live TopSellers summaries after commit.
+ *
+ * rebuildDay() recomputes one store/day from the orders tables instead (SalesRollupBackfill).
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollup {
+
+    private final SalesDailyRepository salesDailyRepository;
+    private final SalesDailyProductRepository salesDailyProductRepository;
+    private final OrderRepository orderRepository;
+    private final DashboardMetricsCache dashboardMetricsCache;
+    private final SalesCube salesCube;
+    private final TopSellers topSellers;
+
+    /**
+     * @param orders Newly created orders
+     * @param itemsPerOrder Items of each order, same index as orders
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrdersPlaced(List<Order> orders, List<List<OrderItem>> itemsPerOrder) {
+        Deltas deltas = new Deltas(LocalDateTime.now());
+        for (int i = 0; i < orders.size(); i++) {
+            deltas.add(orders.get(i), itemsPerOrder.get(i), 1);
+        }
+        deltas.write();
+        salesCube.onOrdersPlaced(orders, itemsPerOrder);
+        topSellers.onOrdersPlaced(orders, itemsPerOrder);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrderCancelled(Order order, List<OrderItem> items) {
+        Deltas deltas = new Deltas(LocalDateTime.now());
+        deltas.add(order, items, -1);
+        deltas.write();
+        salesCube.onOrderCancelled(order, items);
+        topSellers.onOrderCancelled(order, items);
+    }
+
+    /**
+     * Replace the rollup rows of one store/day with totals recomputed from its orders
+     * (hot and archived tables), in the caller's transaction.
+     *
+     * The day's sales_daily row is written first (zero delta: created or locked), then both
+     * rollups are cleared and refilled. Order writes lock that row before their own deltas,
+     * so a placement or cancellation of the day either committed before (and is in what is
+     * read here) or waits and adds its delta on top of the rebuilt row.
+     * Cached dashboard figures are not patched, they reload within their TTL.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebuildDay(Long storeId, LocalDate day) {
+        LocalDateTime now = LocalDateTime.now();
+        Deltas lock = new Deltas(now);
+        lock.dayRow(storeId, day);
+        lock.writeRows();
+        salesDailyRepository.deleteDay(storeId, day);
+        salesDailyProductRepository.deleteDay(storeId, day);
+
+        Deltas deltas = new Deltas(now);
+        orderRepository.streamWithItems(storeId, day.atStartOfDay(), day.plusDays(1).atStartOfDay(),
+                (order, items) -> {
+                    deltas.add(order, items, 1);
+                    if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+                        deltas.add(order, items, -1);
+                    }
+                });
+        deltas.dayRow(storeId, day); // a day left without orders keeps a zero row
+        deltas.writeRows();
+    }
+
+    /**
+     * Deltas: Rollup changes of one call, keyed like the rollup rows
+     */
+    private final class Deltas {
+        private final LocalDateTime now;
+        private final Map<String, SalesDaily> days = new LinkedHashMap<>();
+        private final Map<String, SalesDailyProduct> products = new LinkedHashMap<>();
+
+        private Deltas(LocalDateTime now) {
+            this.now = now;
+        }
+
+        /**
+         * @param sign 1 = placed, -1 = cancelled
+         */
+        void add(Order order, List<OrderItem> items, int sign) {
+            LocalDate day = order.getCreatedAt().toLocalDate();
+            long units = 0;
+            for (OrderItem item : items) {
+                units += item.getQuantity();
+            }
+            BigDecimal total = order.getTotalAmount();
+            BigDecimal discount = order.getDiscountAmount() != null ? order.getDiscountAmount() : BigDecimal.ZERO;
+            BigDecimal gross = order.getSubtotal() != null ? order.getSubtotal() : total.add(discount);
+            BigDecimal cash = order.getPaymentType() == Order.PaymentType.CASH ? total : BigDecimal.ZERO;
+            BigDecimal factor = BigDecimal.valueOf(sign);
+
+            SalesDaily daily = dayRow(order.getStoreId(), day);
+            daily.setOrderCount(daily.getOrderCount() + sign);
+            daily.setUnitsSold(daily.getUnitsSold() + sign * units);
+            daily.setGrossAmount(daily.getGrossAmount().add(gross.multiply(factor)));
+            daily.setDiscountAmount(daily.getDiscountAmount().add(discount.multiply(factor)));
+            daily.setRevenue(daily.getRevenue().add(total.multiply(factor)));
+            daily.setCashRevenue(daily.getCashRevenue().add(cash.multiply(factor)));
+            if (sign < 0) {
+                daily.setCancelledCount(daily.getCancelledCount() + 1);
+                daily.setCancelledAmount(daily.getCancelledAmount().add(total));
+            }
+
+            long employeeId = order.getEmployeeId() != null ? order.getEmployeeId() : 0L;
+            for (OrderItem item : items) {
+                String key = order.getStoreId() + "|" + day + "|" + item.getProductId() + "|" + employeeId;
+                SalesDailyProduct product = products.computeIfAbsent(key, k -> SalesDailyProduct.builder()
+                        .storeId(order.getStoreId())
+                        .salesDate(day)
+                        .productId(item.getProductId())
+                        .employeeId(employeeId)
+                        .unitsSold(0L)
+                        .revenue(BigDecimal.ZERO)
+                        .orderLines(0L)
+                        .updatedAt(now)
+                        .build());
+                product.setUnitsSold(product.getUnitsSold() + (long) sign * item.getQuantity());
+                product.setRevenue(product.getRevenue().add(item.getTotalAmount().multiply(factor)));
+                product.setOrderLines(product.getOrderLines() + sign);
+            }
+        }
+
+        SalesDaily dayRow(Long storeId, LocalDate day) {
+            return days.computeIfAbsent(storeId + "|" + day, key -> SalesDaily.builder()
+                    .storeId(storeId)
+                    .salesDate(day)
+                    .orderCount(0L)
+                    .unitsSold(0L)
+                    .grossAmount(BigDecimal.ZERO)
+                    .discountAmount(BigDecimal.ZERO)
+                    .revenue(BigDecimal.ZERO)
+                    .cashRevenue(BigDecimal.ZERO)
+                    .cancelledCount(0L)
+                    .cancelledAmount(BigDecimal.ZERO)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        void write() {
+            writeRows();
+            dashboardMetricsCache.onSalesRecorded(days.values());
+        }
+
+        void writeRows() {
+            salesDailyRepository.upsertBatch(new ArrayList<>(days.values()));
+            salesDailyProductRepository.upsertBatch(new ArrayList<>(products.values()));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.core.domain.ArchiveWatermark;
+import com.bizflow.backend.infrastructure.archive.ColdArchiver;
+import com.bizflow.backend.infrastructure.persistence.repository.ArchiveWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * SalesRollupBackfill: Rebuilds sales_daily / sales_daily_product for closed days from the orders tables
+ *
+ * The rollups are maintained by SalesRollup from the moment it is deployed; orders placed
+ * before that (and the deployment day's orders before the switch) are only in the orders
+ * tables. The V17 migration backfills them only where Flyway runs, so the rebuild is done here:
+ *
+ * - On startup and nightly (bizflow.sales-rollup.rebuild-cron): every closed day in
+ *   [watermark, start of today) with orders or rollup rows is rebuilt, one transaction per
+ *   store and day (SalesRollup.rebuildDay, hot and archived orders)
+ * - Watermark: archive_watermarks row "sales_daily" = days before it are rebuilt. Missing on
+ *   the first run, which therefore covers the whole history; raised after a complete run,
+ *   so a failed run starts over from the same day (a rebuild overwrites, never adds)
+ * - Afterwards each night rebuilds the day that just closed, which also repairs the
+ *   deployment day
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bizflow.sales-rollup.rebuild-enabled", havingValue = "true", matchIfMissing = true)
+public class SalesRollupBackfill {
+
+    public static final String WATERMARK = "sales_daily";
+
+    private static final Timestamp MIN_TIME = Timestamp.valueOf("1970-01-01 00:00:00");
+
+    private static final String STORES_SQL = "SELECT DISTINCT store_id FROM %s";
+
+    private static final String ORDER_DAYS_SQL =
+            "SELECT DISTINCT CAST(created_at AS DATE) FROM %s WHERE store_id = ? AND created_at >= ? AND created_at < ?";
+
+    private static final String ROLLUP_DAYS_SQL =
+            "SELECT sales_date FROM sales_daily WHERE store_id = ? AND sales_date >= ? AND sales_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveWatermarkRepository watermarkRepository;
+    private final SalesRollup salesRollup;
+
+    public SalesRollupBackfill(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ArchiveWatermarkRepository watermarkRepository,
+                               SalesRollup salesRollup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.watermarkRepository = watermarkRepository;
+        this.salesRollup = salesRollup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        rebuildClosedDays();
+    }
+
+    @Scheduled(cron = "${bizflow.sales-rollup.rebuild-cron:0 20 0 * * *}")
+    public synchronized void rebuildClosedDays() {
+        LocalDateTime until = LocalDate.now().atStartOfDay();
+        LocalDateTime from = watermarkRepository.findById(WATERMARK)
+                .map(ArchiveWatermark::getArchivedBefore)
+                .orElse(MIN_TIME.toLocalDateTime());
+        if (!from.isBefore(until)) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        List<String> orderTables = orderTables(from);
+        int rebuilt = 0;
+        try {
+            for (Long storeId : stores(orderTables)) {
+                for (LocalDate day : daysToRebuild(storeId, orderTables, from, until)) {
+                    transactionTemplate.executeWithoutResult(status -> salesRollup.rebuildDay(storeId, day));
+                    rebuilt++;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Sales rollup rebuild from {} failed after {} days, next run starts over", from, rebuilt, e);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> watermarkRepository.save(ArchiveWatermark.builder()
+                .tableName(WATERMARK)
+                .archivedBefore(until)
+                .updatedAt(LocalDateTime.now())
+                .build()));
+        log.info("Sales rollups rebuilt for [{}, {}): {} store days in {} ms",
+                from.toLocalDate(), until.toLocalDate(), rebuilt, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * orders, plus orders_archive when the range reaches below the archive watermark
+     */
+    private List<String> orderTables(LocalDateTime from) {
+        List<String> tables = new ArrayList<>(List.of(ColdArchiver.ORDERS));
+        watermarkRepository.findById(ColdArchiver.ORDERS)
+                .filter(archived -> from.isBefore(archived.getArchivedBefore()))
+                .ifPresent(archived -> tables.add(ColdArchiver.ORDERS + ColdArchiver.ARCHIVE_SUFFIX));
+        return tables;
+    }
+
+    private SortedSet<Long> stores(List<String> orderTables) {
+        SortedSet<Long> stores = new TreeSet<>();
+        for (String table : orderTables) {
+            stores.addAll(jdbcTemplate.queryForList(String.format(STORES_SQL, table), Long.class));
+        }
+        return stores;
+    }
+
+    /**
+     * Days with orders, and days with rollup rows (a day whose orders are gone is reset to zero)
+     */
+    private SortedSet<LocalDate> daysToRebuild(Long storeId, List<String> orderTables,
+                                               LocalDateTime from, LocalDateTime until) {
+        SortedSet<LocalDate> days = new TreeSet<>();
+        for (String table : orderTables) {
+            days.addAll(jdbcTemplate.queryForList(String.format(ORDER_DAYS_SQL, table), LocalDate.class,
+                    storeId, Timestamp.valueOf(from), Timestamp.valueOf(until)));
+        }
+        days.addAll(jdbcTemplate.queryForList(ROLLUP_DAYS_SQL, LocalDate.class,
+                storeId, from.toLocalDate(), until.toLocalDate()));
+        return days;
+    }
+}
@@ -0,0 +1,451 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.core.domain.Order;
+import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderItemRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyProductRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.SalesDailyProductRepository.GroupedSales;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * TopSellers: Approximate best sellers (units) of the current hour / day / week per store
+ *
+ * One weighted Space-Saving summary per store and period, at most bizflow.top-sellers.capacity
+ * counters each, so a query is a sort of k counters instead of grouping every order line.
+ *
+ * Guarantees (reported with every result):
+ * - each listed product sold between unitsSold - maxError and unitsSold units
+ * - a product that is not listed sold at most untrackedMaxUnits units
+ * - guaranteed = its lower bound beats every product ranked below it, listed or not
+ * With fewer distinct products than counters nothing is evicted: counts are exact.
+ *
+ * Updates:
+ * - orders placed / cancelled (SalesRollup) are added / subtracted after commit, in the
+ *   period of the order's creation time
+ * - a summary is rebuilt from SQL on first use, on the first query of a new hour / day / week
+ *   and every bizflow.top-sellers.resync-interval (current hour: order lines, day / week:
+ *   sales_daily_product), which also brings in orders placed on other instances; events
+ *   arriving during a rebuild are replayed on the new one
+ *
+ * Arbitrary / historical ranges are not kept here: ReportService answers them exactly.
+ */
+@Slf4j
+@Component
+public class TopSellers {
+
+    public enum Period {
+        HOUR, TODAY, WEEK;
+
+        /**
+         * @param period Case-insensitive name, null/blank = TODAY
+         * @throws BusinessException 4002 for unknown periods
+         */
+        public static Period parse(String period) {
+            if (period == null || period.isBlank()) {
+                return TODAY;
+            }
+            try {
+                return valueOf(period.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException(4002, "Unsupported period: " + period + " (HOUR, TODAY, WEEK)");
+            }
+        }
+
+        LocalDateTime start(LocalDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case TODAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            };
+        }
+
+        LocalDateTime end(LocalDateTime start) {
+            return switch (this) {
+                case HOUR -> start.plusHours(1);
+                case TODAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+            };
+        }
+    }
+
+    private final SalesDailyProductRepository salesDailyProductRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final boolean enabled;
+    private final int capacity;
+    private final Duration resyncInterval;
+
+    private final Map<Long, StoreSketches> stores = new ConcurrentHashMap<>();
+
+    public TopSellers(SalesDailyProductRepository salesDailyProductRepository,
+                      OrderItemRepository orderItemRepository,
+                      @Value("${bizflow.top-sellers.enabled:true}") boolean enabled,
+                      @Value("${bizflow.top-sellers.capacity:200}") int capacity,
+                      @Value("${bizflow.top-sellers.resync-interval:PT5M}") Duration resyncInterval) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("bizflow.top-sellers.capacity must be at least 1");
+        }
+        this.salesDailyProductRepository = salesDailyProductRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.resyncInterval = resyncInterval;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // ========== Query ==========
+
+    /**
+     * Top limit products of the period so far (limit capped at the capacity)
+     */
+    public Snapshot top(Long storeId, Period period, int limit) {
+        if (!enabled) {
+            LocalDateTime now = LocalDateTime.now();
+            return exact(storeId, period, period.start(now), now, limit);
+        }
+        StoreSketches store = stores.computeIfAbsent(storeId, StoreSketches::new);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = period.start(now);
+        Sketch sketch = store.current(period, start);
+        if (sketch == null || sketch.syncedAt.plus(resyncInterval).isBefore(now)) {
+            sketch = rebuild(store, period, start, sketch);
+        }
+        synchronized (store) {
+            return sketch.summary.snapshot(period, sketch.start, sketch.syncedAt, Math.min(limit, capacity));
+        }
+    }
+
+    /**
+     * Seed step: exact per-product units of [start, now) from SQL into a new summary, then the
+     * events that arrived meanwhile; one rebuild per store and period at a time (the others keep
+     * reading the current summary, or wait when there is none yet)
+     *
+     * Events that arrived before the SQL read started are in its rows and are not replayed.
+     * An event is after-commit, so one whose commit precedes the read but whose callback runs
+     * after it is still ambiguous: a cancellation is then subtracted twice, and an order created
+     * before seededUntil but committed after the read is missed. Both stay within that one
+     * order's units and are gone at the next resync.
+     */
+    private Sketch rebuild(StoreSketches store, Period period, LocalDateTime start, Sketch current) {
+        ReentrantLock lock = store.rebuildLocks.get(period);
+        if (current != null && !lock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            lock.lock();
+        }
+        try {
+            Sketch latest = store.current(period, start);
+            if (latest != null && latest != current) {
+                return latest; // rebuilt by the thread we waited for
+            }
+            synchronized (store) {
+                store.pending.put(period, new ArrayList<>());
+            }
+            LocalDateTime seededUntil = LocalDateTime.now();
+            int seenByRead;
+            synchronized (store) {
+                seenByRead = store.pending.get(period).size();
+            }
+            long started = System.currentTimeMillis();
+            List<GroupedSales> rows = period == Period.HOUR
+                    ? orderItemRepository.findTopSellingProducts(store.storeId, start, seededUntil, Pageable.unpaged())
+                    : salesDailyProductRepository.findTopProducts(store.storeId, start.toLocalDate(),
+                            seededUntil.toLocalDate(), Pageable.unpaged());
+
+            Sketch sketch = new Sketch(start, period.end(start), seededUntil, new SpaceSaving(capacity));
+            for (GroupedSales row : rows) {
+                sketch.summary.add(row.getGroupId(), row.getUnitsSold() != null ? row.getUnitsSold() : 0);
+            }
+            synchronized (store) {
+                List<Event> pending = store.pending.remove(period);
+                for (Event event : pending.subList(seenByRead, pending.size())) {
+                    sketch.apply(event);
+                }
+                store.sketches.put(period, sketch);
+            }
+            log.debug("Top sellers {} of store {} rebuilt from {} products in {} ms",
+                    period, store.storeId, rows.size(), System.currentTimeMillis() - started);
+            return sketch;
+        } catch (RuntimeException e) {
+            synchronized (store) {
+                store.pending.remove(period);
+            }
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Exact top products of [from, until) straight from SQL (summaries disabled)
+     */
+    private Snapshot exact(Long storeId, Period period, LocalDateTime from, LocalDateTime until, int limit) {
+        SpaceSaving all = new SpaceSaving(Integer.MAX_VALUE);
+        List<GroupedSales> rows = period == Period.HOUR
+                ? orderItemRepository.findTopSellingProducts(storeId, from, until, Pageable.unpaged())
+                : salesDailyProductRepository.findTopProducts(storeId, from.toLocalDate(), until.toLocalDate(),
+                        Pageable.unpaged());
+        for (GroupedSales row : rows) {
+            all.add(row.getGroupId(), row.getUnitsSold() != null ? row.getUnitsSold() : 0);
+        }
+        return all.snapshot(period, from, until, limit);
+    }
+
+    // ========== Events (SalesRollup, in the order's transaction) ==========
+
+    public void onOrdersPlaced(List<Order> orders, List<List<OrderItem>> itemsPerOrder) {
+        List<Event> events = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            events.add(new Event(orders.get(i), itemsPerOrder.get(i), 1));
+        }
+        afterCommit(events);
+    }
+
+    public void onOrderCancelled(Order order, List<OrderItem> items) {
+        afterCommit(List.of(new Event(order, items, -1)));
+    }
+
+    private void afterCommit(List<Event> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(events);
+            }
+        });
+    }
+
+    private void apply(List<Event> events) {
+        for (Event event : events) {
+            StoreSketches store = stores.get(event.order().getStoreId());
+            if (store == null) {
+                continue; // nobody asked for this store yet: its first query seeds from SQL
+            }
+            synchronized (store) {
+                for (Period period : Period.values()) {
+                    Sketch sketch = store.sketches.get(period);
+                    if (sketch != null) {
+                        sketch.apply(event);
+                    }
+                    List<Event> pending = store.pending.get(period);
+                    if (pending != null) {
+                        pending.add(event);
+                    }
+                }
+            }
+        }
+    }
+
+    // ========== Structures ==========
+
+    /**
+     * Snapshot: Best sellers of a period with their error bounds
+     *
+     * @param untrackedMaxUnits Upper bound on the units of any product not in items
+     * @param totalUnits Units of all products in the period (exact)
+     * @param exact true when nothing was evicted: every count is exact
+     */
+    public record Snapshot(Period period, LocalDateTime from, LocalDateTime syncedAt, int capacity,
+                           long totalUnits, long untrackedMaxUnits, boolean exact, List<Estimate> items) {
+    }
+
+    /**
+     * Estimate: unitsSold - maxError <= true units <= unitsSold
+     */
+    public record Estimate(long productId, long unitsSold, long maxError, boolean guaranteed) {
+        public long minUnitsSold() {
+            return Math.max(0, unitsSold - maxError);
+        }
+    }
+
+    private record Event(Order order, List<OrderItem> items, int sign) {
+    }
+
+    /**
+     * StoreSketches: The summaries of one store; summaries and pending events are guarded
+     * by the instance monitor, a rebuild by its period's lock
+     */
+    private static final class StoreSketches {
+        final Long storeId;
+        final Map<Period, Sketch> sketches = new EnumMap<>(Period.class);
+        final Map<Period, List<Event>> pending = new EnumMap<>(Period.class);
+        final Map<Period, ReentrantLock> rebuildLocks = new EnumMap<>(Period.class);
+
+        StoreSketches(Long storeId) {
+            this.storeId = storeId;
+            for (Period period : Period.values()) {
+                rebuildLocks.put(period, new ReentrantLock());
+            }
+        }
+
+        /**
+         * Summary of the period starting at start, or null when there is none yet; a summary of
+         * an earlier period is dropped, so the new period is seeded from SQL (its orders placed
+         * before this query went to the old summary and were discarded there)
+         */
+        synchronized Sketch current(Period period, LocalDateTime start) {
+            Sketch sketch = sketches.get(period);
+            if (sketch != null && sketch.start.isBefore(start)) {
+                sketches.remove(period);
+                return null;
+            }
+            return sketch;
+        }
+    }
+
+    /**
+     * Sketch: Summary of [start, end); orders created before seededUntil came from SQL
+     */
+    private static final class Sketch {
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final LocalDateTime seededUntil;
+        final LocalDateTime syncedAt = LocalDateTime.now();
+        final SpaceSaving summary;
+
+        Sketch(LocalDateTime start, LocalDateTime end, LocalDateTime seededUntil, SpaceSaving summary) {
+            this.start = start;
+            this.end = end;
+            this.seededUntil = seededUntil;
+            this.summary = summary;
+        }
+
+        /**
+         * Placed orders count when created after the seed (earlier ones are in it);
+         * cancellations of any order of the period are subtracted
+         */
+        void apply(Event event) {
+            LocalDateTime createdAt = event.order().getCreatedAt();
+            if (createdAt.isBefore(start) || !createdAt.isBefore(end)
+                    || (event.sign() > 0 && createdAt.isBefore(seededUntil))) {
+                return;
+            }
+            for (OrderItem item : event.items()) {
+                if (event.sign() > 0) {
+                    summary.add(item.getProductId(), item.getQuantity());
+                } else {
+                    summary.subtract(item.getProductId(), item.getQuantity());
+                }
+            }
+        }
+    }
+
+    /**
+     * SpaceSaving: Weighted Space-Saving (Metwally et al.) over product IDs
+     *
+     * - tracked product: count += units
+     * - new product, room left: count = units, error = 0
+     * - new product, full: the smallest counter is replaced, the newcomer inherits its count
+     *   as error (it may have sold that much while untracked)
+     * Cancellations lower a tracked count; untracked products are bounded by the largest
+     * count ever evicted, which cancellations cannot raise.
+     */
+    static final class SpaceSaving {
+        private final int capacity;
+        private final Map<Long, Counter> counters = new HashMap<>();
+        private final TreeSet<Counter> byCount = new TreeSet<>(
+                Comparator.comparingLong((Counter counter) -> counter.count).thenComparingLong(counter -> counter.productId));
+        private long evictedMax;
+        private long total;
+
+        SpaceSaving(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(long productId, long units) {
+            if (units <= 0) {
+                return;
+            }
+            total += units;
+            Counter counter = counters.get(productId);
+            if (counter != null) {
+                byCount.remove(counter);
+                counter.count += units;
+                byCount.add(counter);
+                return;
+            }
+            long base = 0;
+            if (counters.size() >= capacity) {
+                Counter smallest = byCount.pollFirst();
+                counters.remove(smallest.productId);
+                evictedMax = Math.max(evictedMax, smallest.count);
+                base = evictedMax;
+            }
+            counter = new Counter(productId, base + units, base);
+            counters.put(productId, counter);
+            byCount.add(counter);
+        }
+
+        void subtract(long productId, long units) {
+            total = Math.max(0, total - units);
+            Counter counter = counters.get(productId);
+            if (counter == null) {
+                return;
+            }
+            byCount.remove(counter);
+            counter.count = Math.max(0, counter.count - units);
+            byCount.add(counter);
+        }
+
+        Snapshot snapshot(Period period, LocalDateTime from, LocalDateTime syncedAt, int limit) {
+            List<Counter> ranked = new ArrayList<>(limit + 1);
+            for (Counter counter : byCount.descendingSet()) {
+                if (ranked.size() > limit || counter.count == 0) {
+                    break;
+                }
+                ranked.add(counter);
+            }
+            List<Estimate> items = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                Counter counter = ranked.get(i);
+                long below = Math.max(evictedMax, i + 1 < ranked.size() ? ranked.get(i + 1).count : 0);
+                items.add(new Estimate(counter.productId, counter.count, counter.error,
+                        counter.count - counter.error >= below));
+            }
+            int reportedCapacity = capacity == Integer.MAX_VALUE ? counters.size() : capacity;
+            return new Snapshot(period, from, syncedAt, reportedCapacity, total, evictedMax, evictedMax == 0, items);
+        }
+
+        private static final class Counter {
+            final long productId;
+            long count;
+            final long error;
+
+            Counter(long productId, long count, long error) {
+                this.productId = productId;
+                this.count = count;
+                this.error = error;
+            }
+        }
+    }
+}
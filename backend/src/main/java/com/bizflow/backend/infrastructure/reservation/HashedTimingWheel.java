@@ -0,0 +1,93 @@
+package com.bizflow.backend.infrastructure.reservation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * HashedTimingWheel: Expiry buckets indexed by deadline tick
+ * 
+ * A ring of wheelSize buckets, one per tick. An entry goes into bucket
+ * (deadlineTick % wheelSize); each tick only visits its own bucket.
+ * Adding is O(1) and expiring costs O(1) per entry, independent of how many
+ * entries are waiting (entries more than one turn ahead are skipped until their turn).
+ * 
+ * Deadlines are rounded up to the next tick (never fires early, at most one tick late).
+ * Thread-safe (synchronized); no thread of its own, the owner calls advance().
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<LinkedList<Slot<T>>> buckets;
+    private long currentTick;
+    private int size;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule an entry; a deadline already passed fires on the next tick
+     */
+    public synchronized void add(T item, long deadlineMillis) {
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        buckets.get((int) (deadlineTick % buckets.size())).add(new Slot<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Move the wheel up to nowMillis
+     * 
+     * @return Entries whose deadline tick has been reached
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick - currentTick >= buckets.size()) {
+            // Paused for a full turn or more: one pass over every bucket is enough
+            currentTick = targetTick;
+            for (LinkedList<Slot<T>> bucket : buckets) {
+                expireBucket(bucket, expired);
+            }
+            return expired;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            expireBucket(buckets.get((int) (currentTick % buckets.size())), expired);
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Entries of later turns share the bucket and stay until their own turn
+    private void expireBucket(LinkedList<Slot<T>> bucket, List<T> expired) {
+        Iterator<Slot<T>> slots = bucket.iterator();
+        while (slots.hasNext()) {
+            Slot<T> slot = slots.next();
+            if (slot.deadlineTick() <= currentTick) {
+                slots.remove();
+                size--;
+                expired.add(slot.item());
+            }
+        }
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private record Slot<T>(T item, long deadlineTick) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.bizflow.backend.infrastructure.reservation;
+
+import com.bizflow.backend.core.domain.StockReservation;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepositoryCustom.StockKey;
+import com.bizflow.backend.infrastructure.persistence.repository.StockReservationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ReservationReaper: Releases stock reservations when their TTL is reached
+ * 
+ * - Deadlines live in a HashedTimingWheel (one bucket per tick), so a tick only
+ *   touches the reservations that expire in it, however many are open
+ * - Expired reservations of one tick are released together: one guarded JDBC batch
+ *   closes them, one batch per (store, product) gives the stock back, one transaction
+ * - On startup all ACTIVE reservations are reloaded into the wheel
+ * - A slow sweep over stock_reservations catches holds this node never scheduled
+ *   (created on another node that went down)
+ * 
+ * Several nodes may expire the same reservation; the guarded close lets only one release it.
+ */
+@Slf4j
+@Component
+public class ReservationReaper {
+
+    private final StockReservationRepository reservationRepository;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimingWheel<Long> wheel;
+    private final long tickMillis;
+    private final int batchSize;
+
+    public ReservationReaper(StockReservationRepository reservationRepository,
+                             InventoryRepository inventoryRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${bizflow.reservation.tick-ms:1000}") long tickMillis,
+                             @Value("${bizflow.reservation.wheel-size:512}") int wheelSize,
+                             @Value("${bizflow.reservation.batch-size:500}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void loadActiveReservations() {
+        List<StockReservationRepository.Deadline> deadlines = reservationRepository.findActiveDeadlines();
+        for (StockReservationRepository.Deadline deadline : deadlines) {
+            wheel.add(deadline.getId(), toMillis(deadline.getExpiresAt()));
+        }
+        log.info("Reservation wheel loaded with {} active reservations", deadlines.size());
+    }
+
+    /**
+     * Track a new reservation (a rolled back one is skipped at expiry: no ACTIVE row)
+     */
+    public void schedule(StockReservation reservation) {
+        wheel.add(reservation.getId(), toMillis(reservation.getExpiresAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${bizflow.reservation.tick-ms:1000}")
+    public void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        try {
+            for (int from = 0; from < due.size(); from += batchSize) {
+                expire(due.subList(from, Math.min(from + batchSize, due.size())));
+            }
+        } catch (RuntimeException e) {
+            // Not lost: the sweep picks them up from stock_reservations
+            log.error("Releasing {} expired reservations failed", due.size(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bizflow.reservation.sweep-interval-ms:60000}")
+    public void sweep() {
+        // Give the wheel a few ticks head start, the sweep is only the safety net
+        LocalDateTime before = LocalDateTime.now().minusNanos(5 * tickMillis * 1_000_000);
+        try {
+            List<Long> ids;
+            do {
+                ids = reservationRepository.findExpiredIds(before, PageRequest.of(0, batchSize));
+                if (!ids.isEmpty()) {
+                    log.info("Reservation sweep: {} expired reservations not released by the wheel", ids.size());
+                    expire(ids);
+                }
+            } while (ids.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Reservation sweep failed", e);
+        }
+    }
+
+    /**
+     * Close expired reservations and give their stock back, one transaction
+     * 
+     * @return Number of reservations released by this call
+     */
+    int expire(List<Long> ids) {
+        Integer released = transactionTemplate.execute(status -> {
+            List<StockReservation> active = reservationRepository.findByIdInAndStatus(ids,
+                    StockReservation.ReservationStatus.ACTIVE);
+            List<StockReservation> closed = reservationRepository.closeBatch(active,
+                    StockReservation.ReservationStatus.EXPIRED, LocalDateTime.now());
+
+            Map<StockKey, Integer> quantities = new TreeMap<>();
+            for (StockReservation reservation : closed) {
+                quantities.merge(new StockKey(reservation.getStoreId(), reservation.getProductId()),
+                        reservation.getQuantity(), Integer::sum);
+            }
+            List<StockKey> rejected = inventoryRepository.releaseReservedBatch(quantities);
+            if (!rejected.isEmpty()) {
+                log.warn("Reserved quantity lower than expired reservations for {}", rejected);
+            }
+            return closed.size();
+        });
+        return released != null ? released : 0;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
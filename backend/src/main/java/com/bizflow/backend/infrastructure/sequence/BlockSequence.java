@@ -0,0 +1,59 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * BlockSequence: In-memory hi/lo counter over blocks reserved from the database
+ * 
+ * Fast path is a single lock-free getAndIncrement on the current block.
+ * Only the thread that finds the block exhausted goes to the database;
+ * concurrent callers wait on the refill instead of reserving extra blocks.
+ */
+public class BlockSequence {
+
+    private final String name;
+    private final int blockSize;
+    private final LongSupplier initialValue;
+    private final SequenceBlockAllocator allocator;
+
+    private volatile Block current;
+
+    public BlockSequence(String name, int blockSize, LongSupplier initialValue, SequenceBlockAllocator allocator) {
+        this.name = name;
+        this.blockSize = blockSize;
+        this.initialValue = initialValue;
+        this.allocator = allocator;
+    }
+
+    public long next() {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long value = block.cursor.getAndIncrement();
+                if (value < block.end) {
+                    return value;
+                }
+            }
+            refill(block);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (current != exhausted) {
+            return; // another thread already refilled
+        }
+        long start = allocator.reserve(name, blockSize, initialValue);
+        current = new Block(start, start + blockSize);
+    }
+
+    private static final class Block {
+        private final AtomicLong cursor;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OrderNumberAllocator: Unique per-store, per-day order numbers
+ * 
+ * Format: ORD-{storeId}-{yyyyMMdd}-{seq}, seq restarts at 1 every day.
+ * Each node reserves a block of numbers (hi/lo) and hands them out from memory,
+ * so there is no database round trip per order. Numbers are unique across nodes
+ * but not gap-free (an unused block tail is skipped after a restart).
+ */
+@Component
+public class OrderNumberAllocator {
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final SequenceBlockAllocator allocator;
+    private final int blockSize;
+    private final Map<String, BlockSequence> sequences = new ConcurrentHashMap<>();
+    private volatile String currentDay = "";
+
+    public OrderNumberAllocator(SequenceBlockAllocator allocator,
+                                @Value("${bizflow.order-number.block-size:20}") int blockSize) {
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+    }
+
+    public String next(Long storeId) {
+        String day = LocalDate.now().format(DAY);
+        if (!day.equals(currentDay)) {
+            rollOver(day);
+        }
+
+        String name = "order:" + storeId + ":" + day;
+        long seq = sequences.computeIfAbsent(name, n -> new BlockSequence(n, blockSize, () -> 1L, allocator)).next();
+        return String.format("ORD-%d-%s-%04d", storeId, day, seq);
+    }
+
+    /**
+     * Drop in-memory counters of previous days (their table rows are kept for audit)
+     */
+    private synchronized void rollOver(String day) {
+        if (day.equals(currentDay)) {
+            return;
+        }
+        sequences.keySet().removeIf(name -> !name.endsWith(":" + day));
+        currentDay = day;
+    }
+}
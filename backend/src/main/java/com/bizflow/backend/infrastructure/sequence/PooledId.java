@@ -0,0 +1,33 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * PooledId: Table-backed pooled ID for high-volume entities
+ * 
+ * Replaces GenerationType.IDENTITY so Hibernate can batch inserts
+ * (IDENTITY forces one INSERT per round trip to read the generated key).
+ * IDs come from the same hi/lo blocks as JDBC batch writers (PooledIdSource).
+ * 
+ * Usage:
+ *   @Id
+ *   @PooledId("debts")
+ *   private Long id;
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledId {
+
+    /**
+     * Table name; also the sequence name and the table scanned for MAX(id) on first use
+     */
+    String value();
+}
@@ -0,0 +1,26 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * PooledIdGenerator: Hibernate bridge for {@link PooledId}
+ * 
+ * Hibernate instantiates generators itself, so the Spring-managed
+ * PooledIdSource is looked up lazily on first use.
+ */
+public class PooledIdGenerator implements IdentifierGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String table;
+
+    public PooledIdGenerator(PooledId config) {
+        this.table = config.value();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return PooledIdSource.get().nextId(table);
+    }
+}
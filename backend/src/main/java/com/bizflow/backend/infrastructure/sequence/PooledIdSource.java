@@ -0,0 +1,73 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * PooledIdSource: Table-backed pooled IDs (hi/lo over sequence_blocks)
+ * 
+ * - Works on TiDB and MySQL (no native SEQUENCE needed)
+ * - One row per table in sequence_blocks, first value = MAX(id) + 1 of the table
+ * - Used by Hibernate (@PooledId) and by JDBC batch writers, so both paths
+ *   draw from the same blocks and can never collide
+ * 
+ * NOTE: once a table uses pooled IDs, every writer must use them - do not mix
+ * with AUTO_INCREMENT inserts from older nodes (deploy all nodes together).
+ */
+@Component
+public class PooledIdSource {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_]+");
+
+    private static volatile PooledIdSource instance;
+
+    private final SequenceBlockAllocator allocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockSize;
+    private final Map<String, BlockSequence> sequences = new ConcurrentHashMap<>();
+
+    public PooledIdSource(SequenceBlockAllocator allocator,
+                          JdbcTemplate jdbcTemplate,
+                          @Value("${bizflow.id.block-size:100}") int blockSize) {
+        this.allocator = allocator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = blockSize;
+    }
+
+    @PostConstruct
+    void register() {
+        instance = this;
+    }
+
+    static PooledIdSource get() {
+        PooledIdSource source = instance;
+        if (source == null) {
+            throw new IllegalStateException("PooledIdSource is not initialized yet");
+        }
+        return source;
+    }
+
+    /**
+     * Next ID for a table
+     * 
+     * @param table Table name (lowercase, trusted constant)
+     */
+    public long nextId(String table) {
+        return sequences.computeIfAbsent(table, this::createSequence).next();
+    }
+
+    private BlockSequence createSequence(String table) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        return new BlockSequence("id:" + table, blockSize,
+                () -> jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class),
+                allocator);
+    }
+}
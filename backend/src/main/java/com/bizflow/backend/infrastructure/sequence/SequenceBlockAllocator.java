@@ -0,0 +1,84 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * SequenceBlockAllocator: Reserve blocks of numbers from the sequence_blocks table
+ * 
+ * - One optimistic compare-and-set UPDATE per block (no row lock held across statements)
+ * - Runs in its own transaction (REQUIRES_NEW): a rolled-back order never returns
+ *   its block, so a number is never handed out twice (gaps are acceptable)
+ * - Missing sequence rows are created on first use
+ */
+@Slf4j
+@Component
+public class SequenceBlockAllocator {
+
+    private static final int MAX_ATTEMPTS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+
+    public SequenceBlockAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserve the next block of a sequence
+     * 
+     * @param name Sequence name
+     * @param blockSize Numbers to reserve
+     * @param initialValue First value if the sequence does not exist yet
+     *                     (evaluated inside the reservation transaction, only when the row is created)
+     * @return First value of the block; the block is [start, start + blockSize)
+     */
+    public long reserve(String name, int blockSize, LongSupplier initialValue) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Long start = requiresNew.execute(status -> tryReserve(name, blockSize, initialValue));
+            if (start != null) {
+                log.debug("Reserved sequence block {} [{}, {})", name, start, start + blockSize);
+                return start;
+            }
+        }
+        throw new IllegalStateException("Could not reserve sequence block for " + name + " after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    /**
+     * @return block start, or null when another node won the race (caller retries)
+     */
+    private Long tryReserve(String name, int blockSize, LongSupplier initialValue) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT next_value FROM sequence_blocks WHERE name = ?", Long.class, name);
+
+        if (current.isEmpty()) {
+            long start = initialValue.getAsLong();
+            try {
+                jdbcTemplate.update("INSERT INTO sequence_blocks (name, next_value, updated_at) VALUES (?, ?, ?)",
+                        name, start + blockSize, now);
+                return start;
+            } catch (DuplicateKeyException e) {
+                return null;
+            }
+        }
+
+        long start = current.get(0);
+        int updated = jdbcTemplate.update(
+                "UPDATE sequence_blocks SET next_value = ?, updated_at = ? WHERE name = ? AND next_value = ?",
+                start + blockSize, now, name, start);
+        return updated == 1 ? start : null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * SnowflakeId: Sharded 64-bit ID for write-hot tables (orders, order_items, stock_movements)
+ * 
+ * Spreads inserts across TiDB regions instead of appending to the last one.
+ * Assigned in memory, so Hibernate can batch inserts like with @PooledId.
+ * 
+ * Usage:
+ *   @Id
+ *   @SnowflakeId
+ *   private Long id;
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface SnowflakeId {
+}
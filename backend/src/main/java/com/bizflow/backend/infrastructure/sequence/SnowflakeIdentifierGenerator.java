@@ -0,0 +1,17 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * SnowflakeIdentifierGenerator: Hibernate bridge for {@link SnowflakeId}
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return SnowflakeIdGenerator.get().nextId();
+    }
+}
@@ -0,0 +1,135 @@
+package com.bizflow.backend.presentation.controller;
+
+import com.bizflow.backend.core.common.ImportFormat;
+import com.bizflow.backend.core.domain.Inventory;
+import com.bizflow.backend.core.domain.ReorderSuggestion;
+import com.bizflow.backend.core.usecase.InventoryService;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepositoryCustom.MovementLine;
+import com.bizflow.backend.presentation.dto.response.ApiResponse;
+import com.bizflow.backend.presentation.dto.response.CursorPage;
+import com.bizflow.backend.presentation.dto.response.InventoryDTO;
+import com.bizflow.backend.presentation.dto.response.LedgerReplayReport;
+import com.bizflow.backend.presentation.dto.response.ReorderRunReport;
+import com.bizflow.backend.presentation.dto.response.StockImportResult;
+import jakarta.servlet.http.HttpServletRequest;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * InventoryController: Stock level and reservation endpoints
+ * 
+ * Endpoints:
+ * - GET /v1/inventory/{productId} - Stock of a product (quantity, reserved, available)
+ * - GET /v1/inventory/{productId}/movements - Movement history with running balance (cursor pagination)
+ * - POST /v1/inventory/{productId}/reservations - Hold stock for a cart / draft order (expires after bizflow.reservation.ttl)
+ * - POST /v1/inventory/{productId}/reservations/release - Give held stock back before it expires
+ * - POST /v1/inventory/imports - Bulk stock-in from a CSV (text/csv) or JSON (application/json) body, per-line errors
+ * - GET /v1/inventory/ledger/verify - Compare inventory with the stock movement ledger (read only)
+ * - POST /v1/inventory/ledger/rebuild - Overwrite drifted quantities with the ledger (OWNER/ADMIN)
+ * - POST /v1/inventory/ledger/snapshots - Take a ledger snapshot now (OWNER/ADMIN)
+ * - GET /v1/inventory/reorder-suggestions - Days of cover and suggested reorder quantity per product (latest run)
+ * - POST /v1/inventory/reorder-suggestions/refresh - Recompute the suggestions now (OWNER/ADMIN)
+ * 
+ * Security:
+ * - storeId always comes from JWT (UserContext) inside InventoryService
+ */
+@RestController
+@RequestMapping("/v1/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<ApiResponse<InventoryDTO>> getStock(@PathVariable Long productId) {
+        Inventory inventory = inventoryService.getStock(productId)
+                .orElseThrow(() -> new BusinessException(4005, "Product has no inventory: " + productId));
+        return ResponseEntity.ok(ApiResponse.success(InventoryDTO.of(inventory), "Stock retrieved successfully"));
+    }
+
+    @GetMapping("/{productId}/movements")
+    public ResponseEntity<ApiResponse<CursorPage<MovementLine>>> getMovementHistory(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<MovementLine> history = inventoryService.getStockMovementHistory(productId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(history, "Stock movements retrieved successfully"));
+    }
+
+    @PostMapping("/{productId}/reservations")
+    public ResponseEntity<ApiResponse<InventoryDTO>> reserveStock(
+            @PathVariable Long productId,
+            @RequestParam Integer quantity,
+            @RequestParam(required = false) Long orderId) {
+        Inventory inventory = inventoryService.reserveStock(productId, quantity, orderId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(InventoryDTO.of(inventory), "Stock reserved successfully"));
+    }
+
+    @PostMapping("/{productId}/reservations/release")
+    public ResponseEntity<ApiResponse<InventoryDTO>> releaseStock(
+            @PathVariable Long productId,
+            @RequestParam Integer quantity,
+            @RequestParam(required = false) Long orderId) {
+        Inventory inventory = inventoryService.releaseStock(productId, quantity, orderId);
+        return ResponseEntity.ok(ApiResponse.success(InventoryDTO.of(inventory), "Stock released successfully"));
+    }
+
+    @PostMapping(value = "/imports", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<StockImportResult>> importStock(
+            HttpServletRequest request,
+            @RequestParam(required = false) String supplierName) throws IOException {
+        ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+        StockImportResult result = inventoryService.bulkImportStock(request.getInputStream(), format, supplierName);
+        return ResponseEntity.ok(ApiResponse.success(result, "Stock import finished"));
+    }
+
+    @GetMapping("/ledger/verify")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<LedgerReplayReport>> verifyLedger() {
+        LedgerReplayReport report = inventoryService.verifyLedger();
+        return ResponseEntity.ok(ApiResponse.success(report, "Inventory verified against stock ledger"));
+    }
+
+    @PostMapping("/ledger/rebuild")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<LedgerReplayReport>> rebuildFromLedger() {
+        LedgerReplayReport report = inventoryService.rebuildFromLedger();
+        return ResponseEntity.ok(ApiResponse.success(report, "Inventory rebuilt from stock ledger"));
+    }
+
+    @PostMapping("/ledger/snapshots")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> snapshotLedger() {
+        int rows = inventoryService.snapshotLedger();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(rows, "Stock ledger snapshot taken"));
+    }
+
+    @GetMapping("/reorder-suggestions")
+    public ResponseEntity<ApiResponse<Page<ReorderSuggestion>>> getReorderSuggestions(
+            @RequestParam(defaultValue = "true") boolean onlyToReorder,
+            @PageableDefault(size = 50, sort = "daysOfCover", direction = Sort.Direction.ASC) Pageable pageable) {
+        Page<ReorderSuggestion> suggestions = inventoryService.getReorderSuggestions(onlyToReorder, pageable);
+        return ResponseEntity.ok(ApiResponse.success(suggestions, "Reorder suggestions retrieved successfully"));
+    }
+
+    @PostMapping("/reorder-suggestions/refresh")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<ReorderRunReport>> refreshReorderSuggestions() {
+        ReorderRunReport report = inventoryService.refreshReorderSuggestions();
+        return ResponseEntity.ok(ApiResponse.success(report, "Reorder suggestions recomputed"));
+    }
+}
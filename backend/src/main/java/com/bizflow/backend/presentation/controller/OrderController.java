@@ -0,0 +1,132 @@
+package com.bizflow.backend.presentation.controller;
+
+import com.bizflow.backend.core.common.ExportFormat;
+import com.bizflow.backend.core.usecase.OrderService;
+import com.bizflow.backend.presentation.dto.request.CreateOrderRequest;
+import com.bizflow.backend.presentation.dto.response.ApiResponse;
+import com.bizflow.backend.presentation.dto.response.CursorPage;
+import com.bizflow.backend.presentation.dto.response.OrderDTO;
+import com.bizflow.backend.presentation.dto.response.OrderSummaryDTO;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * OrderController: Order endpoints
+ * 
+ * Endpoints:
+ * - POST /v1/orders - Create order (optional Idempotency-Key header makes client retries safe)
+ * - GET /v1/orders - Filtered page (offset + total count), for numbered pagination
+ * - GET /v1/orders/scroll - Keyset slice (cursor, no count), for infinite scroll / deep history
+ * - GET /v1/orders/summaries - Filtered page from the order_summary read model (no items, single table)
+ * - GET /v1/orders/summaries/scroll - Keyset slice of order summaries
+ * - GET /v1/orders/{id} - Order detail
+ * - PATCH /v1/orders/{id}/status - Change status (order + summary in one transaction)
+ * - POST /v1/orders/{id}/cancel - Cancel: stock returned, debt cancelled, sales rollups reversed (OWNER/ADMIN)
+ * - GET /v1/orders/export - Streaming export (format=ndjson|csv), constant memory for any date range
+ * 
+ * Security:
+ * - storeId always comes from JWT (UserContext) inside OrderService
+ */
+@RestController
+@RequestMapping("/v1/orders")
+@RequiredArgsConstructor
+public class OrderController {
+
+    private final OrderService orderService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<OrderDTO>> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderDTO order = orderService.createOrder(request, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(order, "Order created successfully"));
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<OrderDTO>>> getOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long customerId,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<OrderDTO> orders = orderService.getAllOrders(status, startDate, endDate, customerId, pageable);
+        return ResponseEntity.ok(ApiResponse.success(orders, "Orders retrieved successfully"));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<OrderDTO>>> scrollOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<OrderDTO> orders = orderService.scrollOrders(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(orders, "Orders retrieved successfully"));
+    }
+
+    @GetMapping("/summaries")
+    public ResponseEntity<ApiResponse<Page<OrderSummaryDTO>>> getOrderSummaries(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long customerId,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<OrderSummaryDTO> orders = orderService.getOrderSummaries(status, startDate, endDate, customerId, pageable);
+        return ResponseEntity.ok(ApiResponse.success(orders, "Orders retrieved successfully"));
+    }
+
+    @GetMapping("/summaries/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<OrderSummaryDTO>>> scrollOrderSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<OrderSummaryDTO> orders = orderService.scrollOrderSummaries(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(orders, "Orders retrieved successfully"));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        StreamingResponseBody body = orderService.exportOrders(exportFormat, startDate, endDate);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<OrderDTO>> getOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(orderService.getOrderById(id), "Order retrieved successfully"));
+    }
+
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<ApiResponse<OrderDTO>> updateOrderStatus(
+            @PathVariable Long id,
+            @RequestParam String status) {
+        OrderDTO order = orderService.updateOrderStatus(id, status);
+        return ResponseEntity.ok(ApiResponse.success(order, "Order status updated successfully"));
+    }
+
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<OrderDTO>> cancelOrder(
+            @PathVariable Long id,
+            @RequestParam(required = false) String reason) {
+        OrderDTO order = orderService.cancelOrder(id, reason);
+        return ResponseEntity.ok(ApiResponse.success(order, "Order cancelled successfully"));
+    }
+}
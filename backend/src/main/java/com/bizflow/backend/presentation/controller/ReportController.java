@@ -0,0 +1,206 @@
+package com.bizflow.backend.presentation.controller;
+
+import com.bizflow.backend.core.common.SalesExportDetail;
+import com.bizflow.backend.core.common.UserContext;
+import com.bizflow.backend.core.usecase.ReportService;
+import com.bizflow.backend.presentation.dto.response.ApiResponse;
+import com.bizflow.backend.presentation.dto.response.SalesCubeStats;
+import com.bizflow.backend.presentation.dto.response.SalesExportJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * ReportController: Sales and business reports (OWNER/ADMIN)
+ *
+ * Endpoints:
+ * - GET /v1/reports/dashboard - Revenue / orders today, this month, this year + customers, stock value, open debt
+ * - GET /v1/reports/sales - Totals and breakdowns (category, segment, employee, day) for a date range
+ * - GET /v1/reports/revenue/categories - Revenue per product category
+ * - GET /v1/reports/revenue/segments - Revenue per customer segment
+ * - GET /v1/reports/top-products - Best sellers by units sold
+ * - GET /v1/reports/top-products/live - Best sellers of the current hour / day / week, approximate with error bounds
+ * - GET /v1/reports/inventory-valuation - Stock value per category (sale and cost price)
+ * - GET /v1/reports/receivables - Open debt with aging buckets
+ * - GET /v1/reports/customers - Customers per segment, repeat rate, average order value
+ * - GET /v1/reports/trends/daily - Last 30 days, one point per day
+ * - GET /v1/reports/trends/monthly - Last 12 months, one point per month
+ * - GET /v1/reports/export - Sales of a date range as CSV, streamed (detail=daily|lines, gzip=true for .csv.gz)
+ * - POST /v1/reports/export/jobs - Same export as a background job into the node's export store
+ * - GET /v1/reports/export/jobs/{id} - Job state (QUEUED, RUNNING, DONE, FAILED)
+ * - GET /v1/reports/export/jobs/{id}/file - Finished file, supports HTTP Range (resumable download)
+ * - GET /v1/reports/health-score - Business health score 0-100
+ * - GET /v1/reports/cube - Memory use of the in-memory sales cube (all stores + this store)
+ *
+ * Date ranges are inclusive days (startDate / endDate, ISO date), default the last 30 days.
+ *
+ * Security:
+ * - storeId always comes from JWT (UserContext)
+ */
+@RestController
+@RequestMapping("/v1/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboard() {
+        Map<String, Object> metrics = reportService.getDashboardMetrics(UserContext.getCurrentStoreId());
+        return ResponseEntity.ok(ApiResponse.success(metrics, "Dashboard metrics retrieved successfully"));
+    }
+
+    @GetMapping("/sales")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSalesReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Map<String, Object> report = reportService.getSalesReport(UserContext.getCurrentStoreId(),
+                atStartOfDay(startDate), atStartOfDay(endDate));
+        return ResponseEntity.ok(ApiResponse.success(report, "Sales report retrieved successfully"));
+    }
+
+    @GetMapping("/revenue/categories")
+    public ResponseEntity<ApiResponse<Map<String, Double>>> getRevenueByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Map<String, Double> revenue = reportService.getRevenueByCategory(UserContext.getCurrentStoreId(),
+                atStartOfDay(startDate), atStartOfDay(endDate));
+        return ResponseEntity.ok(ApiResponse.success(revenue, "Revenue by category retrieved successfully"));
+    }
+
+    @GetMapping("/revenue/segments")
+    public ResponseEntity<ApiResponse<Map<String, Double>>> getRevenueBySegment(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Map<String, Double> revenue = reportService.getRevenueBySegment(UserContext.getCurrentStoreId(),
+                atStartOfDay(startDate), atStartOfDay(endDate));
+        return ResponseEntity.ok(ApiResponse.success(revenue, "Revenue by segment retrieved successfully"));
+    }
+
+    @GetMapping("/top-products")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTopProducts(
+            @RequestParam(defaultValue = "10") Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Map<String, Object> report = reportService.getTopProducts(UserContext.getCurrentStoreId(), limit,
+                atStartOfDay(startDate), atStartOfDay(endDate));
+        return ResponseEntity.ok(ApiResponse.success(report, "Top products retrieved successfully"));
+    }
+
+    @GetMapping("/top-products/live")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLiveTopProducts(
+            @RequestParam(defaultValue = "today") String period,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        Map<String, Object> report = reportService.getLiveTopProducts(UserContext.getCurrentStoreId(), period, limit);
+        return ResponseEntity.ok(ApiResponse.success(report, "Live top products retrieved successfully"));
+    }
+
+    @GetMapping("/inventory-valuation")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getInventoryValuation() {
+        Map<String, Object> report = reportService.getInventoryValuation(UserContext.getCurrentStoreId());
+        return ResponseEntity.ok(ApiResponse.success(report, "Inventory valuation retrieved successfully"));
+    }
+
+    @GetMapping("/receivables")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAccountsReceivable() {
+        Map<String, Object> report = reportService.getAccountsReceivable(UserContext.getCurrentStoreId());
+        return ResponseEntity.ok(ApiResponse.success(report, "Accounts receivable retrieved successfully"));
+    }
+
+    @GetMapping("/customers")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCustomerAnalysis() {
+        Map<String, Object> report = reportService.getCustomerAnalysis(UserContext.getCurrentStoreId());
+        return ResponseEntity.ok(ApiResponse.success(report, "Customer analysis retrieved successfully"));
+    }
+
+    @GetMapping("/trends/daily")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getDailySalesTrend() {
+        Map<String, Object> trend = reportService.getDailySalesTrend(UserContext.getCurrentStoreId());
+        return ResponseEntity.ok(ApiResponse.success(trend, "Daily sales trend retrieved successfully"));
+    }
+
+    @GetMapping("/trends/monthly")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMonthlySalesTrend() {
+        Map<String, Object> trend = reportService.getMonthlySalesTrend(UserContext.getCurrentStoreId());
+        return ResponseEntity.ok(ApiResponse.success(trend, "Monthly sales trend retrieved successfully"));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSalesReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String detail,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = reportService.exportSalesReportToCsv(UserContext.getCurrentStoreId(),
+                atStartOfDay(startDate), atStartOfDay(endDate), SalesExportDetail.parse(detail), gzip);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"sales-report." + (gzip ? "csv.gz" : "csv") + "\"")
+                .contentType(exportContentType(gzip))
+                .body(body);
+    }
+
+    @PostMapping("/export/jobs")
+    public ResponseEntity<ApiResponse<SalesExportJob>> startExportJob(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String detail,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        SalesExportJob job = reportService.startSalesExportJob(UserContext.getCurrentStoreId(),
+                atStartOfDay(startDate), atStartOfDay(endDate), SalesExportDetail.parse(detail), gzip);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(job, "Export job queued"));
+    }
+
+    @GetMapping("/export/jobs/{id}")
+    public ResponseEntity<ApiResponse<SalesExportJob>> getExportJob(@PathVariable String id) {
+        SalesExportJob job = reportService.getSalesExportJob(UserContext.getCurrentStoreId(), id);
+        return ResponseEntity.ok(ApiResponse.success(job, "Export job retrieved successfully"));
+    }
+
+    /**
+     * Resource body: Spring answers Range requests with 206 Partial Content
+     */
+    @GetMapping("/export/jobs/{id}/file")
+    public ResponseEntity<Resource> downloadExportFile(@PathVariable String id) {
+        Long storeId = UserContext.getCurrentStoreId();
+        SalesExportJob job = reportService.getSalesExportJob(storeId, id);
+        Resource file = reportService.getSalesExportFile(storeId, id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFileName() + "\"")
+                .contentType(exportContentType(job.getGzip()))
+                .body(file);
+    }
+
+    @GetMapping("/health-score")
+    public ResponseEntity<ApiResponse<Integer>> getBusinessHealthScore() {
+        Integer score = reportService.getBusinessHealthScore(UserContext.getCurrentStoreId());
+        return ResponseEntity.ok(ApiResponse.success(score, "Business health score calculated successfully"));
+    }
+
+    @GetMapping("/cube")
+    public ResponseEntity<ApiResponse<SalesCubeStats>> getSalesCubeStats() {
+        SalesCubeStats stats = reportService.getSalesCubeStats(UserContext.getCurrentStoreId());
+        return ResponseEntity.ok(ApiResponse.success(stats, "Sales cube stats retrieved successfully"));
+    }
+
+    private LocalDateTime atStartOfDay(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    private MediaType exportContentType(boolean gzip) {
+        return gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv;charset=UTF-8");
+    }
+}
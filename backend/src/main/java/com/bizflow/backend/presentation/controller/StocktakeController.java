@@ -0,0 +1,80 @@
+package com.bizflow.backend.presentation.controller;
+
+import com.bizflow.backend.core.usecase.StocktakeService;
+import com.bizflow.backend.presentation.dto.request.StocktakeCountRequest;
+import com.bizflow.backend.presentation.dto.response.ApiResponse;
+import com.bizflow.backend.presentation.dto.response.StocktakeSessionDTO;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * StocktakeController: Physical stock count endpoints
+ *
+ * Endpoints:
+ * - POST /v1/inventory/stocktakes - Open a stocktake session for the store (OWNER/ADMIN)
+ * - POST /v1/inventory/stocktakes/{id}/counts - Send a batch of scanned counts from a device (resend-safe by deviceId + batchSeq)
+ * - GET /v1/inventory/stocktakes/{id} - Session state and merged totals
+ * - GET /v1/inventory/stocktakes/{id}/diff - Preview counted vs system quantities
+ * - POST /v1/inventory/stocktakes/{id}/close - Apply all differences in one transaction (OWNER/ADMIN)
+ * - POST /v1/inventory/stocktakes/{id}/cancel - Drop the session, nothing applied (OWNER/ADMIN)
+ *
+ * Security:
+ * - storeId always comes from JWT (UserContext) inside StocktakeService
+ */
+@RestController
+@RequestMapping("/v1/inventory/stocktakes")
+@RequiredArgsConstructor
+public class StocktakeController {
+
+    private final StocktakeService stocktakeService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<StocktakeSessionDTO>> openSession() {
+        StocktakeSessionDTO session = stocktakeService.openSession();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(session, "Stocktake session opened successfully"));
+    }
+
+    @PostMapping("/{id}/counts")
+    public ResponseEntity<ApiResponse<StocktakeSessionDTO>> addCounts(
+            @PathVariable Long id,
+            @Valid @RequestBody StocktakeCountRequest request) {
+        StocktakeSessionDTO session = stocktakeService.addCounts(id, request);
+        return ResponseEntity.ok(ApiResponse.success(session, "Counts merged successfully"));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<StocktakeSessionDTO>> getSession(@PathVariable Long id) {
+        StocktakeSessionDTO session = stocktakeService.getSession(id);
+        return ResponseEntity.ok(ApiResponse.success(session, "Stocktake session retrieved successfully"));
+    }
+
+    @GetMapping("/{id}/diff")
+    public ResponseEntity<ApiResponse<StocktakeSessionDTO>> previewDiff(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean zeroUncounted) {
+        StocktakeSessionDTO session = stocktakeService.previewDiff(id, zeroUncounted);
+        return ResponseEntity.ok(ApiResponse.success(session, "Stocktake diff calculated successfully"));
+    }
+
+    @PostMapping("/{id}/close")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<StocktakeSessionDTO>> closeSession(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean zeroUncounted) {
+        StocktakeSessionDTO session = stocktakeService.closeSession(id, zeroUncounted);
+        return ResponseEntity.ok(ApiResponse.success(session, "Stocktake session closed successfully"));
+    }
+
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<StocktakeSessionDTO>> cancelSession(@PathVariable Long id) {
+        StocktakeSessionDTO session = stocktakeService.cancelSession(id);
+        return ResponseEntity.ok(ApiResponse.success(session, "Stocktake session cancelled successfully"));
+    }
+}
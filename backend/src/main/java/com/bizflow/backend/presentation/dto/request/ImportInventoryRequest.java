@@ -0,0 +1,33 @@
+package com.bizflow.backend.presentation.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportInventoryRequest {
+    @NotNull(message = "ID sản phẩm không được rỗng")
+    private Long productId;
+
+    @NotNull(message = "Số lượng không được rỗng")
+    @DecimalMin(value = "1", message = "Số lượng phải >= 1")
+    private Integer quantity;
+
+    @DecimalMin(value = "0", message = "Giá nhập không được âm")
+    private BigDecimal unitPrice;
+
+    @Size(max = 100)
+    private String supplierName;
+
+    @Size(max = 500)
+    private String notes;
+}
@@ -0,0 +1,49 @@
+package com.bizflow.backend.presentation.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * StocktakeCountRequest: One batch of scanned counts from one device
+ * 
+ * (deviceId, batchSeq) identifies the batch: a resent batch is ignored, so devices
+ * can retry after a timeout. Quantities are added to what was counted so far;
+ * a negative quantity corrects an earlier scan.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StocktakeCountRequest {
+    @NotBlank(message = "Mã thiết bị không được rỗng")
+    @Size(max = 64)
+    private String deviceId;
+
+    @NotNull(message = "Số thứ tự lô không được rỗng")
+    private Long batchSeq;
+
+    @NotEmpty(message = "Lô kiểm kho phải có ít nhất 1 dòng")
+    @Valid
+    private List<CountLine> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CountLine {
+        private Long productId; // productId or sku
+        private String sku;
+
+        @NotNull(message = "Số lượng không được rỗng")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CursorPage: One slice of a keyset-paginated list (no total count)
+ * 
+ * Pass nextCursor back as ?cursor=... to get the next slice; null means end of list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+
+    /**
+     * Clamp requested page size to [1, MAX_SIZE]
+     */
+    public static int normalizeSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * Build a page from a query that fetched (size + 1) rows
+     * 
+     * @param rows Rows fetched with limit size + 1
+     * @param size Requested page size
+     * @param cursorOf Extract the cursor token of a row
+     * @param mapper Row → DTO
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, String> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> slice = hasNext ? rows.subList(0, size) : rows;
+        return CursorPage.<T>builder()
+                .items(slice.stream().map(mapper).toList())
+                .nextCursor(hasNext ? cursorOf.apply(slice.get(slice.size() - 1)) : null)
+                .hasNext(hasNext)
+                .size(slice.size())
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DashboardMetrics: Landing page figures of a store (cached by DashboardMetricsCache)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class DashboardMetrics {
+    private Long storeId;
+    private LocalDate asOf;            // "today" of the figures below
+    private SalesTotals today;
+    private SalesTotals thisMonth;
+    private SalesTotals thisYear;
+    private Long customers;
+    private BigDecimal inventoryValue; // stock on hand at sale price
+    private BigDecimal outstandingDebt;
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,30 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import com.bizflow.backend.core.domain.Inventory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * InventoryDTO: Stock of a product in the caller's store (no lock version or internal ids)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryDTO {
+    private Long productId;
+    private Integer quantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+    private Boolean lowStock;
+    private LocalDateTime lastUpdatedAt;
+
+    public static InventoryDTO of(Inventory inventory) {
+        return new InventoryDTO(inventory.getProductId(), inventory.getQuantity(), inventory.getReservedQuantity(),
+                inventory.getAvailableQuantity(), inventory.getLowStock(), inventory.getLastUpdatedAt());
+    }
+}
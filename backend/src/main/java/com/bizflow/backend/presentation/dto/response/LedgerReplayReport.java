@@ -0,0 +1,33 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * LedgerReplayReport: Result of replaying a store's stock ledger against its inventory rows
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerReplayReport {
+    private Long storeId;
+    private LocalDateTime snapshotAsOf; // null = replayed from the first movement
+    private Integer productsReplayed;
+    private Long movementsReplayed;
+    private List<Drift> drifts;
+    private Integer changedDuringReplay; // rows written by live traffic while replaying, not compared
+    private Integer corrected;           // rebuild only
+    private Long elapsedMillis;
+
+    /**
+     * Drift: Inventory row that does not match the ledger (inventoryQuantity null = row missing)
+     */
+    public record Drift(Long productId, Integer inventoryQuantity, long ledgerQuantity) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.bizflow.backend.presentation.dto.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +16,7 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 public class OrderDTO {
+    @JsonSerialize(using = ToStringSerializer.class) // Snowflake ID > 2^53, JSON string
     private Long id;
     private String orderNumber;
     private Long customerId;
@@ -32,6 +35,7 @@ public class OrderDTO {
     @AllArgsConstructor
     @Builder
     public static class OrderItemDTO {
+        @JsonSerialize(using = ToStringSerializer.class)
         private Long id;
         private Long productId;
         private Integer quantity;
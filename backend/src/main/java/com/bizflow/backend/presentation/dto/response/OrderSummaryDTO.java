@@ -0,0 +1,34 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * OrderSummaryDTO: One row of an order list (no items, see OrderDTO for details)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryDTO {
+    @JsonSerialize(using = ToStringSerializer.class) // Snowflake ID > 2^53, JSON string
+    private Long id;
+    private String orderNumber;
+    private Long customerId;
+    private String customerName;
+    private Long employeeId;
+    private Integer itemCount;
+    private Integer totalQuantity;
+    private BigDecimal totalAmount;
+    private String paymentType;
+    private String status;
+    private String itemPreview;
+    private LocalDateTime createdAt;
+}
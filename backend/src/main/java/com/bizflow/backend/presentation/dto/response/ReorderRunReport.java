@@ -0,0 +1,26 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReorderRunReport: Result of one reorder-suggestion run for a store
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReorderRunReport {
+    private Long storeId;
+    private LocalDateTime computedAt;
+    private Integer windowDays;        // SALE movements of the last windowDays were read
+    private Integer products;
+    private Long salesRead;
+    private Integer toReorder;         // products with suggestedQuantity > 0
+    private Integer partitions;
+    private Long elapsedMillis;
+}
@@ -0,0 +1,40 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * SalesCubeStats: Memory of the in-process sales cube (all stores) and the caller's store
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesCubeStats {
+    private Boolean enabled;
+    private Integer windowDays;
+    private Long maxBytes;             // bizflow.sales-cube.max-memory-mb
+    private Long usedBytes;            // allocated columns + dictionaries, all stores
+    private Integer stores;
+    private Long lines;
+    private StoreCubeStats store;      // null = not loaded for the caller's store
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StoreCubeStats {
+        private String state;          // LOADING, READY, REJECTED
+        private LocalDate windowStart; // first day held (later than window-days when capped by memory)
+        private Long lines;
+        private Long capacity;
+        private Long bytes;
+        private LocalDateTime loadedAt;
+        private Long loadMillis;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * SalesExportJob: State of an asynchronous sales CSV export (file kept on the node that ran it)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesExportJob {
+    private String id;
+    private String status;             // QUEUED, RUNNING, DONE, FAILED
+    private String detail;             // DAILY, LINES
+    private Boolean gzip;
+    private LocalDate from;
+    private LocalDate to;
+    private String fileName;
+    private Long bytes;                // file size once DONE
+    private String error;              // FAILED only
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;   // file and job are removed after this
+}
@@ -0,0 +1,64 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import com.bizflow.backend.core.domain.SalesDaily;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * SalesTotals: Sales figures of a period, summed from sales_daily rows
+ *
+ * Immutable in use: plus() returns a new instance, so a cached instance can be shared.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"orders", "unitsSold", "grossAmount", "discountAmount", "revenue", "cashRevenue",
+        "creditRevenue", "averageOrderValue", "cancelledOrders", "cancelledAmount"})
+public class SalesTotals {
+    private long orders;              // not cancelled
+    private long unitsSold;
+    private BigDecimal grossAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal revenue;
+    private BigDecimal cashRevenue;
+    private long cancelledOrders;
+    private BigDecimal cancelledAmount;
+
+    public static SalesTotals zero() {
+        return new SalesTotals(0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                0, BigDecimal.ZERO);
+    }
+
+    public static SalesTotals of(SalesDaily day) {
+        return new SalesTotals(day.getOrderCount(), day.getUnitsSold(), day.getGrossAmount(), day.getDiscountAmount(),
+                day.getRevenue(), day.getCashRevenue(), day.getCancelledCount(), day.getCancelledAmount());
+    }
+
+    public SalesTotals plus(SalesTotals other) {
+        return new SalesTotals(orders + other.orders,
+                unitsSold + other.unitsSold,
+                grossAmount.add(other.grossAmount),
+                discountAmount.add(other.discountAmount),
+                revenue.add(other.revenue),
+                cashRevenue.add(other.cashRevenue),
+                cancelledOrders + other.cancelledOrders,
+                cancelledAmount.add(other.cancelledAmount));
+    }
+
+    public BigDecimal getCreditRevenue() {
+        return revenue.subtract(cashRevenue);
+    }
+
+    public BigDecimal getAverageOrderValue() {
+        return orders > 0 ? revenue.divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+}
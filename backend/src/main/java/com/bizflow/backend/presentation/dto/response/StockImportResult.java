@@ -0,0 +1,31 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * StockImportResult: Outcome of a bulk stock import (valid lines are applied, the others reported)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockImportResult {
+    private Integer totalLines;
+    private Integer importedLines;
+    private Integer failedLines;
+    private Long importedQuantity;
+    private Integer productsUpdated;
+    private List<LineError> errors; // first bizflow.stock-import.max-reported-errors only
+    private Long elapsedMillis;
+
+    /**
+     * LineError: Why one input line was not imported (line = CSV record / JSON array position, 1-based)
+     */
+    public record LineError(long line, String sku, String message) {
+    }
+}
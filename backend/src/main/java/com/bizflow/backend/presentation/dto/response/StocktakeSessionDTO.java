@@ -0,0 +1,43 @@
+package com.bizflow.backend.presentation.dto.response;
+
+import com.bizflow.backend.presentation.dto.response.StockImportResult.LineError;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * StocktakeSessionDTO: State of a stocktake session (diffs only in preview / close responses)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StocktakeSessionDTO {
+    @JsonSerialize(using = ToStringSerializer.class) // Snowflake ID > 2^53, JSON string
+    private Long id;
+    private String status;
+    private String openedBy;
+    private LocalDateTime openedAt;
+    private String closedBy;
+    private LocalDateTime closedAt;
+    private Integer deviceCount;
+    private Integer countedProducts;
+    private Long countedUnits;
+    private Integer adjustedProducts;
+    private Integer netDelta;
+    private Boolean duplicateBatch;      // count response: batch was already merged, ignored
+    private List<LineError> rejectedLines; // count response: lines not merged
+    private List<Diff> diffs;
+
+    /**
+     * Diff: Counted vs system quantity of one product (delta = counted - system)
+     */
+    public record Diff(Long productId, int systemQuantity, long countedQuantity, long delta) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.bizflow.backend.presentation.exception;
 
 import com.bizflow.backend.presentation.dto.response.ApiResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -45,6 +46,16 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<?>> handleOptimisticLock(
+            OptimisticLockingFailureException ex,
+            WebRequest request) {
+        return new ResponseEntity<>(
+                ApiResponse.error(4009, "Dữ liệu vừa được người khác cập nhật, vui lòng thử lại"),
+                HttpStatus.CONFLICT
+        );
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<?>> handleValidationException(
             MethodArgumentNotValidException ex,
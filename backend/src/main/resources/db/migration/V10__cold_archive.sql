@@ -0,0 +1,28 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 10
+-- Cold archive tables for orders, order_items, stock_movements (see ColdArchiver)
+-- Archive tables: same columns and indexes as the hot table, no foreign keys, compressed
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS archive_watermarks (
+    table_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    archived_before DATETIME(6) NOT NULL COMMENT 'Dòng tạo từ mốc này trở đi luôn ở bảng nóng',
+    updated_at DATETIME(6) NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Hot/cold boundary per archived table';
+
+CREATE TABLE IF NOT EXISTS orders_archive LIKE orders;
+ALTER TABLE orders_archive ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+
+CREATE TABLE IF NOT EXISTS order_items_archive LIKE order_items;
+ALTER TABLE order_items_archive ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+
+CREATE TABLE IF NOT EXISTS stock_movements_archive LIKE stock_movements;
+ALTER TABLE stock_movements_archive ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+
+-- Archived orders keep their id: references must not be nulled when the hot row is deleted
+-- (V1 foreign keys: debts.order_id and draft_orders.related_order_id, ON DELETE SET NULL)
+ALTER TABLE debts DROP FOREIGN KEY debts_ibfk_2;
+ALTER TABLE draft_orders DROP FOREIGN KEY draft_orders_ibfk_3;
+
+-- Archiver scans created_at: V1 already has idx_created_at on orders and stock_movements
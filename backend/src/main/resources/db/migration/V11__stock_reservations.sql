@@ -0,0 +1,23 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 11
+-- Stock reservations with expiry (held quantity is counted in inventory.reserved_quantity)
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id BIGINT NOT NULL PRIMARY KEY,
+    store_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    reference_id BIGINT NULL COMMENT 'VD: order_id / draft order',
+    status VARCHAR(20) NOT NULL COMMENT 'ACTIVE, RELEASED, EXPIRED',
+    expires_at DATETIME(6) NOT NULL,
+    created_by VARCHAR(30) NULL,
+    created_at DATETIME(6) NOT NULL,
+    closed_at DATETIME(6) NULL,
+    INDEX idx_reservations_status_expires (status, expires_at),
+    INDEX idx_reservations_store_product_ref (store_id, product_id, reference_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Stock reservations (TTL)';
+
+-- reserved_quantity is added to / subtracted from, NULL would swallow the arithmetic
+UPDATE inventory SET reserved_quantity = 0 WHERE reserved_quantity IS NULL;
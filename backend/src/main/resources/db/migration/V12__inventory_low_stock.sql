@@ -0,0 +1,14 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 12
+-- Maintained low-stock set per store (inventory.low_stock = quantity <= products.reorder_level)
+-- ============================================================================
+
+ALTER TABLE inventory ADD COLUMN low_stock BOOLEAN NOT NULL DEFAULT FALSE COMMENT 'Tồn kho <= mức đặt hàng lại';
+
+CREATE INDEX idx_inventory_store_low_stock ON inventory (store_id, low_stock);
+
+-- Backfill (no STOCK_LOW notifications for rows that were already low)
+UPDATE inventory
+SET low_stock = TRUE
+WHERE quantity <= (SELECT p.reorder_level FROM products p WHERE p.id = inventory.product_id);
@@ -0,0 +1,15 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 13
+-- Per-store snapshots of the stock movement ledger (start point for inventory replay)
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS inventory_snapshots (
+    id BIGINT NOT NULL PRIMARY KEY,
+    store_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL COMMENT 'SUM(stock_movements.quantity) với created_at <= as_of',
+    as_of DATETIME(6) NOT NULL COMMENT 'Mốc thời gian của snapshot',
+    created_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_snapshots_store_as_of_product (store_id, as_of, product_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Inventory ledger snapshots';
@@ -0,0 +1,10 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 14
+-- Covering index for product movement history (keyset page + running balance)
+-- Replaces idx_movements_store_product_created (V6), which is a prefix of it
+-- ============================================================================
+
+CREATE INDEX idx_movements_history ON stock_movements (store_id, product_id, created_at, id, quantity);
+
+DROP INDEX idx_movements_store_product_created ON stock_movements;
@@ -0,0 +1,20 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 15
+-- Stocktake sessions (multi-device physical counts, applied as STOCK_ADJUST on close)
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS stocktake_sessions (
+    id BIGINT NOT NULL PRIMARY KEY,
+    store_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL COMMENT 'OPEN | CLOSED | CANCELLED',
+    opened_by VARCHAR(30),
+    opened_at DATETIME(6) NOT NULL,
+    closed_by VARCHAR(30),
+    closed_at DATETIME(6),
+    device_count INT COMMENT 'Số thiết bị đã gửi số đếm',
+    counted_products INT COMMENT 'Số sản phẩm đã đếm',
+    adjusted_products INT COMMENT 'Số sản phẩm bị điều chỉnh khi đóng phiên',
+    net_delta INT COMMENT 'Tổng chênh lệch (đếm - hệ thống)',
+    INDEX idx_stocktakes_store_status (store_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Stocktake sessions';
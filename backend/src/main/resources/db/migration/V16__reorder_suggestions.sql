@@ -0,0 +1,23 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 16
+-- Reorder suggestions from sales velocity + covering index for SALE movement scans
+-- ============================================================================
+
+CREATE INDEX idx_movements_sales ON stock_movements (store_id, type, product_id, created_at, quantity);
+
+CREATE TABLE IF NOT EXISTS reorder_suggestions (
+    id BIGINT NOT NULL PRIMARY KEY,
+    store_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    available_quantity INT NOT NULL COMMENT 'Tồn khả dụng (quantity - reserved) lúc tính',
+    units_sold BIGINT NOT NULL COMMENT 'Số lượng bán trong cửa sổ tính',
+    daily_velocity DECIMAL(12,3) NOT NULL COMMENT 'Số lượng bán trung bình mỗi ngày',
+    days_of_cover DECIMAL(12,1) COMMENT 'Số ngày tồn kho còn đủ bán (NULL = không có bán)',
+    reorder_level INT COMMENT 'products.reorder_level lúc tính (mức sàn)',
+    suggested_quantity INT NOT NULL COMMENT 'Số lượng đề xuất nhập (0 = đủ hàng)',
+    last_sale_at DATETIME(6),
+    computed_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_reorder_store_product (store_id, product_id),
+    INDEX idx_reorder_store_cover (store_id, days_of_cover)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Reorder suggestions';
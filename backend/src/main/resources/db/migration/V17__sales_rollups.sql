@@ -0,0 +1,66 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 17
+-- Daily sales rollups (store/day, store/day/product/employee) for reports + backfill
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS sales_daily (
+    id BIGINT NOT NULL PRIMARY KEY,
+    store_id BIGINT NOT NULL,
+    sales_date DATE NOT NULL COMMENT 'Ngày tạo đơn',
+    order_count BIGINT NOT NULL COMMENT 'Số đơn (không tính đơn đã hủy)',
+    units_sold BIGINT NOT NULL COMMENT 'Tổng số lượng bán',
+    gross_amount DECIMAL(15, 0) NOT NULL COMMENT 'Cộng tiền hàng trước chiết khấu',
+    discount_amount DECIMAL(15, 0) NOT NULL COMMENT 'Tiền chiết khấu',
+    revenue DECIMAL(15, 0) NOT NULL COMMENT 'Doanh thu (tổng tiền đơn)',
+    cash_revenue DECIMAL(15, 0) NOT NULL COMMENT 'Doanh thu thanh toán tiền mặt',
+    cancelled_count BIGINT NOT NULL COMMENT 'Số đơn đã hủy',
+    cancelled_amount DECIMAL(15, 0) NOT NULL COMMENT 'Tổng tiền đơn đã hủy',
+    updated_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_sales_daily_store_date (store_id, sales_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Daily sales rollup per store';
+
+CREATE TABLE IF NOT EXISTS sales_daily_product (
+    id BIGINT NOT NULL PRIMARY KEY,
+    store_id BIGINT NOT NULL,
+    sales_date DATE NOT NULL COMMENT 'Ngày tạo đơn',
+    product_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL COMMENT 'Nhân viên tạo đơn (0 = không có)',
+    units_sold BIGINT NOT NULL COMMENT 'Số lượng bán',
+    revenue DECIMAL(15, 0) NOT NULL COMMENT 'Thành tiền',
+    order_lines BIGINT NOT NULL COMMENT 'Số dòng hàng',
+    updated_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_sales_daily_product (store_id, sales_date, product_id, employee_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Daily sales rollup per store, product and employee';
+
+-- Backfill from the hot orders tables (orders already moved to the archive are not counted).
+-- Backfilled rows get small sequential IDs: snowflake IDs of new rows are far above them.
+INSERT INTO sales_daily (id, store_id, sales_date, order_count, units_sold, gross_amount, discount_amount,
+                         revenue, cash_revenue, cancelled_count, cancelled_amount, updated_at)
+SELECT ROW_NUMBER() OVER (ORDER BY d.store_id, d.sales_date), d.*, NOW(6)
+FROM (
+    SELECT o.store_id, DATE(o.created_at) AS sales_date,
+           SUM(o.status <> 'CANCELLED'),
+           SUM(CASE WHEN o.status <> 'CANCELLED' THEN COALESCE(u.units, 0) ELSE 0 END),
+           SUM(CASE WHEN o.status <> 'CANCELLED' THEN o.subtotal ELSE 0 END),
+           SUM(CASE WHEN o.status <> 'CANCELLED' THEN COALESCE(o.discount_amount, 0) ELSE 0 END),
+           SUM(CASE WHEN o.status <> 'CANCELLED' THEN o.total_amount ELSE 0 END),
+           SUM(CASE WHEN o.status <> 'CANCELLED' AND o.payment_type = 'CASH' THEN o.total_amount ELSE 0 END),
+           SUM(o.status = 'CANCELLED'),
+           SUM(CASE WHEN o.status = 'CANCELLED' THEN o.total_amount ELSE 0 END)
+    FROM orders o
+    LEFT JOIN (SELECT order_id, SUM(quantity) AS units FROM order_items GROUP BY order_id) u ON u.order_id = o.id
+    GROUP BY o.store_id, DATE(o.created_at)
+) d;
+
+INSERT INTO sales_daily_product (id, store_id, sales_date, product_id, employee_id, units_sold, revenue,
+                                 order_lines, updated_at)
+SELECT ROW_NUMBER() OVER (ORDER BY p.store_id, p.sales_date, p.product_id, p.employee_id), p.*, NOW(6)
+FROM (
+    SELECT o.store_id, DATE(o.created_at) AS sales_date, i.product_id, COALESCE(o.employee_id, 0) AS employee_id,
+           SUM(i.quantity), SUM(i.total_amount), COUNT(*)
+    FROM orders o
+    JOIN order_items i ON i.order_id = o.id
+    WHERE o.status <> 'CANCELLED'
+    GROUP BY o.store_id, DATE(o.created_at), i.product_id, COALESCE(o.employee_id, 0)
+) p;
@@ -0,0 +1,7 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 4
+-- Optimistic lock column for inventory (guarded decrements bump it too)
+-- ============================================================================
+
+ALTER TABLE inventory ADD COLUMN version BIGINT NOT NULL DEFAULT 0 COMMENT 'Optimistic lock version';
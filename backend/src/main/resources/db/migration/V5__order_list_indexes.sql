@@ -0,0 +1,9 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 5
+-- Composite indexes for the filtered order list (OrderService.getAllOrders)
+-- ============================================================================
+
+CREATE INDEX idx_orders_store_created ON orders (store_id, created_at);
+CREATE INDEX idx_orders_store_status_created ON orders (store_id, status, created_at);
+CREATE INDEX idx_orders_store_customer_created ON orders (store_id, customer_id, created_at);
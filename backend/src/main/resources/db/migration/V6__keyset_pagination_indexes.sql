@@ -0,0 +1,10 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 6
+-- Indexes for keyset (cursor) pagination on (created_at, id)
+-- InnoDB/TiDB secondary indexes carry the primary key, so (.., created_at) also orders by id
+-- orders already has idx_orders_store_created (V5)
+-- ============================================================================
+
+CREATE INDEX idx_customers_store_created ON customers (store_id, created_at);
+CREATE INDEX idx_movements_store_product_created ON stock_movements (store_id, product_id, created_at);
@@ -0,0 +1,11 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 7
+-- Hi/lo sequence table (order numbers: name = order:{storeId}:{yyyyMMdd})
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS sequence_blocks (
+    name VARCHAR(100) NOT NULL PRIMARY KEY COMMENT 'Tên sequence',
+    next_value BIGINT NOT NULL COMMENT 'Giá trị đầu tiên của block kế tiếp',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Sequence cấp phát theo block (hi/lo)';
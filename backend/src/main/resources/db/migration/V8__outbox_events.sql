@@ -0,0 +1,22 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 8
+-- Transactional outbox (side effects written with the business change, delivered after commit)
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT NOT NULL PRIMARY KEY,
+    store_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL COMMENT 'TOPIC_NOTIFICATION, ...',
+    reference_id BIGINT NULL COMMENT 'VD: order_id',
+    payload TEXT NOT NULL COMMENT 'JSON',
+    status VARCHAR(20) NOT NULL COMMENT 'PENDING, PROCESSING, SENT, FAILED',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL COMMENT 'Lần gửi kế tiếp / hết hạn claim',
+    claim_token VARCHAR(36) NULL,
+    last_error VARCHAR(500) NULL,
+    created_at DATETIME(6) NOT NULL,
+    processed_at DATETIME(6) NULL,
+    INDEX idx_outbox_status_next_attempt (status, next_attempt_at, id),
+    INDEX idx_outbox_claim_token (claim_token)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Transactional outbox';
@@ -0,0 +1,41 @@
+-- ============================================================================
+-- BizFlow Backend - Database Migration
+-- Version: 9
+-- order_summary read model (order list without joins) + backfill of existing orders
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS order_summary (
+    order_id BIGINT NOT NULL PRIMARY KEY COMMENT '= orders.id',
+    store_id BIGINT NOT NULL,
+    order_number VARCHAR(50) NOT NULL,
+    customer_id BIGINT NOT NULL,
+    customer_name VARCHAR(100) NULL COMMENT 'Snapshot lúc tạo đơn',
+    employee_id BIGINT NULL,
+    item_count INT NOT NULL COMMENT 'Số dòng hàng',
+    total_quantity INT NOT NULL,
+    total_amount DECIMAL(15, 0) NOT NULL,
+    payment_type VARCHAR(20) NULL,
+    status VARCHAR(20) NOT NULL,
+    item_preview VARCHAR(255) NULL COMMENT 'VD: Coca x2, Bread x1 +3 more',
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NULL,
+    INDEX idx_order_summary_store_created (store_id, created_at, order_id),
+    INDEX idx_order_summary_store_status_created (store_id, status, created_at),
+    INDEX idx_order_summary_store_customer_created (store_id, customer_id, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Order list read model';
+
+-- Backfill: preview lists every line here (cut to 255 chars), new orders get the 3-line preview
+INSERT INTO order_summary (order_id, store_id, order_number, customer_id, customer_name, employee_id,
+                           item_count, total_quantity, total_amount, payment_type, status, item_preview,
+                           created_at, updated_at)
+SELECT o.id, o.store_id, o.order_number, o.customer_id, c.name, o.employee_id,
+       COUNT(i.id), COALESCE(SUM(i.quantity), 0), o.total_amount, o.payment_type, o.status,
+       LEFT(GROUP_CONCAT(CONCAT(p.name, ' x', i.quantity) ORDER BY i.id SEPARATOR ', '), 255),
+       o.created_at, o.updated_at
+FROM orders o
+LEFT JOIN customers c ON c.id = o.customer_id
+LEFT JOIN order_items i ON i.order_id = o.id
+LEFT JOIN products p ON p.id = i.product_id
+WHERE NOT EXISTS (SELECT 1 FROM order_summary s WHERE s.order_id = o.id)
+GROUP BY o.id, o.store_id, o.order_number, o.customer_id, c.name, o.employee_id,
+         o.total_amount, o.payment_type, o.status, o.created_at, o.updated_at;
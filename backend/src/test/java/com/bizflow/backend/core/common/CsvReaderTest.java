@@ -0,0 +1,68 @@
+package com.bizflow.backend.core.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CsvReader: RFC 4180 quoting, line breaks inside quoted fields, record numbering
+ * and broken input.
+ */
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasAndDoubledQuotes() throws IOException {
+        CsvReader csv = reader("sku,notes\nA-1,\"Acme, Ltd \"\"fresh\"\"\"\n");
+
+        assertEquals(List.of("sku", "notes"), csv.readRow());
+        assertEquals(List.of("A-1", "Acme, Ltd \"fresh\""), csv.readRow());
+        assertNull(csv.readRow());
+    }
+
+    @Test
+    void lineBreaksInsideQuotesBelongToTheField() throws IOException {
+        CsvReader csv = reader("a,b\r\n\"first\r\nsecond\",x\nlast,y");
+
+        assertEquals(List.of("a", "b"), csv.readRow());
+        assertEquals(List.of("first\r\nsecond", "x"), csv.readRow());
+        assertEquals(2, csv.getRecordNumber()); // one record over two physical lines
+        assertEquals(List.of("last", "y"), csv.readRow()); // no line break at end of input
+        assertEquals(3, csv.getRecordNumber());
+        assertNull(csv.readRow());
+    }
+
+    @Test
+    void emptyFieldsAndEmptyLines() throws IOException {
+        CsvReader csv = reader("a,,\n\n,b\n");
+
+        assertEquals(List.of("a", "", ""), csv.readRow());
+        assertEquals(List.of(""), csv.readRow());
+        assertEquals(List.of("", "b"), csv.readRow());
+        assertNull(csv.readRow());
+    }
+
+    @Test
+    void byteOrderMarkIsLeftToTheCaller() throws IOException {
+        // Excel's UTF-8 BOM is data for the reader; BulkStockImporter strips it from the header
+        CsvReader csv = reader("﻿sku,quantity\n");
+
+        assertEquals(List.of("﻿sku", "quantity"), csv.readRow());
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        CsvReader csv = reader("sku\n\"A-1,5\n");
+
+        assertEquals(List.of("sku"), csv.readRow());
+        IOException error = assertThrows(IOException.class, csv::readRow);
+        assertTrue(error.getMessage().contains("record 2"));
+    }
+
+    private static CsvReader reader(String input) {
+        return new CsvReader(new StringReader(input));
+    }
+}
@@ -0,0 +1,242 @@
+package com.bizflow.backend.core.usecase;
+
+import com.bizflow.backend.config.AppConfig;
+import com.bizflow.backend.core.domain.Customer;
+import com.bizflow.backend.core.domain.Inventory;
+import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.core.domain.Product;
+import com.bizflow.backend.infrastructure.batch.GroupCommitExecutor;
+import com.bizflow.backend.infrastructure.idempotency.IdempotencyStore;
+import com.bizflow.backend.infrastructure.inventory.LowStockTracker;
+import com.bizflow.backend.infrastructure.outbox.OutboxWriter;
+import com.bizflow.backend.infrastructure.persistence.repository.CustomerRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderItemRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository;
+import com.bizflow.backend.infrastructure.report.DashboardMetricsCache;
+import com.bizflow.backend.infrastructure.report.SalesCube;
+import com.bizflow.backend.infrastructure.report.SalesRollup;
+import com.bizflow.backend.infrastructure.report.TopSellers;
+import com.bizflow.backend.infrastructure.security.CustomUserDetails;
+import com.bizflow.backend.infrastructure.sequence.OrderNumberAllocator;
+import com.bizflow.backend.infrastructure.sequence.PooledIdSource;
+import com.bizflow.backend.infrastructure.sequence.SequenceBlockAllocator;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import com.bizflow.backend.presentation.dto.request.CreateOrderRequest;
+import com.bizflow.backend.presentation.dto.response.OrderDTO;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderService under concurrency: group commit rollback and retry, concurrent cancels.
+ * Runs on real transactions (H2), so every request commits or rolls back on its own.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order_concurrency;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "bizflow.group-commit.enabled=true",
+        "bizflow.group-commit.window-ms=200",
+        "bizflow.idempotency.redis-enabled=false",
+        "bizflow.dashboard.redis-enabled=false",
+        "bizflow.sales-cube.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AppConfig.class, SequenceBlockAllocator.class, PooledIdSource.class, SnowflakeIdGenerator.class,
+        OrderService.class, OutboxWriter.class, LowStockTracker.class, SalesRollup.class, DashboardMetricsCache.class,
+        SalesCube.class, TopSellers.class, OrderNumberAllocator.class, IdempotencyStore.class,
+        GroupCommitExecutor.class, JacksonAutoConfiguration.class, OrderServiceConcurrencyTest.Hooks.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceConcurrencyTest {
+
+    private static final long STORE_ID = 42L;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long customerId;
+    private Long productId;
+
+    /**
+     * Hooks: OrderItemRepository wrapper that runs a callback before the next batchInsert
+     * (inside an order transaction, after validation and before the stock decrement) or the
+     * next findByOrderId (inside a cancel, after the order status was claimed)
+     */
+    @TestConfiguration
+    static class Hooks {
+        static final AtomicReference<Runnable> beforeItemInsert = new AtomicReference<>();
+        static final AtomicReference<Runnable> beforeItemsRead = new AtomicReference<>();
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+
+        @Bean
+        @Primary
+        OrderItemRepository hookedOrderItemRepository(@Qualifier("orderItemRepository") OrderItemRepository target) {
+            return (OrderItemRepository) Proxy.newProxyInstance(OrderItemRepository.class.getClassLoader(),
+                    new Class<?>[]{OrderItemRepository.class}, (proxy, method, args) -> {
+                        AtomicReference<Runnable> slot = switch (method.getName()) {
+                            case "batchInsert" -> beforeItemInsert;
+                            case "findByOrderId" -> beforeItemsRead;
+                            default -> null;
+                        };
+                        Runnable hook = slot != null ? slot.getAndSet(null) : null;
+                        if (hook != null) {
+                            hook.run();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        Hooks.beforeItemInsert.set(null);
+        Hooks.beforeItemsRead.set(null);
+        customerId = customerRepository.save(Customer.builder()
+                .storeId(STORE_ID)
+                .name("Walk-in")
+                .type(Customer.CustomerType.RETAIL)
+                .build()).getId();
+        productId = productRepository.save(Product.builder()
+                .storeId(STORE_ID)
+                .name("Rice 5kg")
+                .sku("RICE-" + System.nanoTime())
+                .price(BigDecimal.TEN)
+                .status(Product.ProductStatus.ACTIVE)
+                .build()).getId();
+        inventoryRepository.save(Inventory.builder()
+                .storeId(STORE_ID)
+                .productId(productId)
+                .quantity(5)
+                .reservedQuantity(0)
+                .availableQuantity(5)
+                .build());
+    }
+
+    @Test
+    void ordersRejectedByARolledBackBatchAreRetriedOnTheirOwn() throws Exception {
+        // The batch accepts A (5 units) and rejects B (2 units, nothing left after A).
+        // Before the batch decrements, another till sells 3 units, so the combined
+        // decrement fails and the batch rolls back. Retried one by one, A no longer fits,
+        // but B does: its rejection was based on A, which never happened.
+        Hooks.beforeItemInsert.set(() -> CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> assertEquals(1, inventoryRepository.decrementStock(STORE_ID, productId, 3)))).join());
+
+        CompletableFuture<OrderDTO> orderA = CompletableFuture.supplyAsync(() -> place(5));
+        Thread.sleep(50); // same group commit window, after A
+        CompletableFuture<OrderDTO> orderB = CompletableFuture.supplyAsync(() -> place(2));
+
+        Exception failureA = assertThrows(Exception.class, () -> orderA.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(BusinessException.class, failureA.getCause());
+        assertEquals(4006, ((BusinessException) failureA.getCause()).getErrorCode());
+        OrderDTO createdB = orderB.get(30, TimeUnit.SECONDS);
+        assertEquals(2, createdB.getItems().get(0).getQuantity());
+
+        Inventory inventory = inventoryRepository.findByStoreIdAndProductId(STORE_ID, productId).orElseThrow();
+        assertEquals(0, inventory.getAvailableQuantity());
+    }
+
+    @Test
+    void concurrentCancelsReturnStockOnce() throws Exception {
+        // While the first cancel is between its claim and the stock return, a second cancel
+        // of the same order starts. It must wait for the first and then fail with 4009,
+        // instead of also seeing a live order and returning the stock a second time.
+        Long orderId = place(2).getId();
+        AtomicReference<CompletableFuture<OrderDTO>> second = new AtomicReference<>();
+        Hooks.beforeItemsRead.set(() -> {
+            second.set(CompletableFuture.supplyAsync(() -> cancel(orderId)));
+            try {
+                second.get().get(1, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                // blocked on the claimed order row, released when this cancel commits
+            } catch (InterruptedException | ExecutionException e) {
+                // failed before this cancel committed, asserted below
+            }
+        });
+
+        OrderDTO cancelled = cancel(orderId);
+
+        assertEquals("CANCELLED", cancelled.getStatus());
+        Exception failure = assertThrows(Exception.class, () -> second.get().get(30, TimeUnit.SECONDS));
+        assertInstanceOf(BusinessException.class, failure.getCause());
+        assertEquals(4009, ((BusinessException) failure.getCause()).getErrorCode());
+
+        Inventory inventory = inventoryRepository.findByStoreIdAndProductId(STORE_ID, productId).orElseThrow();
+        assertEquals(5, inventory.getQuantity());
+        assertEquals(5, inventory.getAvailableQuantity());
+    }
+
+    private OrderDTO cancel(Long orderId) {
+        authenticate("OWNER");
+        try {
+            return orderService.cancelOrder(orderId, "customer changed their mind");
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private OrderDTO place(int quantity) {
+        authenticate("STAFF");
+        try {
+            return orderService.createOrder(CreateOrderRequest.builder()
+                    .customerId(customerId)
+                    .paymentType("CASH")
+                    .items(List.of(new CreateOrderRequest.OrderItemRequest(productId, quantity)))
+                    .build(), null);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static void authenticate(String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new CustomUserDetails(1L, STORE_ID, "cashier", "", role, true), null, List.of()));
+    }
+}
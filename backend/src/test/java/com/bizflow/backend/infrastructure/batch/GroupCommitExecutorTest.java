@@ -0,0 +1,130 @@
+package com.bizflow.backend.infrastructure.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GroupCommitExecutor: batching per lane, one running batch per lane, and how
+ * a failing or incomplete handler is reported to each caller.
+ */
+class GroupCommitExecutorTest {
+
+    private final GroupCommitExecutor executor = new GroupCommitExecutor(true, 50, 4, 2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void requestsWithinTheWindowShareOneBatch() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Consumer<List<GroupCommitExecutor.Entry<Integer, Integer>>> handler = batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(entry -> entry.future().complete(entry.item() * 10));
+        };
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(executor.submit("store:1", i, handler));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i * 10, GroupCommitExecutor.await(futures.get(i)));
+        }
+        assertEquals(List.of(3), batchSizes);
+    }
+
+    @Test
+    void fullBatchFlushesWithoutWaitingAndLanesStaySeparate() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Consumer<List<GroupCommitExecutor.Entry<Integer, Integer>>> handler = batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(entry -> entry.future().complete(entry.item()));
+        };
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(executor.submit("store:1", i, handler));
+        }
+        futures.add(executor.submit("store:2", 99, handler));
+        futures.forEach(GroupCommitExecutor::await);
+
+        assertEquals(List.of(1, 1, 4), batchSizes.stream().sorted().toList(),
+                "max-batch 4 on store 1 (4 + 1), store 2 on its own");
+    }
+
+    @Test
+    void onlyOneBatchRunsPerLane() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Consumer<List<GroupCommitExecutor.Entry<Integer, Integer>>> handler = batch -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            batchSizes.add(batch.size());
+            firstStarted.countDown();
+            try {
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batch.forEach(entry -> entry.future().complete(entry.item()));
+            running.decrementAndGet();
+        };
+
+        CompletableFuture<Integer> first = executor.submit("store:1", 0, handler);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Integer>> waiting = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            waiting.add(executor.submit("store:1", i, handler));
+        }
+        releaseFirst.countDown();
+
+        assertEquals(0, GroupCommitExecutor.await(first));
+        waiting.forEach(GroupCommitExecutor::await);
+        assertEquals(1, maxRunning.get());
+        assertEquals(List.of(1, 3), batchSizes, "requests queued behind a running batch form the next one");
+    }
+
+    @Test
+    void failingBatchFailsOnlyTheRequestsItLeftOpen() {
+        IllegalStateException failure = new IllegalStateException("commit failed");
+        Consumer<List<GroupCommitExecutor.Entry<Integer, Integer>>> handler = batch -> {
+            batch.get(0).future().complete(1); // settled before the failure, e.g. retried on its own
+            throw failure;
+        };
+
+        CompletableFuture<Integer> settled = executor.submit("store:1", 1, handler);
+        CompletableFuture<Integer> open = executor.submit("store:1", 2, handler);
+
+        assertEquals(1, GroupCommitExecutor.await(settled));
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> GroupCommitExecutor.await(open)));
+    }
+
+    @Test
+    void requestLeftOpenByTheHandlerIsFailedInsteadOfHanging() {
+        Consumer<List<GroupCommitExecutor.Entry<Integer, Integer>>> handler =
+                batch -> batch.get(0).future().complete(batch.get(0).item());
+
+        CompletableFuture<Integer> completed = executor.submit("store:1", 1, handler);
+        CompletableFuture<Integer> forgotten = executor.submit("store:1", 2, handler);
+
+        assertEquals(1, GroupCommitExecutor.await(completed));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> GroupCommitExecutor.await(forgotten.orTimeout(5, TimeUnit.SECONDS)));
+        assertTrue(e.getMessage().contains("did not complete"));
+    }
+}
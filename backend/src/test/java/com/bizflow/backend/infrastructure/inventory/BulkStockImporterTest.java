@@ -0,0 +1,146 @@
+package com.bizflow.backend.infrastructure.inventory;
+
+import com.bizflow.backend.config.AppConfig;
+import com.bizflow.backend.core.common.ImportFormat;
+import com.bizflow.backend.core.domain.Inventory;
+import com.bizflow.backend.core.domain.Product;
+import com.bizflow.backend.infrastructure.outbox.OutboxWriter;
+import com.bizflow.backend.infrastructure.persistence.repository.InventoryRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.ProductRepository;
+import com.bizflow.backend.infrastructure.report.DashboardMetricsCache;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import com.bizflow.backend.presentation.dto.response.StockImportResult;
+import com.bizflow.backend.presentation.dto.response.StockImportResult.LineError;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BulkStockImporter: per-line errors next to imported lines, chunked saves, first stock-in
+ * of a product without an inventory row, and input that breaks off half way.
+ */
+@DataJpaTest(properties = {
+        "bizflow.stock-import.batch-size=2",
+        "bizflow.dashboard.redis-enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AppConfig.class, BulkStockImporter.class, LowStockTracker.class, OutboxWriter.class, DashboardMetricsCache.class,
+        SnowflakeIdGenerator.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkStockImporterTest {
+
+    @Autowired
+    private BulkStockImporter importer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void invalidLinesAreReportedAndTheRestIsImported() {
+        long storeId = 71L;
+        Long rice = product(storeId, "RICE", 10);
+        Long oil = product(storeId, "OIL", null); // first stock-in creates the inventory row
+
+        String csv = "﻿SKU,Quantity,Unit Price,supplier_name,notes\n" +
+                "RICE,5,,,\n" +                           // 2
+                "SUGAR,1,,,\n" +                          // 3 unknown SKU
+                "RICE,0,,,\n" +                           // 4
+                "OIL,12.0,2.5,\"Acme, Ltd\",\"two\nlines\"\n" + // 5, one record over two lines
+                "RICE,x,,,\n" +                           // 6
+                "OIL,1,-1,,\n" +                          // 7
+                ",3,,,\n" +                               // 8
+                "\n" +                                    // empty, not a line
+                "RICE,2,1.5,,\r\n";                       // 10
+
+        StockImportResult result = importer.importStock(storeId, input(csv), ImportFormat.CSV, "Default", "owner");
+
+        assertEquals(8, result.getTotalLines());
+        assertEquals(3, result.getImportedLines());
+        assertEquals(5, result.getFailedLines());
+        assertEquals(19, result.getImportedQuantity());
+        assertEquals(2, result.getProductsUpdated());
+        assertEquals(List.of(3L, 4L, 6L, 7L, 8L), result.getErrors().stream().map(LineError::line).toList());
+        assertEquals(List.of("SUGAR", "RICE", "RICE", "OIL"),
+                result.getErrors().stream().map(LineError::sku).filter(sku -> sku != null).toList());
+        assertNull(result.getErrors().get(4).sku());
+
+        assertEquals(17, inventoryRepository.findByStoreIdAndProductId(storeId, rice).orElseThrow().getQuantity());
+        assertEquals(12, inventoryRepository.findByStoreIdAndProductId(storeId, oil).orElseThrow().getQuantity());
+
+        Map<String, Object> oilMovement = jdbcTemplate.queryForMap(
+                "SELECT quantity, unit_price, supplier_name, notes FROM stock_movements WHERE product_id = ?", oil);
+        assertEquals(12, ((Number) oilMovement.get("QUANTITY")).intValue());
+        assertEquals(0, new BigDecimal("2.5").compareTo((BigDecimal) oilMovement.get("UNIT_PRICE")));
+        assertEquals("Acme, Ltd", oilMovement.get("SUPPLIER_NAME"));
+        assertEquals("two\nlines", oilMovement.get("NOTES"));
+        assertEquals(List.of("Default", "Default"), jdbcTemplate.queryForList(
+                "SELECT supplier_name FROM stock_movements WHERE product_id = ?", String.class, rice));
+    }
+
+    @Test
+    void brokenQuotingStopsTheImportButKeepsSavedLines() {
+        long storeId = 72L;
+        Long rice = product(storeId, "RICE", 0);
+
+        String csv = "sku,quantity\n" +
+                "RICE,1\n" +
+                "RICE,2\n" +   // chunk of two saved here
+                "RICE,4\n" +   // pending, saved when the import stops
+                "\"RICE,8\n";  // never closed
+
+        StockImportResult result = importer.importStock(storeId, input(csv), ImportFormat.CSV, null, "owner");
+
+        assertEquals(3, result.getImportedLines());
+        assertEquals(1, result.getFailedLines());
+        assertEquals(5, result.getErrors().get(0).line());
+        assertTrue(result.getErrors().get(0).message().startsWith("Input could not be read from here on"));
+        assertEquals(7, inventoryRepository.findByStoreIdAndProductId(storeId, rice).orElseThrow().getQuantity());
+    }
+
+    private Long product(long storeId, String sku, Integer stock) {
+        Long productId = productRepository.save(Product.builder()
+                .storeId(storeId)
+                .name(sku)
+                .sku(sku)
+                .price(BigDecimal.TEN)
+                .costPrice(BigDecimal.ONE)
+                .status(Product.ProductStatus.ACTIVE)
+                .build()).getId();
+        if (stock != null) {
+            inventoryRepository.save(Inventory.builder()
+                    .storeId(storeId)
+                    .productId(productId)
+                    .quantity(stock)
+                    .reservedQuantity(0)
+                    .availableQuantity(stock)
+                    .build());
+        }
+        return productId;
+    }
+
+    private static ByteArrayInputStream input(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
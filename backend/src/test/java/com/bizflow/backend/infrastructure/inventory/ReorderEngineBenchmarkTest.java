@@ -0,0 +1,150 @@
+package com.bizflow.backend.infrastructure.inventory;
+
+import com.bizflow.backend.config.AppConfig;
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepository;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import com.bizflow.backend.presentation.dto.response.ReorderRunReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark: ReorderEngine over a 50k-SKU store, plus the velocity rules
+ * (cancelled orders net out, other returns do not).
+ *
+ * H2 in memory: the run time shows the partitioned streaming, not MySQL/TiDB numbers.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reorder_engine;DB_CLOSE_DELAY=-1",
+        "bizflow.reorder.window-days=28"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AppConfig.class, ReorderEngine.class, SnowflakeIdGenerator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReorderEngineBenchmarkTest {
+
+    private static final int PRODUCTS = 50_000;
+    private static final int SALES_PER_PRODUCT = 3;
+    private static final int INSERT_CHUNK = 10_000;
+
+    @Autowired
+    private ReorderEngine reorderEngine;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cancelledOrdersDoNotCountAsSales() {
+        long storeId = 91L;
+        long productId = seedProducts(storeId, 1, 10).get(0);
+        LocalDateTime now = LocalDateTime.now();
+
+        stockMovementRepository.batchInsert(List.of(
+                movement(storeId, productId, StockMovement.MovementType.SALE, -4, 1L, "ORDER", now.minusDays(3)),
+                movement(storeId, productId, StockMovement.MovementType.SALE, -6, 2L, "ORDER", now.minusDays(2)),
+                movement(storeId, productId, StockMovement.MovementType.RETURN, 6, 2L, "ORDER_CANCEL", now.minusDays(1)),
+                // manual stock-in with reason RETURN: goods back from elsewhere, not an unmade sale
+                movement(storeId, productId, StockMovement.MovementType.RETURN, 5, null, "STOCK_IN", now.minusDays(1)),
+                // before the window
+                movement(storeId, productId, StockMovement.MovementType.SALE, -50, 3L, "ORDER", now.minusDays(40))));
+
+        ReorderRunReport report = reorderEngine.run(storeId);
+
+        assertEquals(2, report.getSalesRead());
+        Map<String, Object> suggestion = jdbcTemplate.queryForMap(
+                "SELECT units_sold, last_sale_at FROM reorder_suggestions WHERE store_id = ? AND product_id = ?",
+                storeId, productId);
+        assertEquals(4L, ((Number) suggestion.get("UNITS_SOLD")).longValue());
+        assertEquals(now.minusDays(2).withNano(0),
+                ((Timestamp) suggestion.get("LAST_SALE_AT")).toLocalDateTime().withNano(0));
+    }
+
+    @Test
+    void fiftyThousandProducts() {
+        long storeId = 92L;
+        List<Long> productIds = seedProducts(storeId, PRODUCTS, 20);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<StockMovement> chunk = new ArrayList<>(INSERT_CHUNK);
+        for (int i = 0; i < productIds.size(); i++) {
+            for (int s = 0; s < SALES_PER_PRODUCT; s++) {
+                chunk.add(movement(storeId, productIds.get(i), StockMovement.MovementType.SALE, -(1 + i % 7),
+                        (long) i, "ORDER", now.minusHours(1 + s * 24L)));
+                if (chunk.size() == INSERT_CHUNK) {
+                    stockMovementRepository.batchInsert(chunk);
+                    chunk = new ArrayList<>(INSERT_CHUNK);
+                }
+            }
+        }
+        stockMovementRepository.batchInsert(chunk);
+
+        long start = System.nanoTime();
+        ReorderRunReport report = reorderEngine.run(storeId);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(millis < 60_000, String.format("Reorder run: %d products, %d sales, %d partitions in %d ms, " +
+                "target under a minute", report.getProducts(), report.getSalesRead(), report.getPartitions(), millis));
+
+        assertEquals(PRODUCTS, report.getProducts());
+        assertEquals((long) PRODUCTS * SALES_PER_PRODUCT, report.getSalesRead());
+        assertTrue(report.getPartitions() > 1);
+        assertEquals(PRODUCTS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reorder_suggestions WHERE store_id = ?", Integer.class, storeId));
+        // product i sold 3 x (1 + i % 7) units; the first product sold 3
+        assertEquals(3L, jdbcTemplate.queryForObject(
+                "SELECT units_sold FROM reorder_suggestions WHERE store_id = ? AND product_id = ?",
+                Long.class, storeId, productIds.get(0)));
+    }
+
+    private List<Long> seedProducts(long storeId, int count, int stock) {
+        List<Object[]> products = new ArrayList<>(count);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < count; i++) {
+            products.add(new Object[]{storeId, "Product " + i, "SKU-" + storeId + "-" + i, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (store_id, name, sku, price, status, created_at) " +
+                "VALUES (?, ?, ?, 10, 'ACTIVE', ?)", products);
+        List<Long> productIds = jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE store_id = ? ORDER BY id", Long.class, storeId);
+
+        List<Object[]> inventory = new ArrayList<>(count);
+        for (Long productId : productIds) {
+            inventory.add(new Object[]{storeId, productId, stock, stock});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventory (store_id, product_id, quantity, reserved_quantity, " +
+                "available_quantity, low_stock, version) VALUES (?, ?, ?, 0, ?, FALSE, 0)", inventory);
+        return productIds;
+    }
+
+    private static StockMovement movement(long storeId, long productId, StockMovement.MovementType type, int quantity,
+                                          Long referenceId, String referenceType, LocalDateTime createdAt) {
+        return StockMovement.builder()
+                .storeId(storeId)
+                .productId(productId)
+                .type(type)
+                .quantity(quantity)
+                .referenceId(referenceId)
+                .referenceType(referenceType)
+                .createdBy("test")
+                .createdAt(createdAt)
+                .build();
+    }
+}
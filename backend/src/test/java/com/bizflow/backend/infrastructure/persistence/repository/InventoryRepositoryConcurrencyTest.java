@@ -0,0 +1,122 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.config.AppConfig;
+import com.bizflow.backend.core.domain.Inventory;
+import com.bizflow.backend.infrastructure.sequence.PooledIdSource;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import com.bizflow.backend.infrastructure.sequence.SequenceBlockAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test: many cashiers selling the last units of ONE hot SKU at the same time.
+ * Every sale uses the guarded UPDATE, so stock can never go below zero.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:inventory_stress;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AppConfig.class, SequenceBlockAllocator.class, PooledIdSource.class, SnowflakeIdGenerator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryRepositoryConcurrencyTest {
+
+    private static final long STORE_ID = 1L;
+    private static final long PRODUCT_ID = 1L;
+    private static final int INITIAL_STOCK = 200;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seedHotSku() {
+        inventoryRepository.deleteAll();
+        inventoryRepository.save(Inventory.builder()
+                .storeId(STORE_ID)
+                .productId(PRODUCT_ID)
+                .quantity(INITIAL_STOCK)
+                .reservedQuantity(0)
+                .availableQuantity(INITIAL_STOCK)
+                .build());
+    }
+
+    @Test
+    void guardedDecrementNeverOversellsUnderContention() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    Integer updated = tx.execute(status -> inventoryRepository.decrementStock(STORE_ID, PRODUCT_ID, 1));
+                    if (updated != null && updated == 1) {
+                        sold.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        pool.shutdown();
+
+        Inventory inventory = inventoryRepository.findByStoreIdAndProductId(STORE_ID, PRODUCT_ID).orElseThrow();
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        System.out.printf("Hot SKU stress: %d threads, %d attempts, %d sold, %d rejected, %.0f orders/s%n",
+                THREADS, attempts, sold.get(), rejected.get(), attempts / (elapsedNanos / 1_000_000_000.0));
+
+        assertEquals(INITIAL_STOCK, sold.get(), "exactly the initial stock must be sold");
+        assertEquals(attempts - INITIAL_STOCK, rejected.get());
+        assertEquals(0, inventory.getAvailableQuantity());
+        assertEquals(0, inventory.getQuantity());
+        assertEquals(INITIAL_STOCK, inventory.getVersion());
+    }
+
+    @Test
+    void staleReadModifyWriteIsRejectedByVersion() {
+        Inventory first = inventoryRepository.findByStoreIdAndProductId(STORE_ID, PRODUCT_ID).orElseThrow();
+        Inventory stale = inventoryRepository.findByStoreIdAndProductId(STORE_ID, PRODUCT_ID).orElseThrow();
+
+        first.setAvailableQuantity(first.getAvailableQuantity() - 1);
+        inventoryRepository.save(first);
+
+        stale.setAvailableQuantity(stale.getAvailableQuantity() - 1);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> inventoryRepository.save(stale));
+    }
+}
@@ -0,0 +1,102 @@
+package com.bizflow.backend.infrastructure.persistence.repository;
+
+import com.bizflow.backend.config.AppConfig;
+import com.bizflow.backend.core.common.BalanceCursor;
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepositoryCustom.MovementLine;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import com.bizflow.backend.presentation.dto.response.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Movement history pages: the running balance carried by BalanceCursor from page to page
+ * matches the balance computed over the whole ledger, including ties on created_at.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AppConfig.class, SnowflakeIdGenerator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockMovementHistoryTest {
+
+    private static final long STORE_ID = 81L;
+    private static final long PRODUCT_ID = 8101L;
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Test
+    void runningBalanceContinuesAcrossPages() {
+        int[] quantities = {50, -3, -7, 20, -1, -1, -12, 5, -2, -4, 30};
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 9, 0);
+        List<StockMovement> movements = new ArrayList<>();
+        for (int i = 0; i < quantities.length; i++) {
+            // every second pair shares a timestamp, the id breaks the tie
+            movements.add(movement(quantities[i], start.plusMinutes(i - i % 2)));
+        }
+        stockMovementRepository.batchInsert(movements);
+        long onHand = movements.stream().mapToLong(StockMovement::getQuantity).sum();
+
+        List<StockMovement> newestFirst = movements.stream()
+                .sorted(Comparator.comparing(StockMovement::getCreatedAt).thenComparing(StockMovement::getId).reversed())
+                .toList();
+
+        List<MovementLine> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<MovementLine> page = page(cursor, onHand);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals((quantities.length + PAGE_SIZE - 1) / PAGE_SIZE, pages);
+        assertEquals(newestFirst.stream().map(StockMovement::getId).toList(),
+                seen.stream().map(MovementLine::id).toList());
+        long balance = onHand;
+        for (MovementLine line : seen) {
+            assertEquals(balance, line.balanceAfter(), "balance after movement " + line.id());
+            balance -= line.quantity();
+        }
+        assertEquals(0, balance); // oldest movement starts from an empty shelf
+    }
+
+    // Same steps as InventoryServiceImpl.getStockMovementHistory, cursor round-tripped as a token
+    private CursorPage<MovementLine> page(String cursor, long onHand) {
+        BalanceCursor position = BalanceCursor.decode(cursor);
+        List<MovementLine> lines = position == null
+                ? stockMovementRepository.findHistory(STORE_ID, PRODUCT_ID, null, null, onHand, PAGE_SIZE + 1)
+                : stockMovementRepository.findHistory(STORE_ID, PRODUCT_ID, position.createdAt(), position.id(),
+                        position.balance(), PAGE_SIZE + 1);
+        return CursorPage.of(lines, PAGE_SIZE,
+                line -> new BalanceCursor(line.createdAt(), line.id(), line.balanceBefore()).encode(),
+                line -> line);
+    }
+
+    private static StockMovement movement(int quantity, LocalDateTime createdAt) {
+        return StockMovement.builder()
+                .storeId(STORE_ID)
+                .productId(PRODUCT_ID)
+                .type(quantity > 0 ? StockMovement.MovementType.STOCK_IN : StockMovement.MovementType.SALE)
+                .quantity(quantity)
+                .createdBy("test")
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.core.domain.Order;
+import com.bizflow.backend.core.domain.OrderItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SalesCube: discount shares per line, compaction, reconciling changes that raced a load,
+ * and the memory budget when appends outgrow the arrays.
+ */
+class SalesCubeTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    // 1 MB budget, no repositories: only the column logic runs here
+    private final SalesCube salesCube = new SalesCube(null, null, null, null, true, 90, 1);
+
+    private long nextId = 1;
+
+    @AfterEach
+    void shutdown() {
+        salesCube.shutdown();
+    }
+
+    @Test
+    void discountSharesFollowLineAmountsAndAddUpToTheOrderTotal() {
+        assertArrayEquals(new long[]{600, 400},
+                SalesCube.discountShares(order(TODAY, "90.00"), new long[]{6000, 4000}));
+
+        long[] thirds = SalesCube.discountShares(order(TODAY, "2.00"), new long[]{100, 100, 100});
+        assertArrayEquals(new long[]{33, 33, 34}, thirds, "last line takes the rounding remainder");
+        assertEquals(100, Arrays.stream(thirds).sum());
+
+        assertArrayEquals(new long[]{0, 0}, SalesCube.discountShares(order(TODAY, "100.00"), new long[]{6000, 4000}));
+        assertArrayEquals(new long[]{0}, SalesCube.discountShares(order(TODAY, "0"), new long[]{0}));
+    }
+
+    @Test
+    void compactKeepsNewerLinesInOrder() {
+        SalesCube.StoreCube cube = cube(TODAY.minusDays(2));
+        Order old = order(TODAY.minusDays(2), "30.00");
+        Order yesterday = order(TODAY.minusDays(1), "20.00");
+        Order today = order(TODAY, "10.00");
+        cube.add(old, items(3), 1);
+        cube.add(yesterday, items(2), 1);
+        cube.add(today, items(1), 1);
+        cube.add(yesterday, items(2), -1); // cancelled today, booked on its own day
+
+        cube.compact((int) TODAY.minusDays(1).toEpochDay());
+
+        assertEquals((int) TODAY.minusDays(1).toEpochDay(), cube.windowStart);
+        assertEquals(5, cube.size);
+        assertArrayEquals(new long[]{yesterday.getId(), yesterday.getId(), today.getId(), yesterday.getId(),
+                yesterday.getId()}, Arrays.copyOf(cube.orders, cube.size));
+        assertArrayEquals(new int[]{1, 1, 1, -1, -1}, Arrays.copyOf(cube.quantities, cube.size));
+
+        cube.add(old, items(3), -1);
+        assertEquals(5, cube.size, "lines of days before the window are not added");
+    }
+
+    @Test
+    void reconcilePendingReturnsOnlyWhatTheLoadMissed() {
+        SalesCube.StoreCube cube = cube(TODAY);
+        Order loaded = order(TODAY, "10.00");
+        Order placedLate = order(TODAY, "10.00");
+        Order placedAndCancelled = order(TODAY, "10.00");
+        Order neverLoaded = order(TODAY, "10.00");
+        cube.add(loaded, items(1), 1);
+
+        SalesCube.Change seen = new SalesCube.Change(loaded, items(1), 1);
+        SalesCube.Change missed = new SalesCube.Change(placedLate, items(1), 1);
+        SalesCube.Change cancelLoaded = new SalesCube.Change(loaded, items(1), -1);
+        SalesCube.Change placed = new SalesCube.Change(placedAndCancelled, items(1), 1);
+        SalesCube.Change cancelPlaced = new SalesCube.Change(placedAndCancelled, items(1), -1);
+        SalesCube.Change cancelUnknown = new SalesCube.Change(neverLoaded, items(1), -1);
+        cube.pending.addAll(List.of(seen, missed, cancelLoaded, placed, cancelPlaced, cancelUnknown));
+
+        assertEquals(List.of(missed, cancelLoaded, placed, cancelPlaced), cube.reconcilePending());
+        assertTrue(cube.pending.isEmpty());
+        assertEquals(List.of(), cube.reconcilePending());
+    }
+
+    @Test
+    void appendsBeyondTheBudgetMoveTheWindowInsteadOfGrowing() {
+        SalesCube.StoreCube cube = cube(TODAY.minusDays(2));
+        List<OrderItem> lines = items(5_000);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(salesCube.append(cube, order(TODAY.minusDays(2), "0"), lines, 1));
+        }
+        for (int i = 0; i < 2; i++) {
+            assertTrue(salesCube.append(cube, order(TODAY.minusDays(1), "0"), lines, 1));
+        }
+        for (int i = 0; i < 2; i++) {
+            assertTrue(salesCube.append(cube, order(TODAY, "0"), lines, 1));
+        }
+
+        assertTrue(cube.bytes() <= 1024 * 1024, "cube stays within max-memory-mb: " + cube.bytes());
+        assertTrue(cube.windowStart > TODAY.minusDays(2).toEpochDay(), "oldest day compacted away");
+        long todayLines = Arrays.stream(cube.days, 0, cube.size).filter(day -> day == TODAY.toEpochDay()).count();
+        assertEquals(10_000, todayLines);
+
+        assertFalse(salesCube.append(cube, order(TODAY, "0"), items(30_000), 1),
+                "today's lines alone exceed the budget");
+    }
+
+    private SalesCube.StoreCube cube(LocalDate windowStart) {
+        SalesCube.StoreCube cube = new SalesCube.StoreCube(1L);
+        cube.windowStart = (int) windowStart.toEpochDay();
+        cube.allocate(16);
+        return cube;
+    }
+
+    private Order order(LocalDate day, String total) {
+        return Order.builder()
+                .id(nextId++)
+                .storeId(1L)
+                .customerId(1L)
+                .totalAmount(new BigDecimal(total))
+                .createdAt(day.atTime(12, 0))
+                .build();
+    }
+
+    private static List<OrderItem> items(int count) {
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(OrderItem.builder()
+                    .productId(1L + i % 5)
+                    .quantity(1)
+                    .totalAmount(BigDecimal.TEN)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,164 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.core.common.SalesExportDetail;
+import com.bizflow.backend.presentation.dto.response.SalesExportJob;
+import com.bizflow.backend.presentation.exception.BusinessException;
+import com.bizflow.backend.presentation.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SalesExportJobs: QUEUED → RUNNING → DONE / FAILED, the body written to a .part file that
+ * only becomes the export file once complete, the per-store limit and the purge.
+ */
+class SalesExportJobsTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 1, 31);
+
+    @TempDir
+    Path directory;
+
+    private final List<SalesExportJobs> started = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        started.forEach(SalesExportJobs::shutdown);
+    }
+
+    @Test
+    void jobWritesToThePartFileAndRenamesItWhenComplete() throws Exception {
+        SalesExportJobs exports = exports(Duration.ofHours(1), 1);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StreamingResponseBody body = out -> {
+            out.write("date,revenue\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            written.countDown();
+            await(release);
+            out.write("2026-01-01,10.00\n".getBytes(StandardCharsets.UTF_8));
+        };
+
+        SalesExportJob job = exports.submit(1L, SalesExportDetail.DAILY, false, FROM, TO, body);
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertEquals("RUNNING", exports.get(1L, job.getId()).getStatus());
+        assertTrue(Files.exists(directory.resolve(job.getId() + ".part")));
+        assertFalse(Files.exists(directory.resolve(job.getId() + ".csv")), "no export file before it is complete");
+        assertEquals(4012, assertThrows(BusinessException.class, () -> exports.file(1L, job.getId())).getErrorCode());
+
+        // One worker busy: another store's job waits in the queue, this store is at its limit
+        SalesExportJob queued = exports.submit(2L, SalesExportDetail.LINES, true, FROM, TO, out -> { });
+        assertEquals("QUEUED", exports.get(2L, queued.getId()).getStatus());
+        assertEquals(4013, assertThrows(BusinessException.class,
+                () -> exports.submit(1L, SalesExportDetail.DAILY, false, FROM, TO, out -> { })).getErrorCode());
+
+        release.countDown();
+        SalesExportJob done = awaitFinished(exports, 1L, job.getId());
+        assertEquals("DONE", done.getStatus());
+        Path file = exports.file(1L, job.getId());
+        assertEquals(directory.resolve(job.getId() + ".csv"), file);
+        assertEquals("date,revenue\n2026-01-01,10.00\n", Files.readString(file));
+        assertEquals(Files.size(file), done.getBytes());
+        assertNotNull(done.getExpiresAt());
+        assertFalse(Files.exists(directory.resolve(job.getId() + ".part")));
+        assertEquals("sales-daily-2026-01-01-2026-01-31.csv", done.getFileName());
+
+        assertEquals("DONE", awaitFinished(exports, 2L, queued.getId()).getStatus());
+        assertTrue(Files.exists(directory.resolve(queued.getId() + ".csv.gz")));
+    }
+
+    @Test
+    void failedJobLeavesNoFileAndFreesItsSlot() throws Exception {
+        SalesExportJobs exports = exports(Duration.ofHours(1), 1);
+        SalesExportJob job = exports.submit(1L, SalesExportDetail.LINES, false, FROM, TO, out -> {
+            out.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("database went away");
+        });
+
+        SalesExportJob failed = awaitFinished(exports, 1L, job.getId());
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals("database went away", failed.getError());
+        assertEquals(4012, assertThrows(BusinessException.class, () -> exports.file(1L, job.getId())).getErrorCode());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count(), "neither the .part nor an export file is left");
+        }
+
+        SalesExportJob retry = exports.submit(1L, SalesExportDetail.LINES, false, FROM, TO, out -> { });
+        assertEquals("DONE", awaitFinished(exports, 1L, retry.getId()).getStatus());
+    }
+
+    @Test
+    void jobsAreOnlyVisibleToTheirStore() {
+        SalesExportJobs exports = exports(Duration.ofHours(1), 1);
+        SalesExportJob job = exports.submit(1L, SalesExportDetail.DAILY, false, FROM, TO, out -> { });
+
+        assertThrows(ResourceNotFoundException.class, () -> exports.get(2L, job.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> exports.file(2L, job.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> exports.get(1L, "unknown"));
+    }
+
+    @Test
+    void purgeDeletesExpiredJobsAndOrphanFiles() throws Exception {
+        SalesExportJobs exports = exports(Duration.ZERO, 1);
+        SalesExportJob job = exports.submit(1L, SalesExportDetail.DAILY, false, FROM, TO,
+                out -> out.write("x".getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(exports, 1L, job.getId());
+        Path orphan = Files.writeString(directory.resolve("left-by-restart.csv.part"), "x");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minusSeconds(60)));
+
+        exports.purge();
+
+        assertThrows(ResourceNotFoundException.class, () -> exports.get(1L, job.getId()));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private SalesExportJobs exports(Duration retention, int maxActivePerStore) {
+        SalesExportJobs exports = new SalesExportJobs(directory.toString(), retention, 1, maxActivePerStore);
+        started.add(exports);
+        return exports;
+    }
+
+    private static SalesExportJob awaitFinished(SalesExportJobs exports, Long storeId, String jobId)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            SalesExportJob job = exports.get(storeId, jobId);
+            if ("DONE".equals(job.getStatus()) || "FAILED".equals(job.getStatus())) {
+                return job;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "job still " + job.getStatus());
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("test did not release the body");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
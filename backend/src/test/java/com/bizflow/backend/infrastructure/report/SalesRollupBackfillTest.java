@@ -0,0 +1,140 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.config.AppConfig;
+import com.bizflow.backend.infrastructure.persistence.repository.ArchiveWatermarkRepository;
+import com.bizflow.backend.infrastructure.sequence.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SalesRollupBackfill: closed days recomputed from the orders tables (cancelled orders,
+ * stale and orphaned rollup rows), today left to the live path, and the watermark guard.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sales_rollup_backfill;DB_CLOSE_DELAY=-1",
+        "bizflow.dashboard.redis-enabled=false",
+        "bizflow.sales-cube.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AppConfig.class, SnowflakeIdGenerator.class, SalesRollup.class, SalesRollupBackfill.class,
+        DashboardMetricsCache.class, SalesCube.class, TopSellers.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesRollupBackfillTest {
+
+    private static final long STORE_ID = 61L;
+
+    @Autowired
+    private SalesRollupBackfill backfill;
+
+    @Autowired
+    private ArchiveWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long nextId = 61_000;
+
+    @Test
+    void closedDaysAreRebuiltOnceFromTheOrders() {
+        LocalDate today = LocalDate.now();
+        LocalDate orphan = today.minusDays(5);
+        LocalDate day1 = today.minusDays(3);
+        LocalDate day2 = today.minusDays(2);
+
+        long a = order(day1, 7L, "CASH", "CONFIRMED", "100", "10", "90");
+        item(a, day1, 1L, 2, "60");
+        item(a, day1, 2L, 1, "40");
+        long b = order(day1, 8L, "CREDIT", "CANCELLED", "50", "0", "50");
+        item(b, day1, 1L, 1, "50");
+        long c = order(day2, null, "TRANSFER", "PAID", "30", "0", "30");
+        item(c, day2, 3L, 3, "30");
+        long d = order(today, 7L, "CASH", "CONFIRMED", "20", "0", "20");
+        item(d, today, 1L, 1, "20");
+
+        rollupRow(orphan, 4);  // orders gone
+        rollupRow(day2, 5);    // drifted
+        rollupRow(today, 1);   // live day, not touched
+        watermarkRepository.deleteAll(); // the startup run of the context saw no orders yet
+
+        backfill.rebuildClosedDays();
+
+        Map<String, Object> first = day(day1);
+        assertEquals(1L, number(first, "ORDER_COUNT"));
+        assertEquals(3L, number(first, "UNITS_SOLD"));
+        assertAmount("100", first.get("GROSS_AMOUNT"));
+        assertAmount("10", first.get("DISCOUNT_AMOUNT"));
+        assertAmount("90", first.get("REVENUE"));
+        assertAmount("90", first.get("CASH_REVENUE"));
+        assertEquals(1L, number(first, "CANCELLED_COUNT"));
+        assertAmount("50", first.get("CANCELLED_AMOUNT"));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT SUM(units_sold) FROM sales_daily_product " +
+                "WHERE store_id = ? AND sales_date = ? AND product_id = 1", Long.class, STORE_ID, day1));
+
+        assertEquals(1L, number(day(day2), "ORDER_COUNT"));
+        assertAmount("30", day(day2).get("REVENUE"));
+        assertEquals(0L, number(day(orphan), "ORDER_COUNT"));
+        assertEquals(1L, number(day(today), "ORDER_COUNT"));
+        assertEquals(today.atStartOfDay(),
+                watermarkRepository.findById(SalesRollupBackfill.WATERMARK).orElseThrow().getArchivedBefore());
+
+        // Watermark reached: a second run the same day does not rebuild again
+        jdbcTemplate.update("UPDATE sales_daily SET order_count = 99 WHERE store_id = ? AND sales_date = ?",
+                STORE_ID, day1);
+        backfill.rebuildClosedDays();
+        assertEquals(99L, number(day(day1), "ORDER_COUNT"));
+    }
+
+    private long order(LocalDate day, Long employeeId, String paymentType, String status,
+                       String subtotal, String discount, String total) {
+        long id = nextId++;
+        jdbcTemplate.update("INSERT INTO orders (id, store_id, order_number, customer_id, employee_id, subtotal, " +
+                        "discount_amount, total_amount, payment_type, status, created_at, created_by) " +
+                        "VALUES (?, ?, ?, 1, ?, ?, ?, ?, ?, ?, ?, 'test')",
+                id, STORE_ID, "BF-" + id, employeeId, new BigDecimal(subtotal), new BigDecimal(discount),
+                new BigDecimal(total), paymentType, status, Timestamp.valueOf(day.atTime(10, 0)));
+        return id;
+    }
+
+    private void item(long orderId, LocalDate day, long productId, int quantity, String total) {
+        BigDecimal amount = new BigDecimal(total);
+        jdbcTemplate.update("INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, total_amount, " +
+                        "created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                nextId++, orderId, productId, quantity, amount.divide(BigDecimal.valueOf(quantity)), amount,
+                Timestamp.valueOf(day.atTime(10, 0)));
+    }
+
+    private void rollupRow(LocalDate day, long orders) {
+        jdbcTemplate.update("INSERT INTO sales_daily (id, store_id, sales_date, order_count, units_sold, gross_amount, " +
+                "discount_amount, revenue, cash_revenue, cancelled_count, cancelled_amount, updated_at) " +
+                "VALUES (?, ?, ?, ?, 0, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP)", nextId++, STORE_ID, day, orders);
+    }
+
+    private Map<String, Object> day(LocalDate day) {
+        return jdbcTemplate.queryForMap("SELECT * FROM sales_daily WHERE store_id = ? AND sales_date = ?",
+                STORE_ID, day);
+    }
+
+    private static long number(Map<String, Object> row, String column) {
+        return ((Number) row.get(column)).longValue();
+    }
+
+    private static void assertAmount(String expected, Object actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo((BigDecimal) actual), expected + " != " + actual);
+    }
+}
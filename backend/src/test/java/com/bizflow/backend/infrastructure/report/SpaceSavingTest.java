@@ -0,0 +1,135 @@
+package com.bizflow.backend.infrastructure.report;
+
+import com.bizflow.backend.infrastructure.report.TopSellers.Estimate;
+import com.bizflow.backend.infrastructure.report.TopSellers.Period;
+import com.bizflow.backend.infrastructure.report.TopSellers.Snapshot;
+import com.bizflow.backend.infrastructure.report.TopSellers.SpaceSaving;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TopSellers.SpaceSaving: exact counts below capacity, eviction with inherited error,
+ * cancellations, and the reported bounds checked against exact counts of a random stream.
+ */
+class SpaceSavingTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Test
+    void countsAreExactWhileNothingIsEvicted() {
+        SpaceSaving summary = new SpaceSaving(3);
+        summary.add(1, 5);
+        summary.add(2, 3);
+        summary.add(1, 2);
+        summary.add(3, 0); // ignored
+        summary.subtract(2, 1);
+
+        Snapshot snapshot = snapshot(summary, 10);
+        assertTrue(snapshot.exact());
+        assertEquals(0, snapshot.untrackedMaxUnits());
+        assertEquals(9, snapshot.totalUnits());
+        assertEquals(List.of(new Estimate(1, 7, 0, true), new Estimate(2, 2, 0, true)), snapshot.items());
+    }
+
+    @Test
+    void newcomerInheritsTheEvictedCountAsError() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1, 5);
+        summary.add(2, 3);
+        summary.add(3, 1); // evicts product 2 (3 units)
+
+        Snapshot snapshot = snapshot(summary, 10);
+        assertFalse(snapshot.exact());
+        assertEquals(3, snapshot.untrackedMaxUnits());
+        assertEquals(9, snapshot.totalUnits());
+        assertEquals(List.of(new Estimate(1, 5, 0, true), new Estimate(3, 4, 3, false)), snapshot.items());
+        assertEquals(1, snapshot.items().get(1).minUnitsSold());
+    }
+
+    @Test
+    void cancellationsLowerTrackedCountsAndTheTotalOnly() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1, 5);
+        summary.add(2, 3);
+        summary.add(3, 4); // evicts product 2
+
+        summary.subtract(2, 3); // untracked: bound stays, total drops
+        summary.subtract(3, 4); // tracked: count drops, the inherited error stays
+
+        Snapshot snapshot = snapshot(summary, 10);
+        assertEquals(3, snapshot.untrackedMaxUnits());
+        assertEquals(5, snapshot.totalUnits());
+        assertEquals(List.of(new Estimate(1, 5, 0, true), new Estimate(3, 3, 3, false)), snapshot.items());
+        assertEquals(0, snapshot.items().get(1).minUnitsSold());
+    }
+
+    @Test
+    void boundsHoldAgainstExactCounts() {
+        Random random = new Random(42);
+        SpaceSaving summary = new SpaceSaving(10);
+        Map<Long, Long> exact = new HashMap<>();
+        long total = 0;
+        for (int i = 0; i < 20_000; i++) {
+            // Skewed: a few products sell most, a long tail sells now and then
+            long productId = (long) Math.floor(Math.pow(random.nextDouble(), 3) * 200);
+            long units = 1 + random.nextInt(4);
+            if (random.nextInt(10) == 0 && exact.getOrDefault(productId, 0L) >= units) {
+                summary.subtract(productId, units); // cancellation of earlier sales
+                exact.merge(productId, -units, Long::sum);
+                total -= units;
+            } else {
+                summary.add(productId, units);
+                exact.merge(productId, units, Long::sum);
+                total += units;
+            }
+        }
+
+        Snapshot snapshot = snapshot(summary, 10);
+        assertFalse(snapshot.exact());
+        assertEquals(total, snapshot.totalUnits());
+        Set<Long> listed = new HashSet<>();
+        for (Estimate estimate : snapshot.items()) {
+            long sold = exact.getOrDefault(estimate.productId(), 0L);
+            assertTrue(estimate.minUnitsSold() <= sold && sold <= estimate.unitsSold(),
+                    estimate + " vs exact " + sold);
+            listed.add(estimate.productId());
+        }
+        exact.forEach((productId, sold) -> {
+            if (!listed.contains(productId)) {
+                assertTrue(sold <= snapshot.untrackedMaxUnits(), productId + " sold " + sold);
+            }
+        });
+
+        // Guaranteed: the lower bound beats every product ranked below, listed or not
+        List<Estimate> items = snapshot.items();
+        assertTrue(items.get(0).guaranteed(), "the head of a skewed stream is guaranteed");
+        for (int i = 0; i < items.size(); i++) {
+            if (!items.get(i).guaranteed()) {
+                continue;
+            }
+            Set<Long> above = new HashSet<>();
+            for (int j = 0; j <= i; j++) {
+                above.add(items.get(j).productId());
+            }
+            long minUnits = items.get(i).minUnitsSold();
+            exact.forEach((productId, sold) -> {
+                if (!above.contains(productId)) {
+                    assertTrue(sold <= minUnits, productId + " sold " + sold + " > " + minUnits);
+                }
+            });
+        }
+    }
+
+    private static Snapshot snapshot(SpaceSaving summary, int limit) {
+        return summary.snapshot(Period.TODAY, NOW, NOW, limit);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bizflow.backend.infrastructure.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HashedTimingWheel: deadlines rounded up to a tick, entries of later turns sharing a bucket,
+ * and a pause longer than a full turn.
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK = 100;
+    private static final int WHEEL_SIZE = 8;
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, WHEEL_SIZE, 0);
+
+    @Test
+    void entriesNeverExpireBeforeTheirDeadline() {
+        wheel.add("a", 250); // rounded up to tick 3
+
+        assertEquals(List.of(), wheel.advance(299));
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aPassedDeadlineFiresOnTheNextTick() {
+        wheel.advance(300);
+        wheel.add("late", 0);
+
+        assertEquals(List.of(), wheel.advance(399));
+        assertEquals(List.of("late"), wheel.advance(400));
+    }
+
+    @Test
+    void entriesOfLaterTurnsWaitForTheirOwnTurn() {
+        long turn = TICK * WHEEL_SIZE;
+        wheel.add("near", TICK);            // tick 1
+        wheel.add("far", 2 * turn + TICK);  // tick 17, same bucket
+
+        assertEquals(List.of("near"), wheel.advance(turn));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(2 * turn));
+        assertEquals(List.of("far"), wheel.advance(2 * turn + TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aPauseLongerThanATurnExpiresOnlyDueEntries() {
+        for (int i = 1; i <= 20; i++) {
+            wheel.add("e" + i, i * TICK);
+        }
+        wheel.add("later", 100 * TICK);
+
+        List<String> expired = wheel.advance(30 * TICK);
+
+        assertEquals(20, expired.size());
+        assertFalse(expired.contains("later"));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("later"), wheel.advance(100 * TICK));
+    }
+
+    @Test
+    void rejectsNonPositiveTickOrSize() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>(0, WHEEL_SIZE, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>(TICK, 0, 0));
+    }
+}
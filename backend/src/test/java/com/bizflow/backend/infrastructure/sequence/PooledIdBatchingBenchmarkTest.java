@@ -0,0 +1,273 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import com.bizflow.backend.config.AppConfig;
+import com.bizflow.backend.core.domain.Customer;
+import com.bizflow.backend.core.domain.Debt;
+import com.bizflow.backend.core.domain.OrderItem;
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.infrastructure.persistence.repository.CustomerRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.DebtRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderItemRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.OrderItemRepositoryCustomImpl;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepositoryCustomImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark: IDENTITY vs pooled / Snowflake IDs with hibernate.jdbc.batch_size=20
+ * 
+ * Hibernate prepares one statement per JDBC batch, so the prepared statement
+ * count shows whether inserts were really batched. The JDBC batch writers
+ * (order placement, stock import) run over a counting DataSource instead.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pooled_ids;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AppConfig.class, SequenceBlockAllocator.class, PooledIdSource.class, SnowflakeIdGenerator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PooledIdBatchingBenchmarkTest {
+
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 20;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Test
+    void pooledIdsLetHibernateBatchInserts() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long identityStatements = measure(statistics, "IDENTITY (customers)",
+                () -> customerRepository.saveAll(customers()));
+        long pooledStatements = measure(statistics, "POOLED (debts)",
+                () -> debtRepository.saveAll(debts()));
+
+        assertTrue(identityStatements >= ROWS, "IDENTITY inserts cannot be batched");
+        assertTrue(pooledStatements <= ROWS / BATCH_SIZE + 2,
+                "pooled inserts should be sent in batches of " + BATCH_SIZE + ", got " + pooledStatements + " statements");
+        assertEquals(ROWS, debtRepository.count());
+    }
+
+    @Test
+    void snowflakeIdsLetHibernateBatchOrderItemsAndMovements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<OrderItem> items = orderItems();
+        long itemStatements = measure(statistics, "SNOWFLAKE (order_items)",
+                () -> orderItemRepository.saveAll(items));
+        List<StockMovement> movements = movements();
+        long movementStatements = measure(statistics, "SNOWFLAKE (stock_movements)",
+                () -> stockMovementRepository.saveAll(movements));
+
+        assertTrue(itemStatements <= ROWS / BATCH_SIZE + 2,
+                "order item inserts should be batched, got " + itemStatements + " statements");
+        assertTrue(movementStatements <= ROWS / BATCH_SIZE + 2,
+                "stock movement inserts should be batched, got " + movementStatements + " statements");
+        assertEquals(ROWS, orderItemRepository.count());
+        assertEquals(ROWS, stockMovementRepository.count());
+    }
+
+    @Test
+    void jdbcBatchWritersSendOneBatch() {
+        CountingDataSource counting = new CountingDataSource(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(counting);
+
+        List<OrderItem> items = orderItems();
+        long start = System.nanoTime();
+        new OrderItemRepositoryCustomImpl(jdbcTemplate, idGenerator).batchInsert(items);
+        System.out.printf("JDBC batch (order placement path): %d rows, %d statements, %d batches, %.1f ms%n",
+                ROWS, counting.prepared.get(), counting.batches.get(), (System.nanoTime() - start) / 1_000_000.0);
+        assertEquals(1, counting.prepared.get());
+        assertEquals(1, counting.batches.get());
+        assertEquals(0, counting.singleUpdates.get());
+
+        counting.reset();
+        List<StockMovement> movements = movements();
+        start = System.nanoTime();
+        new StockMovementRepositoryCustomImpl(jdbcTemplate, idGenerator).batchInsert(movements);
+        System.out.printf("JDBC batch (stock import path): %d rows, %d statements, %d batches, %.1f ms%n",
+                ROWS, counting.prepared.get(), counting.batches.get(), (System.nanoTime() - start) / 1_000_000.0);
+        assertEquals(1, counting.prepared.get());
+        assertEquals(1, counting.batches.get());
+        assertEquals(0, counting.singleUpdates.get());
+
+        HashSet<Long> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.getId()));
+        movements.forEach(movement -> ids.add(movement.getId()));
+        assertEquals(2 * ROWS, ids.size());
+        assertEquals(ROWS, orderItemRepository.count());
+        assertEquals(ROWS, stockMovementRepository.count());
+    }
+
+    private long measure(Statistics statistics, String label, Runnable insert) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        statistics.clear();
+        long start = System.nanoTime();
+        tx.executeWithoutResult(status -> insert.run());
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("%s: %d rows, %d prepared statements, %.1f ms%n",
+                label, ROWS, statements, (System.nanoTime() - start) / 1_000_000.0);
+        return statements;
+    }
+
+    private List<Customer> customers() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            customers.add(Customer.builder().storeId(1L).name("Customer " + i).build());
+        }
+        return customers;
+    }
+
+    private List<OrderItem> orderItems() {
+        orderItemRepository.deleteAllInBatch();
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            items.add(OrderItem.builder()
+                    .orderId(1L)
+                    .productId((long) i)
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .totalAmount(BigDecimal.TEN)
+                    .build());
+        }
+        return items;
+    }
+
+    private List<StockMovement> movements() {
+        stockMovementRepository.deleteAllInBatch();
+        List<StockMovement> movements = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            movements.add(StockMovement.builder()
+                    .storeId(1L)
+                    .productId((long) i)
+                    .type(StockMovement.MovementType.STOCK_IN)
+                    .quantity(1)
+                    .build());
+        }
+        return movements;
+    }
+
+    private List<Debt> debts() {
+        List<Debt> debts = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            debts.add(Debt.builder()
+                    .storeId(1L)
+                    .customerId((long) i)
+                    .originalAmount(BigDecimal.TEN)
+                    .paidAmount(BigDecimal.ZERO)
+                    .unpaidAmount(BigDecimal.TEN)
+                    .status(Debt.DebtStatus.UNPAID)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return debts;
+    }
+
+    /**
+     * Counts prepared statements, executeBatch() and single executeUpdate() calls
+     */
+    private static final class CountingDataSource extends DelegatingDataSource {
+        final AtomicInteger prepared = new AtomicInteger();
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicInteger singleUpdates = new AtomicInteger();
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        void reset() {
+            prepared.set(0);
+            batches.set(0);
+            singleUpdates.set(0);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                            prepared.incrementAndGet();
+                            return count(statement);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement count(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "executeBatch", "executeLargeBatch" -> batches.incrementAndGet();
+                            case "executeUpdate", "executeLargeUpdate", "execute" -> singleUpdates.incrementAndGet();
+                            default -> { }
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.bizflow.backend.infrastructure.sequence;
+
+import com.bizflow.backend.config.AppConfig;
+import com.bizflow.backend.core.domain.Customer;
+import com.bizflow.backend.core.domain.StockMovement;
+import com.bizflow.backend.infrastructure.persistence.repository.CustomerRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepository;
+import com.bizflow.backend.infrastructure.persistence.repository.StockMovementRepositoryCustom.MovementLine;
+import com.bizflow.backend.presentation.dto.response.OrderDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark: Snowflake IDs vs IDENTITY
+ *
+ * - Generator throughput and uniqueness under contention
+ * - Shard prefix distribution (what spreads inserts across TiDB regions)
+ * - Insert throughput of IDENTITY (row by row) vs Snowflake (JDBC batches)
+ *
+ * H2 has no regions, so the insert numbers only show the batching gain,
+ * not the hotspot relief on a real TiDB cluster.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:snowflake_ids;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AppConfig.class, SequenceBlockAllocator.class, PooledIdSource.class, SnowflakeIdGenerator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SnowflakeIdGeneratorBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 100_000;
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Test
+    void generatesUniqueIdsSpreadOverAllShards() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, 4);
+        Set<Long> ids = ConcurrentHashMap.newKeySet(THREADS * IDS_PER_THREAD);
+        long[] shardCounts = new long[16];
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<long[]> perThread = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long[] generated = new long[IDS_PER_THREAD];
+            perThread.add(generated);
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    generated[i] = generator.nextId();
+                }
+                return null;
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+        for (long[] generated : perThread) {
+            for (long id : generated) {
+                assertTrue(id > 0, "IDs must stay positive");
+                ids.add(id);
+                shardCounts[SnowflakeIdGenerator.shardOf(id)]++;
+            }
+        }
+
+        int total = THREADS * IDS_PER_THREAD;
+        System.out.printf("Snowflake: %d ids from %d threads in %.2f s (%.0f ids/s)%n",
+                total, THREADS, seconds, total / seconds);
+        assertEquals(total, ids.size(), "duplicate IDs generated");
+        for (int shard = 0; shard < shardCounts.length; shard++) {
+            assertEquals(total / 16.0, shardCounts[shard], total / 16.0 * 0.05,
+                    "shard " + shard + " is unevenly used");
+        }
+    }
+
+    @Test
+    void shardBitsCanBeDisabledForTimeOrderedIds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 0);
+        long previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertEquals(0, SnowflakeIdGenerator.shardOf(id));
+            assertTrue(id > previous, "IDs without shard bits must be increasing");
+            previous = id;
+        }
+    }
+
+    @Test
+    void nodeIdMustBeSetExplicitly() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024, 4));
+    }
+
+    @Test
+    void idsAboveDoublePrecisionAreSentAsJsonStrings() throws Exception {
+        long id = new SnowflakeIdGenerator(1023, 4).nextId();
+        assertTrue(id > (1L << 53), "Snowflake IDs exceed the exact range of JavaScript numbers");
+
+        ObjectMapper mapper = new ObjectMapper();
+        OrderDTO order = OrderDTO.builder()
+                .id(id)
+                .items(List.of(OrderDTO.OrderItemDTO.builder().id(id + 1).productId(5L).build()))
+                .build();
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(order));
+        assertEquals(String.valueOf(id), json.get("id").textValue());
+        assertEquals(String.valueOf(id + 1), json.get("items").get(0).get("id").textValue());
+        assertTrue(json.get("items").get(0).get("productId").isNumber());
+
+        MovementLine line = new MovementLine(id, StockMovement.MovementType.SALE, -1, 0, null, null, id + 2,
+                "ORDER", null, null);
+        json = mapper.readTree(mapper.writeValueAsString(line));
+        assertEquals(String.valueOf(id), json.get("id").textValue());
+        assertEquals(String.valueOf(id + 2), json.get("referenceId").textValue());
+    }
+
+    @Test
+    void snowflakeInsertsOutpaceIdentityInserts() {
+        double identityRate = measure("IDENTITY (customers, saveAll)",
+                () -> customerRepository.saveAll(customers()));
+        double snowflakeRate = measure("SNOWFLAKE (stock_movements, JDBC batch)",
+                () -> stockMovementRepository.batchInsert(movements()));
+
+        assertEquals(ROWS, stockMovementRepository.count());
+        System.out.printf("Snowflake / IDENTITY insert rate: %.1fx%n", snowflakeRate / identityRate);
+    }
+
+    private double measure(String label, Runnable insert) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        tx.executeWithoutResult(status -> insert.run());
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double rate = ROWS / seconds;
+        System.out.printf("%s: %d rows in %.1f ms (%.0f rows/s)%n", label, ROWS, seconds * 1000, rate);
+        return rate;
+    }
+
+    private List<Customer> customers() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            customers.add(Customer.builder().storeId(1L).name("Customer " + i).build());
+        }
+        return customers;
+    }
+
+    private List<StockMovement> movements() {
+        List<StockMovement> movements = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            movements.add(StockMovement.builder()
+                    .storeId(1L)
+                    .productId((long) i)
+                    .type(StockMovement.MovementType.STOCK_IN)
+                    .quantity(10)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return movements;
+    }
+}
@@ -35,7 +35,7 @@ export interface PageResponse<T> {
 // Bổ sung vào file types/api.ts hiện có
 
 export interface Order {
-  id: number;
+  id: string; // Snowflake ID (64-bit), sent as string by the API
   orderCode: string;
   customerId?: number;
   customerName?: string;
@@ -60,7 +60,7 @@ export interface Order {
 }
 
 export interface OrderItem {
-  id: number;
+  id: string; // Snowflake ID (64-bit), sent as string by the API
   productId: number;
   productName: string;
   quantity: number;